@@ -25,10 +25,13 @@ public interface CustomerEventConstants {
 
   String SELECTOR_NAME = "action";
 
+  String DEDUPE_ID = "dedupeId";
+
   String INITIALIZE = "initialize";
 
   String POST_CUSTOMER = "post-customer";
   String PUT_CUSTOMER = "put-customer";
+  String POST_CUSTOMERS = "post-customers";
   String PUT_ADDRESS = "put-address";
   String PUT_CONTACT_DETAILS = "put-contact-details";
   String POST_IDENTIFICATION_CARD = "post-identification-card";
@@ -61,6 +64,7 @@ public interface CustomerEventConstants {
 
   String SELECTOR_POST_CUSTOMER = SELECTOR_NAME + " = '" + POST_CUSTOMER + "'";
   String SELECTOR_PUT_CUSTOMER = SELECTOR_NAME + " = '" + PUT_CUSTOMER + "'";
+  String SELECTOR_POST_CUSTOMERS = SELECTOR_NAME + " = '" + POST_CUSTOMERS + "'";
   String SELECTOR_PUT_ADDRESS = SELECTOR_NAME + " = '" + PUT_ADDRESS + "'";
   String SELECTOR_PUT_CONTACT_DETAILS = SELECTOR_NAME + " = '" + PUT_CONTACT_DETAILS + "'";
 
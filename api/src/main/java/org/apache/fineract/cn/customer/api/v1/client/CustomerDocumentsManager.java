@@ -25,10 +25,13 @@ import org.apache.fineract.cn.api.annotation.ThrowsException;
 import org.apache.fineract.cn.api.annotation.ThrowsExceptions;
 import org.hibernate.validator.constraints.Range;
 import org.springframework.cloud.netflix.feign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.multipart.MultipartFile;
@@ -152,6 +155,21 @@ public interface CustomerDocumentsManager {
       @PathVariable("documentidentifier") final String documentIdentifier,
       @PathVariable("pagenumber") final Integer pageNumber);
 
+  @RequestMapping(
+      value = "/customers/{customeridentifier}/documents/{documentidentifier}/pages/{pagenumber}",
+      method = RequestMethod.GET,
+      produces = MediaType.ALL_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.NOT_MODIFIED, exception = ContentNotModifiedException.class)
+  })
+  ResponseEntity<byte[]> getDocumentPage(
+      @PathVariable("customeridentifier") final String customerIdentifier,
+      @PathVariable("documentidentifier") final String documentIdentifier,
+      @PathVariable("pagenumber") final Integer pageNumber,
+      @RequestHeader(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch);
+
 
 
   @RequestMapping(
@@ -170,6 +188,23 @@ public interface CustomerDocumentsManager {
       @PathVariable("pagenumber") @Range(min=0) final Integer pageNumber,
       @RequestBody final MultipartFile page);
 
+  @RequestMapping(
+      value = "/customers/{customeridentifier}/documents/{documentidentifier}/pages/{pagenumber}",
+      method = RequestMethod.POST,
+      produces = MediaType.ALL_VALUE,
+      consumes = MediaType.MULTIPART_FORM_DATA_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.CONFLICT, exception = CompletedDocumentCannotBeChangedException.class),
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = DocumentValidationException.class),
+  })
+  ResponseEntity<Void> createDocumentPage(
+      @PathVariable("customeridentifier") final String customerIdentifier,
+      @PathVariable("documentidentifier") final String documentIdentifier,
+      @PathVariable("pagenumber") @Range(min=0) final Integer pageNumber,
+      @RequestBody final MultipartFile page,
+      @RequestHeader("Prefer") final String prefer);
+
 
   @RequestMapping(
       value = "/customers/{customeridentifier}/documents/{documentidentifier}/pages/{pagenumber}",
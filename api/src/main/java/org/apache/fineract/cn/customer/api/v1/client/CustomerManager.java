@@ -23,21 +23,29 @@ import org.apache.fineract.cn.customer.api.v1.domain.Address;
 import org.apache.fineract.cn.customer.api.v1.domain.Command;
 import org.apache.fineract.cn.customer.api.v1.domain.ContactDetail;
 import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerChangePage;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerImportReport;
 import org.apache.fineract.cn.customer.api.v1.domain.CustomerPage;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerStatistics;
 import org.apache.fineract.cn.customer.api.v1.domain.IdentificationCard;
 import org.apache.fineract.cn.customer.api.v1.domain.IdentificationCardScan;
+import org.apache.fineract.cn.customer.api.v1.domain.NonPerson;
 import org.apache.fineract.cn.customer.api.v1.domain.ProcessStep;
 import org.apache.fineract.cn.customer.api.v1.domain.TaskDefinition;
 import java.util.List;
+import java.util.Map;
 import javax.validation.constraints.Size;
 import org.apache.fineract.cn.api.annotation.ThrowsException;
 import org.apache.fineract.cn.api.annotation.ThrowsExceptions;
 import org.apache.fineract.cn.lang.validation.constraints.ValidIdentifier;
 import org.springframework.cloud.netflix.feign.FeignClient;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
@@ -59,6 +67,64 @@ public interface CustomerManager {
   })
   void createCustomer(@RequestBody final Customer customer);
 
+  @RequestMapping(
+      value = "/customers",
+      method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.CONFLICT, exception = CustomerAlreadyExistsException.class),
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CustomerValidationException.class)
+  })
+  ResponseEntity<Customer> createCustomer(@RequestBody final Customer customer,
+                                          @RequestHeader("Prefer") final String prefer);
+
+  @RequestMapping(
+      value = "/customers/bulk",
+      method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CustomerValidationException.class)
+  })
+  CustomerImportReport createCustomers(@RequestBody final List<Customer> customers);
+
+  @RequestMapping(
+      value = "/person/batch",
+      method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CustomerValidationException.class)
+  })
+  CustomerImportReport createPersons(@RequestBody final List<NonPerson> nonPersons);
+
+  @RequestMapping(
+      value = "/customers:changes",
+      method = RequestMethod.GET,
+      produces = MediaType.ALL_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  CustomerChangePage fetchCustomerChanges(@RequestParam(value = "after", required = false) final Long after,
+                                          @RequestParam(value = "limit", required = false) final Integer limit);
+
+  @RequestMapping(
+      value = "/customers:statistics",
+      method = RequestMethod.GET,
+      produces = MediaType.ALL_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CustomerValidationException.class)
+  })
+  CustomerStatistics fetchCustomerStatistics(@RequestParam(value = "groupBy") final String groupBy,
+                                             @RequestParam(value = "catalog", required = false) final String catalog,
+                                             @RequestParam(value = "field", required = false) final String field,
+                                             @RequestParam(value = "cohortYears", required = false) final Integer cohortYears);
+
   @RequestMapping(
       value = "/customers",
       method = RequestMethod.GET,
@@ -72,6 +138,37 @@ public interface CustomerManager {
                               @RequestParam(value = "sortColumn", required = false) final String sortColumn,
                               @RequestParam(value = "sortDirection", required = false) final String sortDirection);
 
+  @RequestMapping(
+      value = "/customers",
+      method = RequestMethod.GET,
+      produces = MediaType.ALL_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  CustomerPage fetchCustomers(@RequestParam(value = "term", required = false) final String term,
+                              @RequestParam(value = "includeClosed", required = false) final Boolean includeClosed,
+                              @RequestParam(value = "pageIndex", required = false) final Integer pageIndex,
+                              @RequestParam(value = "size", required = false) final Integer size,
+                              @RequestParam(value = "sortColumn", required = false) final String sortColumn,
+                              @RequestParam(value = "sortDirection", required = false) final String sortDirection,
+                              @RequestParam(value = "cursor", required = false) final String cursor,
+                              @RequestParam(value = "withTotals", required = false) final Boolean withTotals);
+
+  @RequestMapping(
+      value = "/customers",
+      method = RequestMethod.GET,
+      produces = MediaType.ALL_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  CustomerPage fetchCustomers(@RequestParam(value = "term", required = false) final String term,
+                              @RequestParam(value = "includeClosed", required = false) final Boolean includeClosed,
+                              @RequestParam(value = "pageIndex", required = false) final Integer pageIndex,
+                              @RequestParam(value = "size", required = false) final Integer size,
+                              @RequestParam(value = "sortColumn", required = false) final String sortColumn,
+                              @RequestParam(value = "sortDirection", required = false) final String sortDirection,
+                              @RequestParam(value = "cursor", required = false) final String cursor,
+                              @RequestParam(value = "withTotals", required = false) final Boolean withTotals,
+                              @RequestParam(value = "fields", required = false) final String fields);
+
   @RequestMapping(
       value = "/customers/{identifier}",
       method = RequestMethod.GET,
@@ -81,6 +178,32 @@ public interface CustomerManager {
   @ThrowsException(status = HttpStatus.NOT_FOUND, exception = CustomerNotFoundException.class)
   Customer findCustomer(@PathVariable("identifier") final String identifier);
 
+  /**
+   * @return the customers as newline delimited JSON, one customer per line
+   */
+  @RequestMapping(
+      value = "/customers:export",
+      method = RequestMethod.GET,
+      produces = MediaType.ALL_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  byte[] exportCustomers(@RequestParam(value = "modifiedSince", required = false) final String modifiedSince,
+                         @RequestParam(value = "includeDetails", required = false) final Boolean includeDetails);
+
+  @RequestMapping(
+      value = "/customers:batchGet",
+      method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CustomerValidationException.class)
+  List<Customer> findCustomers(@RequestBody final List<String> identifiers,
+                               @RequestParam(value = "fields", required = false) final String fields);
+
+  default List<Customer> findCustomers(final List<String> identifiers) {
+    return this.findCustomers(identifiers, null);
+  }
+
   default boolean isCustomerInGoodStanding(final String customerIdentifier) {
     final Customer customer;
     try {
@@ -101,10 +224,26 @@ public interface CustomerManager {
   )
   @ThrowsExceptions({
       @ThrowsException(status = HttpStatus.NOT_FOUND, exception = CustomerNotFoundException.class),
-      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CustomerValidationException.class)
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CustomerValidationException.class),
+      @ThrowsException(status = HttpStatus.CONFLICT, exception = CustomerChangedException.class)
   })
   void updateCustomer(@PathVariable("identifier") final String identifier, @RequestBody final Customer customer);
 
+  @RequestMapping(
+      value = "/customers/{identifier}",
+      method = RequestMethod.PUT,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.NOT_FOUND, exception = CustomerNotFoundException.class),
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CustomerValidationException.class),
+      @ThrowsException(status = HttpStatus.CONFLICT, exception = CustomerChangedException.class)
+  })
+  ResponseEntity<Customer> updateCustomer(@PathVariable("identifier") final String identifier,
+                                          @RequestBody final Customer customer,
+                                          @RequestHeader("Prefer") final String prefer);
+
   @RequestMapping(
       value = "/customers/{identifier}/commands",
       method = RequestMethod.POST,
@@ -117,6 +256,20 @@ public interface CustomerManager {
   })
   void customerCommand(@PathVariable("identifier") final String identifier, @RequestBody final Command command);
 
+  @RequestMapping(
+      value = "/customers/{identifier}/commands",
+      method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+      @ThrowsException(status = HttpStatus.NOT_FOUND, exception = CustomerNotFoundException.class),
+      @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CommandExecutionException.class)
+  })
+  ResponseEntity<Customer> customerCommand(@PathVariable("identifier") final String identifier,
+                                           @RequestBody final Command command,
+                                           @RequestHeader("Prefer") final String prefer);
+
   @RequestMapping(
       value = "/customers/{identifier}/commands",
       method = RequestMethod.GET,
@@ -286,6 +439,21 @@ public interface CustomerManager {
                                           @PathVariable("number") final String number,
                                           @PathVariable("scanIdentifier") final String scanIdentifier);
 
+  @RequestMapping(
+          value = "/customers/{identifier}/identifications/{number}/scans/{scanIdentifier}/image",
+          method = RequestMethod.GET,
+          produces = MediaType.ALL_VALUE,
+          consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsExceptions({
+          @ThrowsException(status = HttpStatus.NOT_FOUND, exception = ScanNotFoundException.class),
+          @ThrowsException(status = HttpStatus.NOT_MODIFIED, exception = ContentNotModifiedException.class)
+  })
+  ResponseEntity<byte[]> fetchIdentificationCardScanImage(@PathVariable("identifier") final String identifier,
+                                                          @PathVariable("number") final String number,
+                                                          @PathVariable("scanIdentifier") final String scanIdentifier,
+                                                          @RequestHeader(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch);
+
   @RequestMapping(
           value = "/customers/{identifier}/identifications/{number}/scans",
           method = RequestMethod.POST,
@@ -323,6 +491,30 @@ public interface CustomerManager {
   })
   byte[] getPortrait(@PathVariable("identifier") final String identifier);
 
+  @RequestMapping(
+          value = "/customers/{identifier}/portrait",
+          method = RequestMethod.GET,
+          produces = MediaType.ALL_VALUE
+  )
+  @ThrowsExceptions({
+          @ThrowsException(status = HttpStatus.NOT_FOUND, exception = PortraitNotFoundException.class),
+          @ThrowsException(status = HttpStatus.NOT_MODIFIED, exception = ContentNotModifiedException.class)
+  })
+  ResponseEntity<byte[]> getPortrait(@PathVariable("identifier") final String identifier,
+                                     @RequestHeader(HttpHeaders.IF_NONE_MATCH) final String ifNoneMatch);
+
+  @RequestMapping(
+          value = "/customers/{identifier}/portrait",
+          method = RequestMethod.GET,
+          produces = MediaType.ALL_VALUE
+  )
+  @ThrowsExceptions({
+          @ThrowsException(status = HttpStatus.NOT_FOUND, exception = PortraitNotFoundException.class),
+          @ThrowsException(status = HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE, exception = RangeNotSatisfiableException.class)
+  })
+  ResponseEntity<byte[]> getPortraitRange(@PathVariable("identifier") final String identifier,
+                                          @RequestHeader(HttpHeaders.RANGE) final String range);
+
   @RequestMapping(
           value = "/customers/{identifier}/portrait",
           method = RequestMethod.POST,
@@ -336,6 +528,20 @@ public interface CustomerManager {
   void postPortrait(@PathVariable("identifier") final String identifier,
                    @RequestBody final MultipartFile portrait);
 
+  @RequestMapping(
+          value = "/customers/{identifier}/portrait",
+          method = RequestMethod.POST,
+          produces = MediaType.ALL_VALUE,
+          consumes = MediaType.MULTIPART_FORM_DATA_VALUE
+  )
+  @ThrowsExceptions({
+          @ThrowsException(status = HttpStatus.NOT_FOUND, exception = CustomerNotFoundException.class),
+          @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = DocumentValidationException.class),
+  })
+  ResponseEntity<Void> postPortrait(@PathVariable("identifier") final String identifier,
+                                    @RequestBody final MultipartFile portrait,
+                                    @RequestHeader("Prefer") final String prefer);
+
   @RequestMapping(
           value = "/customers/{identifier}/portrait",
           method = RequestMethod.DELETE,
@@ -393,4 +599,13 @@ public interface CustomerManager {
   )
   @ThrowsException(status = HttpStatus.NOT_FOUND, exception = CustomerNotFoundException.class)
   List<ProcessStep> fetchProcessSteps(@PathVariable(value = "identifier") final String customerIdentifier);
+
+  @RequestMapping(
+      value = "/customers/actions:batch",
+      method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  @ThrowsException(status = HttpStatus.BAD_REQUEST, exception = CustomerValidationException.class)
+  Map<String, List<ProcessStep>> fetchProcessSteps(@RequestBody final List<String> customerIdentifiers);
 }
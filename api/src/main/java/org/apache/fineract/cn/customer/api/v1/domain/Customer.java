@@ -70,6 +70,7 @@ public final class Customer {
   private String createdOn;
   private String lastModifiedBy;
   private String lastModifiedOn;
+  private Long version;
 
   public Customer() {
     super();
@@ -84,11 +85,11 @@ public final class Customer {
   }
 
   public String getType() {
-    return this.type.name();
+    return this.type != null ? this.type.name() : null;
   }
 
   public void setType(final String type) {
-    this.type = Type.valueOf(type);
+    this.type = type != null ? Type.valueOf(type) : null;
   }
 
   public String getGivenName() {
@@ -234,4 +235,12 @@ public final class Customer {
   public void setLastModifiedOn(final String lastModifiedOn) {
     this.lastModifiedOn = lastModifiedOn;
   }
+
+  public Long getVersion() {
+    return this.version;
+  }
+
+  public void setVersion(final Long version) {
+    this.version = version;
+  }
 }
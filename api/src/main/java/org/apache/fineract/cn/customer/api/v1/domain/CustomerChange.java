@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.api.v1.domain;
+
+public class CustomerChange {
+
+  private Long offset;
+  private String action;
+  private Customer customer;
+  private String changedBy;
+  private String changedOn;
+
+  public CustomerChange() {
+    super();
+  }
+
+  /**
+   * @return the position of the change in the feed, shared by all changes a single command made
+   */
+  public Long getOffset() {
+    return this.offset;
+  }
+
+  public void setOffset(final Long offset) {
+    this.offset = offset;
+  }
+
+  public String getAction() {
+    return this.action;
+  }
+
+  public void setAction(final String action) {
+    this.action = action;
+  }
+
+  public Customer getCustomer() {
+    return this.customer;
+  }
+
+  public void setCustomer(final Customer customer) {
+    this.customer = customer;
+  }
+
+  public String getChangedBy() {
+    return this.changedBy;
+  }
+
+  public void setChangedBy(final String changedBy) {
+    this.changedBy = changedBy;
+  }
+
+  public String getChangedOn() {
+    return this.changedOn;
+  }
+
+  public void setChangedOn(final String changedOn) {
+    this.changedOn = changedOn;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.api.v1.domain;
+
+import java.util.List;
+
+public class CustomerChangePage {
+
+  private List<CustomerChange> changes;
+  private Long lastOffset;
+
+  public CustomerChangePage() {
+    super();
+  }
+
+  public List<CustomerChange> getChanges() {
+    return this.changes;
+  }
+
+  public void setChanges(final List<CustomerChange> changes) {
+    this.changes = changes;
+  }
+
+  /**
+   * @return the offset to pass as {@code after} to continue reading, unchanged if there were no changes
+   */
+  public Long getLastOffset() {
+    return this.lastOffset;
+  }
+
+  public void setLastOffset(final Long lastOffset) {
+    this.lastOffset = lastOffset;
+  }
+}
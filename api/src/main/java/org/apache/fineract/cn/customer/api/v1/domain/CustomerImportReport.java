@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.api.v1.domain;
+
+import java.util.List;
+
+public class CustomerImportReport {
+
+  private Integer created;
+  private Integer rejected;
+  private List<CustomerImportResult> results;
+
+  public CustomerImportReport() {
+    super();
+  }
+
+  public Integer getCreated() {
+    return this.created;
+  }
+
+  public void setCreated(final Integer created) {
+    this.created = created;
+  }
+
+  public Integer getRejected() {
+    return this.rejected;
+  }
+
+  public void setRejected(final Integer rejected) {
+    this.rejected = rejected;
+  }
+
+  public List<CustomerImportResult> getResults() {
+    return this.results;
+  }
+
+  public void setResults(final List<CustomerImportResult> results) {
+    this.results = results;
+  }
+}
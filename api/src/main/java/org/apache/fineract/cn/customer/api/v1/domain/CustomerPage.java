@@ -25,6 +25,7 @@ public class CustomerPage {
   private List<Customer> customers;
   private Integer totalPages;
   private Long totalElements;
+  private String nextCursor;
 
   public CustomerPage() {
     super();
@@ -53,4 +54,12 @@ public class CustomerPage {
   public void setTotalElements(final Long totalElements) {
     this.totalElements = totalElements;
   }
+
+  public String getNextCursor() {
+    return this.nextCursor;
+  }
+
+  public void setNextCursor(final String nextCursor) {
+    this.nextCursor = nextCursor;
+  }
 }
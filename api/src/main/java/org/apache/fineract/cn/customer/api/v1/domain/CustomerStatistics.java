@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.api.v1.domain;
+
+import java.util.List;
+
+public class CustomerStatistics {
+
+  private List<String> dimensions;
+  private Long total;
+  private List<CustomerStatisticsGroup> groups;
+  private Long lastOffset;
+
+  public CustomerStatistics() {
+    super();
+  }
+
+  public List<String> getDimensions() {
+    return this.dimensions;
+  }
+
+  public void setDimensions(final List<String> dimensions) {
+    this.dimensions = dimensions;
+  }
+
+  public Long getTotal() {
+    return this.total;
+  }
+
+  public void setTotal(final Long total) {
+    this.total = total;
+  }
+
+  public List<CustomerStatisticsGroup> getGroups() {
+    return this.groups;
+  }
+
+  public void setGroups(final List<CustomerStatisticsGroup> groups) {
+    this.groups = groups;
+  }
+
+  /**
+   * @return the offset of the last customer change the statistics include
+   */
+  public Long getLastOffset() {
+    return this.lastOffset;
+  }
+
+  public void setLastOffset(final Long lastOffset) {
+    this.lastOffset = lastOffset;
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.api.v1.domain;
+
+import java.util.List;
+
+public class CustomerStatisticsGroup {
+
+  private List<String> values;
+  private Long count;
+
+  public CustomerStatisticsGroup() {
+    super();
+  }
+
+  /**
+   * @return the value of each dimension, in the order the dimensions were requested, null if not set
+   */
+  public List<String> getValues() {
+    return this.values;
+  }
+
+  public void setValues(final List<String> values) {
+    this.values = values;
+  }
+
+  public Long getCount() {
+    return this.count;
+  }
+
+  public void setCount(final Long count) {
+    this.count = count;
+  }
+}
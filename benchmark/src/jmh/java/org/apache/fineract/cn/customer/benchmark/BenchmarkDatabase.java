@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import com.opentable.db.postgres.embedded.EmbeddedPostgres;
+import org.flywaydb.core.Flyway;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.Closeable;
+import java.io.IOException;
+
+/**
+ * An embedded PostgreSQL instance migrated with the service's own Flyway scripts, plus the
+ * {@link BenchmarkPersistenceConfiguration} context on top of it.
+ */
+final class BenchmarkDatabase implements Closeable {
+
+  private final EmbeddedPostgres embeddedPostgres;
+  private final AnnotationConfigApplicationContext applicationContext;
+
+  private BenchmarkDatabase(final EmbeddedPostgres embeddedPostgres,
+                            final AnnotationConfigApplicationContext applicationContext) {
+    super();
+    this.embeddedPostgres = embeddedPostgres;
+    this.applicationContext = applicationContext;
+  }
+
+  static BenchmarkDatabase start() throws IOException {
+    final EmbeddedPostgres embeddedPostgres = EmbeddedPostgres.start();
+    final DataSource dataSource = embeddedPostgres.getPostgresDatabase();
+
+    final Flyway flyway = new Flyway();
+    flyway.setDataSource(dataSource);
+    flyway.setLocations("db/migrations/postgresql");
+    flyway.migrate();
+
+    final AnnotationConfigApplicationContext applicationContext = new AnnotationConfigApplicationContext();
+    applicationContext.getBeanFactory().registerSingleton("dataSource", dataSource);
+    applicationContext.register(BenchmarkPersistenceConfiguration.class);
+    applicationContext.refresh();
+
+    return new BenchmarkDatabase(embeddedPostgres, applicationContext);
+  }
+
+  AnnotationConfigApplicationContext getApplicationContext() {
+    return this.applicationContext;
+  }
+
+  <T> T getBean(final Class<T> beanType) {
+    return this.applicationContext.getBean(beanType);
+  }
+
+  TransactionTemplate transaction() {
+    return new TransactionTemplate(this.applicationContext.getBean(PlatformTransactionManager.class));
+  }
+
+  TransactionTemplate readOnlyTransaction() {
+    final TransactionTemplate transaction = this.transaction();
+    transaction.setReadOnly(true);
+    return transaction;
+  }
+
+  @Override
+  public void close() throws IOException {
+    this.applicationContext.close();
+    this.embeddedPostgres.close();
+  }
+}
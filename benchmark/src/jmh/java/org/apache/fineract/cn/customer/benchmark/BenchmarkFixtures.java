@@ -0,0 +1,293 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import org.apache.fineract.cn.customer.api.v1.domain.Address;
+import org.apache.fineract.cn.customer.api.v1.domain.ContactDetail;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.catalog.api.v1.domain.Field;
+import org.apache.fineract.cn.customer.catalog.api.v1.domain.Value;
+import org.apache.fineract.cn.customer.catalog.internal.repository.CatalogEntity;
+import org.apache.fineract.cn.customer.catalog.internal.repository.CatalogRepository;
+import org.apache.fineract.cn.customer.catalog.internal.repository.FieldEntity;
+import org.apache.fineract.cn.customer.catalog.internal.repository.OptionEntity;
+import org.apache.fineract.cn.customer.internal.repository.CustomerRepository;
+import org.apache.fineract.cn.customer.internal.repository.DocumentEntity;
+import org.apache.fineract.cn.customer.internal.repository.DocumentPageEntity;
+import org.apache.fineract.cn.customer.internal.repository.DocumentPageRepository;
+import org.apache.fineract.cn.customer.internal.repository.DocumentRepository;
+import org.apache.fineract.cn.lang.DateOfBirth;
+import org.springframework.context.ApplicationContext;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.stream.Collectors;
+
+final class BenchmarkFixtures {
+
+  static final String TENANT = "benchmark";
+  static final String USER = "benchmark";
+  static final String CATALOG = "kyc";
+
+  private static final int SEED_BATCH_SIZE = 100000;
+
+  private static final String[] GIVEN_NAMES = {
+      "Anna", "Emma", "Mia", "Sofia", "Hannah", "Lena", "Laura", "Lea", "Marie", "Julia",
+      "Clara", "Ella", "Lina", "Amelie", "Emilia", "Maria", "Nora", "Ida", "Paula", "Greta",
+      "Ben", "Paul", "Jonas", "Elias", "Leon", "Finn", "Noah", "Luis", "Felix", "Lukas",
+      "Henry", "Maximilian", "Emil", "Anton", "Theo", "Jakob", "Moritz", "David", "Oskar", "Samuel"
+  };
+
+  private static final String[] SURNAMES = {
+      "Mueller", "Schmidt", "Schneider", "Fischer", "Weber", "Meyer", "Wagner", "Becker", "Schulz", "Hoffmann",
+      "Schaefer", "Koch", "Bauer", "Richter", "Klein", "Wolf", "Schroeder", "Neumann", "Schwarz", "Zimmermann",
+      "Braun", "Krueger", "Hofmann", "Hartmann", "Lange", "Schmitt", "Werner", "Schmitz", "Krause", "Meier",
+      "Lehmann", "Schmid", "Schulze", "Maier", "Koehler", "Herrmann", "Koenig", "Walter", "Mayer", "Huber",
+      "Kaiser", "Fuchs", "Peters", "Lang", "Scholz", "Moeller", "Weiss", "Jung", "Hahn", "Schubert"
+  };
+
+  private BenchmarkFixtures() {
+    super();
+  }
+
+  static Customer createCustomer(final String identifier) {
+    final Customer customer = new Customer();
+    customer.setIdentifier(identifier);
+    customer.setType(Customer.Type.PERSON.name());
+    customer.setGivenName("Given " + identifier);
+    customer.setMiddleName("Middle " + identifier);
+    customer.setSurname("Surname " + identifier);
+    customer.setDateOfBirth(DateOfBirth.fromLocalDate(LocalDate.of(1980, 4, 17)));
+    customer.setMember(Boolean.TRUE);
+    customer.setAssignedOffice("office01");
+    customer.setAssignedEmployee("employee01");
+    customer.setCurrentState(Customer.State.PENDING.name());
+    customer.setApplicationDate("2018-06-01");
+
+    final Address address = new Address();
+    address.setStreet("Hauptstrasse 42");
+    address.setCity("Berlin");
+    address.setPostalCode("10115");
+    address.setRegion("Berlin");
+    address.setCountryCode("DE");
+    address.setCountry("Germany");
+    customer.setAddress(address);
+
+    final ContactDetail email = new ContactDetail();
+    email.setType(ContactDetail.Type.EMAIL.name());
+    email.setGroup(ContactDetail.Group.PRIVATE.name());
+    email.setValue(identifier.toLowerCase() + "@example.com");
+    email.setPreferenceLevel(1);
+    final ContactDetail phone = new ContactDetail();
+    phone.setType(ContactDetail.Type.PHONE.name());
+    phone.setGroup(ContactDetail.Group.BUSINESS.name());
+    phone.setValue("0301234567");
+    phone.setPreferenceLevel(2);
+    customer.setContactDetails(Arrays.asList(email, phone));
+
+    return customer;
+  }
+
+  static String identifier(final int index) {
+    return String.format("bench%08d", index);
+  }
+
+  static String givenName(final int index) {
+    return GIVEN_NAMES[index % GIVEN_NAMES.length];
+  }
+
+  static String surname(final int index) {
+    return SURNAMES[(index / GIVEN_NAMES.length) % SURNAMES.length];
+  }
+
+  /**
+   * Stores the given number of customers, each with its own address, using set based inserts of
+   * {@value #SEED_BATCH_SIZE} rows per statement so that millions of rows can be seeded in minutes.
+   * Names are drawn from {@link #givenName(int)} and {@link #surname(int)}, so customers share names
+   * the way real ones do.
+   */
+  static void seedCustomers(final ApplicationContext applicationContext, final int customerCount) {
+    final JdbcTemplate jdbcTemplate = new JdbcTemplate(applicationContext.getBean(DataSource.class));
+    final String statement =
+        "WITH seed AS (SELECT i, nextval('maat_addresses_id_seq') AS address_id FROM generate_series(?, ?) i)," +
+        " addresses AS (INSERT INTO maat_addresses (id, street, city, postal_code, region, country_code, country)" +
+        " SELECT address_id, 'Hauptstrasse 42', 'Berlin', '10115', 'Berlin', 'DE', 'Germany' FROM seed)" +
+        " INSERT INTO maat_customers (identifier, a_type, given_name, middle_name, surname, date_of_birth," +
+        " is_member, assigned_office, assigned_employee, current_state, application_date, address_id," +
+        " created_by, created_on)" +
+        " SELECT 'bench' || lpad(i::text, 8, '0'), 'PERSON'," +
+        " (" + BenchmarkFixtures.sqlArray(GIVEN_NAMES) + ")[1 + i % " + GIVEN_NAMES.length + "], NULL," +
+        " (" + BenchmarkFixtures.sqlArray(SURNAMES) + ")[1 + (i / " + GIVEN_NAMES.length + ") % " + SURNAMES.length + "]," +
+        " DATE '1980-04-17', TRUE, 'office' || lpad((i % 20)::text, 2, '0'), 'employee01', 'PENDING'," +
+        " DATE '2018-06-01', address_id, '" + USER + "', now()" +
+        " FROM seed";
+    for (int from = 0; from < customerCount; from += SEED_BATCH_SIZE) {
+      jdbcTemplate.update(statement, from, Math.min(from + SEED_BATCH_SIZE, customerCount) - 1);
+    }
+    jdbcTemplate.execute("ANALYZE maat_customers");
+    jdbcTemplate.execute("ANALYZE maat_addresses");
+  }
+
+  /**
+   * Stores a customer with a document whose pages were uploaded in random order, so the service
+   * has to sort them.
+   */
+  static void seedDocument(final ApplicationContext applicationContext, final String documentIdentifier,
+                           final int pageCount) {
+    BenchmarkFixtures.seedCustomers(applicationContext, 1);
+    final TransactionTemplate transaction =
+        new TransactionTemplate(applicationContext.getBean(PlatformTransactionManager.class));
+    transaction.execute(status -> {
+      final DocumentEntity documentEntity = new DocumentEntity();
+      documentEntity.setCustomer(applicationContext.getBean(CustomerRepository.class)
+          .findByIdentifier(BenchmarkFixtures.identifier(0)).orElseThrow(IllegalStateException::new));
+      documentEntity.setIdentifier(documentIdentifier);
+      documentEntity.setCompleted(Boolean.FALSE);
+      documentEntity.setCreatedBy(USER);
+      documentEntity.setCreatedOn(LocalDateTime.now(Clock.systemUTC()));
+      applicationContext.getBean(DocumentRepository.class).save(documentEntity);
+
+      final List<Integer> pageNumbers = new ArrayList<>(pageCount);
+      for (int i = 0; i < pageCount; i++) {
+        pageNumbers.add(i);
+      }
+      Collections.shuffle(pageNumbers, new Random(42L));
+      final DocumentPageRepository documentPageRepository = applicationContext.getBean(DocumentPageRepository.class);
+      pageNumbers.forEach(pageNumber -> {
+        final DocumentPageEntity documentPageEntity = new DocumentPageEntity();
+        documentPageEntity.setDocument(documentEntity);
+        documentPageEntity.setPageNumber(pageNumber);
+        documentPageEntity.setContentType("image/png");
+        documentPageEntity.setSize(1024L);
+        documentPageEntity.setBlobKey("page" + pageNumber);
+        documentPageEntity.setCreatedOn(documentEntity.getCreatedOn());
+        documentPageRepository.save(documentPageEntity);
+      });
+      return null;
+    });
+  }
+
+  /**
+   * Stores the catalog created by {@link #createCatalogFields()} together with its fields and options.
+   */
+  static void seedCatalog(final ApplicationContext applicationContext, final List<FieldEntity> fields) {
+    final TransactionTemplate transaction =
+        new TransactionTemplate(applicationContext.getBean(PlatformTransactionManager.class));
+    transaction.execute(status ->
+        applicationContext.getBean(CatalogRepository.class).save(fields.get(0).getCatalog()));
+  }
+
+  /**
+   * A catalog of the kind seen in KYC setups: a handful of text and number fields, dates and a few
+   * selections with a dozen options each.
+   */
+  static List<FieldEntity> createCatalogFields() {
+    final CatalogEntity catalogEntity = new CatalogEntity();
+    catalogEntity.setName("Know your customer");
+    catalogEntity.setIdentifier(CATALOG);
+
+    final ArrayList<FieldEntity> fields = new ArrayList<>();
+    for (int i = 0; i < 8; i++) {
+      fields.add(BenchmarkFixtures.createField(catalogEntity, "text" + i, Field.DataType.TEXT, 0));
+    }
+    for (int i = 0; i < 6; i++) {
+      final FieldEntity field =
+          BenchmarkFixtures.createField(catalogEntity, "number" + i, Field.DataType.NUMBER, 0);
+      field.setLength(12);
+      field.setPrecision(2);
+      field.setMinValue(0.0D);
+      field.setMaxValue(1000000.0D);
+      fields.add(field);
+    }
+    for (int i = 0; i < 4; i++) {
+      fields.add(BenchmarkFixtures.createField(catalogEntity, "date" + i, Field.DataType.DATE, 0));
+    }
+    for (int i = 0; i < 4; i++) {
+      fields.add(BenchmarkFixtures.createField(catalogEntity, "single" + i, Field.DataType.SINGLE_SELECTION, 12));
+    }
+    for (int i = 0; i < 2; i++) {
+      fields.add(BenchmarkFixtures.createField(catalogEntity, "multi" + i, Field.DataType.MULTI_SELECTION, 12));
+    }
+    catalogEntity.setFields(fields);
+    return fields;
+  }
+
+  static List<Value> createValues(final List<FieldEntity> fields) {
+    final ArrayList<Value> values = new ArrayList<>(fields.size());
+    fields.forEach(field -> {
+      final Value value = new Value();
+      value.setCatalogIdentifier(CATALOG);
+      value.setFieldIdentifier(field.getIdentifier());
+      switch (Field.DataType.valueOf(field.getDataType())) {
+        case TEXT:
+          value.setValue("A reasonably long free text answer for field " + field.getIdentifier());
+          break;
+        case NUMBER:
+          value.setValue("12345.67");
+          break;
+        case DATE:
+          value.setValue("2018-06-01T00:00:00.000Z");
+          break;
+        case SINGLE_SELECTION:
+          value.setValue("7");
+          break;
+        case MULTI_SELECTION:
+          value.setValue("1,4,9");
+          break;
+      }
+      values.add(value);
+    });
+    return values;
+  }
+
+  private static String sqlArray(final String[] values) {
+    return Arrays.stream(values).collect(Collectors.joining("', '", "ARRAY['", "']"));
+  }
+
+  private static FieldEntity createField(final CatalogEntity catalogEntity, final String identifier,
+                                         final Field.DataType dataType, final int optionCount) {
+    final FieldEntity fieldEntity = new FieldEntity();
+    fieldEntity.setCatalog(catalogEntity);
+    fieldEntity.setIdentifier(identifier);
+    fieldEntity.setLabel(identifier);
+    fieldEntity.setDataType(dataType.name());
+    fieldEntity.setMandatory(Boolean.FALSE);
+    fieldEntity.setLength(dataType == Field.DataType.TEXT ? 256 : null);
+    final ArrayList<OptionEntity> options = new ArrayList<>(optionCount);
+    for (int i = 0; i < optionCount; i++) {
+      final OptionEntity optionEntity = new OptionEntity();
+      optionEntity.setField(fieldEntity);
+      optionEntity.setLabel("option" + i);
+      optionEntity.setValue(i);
+      options.add(optionEntity);
+    }
+    fieldEntity.setOptions(options);
+    return fieldEntity;
+  }
+}
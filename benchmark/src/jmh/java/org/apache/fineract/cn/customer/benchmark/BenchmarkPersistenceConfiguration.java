@@ -0,0 +1,92 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import org.apache.fineract.cn.customer.internal.config.CustomerCacheProperties;
+import org.apache.fineract.cn.customer.internal.repository.CustomerPageRepository;
+import org.apache.fineract.cn.customer.internal.repository.CustomerSearchRepository;
+import org.apache.fineract.cn.customer.internal.service.CustomerCache;
+import org.apache.fineract.cn.customer.internal.service.CustomerService;
+import org.apache.fineract.cn.customer.internal.service.TaskDefinitionRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.orm.jpa.JpaTransactionManager;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+
+import javax.persistence.EntityManagerFactory;
+import javax.sql.DataSource;
+import java.util.Properties;
+
+/**
+ * Minimal persistence context for {@link CustomerService}, backed by the data source registered by
+ * {@link BenchmarkDatabase}. The customer cache is disabled so every call reaches the database.
+ */
+@Configuration
+@EnableTransactionManagement
+@EnableJpaRepositories({
+    "org.apache.fineract.cn.customer.internal.repository",
+    "org.apache.fineract.cn.customer.catalog.internal.repository"
+})
+@Import({
+    CustomerService.class,
+    CustomerSearchRepository.class,
+    CustomerPageRepository.class,
+    TaskDefinitionRegistry.class
+})
+public class BenchmarkPersistenceConfiguration {
+
+  public BenchmarkPersistenceConfiguration() {
+    super();
+  }
+
+  @Bean
+  public LocalContainerEntityManagerFactoryBean entityManagerFactory(final DataSource dataSource) {
+    final HibernateJpaVendorAdapter vendorAdapter = new HibernateJpaVendorAdapter();
+    vendorAdapter.setDatabasePlatform("org.hibernate.dialect.PostgreSQL9Dialect");
+
+    final Properties properties = new Properties();
+    properties.setProperty("hibernate.hbm2ddl.auto", "none");
+
+    final LocalContainerEntityManagerFactoryBean entityManagerFactory = new LocalContainerEntityManagerFactoryBean();
+    entityManagerFactory.setDataSource(dataSource);
+    entityManagerFactory.setJpaVendorAdapter(vendorAdapter);
+    entityManagerFactory.setJpaProperties(properties);
+    entityManagerFactory.setPackagesToScan(
+        "org.apache.fineract.cn.customer.internal.repository",
+        "org.apache.fineract.cn.customer.catalog.internal.repository");
+    return entityManagerFactory;
+  }
+
+  @Bean
+  public PlatformTransactionManager transactionManager(final EntityManagerFactory entityManagerFactory) {
+    return new JpaTransactionManager(entityManagerFactory);
+  }
+
+  @Bean
+  public CustomerCache customerCache() {
+    final CustomerCacheProperties customerCacheProperties = new CustomerCacheProperties();
+    customerCacheProperties.setEnabled(false);
+    return new CustomerCache(customerCacheProperties);
+  }
+}
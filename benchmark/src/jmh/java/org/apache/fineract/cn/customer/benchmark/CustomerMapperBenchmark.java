@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import org.apache.fineract.cn.api.util.UserContextHolder;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.internal.mapper.CustomerMapper;
+import org.apache.fineract.cn.customer.internal.repository.CustomerEntity;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class CustomerMapperBenchmark {
+
+  private Customer customer;
+  private CustomerEntity customerEntity;
+
+  @Setup
+  public void setUp() {
+    UserContextHolder.setAccessToken(BenchmarkFixtures.USER, "benchmark-token");
+    this.customer = BenchmarkFixtures.createCustomer("bench0001");
+    this.customerEntity = CustomerMapper.map(this.customer);
+  }
+
+  @TearDown
+  public void tearDown() {
+    UserContextHolder.clear();
+  }
+
+  @Benchmark
+  public CustomerEntity mapToEntity() {
+    return CustomerMapper.map(this.customer);
+  }
+
+  @Benchmark
+  public Customer mapFromEntity() {
+    return CustomerMapper.map(this.customerEntity);
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerPage;
+import org.apache.fineract.cn.customer.internal.mapper.CustomerFields;
+import org.apache.fineract.cn.customer.internal.service.CustomerService;
+import org.openjdk.jmh.annotations.AuxCounters;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Set;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares full customer pages with projected ones, from the query to the serialized JSON, which is the
+ * work the service does per page of {@code GET /customers}. An empty {@code fields} parameter stands for
+ * the full representation. The payload size of a page is reported next to the time, as the
+ * {@code pageBytes} counter.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CustomerPageProjectionBenchmark {
+
+  @Param({"10000"})
+  public int customerCount;
+
+  @Param({"50"})
+  public int pageSize;
+
+  @Param({"", "identifier,givenName,surname"})
+  public String fields;
+
+  private BenchmarkDatabase benchmarkDatabase;
+  private CustomerService customerService;
+  private TransactionTemplate readOnlyTransaction;
+  private ObjectMapper objectMapper;
+  private Pageable pageable;
+  private Set<String> projection;
+
+  @State(Scope.Thread)
+  @AuxCounters(AuxCounters.Type.EVENTS)
+  public static class Payload {
+    // the size of the last page, pages of one trial do not differ; runs with several threads report the sum
+    public long pageBytes;
+
+    @Setup(Level.Iteration)
+    public void reset() {
+      this.pageBytes = 0L;
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.benchmarkDatabase = BenchmarkDatabase.start();
+    this.customerService = this.benchmarkDatabase.getBean(CustomerService.class);
+    this.readOnlyTransaction = this.benchmarkDatabase.readOnlyTransaction();
+    this.objectMapper = new ObjectMapper();
+    this.pageable = new PageRequest(0, this.pageSize, Sort.Direction.ASC, "identifier");
+    this.projection = CustomerFields.parseListing(this.fields);
+
+    BenchmarkFixtures.seedCustomers(this.benchmarkDatabase.getApplicationContext(), this.customerCount);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    this.benchmarkDatabase.close();
+  }
+
+  @Benchmark
+  public byte[] fetchCustomerPage(final Payload payload) throws JsonProcessingException {
+    final CustomerPage customerPage = this.readOnlyTransaction.execute(status ->
+        this.customerService.fetchCustomer(null, Boolean.FALSE, this.pageable, null, Boolean.FALSE, this.projection));
+    final byte[] content = this.objectMapper.writeValueAsBytes(customerPage);
+    payload.pageBytes = content.length;
+    return content;
+  }
+}
@@ -0,0 +1,127 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerPage;
+import org.apache.fineract.cn.customer.internal.service.CustomerService;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.Optional;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Reads customers through {@link CustomerService} against an embedded PostgreSQL instance migrated with
+ * the service's own Flyway scripts. Sample time mode reports the latency percentiles next to the average,
+ * since ranked searches have a long tail. Search terms cover exact identifiers, name prefixes as typed
+ * into a search box, and misspelled names which only the trigram similarity finds.
+ */
+@BenchmarkMode({Mode.AverageTime, Mode.SampleTime})
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class CustomerServiceBenchmark {
+
+  @Param({"10000", "1000000", "10000000"})
+  public int customerCount;
+
+  private BenchmarkDatabase benchmarkDatabase;
+  private CustomerService customerService;
+  private TransactionTemplate readOnlyTransaction;
+  private Pageable pageable;
+
+  @State(Scope.Thread)
+  public static class TenantContext {
+    @Setup
+    public void setUp() {
+      TenantContextHolder.setIdentifier(BenchmarkFixtures.TENANT);
+    }
+
+    @TearDown
+    public void tearDown() {
+      TenantContextHolder.clear();
+    }
+  }
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.benchmarkDatabase = BenchmarkDatabase.start();
+    this.customerService = this.benchmarkDatabase.getBean(CustomerService.class);
+    this.readOnlyTransaction = this.benchmarkDatabase.readOnlyTransaction();
+    this.pageable = new PageRequest(0, 20, Sort.Direction.ASC, "identifier");
+
+    BenchmarkFixtures.seedCustomers(this.benchmarkDatabase.getApplicationContext(), this.customerCount);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    this.benchmarkDatabase.close();
+  }
+
+  @Benchmark
+  public Optional<Customer> findCustomer(final TenantContext tenantContext) {
+    final String identifier = BenchmarkFixtures.identifier(ThreadLocalRandom.current().nextInt(this.customerCount));
+    return this.readOnlyTransaction.execute(status -> this.customerService.findCustomer(identifier));
+  }
+
+  @Benchmark
+  public CustomerPage fetchCustomerPage(final TenantContext tenantContext) {
+    return this.readOnlyTransaction.execute(status ->
+        this.customerService.fetchCustomer(null, Boolean.FALSE, this.pageable, null, Boolean.TRUE, null));
+  }
+
+  @Benchmark
+  public CustomerPage searchCustomersByIdentifier(final TenantContext tenantContext) {
+    return this.search(BenchmarkFixtures.identifier(ThreadLocalRandom.current().nextInt(this.customerCount)));
+  }
+
+  @Benchmark
+  public CustomerPage searchCustomersByPartialName(final TenantContext tenantContext) {
+    final String surname = BenchmarkFixtures.surname(ThreadLocalRandom.current().nextInt(this.customerCount));
+    return this.search(surname.substring(0, 4).toLowerCase());
+  }
+
+  @Benchmark
+  public CustomerPage searchCustomersByFuzzyName(final TenantContext tenantContext) {
+    final String surname = BenchmarkFixtures.surname(ThreadLocalRandom.current().nextInt(this.customerCount));
+    // drop a letter, as in a typo
+    final int typo = surname.length() / 2;
+    return this.search(surname.substring(0, typo) + surname.substring(typo + 1));
+  }
+
+  private CustomerPage search(final String term) {
+    return this.readOnlyTransaction.execute(status ->
+        this.customerService.fetchCustomer(term, Boolean.FALSE, this.pageable, null, Boolean.TRUE, null));
+  }
+}
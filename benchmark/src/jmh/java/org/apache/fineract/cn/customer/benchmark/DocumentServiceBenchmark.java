@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import org.apache.fineract.cn.customer.internal.repository.DocumentPageRepository;
+import org.apache.fineract.cn.customer.internal.repository.DocumentRepository;
+import org.apache.fineract.cn.customer.internal.service.DocumentService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Checks a document for missing pages against an embedded PostgreSQL instance, with the pages stored in
+ * random order.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Benchmark)
+public class DocumentServiceBenchmark {
+
+  private static final String DOCUMENT = "passport";
+
+  @Param({"1", "10", "100"})
+  public int pageCount;
+
+  private BenchmarkDatabase benchmarkDatabase;
+  private DocumentService documentService;
+  private TransactionTemplate readOnlyTransaction;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    this.benchmarkDatabase = BenchmarkDatabase.start();
+    BenchmarkFixtures.seedDocument(this.benchmarkDatabase.getApplicationContext(), DOCUMENT, this.pageCount);
+
+    this.documentService = new DocumentService(this.benchmarkDatabase.getBean(DocumentRepository.class),
+        this.benchmarkDatabase.getBean(DocumentPageRepository.class));
+    this.readOnlyTransaction = this.benchmarkDatabase.readOnlyTransaction();
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    this.benchmarkDatabase.close();
+  }
+
+  @Benchmark
+  public Boolean isDocumentMissingPages() {
+    return this.readOnlyTransaction.execute(status ->
+        this.documentService.isDocumentMissingPages(BenchmarkFixtures.identifier(0), DOCUMENT));
+  }
+}
@@ -0,0 +1,75 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import feign.RequestTemplate;
+import feign.Response;
+import feign.form.spring.SpringFormEncoder;
+import feign.gson.GsonDecoder;
+import feign.gson.GsonEncoder;
+import org.apache.fineract.cn.customer.api.v1.config.encoder.CustomDecoder;
+import org.apache.fineract.cn.customer.api.v1.config.encoder.CustomEncoder;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class FeignCodecBenchmark {
+
+  private CustomEncoder customEncoder;
+  private CustomDecoder customDecoder;
+  private Customer customer;
+  private byte[] encodedCustomer;
+  private Map<String, Collection<String>> headers;
+
+  @Setup
+  public void setUp() {
+    this.customEncoder = new CustomEncoder(new GsonEncoder(), new SpringFormEncoder());
+    this.customDecoder = new CustomDecoder(new GsonDecoder());
+    this.customer = BenchmarkFixtures.createCustomer("bench0001");
+    this.encodedCustomer = this.encode().body();
+    this.headers = Collections.singletonMap("Content-Type", Collections.singletonList("application/json"));
+  }
+
+  @Benchmark
+  public RequestTemplate encode() {
+    final RequestTemplate requestTemplate = new RequestTemplate();
+    this.customEncoder.encode(this.customer, Customer.class, requestTemplate);
+    return requestTemplate;
+  }
+
+  @Benchmark
+  public Object decode() throws IOException {
+    return this.customDecoder.decode(
+        Response.create(200, "OK", this.headers, this.encodedCustomer), Customer.class);
+  }
+}
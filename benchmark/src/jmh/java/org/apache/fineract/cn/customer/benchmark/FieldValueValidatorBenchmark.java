@@ -0,0 +1,77 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import org.apache.fineract.cn.customer.catalog.api.v1.domain.Value;
+import org.apache.fineract.cn.customer.catalog.internal.repository.CatalogRepository;
+import org.apache.fineract.cn.customer.catalog.internal.repository.FieldEntity;
+import org.apache.fineract.cn.customer.catalog.internal.repository.FieldRepository;
+import org.apache.fineract.cn.customer.catalog.internal.service.CatalogModelCache;
+import org.apache.fineract.cn.customer.catalog.internal.service.FieldValueValidator;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@State(Scope.Thread)
+public class FieldValueValidatorBenchmark {
+
+  private BenchmarkDatabase benchmarkDatabase;
+  private FieldValueValidator fieldValueValidator;
+  private List<Value> values;
+
+  @Setup(Level.Trial)
+  public void setUp() throws IOException {
+    TenantContextHolder.setIdentifier(BenchmarkFixtures.TENANT);
+
+    this.benchmarkDatabase = BenchmarkDatabase.start();
+    final List<FieldEntity> fields = BenchmarkFixtures.createCatalogFields();
+    BenchmarkFixtures.seedCatalog(this.benchmarkDatabase.getApplicationContext(), fields);
+
+    this.fieldValueValidator = new FieldValueValidator(LoggerFactory.getLogger(FieldValueValidatorBenchmark.class),
+        new CatalogModelCache(this.benchmarkDatabase.getBean(CatalogRepository.class),
+            this.benchmarkDatabase.getBean(FieldRepository.class)));
+    this.values = BenchmarkFixtures.createValues(fields);
+  }
+
+  @TearDown(Level.Trial)
+  public void tearDown() throws IOException {
+    TenantContextHolder.clear();
+    this.benchmarkDatabase.close();
+  }
+
+  @Benchmark
+  public List<Value> validateValues() {
+    this.fieldValueValidator.validateValues(this.values);
+    return this.values;
+  }
+}
@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.benchmark;
+
+import org.apache.fineract.cn.customer.api.v1.client.validation.NotBlankBasedOnConfigValidator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.util.concurrent.TimeUnit;
+
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@State(Scope.Thread)
+public class NotBlankBasedOnConfigValidatorBenchmark {
+
+  @Param({"true", "false"})
+  public boolean bypassMandatory;
+
+  private NotBlankBasedOnConfigValidator validator;
+  private String blankValue;
+  private String value;
+
+  @Setup
+  public void setUp() {
+    this.validator = new NotBlankBasedOnConfigValidator();
+    ReflectionTestUtils.setField(this.validator, "bypassMandatory", this.bypassMandatory);
+    this.blankValue = "   ";
+    this.value = "Surname bench0001";
+  }
+
+  @Benchmark
+  public boolean validateBlank() {
+    return this.validator.isValid(this.blankValue, null);
+  }
+
+  @Benchmark
+  public boolean validateValue() {
+    return this.validator.isValid(this.value, null);
+  }
+}
@@ -309,7 +309,8 @@ public class CustomerApiDocumentation extends AbstractCustomerTest {
                             fieldWithPath("createdBy").description("User who created account"),
                             fieldWithPath("createdOn").description("Date and time when account was created"),
                             fieldWithPath("lastModifiedBy").type("String").description("(Optional) Employee who last modified account"),
-                            fieldWithPath("lastModifiedOn").type("String").description("(Optional) Date and time account was last modified")
+                            fieldWithPath("lastModifiedOn").type("String").description("(Optional) Date and time account was last modified"),
+                            fieldWithPath("version").type("Long").description("Version of the customer, send it along with an update to reject it if the customer was changed since")
                     )));
   }
 
@@ -429,6 +430,7 @@ public class CustomerApiDocumentation extends AbstractCustomerTest {
                             fieldWithPath("customers").type("List<Customer>").description("The List of Customers +\n"),
                             fieldWithPath("totalPages").type("Integer").description("Number of pages"),
                             fieldWithPath("totalElements").type("Long").description("Number of customers in page"),
+                            fieldWithPath("nextCursor").type("String").description("(Optional) Token to fetch the next page by cursor").optional(),
                             fieldWithPath("customers[].identifier").type("String").description("First customer's identifier"),
                             fieldWithPath("customers[].type").type("Type").description("The type of first customer +\n" +
                                     " +\n" +
@@ -488,6 +490,7 @@ public class CustomerApiDocumentation extends AbstractCustomerTest {
                             fieldWithPath("customers[].createdOn").description("Date and time when first customer's account was created"),
                             fieldWithPath("customers[].lastModifiedBy").type("String").description("Employee who last modified first customer's account"),
                             fieldWithPath("customers[].lastModifiedOn").type("String").description("Date and time first customer's account was last modified"),
+                            fieldWithPath("customers[].version").type("Long").description("Version of the first customer"),
                             fieldWithPath("customers[1].identifier").description("Second customer's identifier"),
                             fieldWithPath("customers[1].type").type("Type").description("The type of the second customer +\n" +
                                     " +\n" +
@@ -546,7 +549,8 @@ public class CustomerApiDocumentation extends AbstractCustomerTest {
                             fieldWithPath("customers[1].createdBy").description("User who created second customer's account"),
                             fieldWithPath("customers[1].createdOn").description("Date and time when second customer's account was created"),
                             fieldWithPath("customers[1].lastModifiedBy").type("String").description("Employee who last modified second customer's account"),
-                            fieldWithPath("customers[1].lastModifiedOn").type("String").description("Date and time second customer's account was last modified"))));
+                            fieldWithPath("customers[1].lastModifiedOn").type("String").description("Date and time second customer's account was last modified"),
+                            fieldWithPath("customers[1].version").type("Long").description("Version of the second customer"))));
   }
 
   @Test
@@ -0,0 +1,101 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.internal.config.CommandExecutorProperties;
+import org.apache.fineract.cn.customer.util.CustomerGenerator;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+import org.springframework.web.context.WebApplicationContext;
+
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.post;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.header;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+public class TestCommandAdmission extends AbstractCustomerTest {
+
+  @Autowired
+  private WebApplicationContext context;
+
+  @Autowired
+  private CommandExecutorProperties commandExecutorProperties;
+
+  private MockMvc mockMvc;
+  private CommandExecutorProperties.Mode mode;
+  private int maxConcurrent;
+  private int queueCapacity;
+
+  public TestCommandAdmission() {
+    super();
+  }
+
+  @Before
+  public void saturateCommandExecutor() {
+    this.mockMvc = MockMvcBuilders.webAppContextSetup(this.context).build();
+    this.mode = this.commandExecutorProperties.getMode();
+    this.maxConcurrent = this.commandExecutorProperties.getMaxConcurrent();
+    this.queueCapacity = this.commandExecutorProperties.getQueueCapacity();
+    // neither a free slot nor a queue entry is left, so every command is rejected right away
+    this.commandExecutorProperties.setMode(CommandExecutorProperties.Mode.BOUNDED);
+    this.commandExecutorProperties.setMaxConcurrent(0);
+    this.commandExecutorProperties.setQueueCapacity(0);
+  }
+
+  @After
+  public void restoreCommandExecutor() {
+    this.commandExecutorProperties.setMode(this.mode);
+    this.commandExecutorProperties.setMaxConcurrent(this.maxConcurrent);
+    this.commandExecutorProperties.setQueueCapacity(this.queueCapacity);
+  }
+
+  @Test
+  public void shouldRejectCommandWithRetryAfter() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+
+    this.mockMvc.perform(post("/customers")
+        .contentType(MediaType.APPLICATION_JSON_VALUE)
+        .accept(MediaType.ALL_VALUE)
+        .content(new Gson().toJson(customer)))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER,
+            Integer.toString(this.commandExecutorProperties.getRetryAfter())));
+  }
+
+  @Test
+  public void shouldRejectAwaitedCommandWithRetryAfter() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+
+    this.mockMvc.perform(post("/customers")
+        .contentType(MediaType.APPLICATION_JSON_VALUE)
+        .accept(MediaType.ALL_VALUE)
+        .header("Prefer", "return=representation")
+        .content(new Gson().toJson(customer)))
+        .andExpect(status().isTooManyRequests())
+        .andExpect(header().string(HttpHeaders.RETRY_AFTER,
+            Integer.toString(this.commandExecutorProperties.getRetryAfter())));
+  }
+}
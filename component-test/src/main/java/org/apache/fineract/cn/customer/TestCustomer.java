@@ -18,35 +18,99 @@
  */
 package org.apache.fineract.cn.customer;
 
+import com.google.gson.Gson;
 import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.api.v1.client.ContentNotModifiedException;
 import org.apache.fineract.cn.customer.api.v1.client.CustomerAlreadyExistsException;
+import org.apache.fineract.cn.customer.api.v1.client.CustomerChangedException;
 import org.apache.fineract.cn.customer.api.v1.client.CustomerNotFoundException;
 import org.apache.fineract.cn.customer.api.v1.client.CustomerValidationException;
 import org.apache.fineract.cn.customer.api.v1.client.DocumentValidationException;
+import org.apache.fineract.cn.customer.api.v1.client.RangeNotSatisfiableException;
 import org.apache.fineract.cn.customer.api.v1.domain.Address;
 import org.apache.fineract.cn.customer.api.v1.domain.Command;
 import org.apache.fineract.cn.customer.api.v1.domain.ContactDetail;
 import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerImportReport;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerImportResult;
 import org.apache.fineract.cn.customer.api.v1.domain.CustomerPage;
 import org.apache.fineract.cn.customer.api.v1.domain.ProcessStep;
+import org.apache.fineract.cn.customer.api.v1.events.CustomerImportEvent;
+import org.apache.fineract.cn.customer.internal.command.CreatePortraitCommand;
+import org.apache.fineract.cn.customer.internal.config.CustomerCacheProperties;
+import org.apache.fineract.cn.customer.internal.config.CustomerImportProperties;
+import org.apache.fineract.cn.customer.internal.repository.BlobStore;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
+import org.apache.fineract.cn.customer.internal.service.BlobService;
+import org.apache.fineract.cn.customer.internal.service.CustomerCache;
+import org.apache.fineract.cn.customer.internal.service.MetricRegistry;
 import org.apache.fineract.cn.customer.util.AddressGenerator;
 import org.apache.fineract.cn.customer.util.CommandGenerator;
 import org.apache.fineract.cn.customer.util.ContactDetailGenerator;
 import org.apache.fineract.cn.customer.util.CustomerGenerator;
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
 import java.time.Clock;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ExecutionException;
+import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.persistence.EntityManagerFactory;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.fineract.cn.command.gateway.CommandGateway;
 import org.apache.fineract.cn.lang.DateConverter;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.mock.web.MockMultipartFile;
 
 public class TestCustomer extends AbstractCustomerTest {
 
+  private static final String ASSEMBLED_CUSTOMER_QUERY = "SELECT DISTINCT c FROM CustomerEntity c LEFT JOIN FETCH c.address LEFT JOIN FETCH c.contactDetails WHERE c.identifier = :identifier";
+  private static final String CUSTOM_VALUES_QUERY = "SELECT fv.value, f.identifier, c.identifier FROM FieldValueEntity fv JOIN fv.field f JOIN f.catalog c WHERE fv.customer = :customer";
+
+  @Autowired
+  private EntityManagerFactory entityManagerFactory;
+
+  @Autowired
+  private CustomerCacheProperties customerCacheProperties;
+
+  @Autowired
+  private CustomerCache customerCache;
+
+  @Autowired
+  private CustomerImportProperties customerImportProperties;
+
+  @Autowired
+  private BlobStore blobStore;
+
+  @Autowired
+  private BlobService blobService;
+
+  @Autowired
+  private CommandGateway commandGateway;
+
+  @Autowired
+  private MetricRegistry metricRegistry;
+
   @Test
   public void shouldCreateCustomer() throws Exception {
     final Customer customer = CustomerGenerator.createRandomCustomer();
@@ -122,6 +186,33 @@ public class TestCustomer extends AbstractCustomerTest {
     Assert.assertFalse(this.customerManager.isCustomerInGoodStanding(testEnvironment.generateUniqueIdentifier("don")));
   }
 
+  @Test
+  public void shouldFindCustomerWithBoundedNumberOfQueries() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    final Statistics statistics = this.entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    final boolean cacheEnabled = this.customerCacheProperties.isEnabled();
+    // a cold load, the cache would answer without touching the database
+    this.customerCacheProperties.setEnabled(false);
+    statistics.setStatisticsEnabled(true);
+    try {
+      statistics.clear();
+      final Customer foundCustomer = this.customerManager.findCustomer(customer.getIdentifier());
+      Assert.assertNotNull(foundCustomer.getAddress());
+      Assert.assertEquals(customer.getContactDetails().size(), foundCustomer.getContactDetails().size());
+      // statement counters are global and see background work, the counters per query do not
+      Assert.assertEquals(1L, statistics.getQueryStatistics(ASSEMBLED_CUSTOMER_QUERY).getExecutionCount());
+      Assert.assertEquals(1L, statistics.getQueryStatistics(CUSTOM_VALUES_QUERY).getExecutionCount());
+      Assert.assertEquals(0L, statistics.getCollectionFetchCount());
+    } finally {
+      statistics.setStatisticsEnabled(false);
+      this.customerCacheProperties.setEnabled(cacheEnabled);
+    }
+  }
+
   @Test
   public void shouldFetchCustomers() throws Exception {
     Stream.of(
@@ -141,6 +232,80 @@ public class TestCustomer extends AbstractCustomerTest {
     Assert.assertTrue(customerPage.getTotalElements() >= 3);
   }
 
+  @Test
+  public void shouldFetchCustomersByCursor() throws Exception {
+    final List<Customer> createdCustomers = Arrays.asList(
+        CustomerGenerator.createRandomCustomer(),
+        CustomerGenerator.createRandomCustomer(),
+        CustomerGenerator.createRandomCustomer()
+    );
+    for (final Customer customer : createdCustomers) {
+      this.customerManager.createCustomer(customer);
+      this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+    }
+
+    final Set<String> fetchedIdentifiers = new HashSet<>();
+    CustomerPage customerPage = this.customerManager.fetchCustomers(null, Boolean.TRUE, 0, 2, "identifier", "ASC", null, Boolean.FALSE);
+    Assert.assertNull(customerPage.getTotalElements());
+    while (true) {
+      customerPage.getCustomers().forEach(customer -> Assert.assertTrue(fetchedIdentifiers.add(customer.getIdentifier())));
+      if (customerPage.getNextCursor() == null) {
+        break;
+      }
+      customerPage = this.customerManager.fetchCustomers(null, Boolean.TRUE, null, 2, null, null, customerPage.getNextCursor(), Boolean.FALSE);
+    }
+
+    createdCustomers.forEach(customer -> Assert.assertTrue(fetchedIdentifiers.contains(customer.getIdentifier())));
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectCursorOfOtherClosedFilter() throws Exception {
+    for (int i = 0; i < 2; i++) {
+      final Customer customer = CustomerGenerator.createRandomCustomer();
+      this.customerManager.createCustomer(customer);
+      this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+    }
+
+    final CustomerPage customerPage = this.customerManager.fetchCustomers(null, Boolean.TRUE, 0, 1, "identifier", "ASC", null, Boolean.FALSE);
+    Assert.assertNotNull(customerPage.getNextCursor());
+    this.customerManager.fetchCustomers(null, Boolean.FALSE, null, 1, null, null, customerPage.getNextCursor(), Boolean.FALSE);
+  }
+
+  @Test
+  public void shouldFetchCustomerSummaries() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    CustomerPage customerPage = this.customerManager.fetchCustomers(
+        null, Boolean.TRUE, 0, 10, "identifier", "ASC", null, Boolean.TRUE, "givenName,surname");
+    Assert.assertNotNull(customerPage.getTotalElements());
+    Customer summary = null;
+    while (summary == null) {
+      summary = customerPage.getCustomers()
+          .stream()
+          .filter(candidate -> candidate.getIdentifier().equals(customer.getIdentifier()))
+          .findFirst()
+          .orElse(null);
+      if (summary == null) {
+        Assert.assertNotNull(customerPage.getNextCursor());
+        customerPage = this.customerManager.fetchCustomers(
+            null, Boolean.TRUE, null, 10, null, null, customerPage.getNextCursor(), Boolean.FALSE, "givenName,surname");
+      }
+    }
+
+    Assert.assertEquals(customer.getGivenName(), summary.getGivenName());
+    Assert.assertEquals(customer.getSurname(), summary.getSurname());
+    Assert.assertNull(summary.getType());
+    Assert.assertNull(summary.getCurrentState());
+    Assert.assertNull(summary.getCreatedOn());
+  }
+
+  @Test(expected = IllegalArgumentException.class)
+  public void shouldRejectSummariesWithAddress() throws Exception {
+    this.customerManager.fetchCustomers(null, Boolean.TRUE, 0, 10, "identifier", "ASC", null, Boolean.TRUE, "surname,address");
+  }
+
   @Test
   public void shouldFetchCustomersByTerm() throws Exception {
     final Customer randomCustomer = CustomerGenerator.createRandomCustomer();
@@ -152,6 +317,122 @@ public class TestCustomer extends AbstractCustomerTest {
     Assert.assertTrue(customerPage.getTotalElements() == 1);
   }
 
+  @Test
+  public void shouldFetchCustomersByCaseInsensitivePrefix() throws Exception {
+    final Customer randomCustomer = CustomerGenerator.createRandomCustomer();
+    final String surname = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+    randomCustomer.setSurname(surname);
+    this.customerManager.createCustomer(randomCustomer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, randomCustomer.getIdentifier());
+
+    final CustomerPage customerPage =
+        this.customerManager.fetchCustomers(surname.substring(0, 6).toUpperCase(), Boolean.FALSE, 0, 20, null, null);
+    Assert.assertTrue(customerPage.getTotalElements() >= 1);
+    Assert.assertEquals(randomCustomer.getIdentifier(), customerPage.getCustomers().get(0).getIdentifier());
+  }
+
+  @Test
+  public void shouldFetchCustomersByMisspelledTerm() throws Exception {
+    final Customer randomCustomer = CustomerGenerator.createRandomCustomer();
+    final String surname = RandomStringUtils.randomAlphabetic(12).toLowerCase();
+    randomCustomer.setSurname(surname);
+    this.customerManager.createCustomer(randomCustomer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, randomCustomer.getIdentifier());
+
+    final char replacement = surname.charAt(6) == 'x' ? 'y' : 'x';
+    final String misspelled = surname.substring(0, 6) + replacement + surname.substring(7);
+    final CustomerPage customerPage = this.customerManager.fetchCustomers(misspelled, Boolean.FALSE, 0, 20, null, null);
+    Assert.assertTrue(customerPage.getCustomers()
+        .stream()
+        .anyMatch(customer -> customer.getIdentifier().equals(randomCustomer.getIdentifier())));
+  }
+
+  @Test
+  public void shouldTreatBlankTermAsNoTerm() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    final CustomerPage allCustomers = this.customerManager.fetchCustomers(null, Boolean.FALSE, 0, 20, "identifier", "ASC");
+    final CustomerPage blankTermCustomers = this.customerManager.fetchCustomers("  ", Boolean.FALSE, 0, 20, "identifier", "ASC");
+    Assert.assertEquals(allCustomers.getTotalElements(), blankTermCustomers.getTotalElements());
+    Assert.assertEquals(
+        allCustomers.getCustomers().stream().map(Customer::getIdentifier).collect(Collectors.toList()),
+        blankTermCustomers.getCustomers().stream().map(Customer::getIdentifier).collect(Collectors.toList()));
+  }
+
+  @Test
+  public void shouldCreateCustomersInBulk() throws Exception {
+    final Customer firstCustomer = CustomerGenerator.createRandomCustomer();
+    final Customer secondCustomer = CustomerGenerator.createRandomCustomer();
+    final Customer duplicateCustomer = CustomerGenerator.createRandomCustomer();
+    duplicateCustomer.setIdentifier(firstCustomer.getIdentifier());
+
+    final CustomerImportReport customerImportReport =
+        this.customerManager.createCustomers(Arrays.asList(firstCustomer, secondCustomer, duplicateCustomer));
+
+    Assert.assertEquals(Integer.valueOf(2), customerImportReport.getCreated());
+    Assert.assertEquals(Integer.valueOf(1), customerImportReport.getRejected());
+    Assert.assertEquals(CustomerImportResult.Status.REJECTED.name(), customerImportReport.getResults().get(2).getStatus());
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMERS,
+        new CustomerImportEvent(Arrays.asList(firstCustomer.getIdentifier(), secondCustomer.getIdentifier()))));
+
+    final Customer createdCustomer = this.customerManager.findCustomer(secondCustomer.getIdentifier());
+    Assert.assertEquals(Customer.State.PENDING.name(), createdCustomer.getCurrentState());
+    Assert.assertEquals(secondCustomer.getContactDetails().size(), createdCustomer.getContactDetails().size());
+    Assert.assertNotNull(createdCustomer.getAddress());
+  }
+
+  @Test
+  public void shouldReportBulkImportStillRunning() throws Exception {
+    final List<Customer> customers = Stream.generate(CustomerGenerator::createRandomCustomer)
+        .limit(50L)
+        .collect(Collectors.toList());
+
+    final long timeout = this.customerImportProperties.getTimeout();
+    // answered with 202 once the deadline passes, the report is the same
+    this.customerImportProperties.setTimeout(1L);
+    final CustomerImportReport customerImportReport;
+    try {
+      customerImportReport = this.customerManager.createCustomers(customers);
+    } finally {
+      this.customerImportProperties.setTimeout(timeout);
+    }
+
+    Assert.assertEquals(Integer.valueOf(customers.size()), customerImportReport.getCreated());
+    Assert.assertEquals(Integer.valueOf(0), customerImportReport.getRejected());
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMERS,
+        new CustomerImportEvent(customers.stream().map(Customer::getIdentifier).collect(Collectors.toList()))));
+  }
+
+  @Test
+  public void shouldExportCustomers() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    final Gson gson = new Gson();
+    final List<Customer> exportedCustomers =
+        new BufferedReader(new InputStreamReader(
+            new ByteArrayInputStream(this.customerManager.exportCustomers(null, Boolean.TRUE)), StandardCharsets.UTF_8))
+            .lines()
+            .map(line -> gson.fromJson(line, Customer.class))
+            .collect(Collectors.toList());
+
+    final Customer exportedCustomer = exportedCustomers.stream()
+        .filter(candidate -> candidate.getIdentifier().equals(customer.getIdentifier()))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+    Assert.assertEquals(customer.getSurname(), exportedCustomer.getSurname());
+    Assert.assertNotNull(exportedCustomer.getAddress());
+    Assert.assertEquals(customer.getAddress().getCity(), exportedCustomer.getAddress().getCity());
+    Assert.assertEquals(customer.getContactDetails().size(), exportedCustomer.getContactDetails().size());
+
+    final String future = DateConverter.toIsoString(LocalDateTime.now(Clock.systemUTC()).plusDays(1L));
+    Assert.assertEquals(0, this.customerManager.exportCustomers(future, Boolean.FALSE).length);
+  }
+
   @Test
   public void shouldUpdateCustomer() throws Exception {
     final Customer customer = CustomerGenerator.createRandomCustomer();
@@ -169,6 +450,29 @@ public class TestCustomer extends AbstractCustomerTest {
     Assert.assertEquals(customer.getSurname(), updatedCustomer.getSurname());
   }
 
+  @Test
+  public void shouldEvictCachedCustomerOnUpdate() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    // loads the customer into the cache
+    this.customerManager.findCustomer(customer.getIdentifier());
+    final long hitCount = this.customerCache.stats().hitCount();
+    final Customer cachedCustomer = this.customerManager.findCustomer(customer.getIdentifier());
+    Assert.assertTrue(this.customerCache.stats().hitCount() > hitCount);
+    Assert.assertEquals(customer.getSurname(), cachedCustomer.getSurname());
+
+    customer.setSurname(RandomStringUtils.randomAlphanumeric(32));
+    this.customerManager.updateCustomer(customer.getIdentifier(), customer);
+
+    this.eventRecorder.wait(CustomerEventConstants.PUT_CUSTOMER, customer.getIdentifier());
+
+    final Customer updatedCustomer = this.customerManager.findCustomer(customer.getIdentifier());
+    Assert.assertEquals(customer.getSurname(), updatedCustomer.getSurname());
+  }
+
   @Test
   public void shouldNotUpdateCustomerNotFound() throws Exception {
     try {
@@ -333,6 +637,120 @@ public class TestCustomer extends AbstractCustomerTest {
     Assert.assertEquals(address.getCountry(), changedAddress.getCountry());
   }
 
+  @Test
+  public void shouldApplyConcurrentChangesToSameCustomer() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    // the update carries the customer's former address and contact details, so both puts must be applied after it
+    final Address address = AddressGenerator.createRandomAddress();
+    final ContactDetail contactDetail = ContactDetailGenerator.createRandomContactDetail();
+    customer.setSurname(RandomStringUtils.randomAlphanumeric(256));
+    this.customerManager.updateCustomer(customer.getIdentifier(), customer);
+    this.customerManager.putAddress(customer.getIdentifier(), address);
+    this.customerManager.putContactDetails(customer.getIdentifier(), Collections.singletonList(contactDetail));
+
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.PUT_CUSTOMER, customer.getIdentifier()));
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.PUT_ADDRESS, customer.getIdentifier()));
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.PUT_CONTACT_DETAILS, customer.getIdentifier()));
+
+    final Customer changedCustomer = this.customerManager.findCustomer(customer.getIdentifier());
+    Assert.assertEquals(customer.getSurname(), changedCustomer.getSurname());
+
+    final Address changedAddress = changedCustomer.getAddress();
+    Assert.assertEquals(address.getStreet(), changedAddress.getStreet());
+    Assert.assertEquals(address.getCity(), changedAddress.getCity());
+    Assert.assertEquals(address.getRegion(), changedAddress.getRegion());
+    Assert.assertEquals(address.getPostalCode(), changedAddress.getPostalCode());
+    Assert.assertEquals(address.getCountryCode(), changedAddress.getCountryCode());
+    Assert.assertEquals(address.getCountry(), changedAddress.getCountry());
+
+    Assert.assertEquals(1, changedCustomer.getContactDetails().size());
+    final ContactDetail changedContactDetail = changedCustomer.getContactDetails().get(0);
+    Assert.assertEquals(contactDetail.getType(), changedContactDetail.getType());
+    Assert.assertEquals(contactDetail.getValue(), changedContactDetail.getValue());
+  }
+
+  @Test
+  public void shouldReturnVersionOfCachedCustomer() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    final Customer loadedCustomer = this.customerManager.findCustomer(customer.getIdentifier());
+    Assert.assertNotNull(loadedCustomer.getVersion());
+    final Customer cachedCustomer = this.customerManager.findCustomer(customer.getIdentifier());
+    Assert.assertEquals(loadedCustomer.getVersion(), cachedCustomer.getVersion());
+
+    cachedCustomer.setSurname(RandomStringUtils.randomAlphanumeric(256));
+    this.customerManager.updateCustomer(customer.getIdentifier(), cachedCustomer, "return=representation");
+
+    final Customer reloadedCustomer = this.customerManager.findCustomer(customer.getIdentifier());
+    Assert.assertTrue(reloadedCustomer.getVersion() > loadedCustomer.getVersion());
+    Assert.assertEquals(reloadedCustomer.getVersion(),
+        this.customerManager.findCustomer(customer.getIdentifier()).getVersion());
+  }
+
+  @Test
+  public void shouldRejectUpdateOfChangedCustomer() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    final Customer foundCustomer = this.customerManager.findCustomer(customer.getIdentifier());
+    final Long version = foundCustomer.getVersion();
+    Assert.assertNotNull(version);
+
+    foundCustomer.setSurname(RandomStringUtils.randomAlphanumeric(256));
+    final Customer updatedCustomer =
+        this.customerManager.updateCustomer(customer.getIdentifier(), foundCustomer, "return=representation").getBody();
+    Assert.assertEquals(foundCustomer.getSurname(), updatedCustomer.getSurname());
+    Assert.assertTrue(updatedCustomer.getVersion() > version);
+
+    foundCustomer.setGivenName(RandomStringUtils.randomAlphanumeric(256));
+    try {
+      this.customerManager.updateCustomer(customer.getIdentifier(), foundCustomer, "return=representation");
+      Assert.fail();
+    } catch (final CustomerChangedException ex) {
+      // do nothing, expected
+    }
+
+    final Customer unchangedCustomer = this.customerManager.findCustomer(customer.getIdentifier());
+    Assert.assertEquals(updatedCustomer.getGivenName(), unchangedCustomer.getGivenName());
+    Assert.assertEquals(updatedCustomer.getVersion(), unchangedCustomer.getVersion());
+  }
+
+  @Test
+  public void shouldFindCustomersInBatch() throws Exception {
+    final Customer firstCustomer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(firstCustomer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, firstCustomer.getIdentifier());
+
+    final Customer secondCustomer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(secondCustomer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, secondCustomer.getIdentifier());
+
+    final List<Customer> customers = this.customerManager.findCustomers(
+        Arrays.asList(secondCustomer.getIdentifier(), RandomStringUtils.randomAlphanumeric(8), firstCustomer.getIdentifier()));
+    Assert.assertEquals(2, customers.size());
+    Assert.assertEquals(secondCustomer.getIdentifier(), customers.get(0).getIdentifier());
+    Assert.assertEquals(firstCustomer.getIdentifier(), customers.get(1).getIdentifier());
+    Assert.assertEquals(firstCustomer.getContactDetails().size(), customers.get(1).getContactDetails().size());
+
+    final List<Customer> projectedCustomers = this.customerManager.findCustomers(
+        Collections.singletonList(firstCustomer.getIdentifier()), "surname,currentState");
+    Assert.assertEquals(1, projectedCustomers.size());
+    Assert.assertEquals(firstCustomer.getIdentifier(), projectedCustomers.get(0).getIdentifier());
+    Assert.assertEquals(firstCustomer.getSurname(), projectedCustomers.get(0).getSurname());
+    Assert.assertEquals(Customer.State.PENDING.name(), projectedCustomers.get(0).getCurrentState());
+    Assert.assertNull(projectedCustomers.get(0).getGivenName());
+    Assert.assertNull(projectedCustomers.get(0).getContactDetails());
+  }
+
   @Test
   public void shouldUpdateContactDetails() throws Exception {
     final Customer customer = CustomerGenerator.createRandomCustomer();
@@ -377,6 +795,125 @@ public class TestCustomer extends AbstractCustomerTest {
     Assert.assertArrayEquals(file.getBytes(), portrait);
   }
 
+  @Test
+  public void shouldDiscardSpooledPortraitIfCommandFails() throws Exception {
+    final MockMultipartFile file = new MockMultipartFile("portrait", "test.png", MediaType.IMAGE_PNG_VALUE,
+        RandomStringUtils.randomAlphanumeric(1000).getBytes());
+    final SpooledUpload spooledUpload = this.blobService.spool(file, file.getSize());
+    Assert.assertTrue(Files.exists(spooledUpload.getFile()));
+
+    try {
+      // the customer does not exist, so the handler fails before storing the upload
+      this.commandGateway.process(
+          new CreatePortraitCommand(RandomStringUtils.randomAlphanumeric(32), spooledUpload), String.class).get();
+      Assert.fail();
+    } catch (final ExecutionException ex) {
+      // expected
+    }
+
+    Assert.assertFalse(Files.exists(spooledUpload.getFile()));
+  }
+
+  @Test
+  public void shouldShareAndCollectPortraitBlobs() throws Exception {
+    final Customer firstCustomer = CustomerGenerator.createRandomCustomer();
+    final Customer secondCustomer = CustomerGenerator.createRandomCustomer();
+    final MockMultipartFile file = new MockMultipartFile("portrait", "test.png", MediaType.IMAGE_PNG_VALUE,
+        RandomStringUtils.randomAlphanumeric(1000).getBytes());
+    for (final Customer customer : Arrays.asList(firstCustomer, secondCustomer)) {
+      this.customerManager.createCustomer(customer);
+      this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+      this.customerManager.postPortrait(customer.getIdentifier(), file);
+      this.eventRecorder.wait(CustomerEventConstants.POST_PORTRAIT, customer.getIdentifier());
+    }
+
+    // identical content is stored once
+    final String firstEtag = this.customerManager.getPortrait(firstCustomer.getIdentifier(), null).getHeaders().getETag();
+    final String secondEtag = this.customerManager.getPortrait(secondCustomer.getIdentifier(), null).getHeaders().getETag();
+    Assert.assertEquals(firstEtag, secondEtag);
+    final String blobKey = firstEtag.replace("\"", "");
+    Assert.assertTrue(this.blobStore.exists(blobKey));
+
+    this.customerManager.deletePortrait(firstCustomer.getIdentifier());
+    this.eventRecorder.wait(CustomerEventConstants.DELETE_PORTRAIT, firstCustomer.getIdentifier());
+    Assert.assertTrue(this.blobStore.exists(blobKey));
+    Assert.assertArrayEquals(file.getBytes(), this.customerManager.getPortrait(secondCustomer.getIdentifier()));
+
+    this.customerManager.deletePortrait(secondCustomer.getIdentifier());
+    this.eventRecorder.wait(CustomerEventConstants.DELETE_PORTRAIT, secondCustomer.getIdentifier());
+    Assert.assertFalse(this.blobStore.exists(blobKey));
+  }
+
+  @Test
+  public void shouldServeCachedPortraitWithoutBody() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    final MockMultipartFile file = new MockMultipartFile("portrait", "test.png", MediaType.IMAGE_PNG_VALUE,
+        RandomStringUtils.randomAlphanumeric(100000).getBytes());
+
+    this.customerManager.postPortrait(customer.getIdentifier(), file);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_PORTRAIT, customer.getIdentifier());
+
+    final ResponseEntity<byte[]> firstResponse = this.customerManager.getPortrait(customer.getIdentifier(), null);
+    final String etag = firstResponse.getHeaders().getETag();
+    Assert.assertNotNull(etag);
+    Assert.assertArrayEquals(file.getBytes(), firstResponse.getBody());
+
+    try {
+      this.customerManager.getPortrait(customer.getIdentifier(), etag);
+      Assert.fail();
+    } catch (final ContentNotModifiedException ex) {
+      // expected, the cached copy is still valid and no body is transferred
+    }
+  }
+
+  @Test
+  public void shouldServePortraitRanges() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    final byte[] content = RandomStringUtils.randomAlphanumeric(1000).getBytes();
+    this.customerManager.postPortrait(customer.getIdentifier(),
+        new MockMultipartFile("portrait", "test.png", MediaType.IMAGE_PNG_VALUE, content));
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_PORTRAIT, customer.getIdentifier());
+
+    final MetricRegistry.Counter bytesSent =
+        this.metricRegistry.counter("customer_blob_bytes_sent", "tenant", TenantContextHolder.checkedGetIdentifier());
+
+    long sentBefore = bytesSent.getCount();
+    final ResponseEntity<byte[]> rangeResponse = this.customerManager.getPortraitRange(customer.getIdentifier(), "bytes=100-199");
+    Assert.assertEquals(HttpStatus.PARTIAL_CONTENT, rangeResponse.getStatusCode());
+    Assert.assertEquals("bytes 100-199/1000", rangeResponse.getHeaders().getFirst(HttpHeaders.CONTENT_RANGE));
+    Assert.assertArrayEquals(Arrays.copyOfRange(content, 100, 200), rangeResponse.getBody());
+    Assert.assertTrue(rangeResponse.getHeaders().getLastModified() > 0L);
+    Assert.assertEquals(100L, bytesSent.getCount() - sentBefore);
+
+    final ResponseEntity<byte[]> suffixResponse = this.customerManager.getPortraitRange(customer.getIdentifier(), "bytes=-10");
+    Assert.assertEquals(HttpStatus.PARTIAL_CONTENT, suffixResponse.getStatusCode());
+    Assert.assertArrayEquals(Arrays.copyOfRange(content, 990, 1000), suffixResponse.getBody());
+
+    // start after end is not a valid range, so it is ignored
+    sentBefore = bytesSent.getCount();
+    final ResponseEntity<byte[]> invalidResponse = this.customerManager.getPortraitRange(customer.getIdentifier(), "bytes=5-3");
+    Assert.assertEquals(HttpStatus.OK, invalidResponse.getStatusCode());
+    Assert.assertArrayEquals(content, invalidResponse.getBody());
+    Assert.assertEquals(1000L, bytesSent.getCount() - sentBefore);
+
+    try {
+      this.customerManager.getPortraitRange(customer.getIdentifier(), "bytes=1000-");
+      Assert.fail();
+    } catch (final RangeNotSatisfiableException ex) {
+      // expected, the range starts beyond the end of the content
+    }
+  }
+
   @Test
   public void shouldReplacePortrait() throws Exception {
     final Customer customer = CustomerGenerator.createRandomCustomer();
@@ -481,4 +1018,50 @@ public class TestCustomer extends AbstractCustomerTest {
     Assert.assertEquals(1, closedProcessSteps.size());
     Assert.assertEquals(Command.Action.REOPEN.name(), closedProcessSteps.get(0).getCommand().getAction());
   }
+
+  @Test
+  public void shouldReturnProcessStepsForMultipleCustomers() throws Exception {
+    final Customer pendingCustomer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(pendingCustomer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, pendingCustomer.getIdentifier());
+
+    final Customer activeCustomer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(activeCustomer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, activeCustomer.getIdentifier());
+    this.customerManager.customerCommand(activeCustomer.getIdentifier(), CommandGenerator.create(Command.Action.ACTIVATE, "Test"));
+    this.eventRecorder.wait(CustomerEventConstants.ACTIVATE_CUSTOMER, activeCustomer.getIdentifier());
+
+    final Map<String, List<ProcessStep>> processSteps = this.customerManager.fetchProcessSteps(
+        Arrays.asList(activeCustomer.getIdentifier(), RandomStringUtils.randomAlphanumeric(8), pendingCustomer.getIdentifier()));
+    // answered in the order requested
+    Assert.assertEquals(Arrays.asList(activeCustomer.getIdentifier(), pendingCustomer.getIdentifier()),
+        new ArrayList<>(processSteps.keySet()));
+
+    final List<ProcessStep> pendingProcessSteps = processSteps.get(pendingCustomer.getIdentifier());
+    Assert.assertEquals(2, pendingProcessSteps.size());
+    Assert.assertEquals(Command.Action.ACTIVATE.name(), pendingProcessSteps.get(0).getCommand().getAction());
+    Assert.assertEquals(Command.Action.CLOSE.name(), pendingProcessSteps.get(1).getCommand().getAction());
+
+    final List<ProcessStep> activeProcessSteps = processSteps.get(activeCustomer.getIdentifier());
+    Assert.assertEquals(2, activeProcessSteps.size());
+    Assert.assertEquals(Command.Action.LOCK.name(), activeProcessSteps.get(0).getCommand().getAction());
+    Assert.assertEquals(Command.Action.CLOSE.name(), activeProcessSteps.get(1).getCommand().getAction());
+  }
+
+  @Test
+  public void shouldReturnRepresentationWhenPreferred() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+
+    final ResponseEntity<Customer> created =
+        this.customerManager.createCustomer(customer, "return=representation");
+    Assert.assertEquals(HttpStatus.CREATED, created.getStatusCode());
+    Assert.assertTrue(created.getHeaders().getLocation().toString().endsWith("/customers/" + customer.getIdentifier()));
+    Assert.assertEquals(customer.getIdentifier(), created.getBody().getIdentifier());
+    Assert.assertEquals(Customer.State.PENDING.name(), created.getBody().getCurrentState());
+
+    final ResponseEntity<Customer> activated = this.customerManager.customerCommand(customer.getIdentifier(),
+        CommandGenerator.create(Command.Action.ACTIVATE, "Test"), "return=representation");
+    Assert.assertEquals(HttpStatus.OK, activated.getStatusCode());
+    Assert.assertEquals(Customer.State.ACTIVE.name(), activated.getBody().getCurrentState());
+  }
 }
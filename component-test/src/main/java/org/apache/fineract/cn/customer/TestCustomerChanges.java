@@ -0,0 +1,78 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer;
+
+import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.api.v1.domain.Command;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerChange;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerChangePage;
+import org.apache.fineract.cn.customer.util.CommandGenerator;
+import org.apache.fineract.cn.customer.util.CustomerGenerator;
+import org.apache.fineract.cn.customer.util.Polling;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+
+public class TestCustomerChanges extends AbstractCustomerTest {
+
+  public TestCustomerChanges() {
+    super();
+  }
+
+  @Test
+  public void shouldFeedCustomerChanges() throws Exception {
+    Long offset = 0L;
+    CustomerChangePage drainedPage;
+    do {
+      drainedPage = this.customerManager.fetchCustomerChanges(offset, 1000);
+      offset = drainedPage.getLastOffset();
+    } while (!drainedPage.getChanges().isEmpty());
+
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    this.customerManager.customerCommand(customer.getIdentifier(),
+        CommandGenerator.create(Command.Action.ACTIVATE, "Test"));
+    this.eventRecorder.wait(CustomerEventConstants.ACTIVATE_CUSTOMER, customer.getIdentifier());
+
+    // changes show once every older transaction has finished, not only their own
+    final List<CustomerChange> changes = new ArrayList<>();
+    final AtomicLong nextOffset = new AtomicLong(offset);
+    Polling.pollUntil(() -> {
+      final CustomerChangePage changePage = this.customerManager.fetchCustomerChanges(nextOffset.get(), 1000);
+      nextOffset.set(changePage.getLastOffset());
+      changePage.getChanges()
+          .stream()
+          .filter(change -> change.getCustomer().getIdentifier().equals(customer.getIdentifier()))
+          .forEach(changes::add);
+      return changes.size();
+    }, size -> size >= 2);
+
+    Assert.assertEquals(2, changes.size());
+    Assert.assertEquals(CustomerEventConstants.POST_CUSTOMER, changes.get(0).getAction());
+    Assert.assertEquals(CustomerEventConstants.ACTIVATE_CUSTOMER, changes.get(1).getAction());
+    Assert.assertEquals(Customer.State.ACTIVE.name(), changes.get(1).getCustomer().getCurrentState());
+    Assert.assertTrue(changes.get(0).getOffset() < changes.get(1).getOffset());
+  }
+}
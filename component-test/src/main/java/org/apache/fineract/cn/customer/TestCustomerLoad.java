@@ -0,0 +1,396 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.fineract.cn.anubis.test.v1.TenantApplicationSecurityEnvironmentTestRule;
+import org.apache.fineract.cn.api.context.AutoUserContext;
+import org.apache.fineract.cn.api.util.UserContextHolder;
+import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.api.v1.domain.Command;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerDocument;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerImportReport;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerImportResult;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerPage;
+import org.apache.fineract.cn.customer.api.v1.events.DocumentEvent;
+import org.apache.fineract.cn.customer.util.CommandGenerator;
+import org.apache.fineract.cn.customer.util.CustomerDocumentGenerator;
+import org.apache.fineract.cn.customer.util.CustomerGenerator;
+import org.apache.fineract.cn.customer.util.OperationStatistics;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.apache.fineract.cn.test.fixture.TenantDataStoreTestContext;
+import org.junit.Assert;
+import org.junit.Test;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.mock.web.MockMultipartFile;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+
+/**
+ * Drives a mix of customer workloads from many threads against several tenants and writes throughput,
+ * latency percentiles and error rates per operation as JSON. It is not part of {@link TestSuite}; run it
+ * on its own and tune it with the following system properties:
+ * <ul>
+ *   <li>{@code load.tenants} number of tenants, the first one being the test tenant (default 2)</li>
+ *   <li>{@code load.customers} customers seeded per tenant (default 1000)</li>
+ *   <li>{@code load.documents} documents seeded per tenant for page uploads (default 10)</li>
+ *   <li>{@code load.threads} concurrent clients (default 16)</li>
+ *   <li>{@code load.operations} operations executed per client (default 200)</li>
+ *   <li>{@code load.mix} operation weights, e.g. {@code create:10,update:20,search:30,command:15,portrait:10,documentPage:15}</li>
+ *   <li>{@code load.report} location of the JSON report (default build/reports/load/customer-load.json)</li>
+ *   <li>{@code load.maxErrorRate} highest error rate accepted for any operation (default 0.01)</li>
+ * </ul>
+ * All writes are sent with {@code Prefer: return=representation}, so the measured latency includes
+ * processing the command. A write answered with {@code 202 Accepted} instead counts as an error.
+ */
+public class TestCustomerLoad extends AbstractCustomerTest {
+
+  private static final String DEFAULT_MIX = "create:10,update:20,search:30,command:15,portrait:10,documentPage:15";
+  private static final String RETURN_REPRESENTATION = "return=representation";
+  private static final String PREFERENCE_APPLIED = "Preference-Applied";
+  private static final int IMPORT_CHUNK_SIZE = 1000;
+
+  private enum Operation {
+    create,
+    update,
+    search,
+    command,
+    portrait,
+    documentPage
+  }
+
+  private static final class LoadTenant {
+    private final String identifier;
+    private final String accessToken;
+    private final List<String> customers;
+    private final Map<String, Customer.State> states;
+    private final List<DocumentSlot> documents;
+
+    private LoadTenant(final String identifier, final String accessToken) {
+      super();
+      this.identifier = identifier;
+      this.accessToken = accessToken;
+      this.customers = Collections.synchronizedList(new ArrayList<>());
+      this.states = new ConcurrentHashMap<>();
+      this.documents = new ArrayList<>();
+    }
+
+    private String randomCustomer() {
+      synchronized (this.customers) {
+        return this.customers.get(ThreadLocalRandom.current().nextInt(this.customers.size()));
+      }
+    }
+  }
+
+  private static final class NotAwaitedException extends RuntimeException {
+    private NotAwaitedException(final Operation operation) {
+      super("Operation " + operation + " was accepted, but not awaited.");
+    }
+  }
+
+  private static final class DocumentSlot {
+    private final String customerIdentifier;
+    private final String documentIdentifier;
+    private final AtomicInteger nextPage;
+
+    private DocumentSlot(final String customerIdentifier, final String documentIdentifier) {
+      super();
+      this.customerIdentifier = customerIdentifier;
+      this.documentIdentifier = documentIdentifier;
+      this.nextPage = new AtomicInteger();
+    }
+  }
+
+  public TestCustomerLoad() {
+    super();
+  }
+
+  @Test
+  public void shouldReportThroughputAndLatencyUnderLoad() throws Exception {
+    final int tenantCount = Integer.getInteger("load.tenants", 2);
+    final int customerCount = Integer.getInteger("load.customers", 1000);
+    final int documentCount = Integer.getInteger("load.documents", 10);
+    final int threadCount = Integer.getInteger("load.threads", 16);
+    final int operationCount = Integer.getInteger("load.operations", 200);
+    final Map<Operation, Integer> mix = TestCustomerLoad.parseMix(System.getProperty("load.mix", DEFAULT_MIX));
+    final File reportFile = new File(System.getProperty("load.report", "build/reports/load/customer-load.json"));
+    final double maxErrorRate = Double.parseDouble(System.getProperty("load.maxErrorRate", "0.01"));
+
+    final String testTenant = TenantContextHolder.checkedGetIdentifier();
+    final List<TenantDataStoreTestContext> additionalTenants = new ArrayList<>();
+    try {
+      final List<LoadTenant> tenants = new ArrayList<>();
+      tenants.add(this.seed(testTenant, UserContextHolder.checkedGetAccessToken(), customerCount, documentCount));
+      for (int i = 1; i < tenantCount; i++) {
+        final TenantDataStoreTestContext tenantDataStoreTestContext =
+            TenantDataStoreTestContext.forRandomTenantName(cassandraInitializer, postgreSQLInitializer);
+        additionalTenants.add(tenantDataStoreTestContext);
+        TenantContextHolder.clear();
+        TenantContextHolder.setIdentifier(tenantDataStoreTestContext.getTenantName());
+        final TenantApplicationSecurityEnvironmentTestRule tenantApplicationSecurityEnvironment =
+            new TenantApplicationSecurityEnvironmentTestRule(testEnvironment, this::waitForInitialize);
+        tenantApplicationSecurityEnvironment.initializeTenantInApplication();
+        try (final AutoUserContext ignored = tenantApplicationSecurityEnvironment.createAutoUserContext(TEST_USER)) {
+          tenants.add(this.seed(tenantDataStoreTestContext.getTenantName(), UserContextHolder.checkedGetAccessToken(),
+              customerCount, documentCount));
+        }
+      }
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(testTenant);
+
+      final Map<Operation, OperationStatistics> statistics = new LinkedHashMap<>();
+      mix.keySet().forEach(operation -> statistics.put(operation, new OperationStatistics(operation.name())));
+      final List<Operation> schedule = mix.entrySet()
+          .stream()
+          .flatMap(entry -> Collections.nCopies(entry.getValue(), entry.getKey()).stream())
+          .collect(Collectors.toList());
+
+      final ExecutorService executorService = Executors.newFixedThreadPool(threadCount);
+      final CountDownLatch start = new CountDownLatch(1);
+      final CountDownLatch done = new CountDownLatch(threadCount);
+      IntStream.range(0, threadCount).forEach(client -> executorService.execute(() -> {
+        try {
+          start.await();
+          for (int i = 0; i < operationCount; i++) {
+            final LoadTenant tenant = tenants.get(ThreadLocalRandom.current().nextInt(tenants.size()));
+            final Operation operation = schedule.get(ThreadLocalRandom.current().nextInt(schedule.size()));
+            TenantContextHolder.clear();
+            TenantContextHolder.setIdentifier(tenant.identifier);
+            UserContextHolder.setAccessToken(TEST_USER, tenant.accessToken);
+            final long started = System.nanoTime();
+            RuntimeException error = null;
+            try {
+              this.execute(tenant, operation);
+            } catch (final RuntimeException ex) {
+              error = ex;
+            }
+            final String errorType = error == null ? null : error.getClass().getSimpleName();
+            if (statistics.get(operation).record(System.nanoTime() - started, errorType)) {
+              this.logger.warn("Operation {} failed with {} in tenant {}.", operation, errorType, tenant.identifier, error);
+            }
+          }
+        } catch (final InterruptedException ex) {
+          Thread.currentThread().interrupt();
+        } finally {
+          TenantContextHolder.clear();
+          UserContextHolder.clear();
+          done.countDown();
+        }
+      }));
+
+      final long started = System.nanoTime();
+      start.countDown();
+      done.await();
+      final long wallClockNanos = System.nanoTime() - started;
+      executorService.shutdown();
+
+      final Map<String, Object> configuration = new LinkedHashMap<>();
+      configuration.put("tenants", tenantCount);
+      configuration.put("customersPerTenant", customerCount);
+      configuration.put("documentsPerTenant", documentCount);
+      configuration.put("threads", threadCount);
+      configuration.put("operationsPerThread", operationCount);
+      configuration.put("mix", mix);
+
+      final Map<String, Object> report = new LinkedHashMap<>();
+      report.put("configuration", configuration);
+      report.put("wallClockSeconds", wallClockNanos / (double) TimeUnit.SECONDS.toNanos(1L));
+      report.put("operations", statistics.values()
+          .stream()
+          .map(operationStatistics -> operationStatistics.summarize(wallClockNanos))
+          .collect(Collectors.toList()));
+      this.writeReport(reportFile, report);
+
+      final long executed = statistics.values().stream().mapToLong(OperationStatistics::getCount).sum();
+      Assert.assertEquals((long) threadCount * operationCount, executed);
+      statistics.values().forEach(operationStatistics -> Assert.assertTrue(
+          "Error rate of " + operationStatistics.getOperation() + " too high: " + operationStatistics.getErrorTypes(),
+          operationStatistics.getErrorRate() <= maxErrorRate));
+      for (final LoadTenant tenant : tenants) {
+        TenantContextHolder.clear();
+        TenantContextHolder.setIdentifier(tenant.identifier);
+        UserContextHolder.setAccessToken(TEST_USER, tenant.accessToken);
+        final CustomerPage customerPage =
+            this.customerManager.fetchCustomers(null, Boolean.TRUE, 0, 1, null, null, null, Boolean.TRUE);
+        Assert.assertEquals("Customers of tenant " + tenant.identifier,
+            Long.valueOf(tenant.customers.size()), customerPage.getTotalElements());
+      }
+    } finally {
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(testTenant);
+      for (final TenantDataStoreTestContext tenantDataStoreTestContext : additionalTenants) {
+        tenantDataStoreTestContext.close();
+      }
+    }
+  }
+
+  private LoadTenant seed(final String tenantIdentifier, final String accessToken, final int customerCount,
+                          final int documentCount) throws InterruptedException {
+    final LoadTenant tenant = new LoadTenant(tenantIdentifier, accessToken);
+    for (int offset = 0; offset < customerCount; offset += IMPORT_CHUNK_SIZE) {
+      final List<Customer> customers = IntStream.range(offset, Math.min(offset + IMPORT_CHUNK_SIZE, customerCount))
+          .mapToObj(index -> CustomerGenerator.createRandomCustomer())
+          .collect(Collectors.toList());
+      final CustomerImportReport customerImportReport = this.customerManager.createCustomers(customers);
+      customerImportReport.getResults()
+          .stream()
+          .filter(result -> result.getStatus().equals(CustomerImportResult.Status.CREATED.name()))
+          .map(result -> customers.get(result.getIndex()).getIdentifier())
+          .forEach(identifier -> {
+            tenant.customers.add(identifier);
+            tenant.states.put(identifier, Customer.State.PENDING);
+          });
+    }
+    Assert.assertFalse("No customers seeded for tenant " + tenantIdentifier, tenant.customers.isEmpty());
+
+    for (int i = 0; i < Math.min(documentCount, tenant.customers.size()); i++) {
+      final String customerIdentifier = tenant.customers.get(i);
+      final CustomerDocument customerDocument = CustomerDocumentGenerator.createRandomCustomerDocument();
+      this.customerDocumentsManager.createDocument(customerIdentifier, customerDocument.getIdentifier(), customerDocument);
+      Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.POST_DOCUMENT,
+          new DocumentEvent(customerIdentifier, customerDocument.getIdentifier())));
+      tenant.documents.add(new DocumentSlot(customerIdentifier, customerDocument.getIdentifier()));
+    }
+    this.logger.info("Seeded {} customers and {} documents for tenant {}.",
+        tenant.customers.size(), tenant.documents.size(), tenantIdentifier);
+    return tenant;
+  }
+
+  private void execute(final LoadTenant tenant, final Operation operation) {
+    switch (operation) {
+      case create: {
+        final Customer customer = CustomerGenerator.createRandomCustomer();
+        final ResponseEntity<Customer> response = this.customerManager.createCustomer(customer, RETURN_REPRESENTATION);
+        tenant.customers.add(customer.getIdentifier());
+        tenant.states.put(customer.getIdentifier(), Customer.State.PENDING);
+        TestCustomerLoad.throwIfNotAwaited(operation, response);
+        break;
+      }
+      case update: {
+        final String identifier = tenant.randomCustomer();
+        final Customer customer = CustomerGenerator.createRandomCustomer();
+        customer.setIdentifier(identifier);
+        TestCustomerLoad.throwIfNotAwaited(operation,
+            this.customerManager.updateCustomer(identifier, customer, RETURN_REPRESENTATION));
+        break;
+      }
+      case search:
+        this.customerManager.fetchCustomers(tenant.randomCustomer().substring(0, 4), Boolean.FALSE, 0, 20,
+            null, null, null, Boolean.FALSE);
+        break;
+      case command:
+        TestCustomerLoad.throwIfNotAwaited(operation, this.transition(tenant, tenant.randomCustomer()));
+        break;
+      case portrait:
+        TestCustomerLoad.throwIfNotAwaited(operation, this.customerManager.postPortrait(tenant.randomCustomer(),
+            new MockMultipartFile("portrait", "portrait.png", MediaType.IMAGE_PNG_VALUE, new byte[2048]),
+            RETURN_REPRESENTATION));
+        break;
+      case documentPage: {
+        if (tenant.documents.isEmpty()) {
+          throw new IllegalStateException("No documents seeded for tenant " + tenant.identifier);
+        }
+        final DocumentSlot documentSlot =
+            tenant.documents.get(ThreadLocalRandom.current().nextInt(tenant.documents.size()));
+        TestCustomerLoad.throwIfNotAwaited(operation, this.customerDocumentsManager.createDocumentPage(
+            documentSlot.customerIdentifier, documentSlot.documentIdentifier, documentSlot.nextPage.getAndIncrement(),
+            new MockMultipartFile("page", "page.png", MediaType.IMAGE_PNG_VALUE, new byte[4096]),
+            RETURN_REPRESENTATION));
+        break;
+      }
+      default:
+        throw new IllegalArgumentException("Unsupported operation " + operation);
+    }
+  }
+
+  private ResponseEntity<Customer> transition(final LoadTenant tenant, final String identifier) {
+    final Customer.State currentState = tenant.states.getOrDefault(identifier, Customer.State.PENDING);
+    final Command.Action action;
+    switch (currentState) {
+      case PENDING:
+        action = Command.Action.ACTIVATE;
+        break;
+      case ACTIVE:
+        action = Command.Action.LOCK;
+        break;
+      case LOCKED:
+        action = Command.Action.UNLOCK;
+        break;
+      default:
+        action = Command.Action.REOPEN;
+    }
+    final ResponseEntity<Customer> response = this.customerManager.customerCommand(identifier,
+        CommandGenerator.create(action, "load test"), RETURN_REPRESENTATION);
+    final Customer customer = response.getBody();
+    if (customer != null && customer.getCurrentState() != null) {
+      tenant.states.put(identifier, Customer.State.valueOf(customer.getCurrentState()));
+    }
+    return response;
+  }
+
+  private static void throwIfNotAwaited(final Operation operation, final ResponseEntity<?> response) {
+    if (!response.getHeaders().containsKey(PREFERENCE_APPLIED)) {
+      throw new NotAwaitedException(operation);
+    }
+  }
+
+  private void writeReport(final File reportFile, final Map<String, Object> report) throws IOException {
+    final File directory = reportFile.getAbsoluteFile().getParentFile();
+    if (!directory.exists() && !directory.mkdirs()) {
+      throw new IOException("Could not create " + directory);
+    }
+    new ObjectMapper().writerWithDefaultPrettyPrinter().writeValue(reportFile, report);
+    this.logger.info("Load test report written to {}.", reportFile.getAbsolutePath());
+  }
+
+  private static Map<Operation, Integer> parseMix(final String mix) {
+    final Map<Operation, Integer> weights = new LinkedHashMap<>();
+    for (final String entry : mix.split(",")) {
+      final String[] parts = entry.trim().split(":");
+      if (parts.length != 2) {
+        throw new IllegalArgumentException("Invalid load mix entry " + entry);
+      }
+      final int weight = Integer.parseInt(parts[1].trim());
+      if (weight > 0) {
+        weights.put(Operation.valueOf(parts[0].trim()), weight);
+      }
+    }
+    if (weights.isEmpty()) {
+      throw new IllegalArgumentException("Load mix " + mix + " selects no operation.");
+    }
+    return weights;
+  }
+}
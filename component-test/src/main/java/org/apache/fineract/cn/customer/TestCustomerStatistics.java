@@ -0,0 +1,74 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer;
+
+import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.api.v1.domain.Command;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerStatistics;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerStatisticsGroup;
+import org.apache.fineract.cn.customer.util.CommandGenerator;
+import org.apache.fineract.cn.customer.util.CustomerGenerator;
+import org.apache.fineract.cn.customer.util.Polling;
+import org.junit.Assert;
+import org.junit.Test;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class TestCustomerStatistics extends AbstractCustomerTest {
+
+  public TestCustomerStatistics() {
+    super();
+  }
+
+  @Test
+  public void shouldCountCustomersByOfficeAndState() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier());
+
+    final Customer secondCustomer = CustomerGenerator.createRandomCustomer();
+    secondCustomer.setAssignedOffice(customer.getAssignedOffice());
+    this.customerManager.createCustomer(secondCustomer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, secondCustomer.getIdentifier());
+
+    this.customerManager.customerCommand(secondCustomer.getIdentifier(),
+        CommandGenerator.create(Command.Action.ACTIVATE, "Test"));
+    this.eventRecorder.wait(CustomerEventConstants.ACTIVATE_CUSTOMER, secondCustomer.getIdentifier());
+
+    // statistics answer from the projection while it catches up in the background
+    final CustomerStatistics customerStatistics = Polling.pollUntil(
+        () -> this.customerManager.fetchCustomerStatistics("assignedOffice,currentState", null, null, null),
+        statistics -> countByState(statistics, customer.getAssignedOffice()).size() >= 2);
+    final Map<String, Long> countsByState = countByState(customerStatistics, customer.getAssignedOffice());
+
+    Assert.assertEquals(Arrays.asList("assignedOffice", "currentState"), customerStatistics.getDimensions());
+    Assert.assertEquals(Long.valueOf(1L), countsByState.get(Customer.State.PENDING.name()));
+    Assert.assertEquals(Long.valueOf(1L), countsByState.get(Customer.State.ACTIVE.name()));
+  }
+
+  private static Map<String, Long> countByState(final CustomerStatistics customerStatistics, final String office) {
+    return customerStatistics.getGroups()
+        .stream()
+        .filter(group -> office.equals(group.getValues().get(0)))
+        .collect(Collectors.toMap(group -> group.getValues().get(1), CustomerStatisticsGroup::getCount));
+  }
+}
@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer;
+
+import com.google.gson.Gson;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.internal.config.OutboxProperties;
+import org.apache.fineract.cn.customer.listener.EventDeliveryListener;
+import org.apache.fineract.cn.customer.util.CustomerGenerator;
+import org.apache.fineract.cn.customer.util.Polling;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.junit.After;
+import org.junit.Assert;
+import org.junit.Before;
+import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.util.HashSet;
+import java.util.List;
+
+public class TestEventOutbox extends AbstractCustomerTest {
+
+  private static final int UPDATES = 3;
+
+  @Autowired
+  private OutboxProperties outboxProperties;
+
+  @Autowired
+  private EventDeliveryListener eventDeliveryListener;
+
+  private boolean enabled;
+
+  public TestEventOutbox() {
+    super();
+  }
+
+  @Before
+  public void enableOutbox() {
+    this.enabled = this.outboxProperties.isEnabled();
+    this.outboxProperties.setEnabled(true);
+  }
+
+  @After
+  public void restoreOutbox() {
+    this.outboxProperties.setEnabled(this.enabled);
+  }
+
+  @Test
+  public void shouldPublishOneEventPerCommand() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier()));
+
+    for (int i = 0; i < UPDATES; i++) {
+      customer.setSurname(RandomStringUtils.randomAlphanumeric(256));
+      this.customerManager.updateCustomer(customer.getIdentifier(), customer, "return=representation");
+    }
+
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    final String payload = new Gson().toJson(customer.getIdentifier());
+    Polling.pollUntil(() -> this.eventDeliveryListener.dedupeIds(tenant, payload).size(), size -> size >= UPDATES);
+    // leave the relay and the direct send time to deliver an event twice
+    Thread.sleep(20L * this.outboxProperties.getLinger());
+
+    final List<String> dedupeIds = this.eventDeliveryListener.dedupeIds(tenant, payload);
+    Assert.assertEquals(UPDATES, dedupeIds.size());
+    Assert.assertEquals(UPDATES, new HashSet<>(dedupeIds).size());
+    dedupeIds.forEach(dedupeId -> {
+      Assert.assertNotNull(dedupeId);
+      Assert.assertTrue(dedupeId.startsWith(tenant + ":"));
+    });
+  }
+}
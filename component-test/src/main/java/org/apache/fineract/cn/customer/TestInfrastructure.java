@@ -18,19 +18,41 @@
  */
 package org.apache.fineract.cn.customer;
 
+import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.internal.service.MetricRegistry;
+import org.apache.fineract.cn.customer.rest.controller.MetricsRestController;
+import org.apache.fineract.cn.customer.util.CustomerGenerator;
+import org.apache.fineract.cn.lang.TenantContextHolder;
 import org.junit.Assert;
 import org.junit.Test;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
 
 import javax.sql.DataSource;
 import java.sql.Connection;
 import java.sql.DatabaseMetaData;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
 
 public class TestInfrastructure extends AbstractCustomerTest {
 
+  private static final Pattern SAMPLE_LINE =
+      Pattern.compile("[a-zA-Z_:][a-zA-Z0-9_:]*(\\{([a-zA-Z_][a-zA-Z0-9_]*=\"([^\"\\\\]|\\\\.)*\",?)*\\})? (-?[0-9.E+-]+|NaN)");
+
   @Autowired
   private DataSource dataSource;
 
+  @Autowired
+  private MetricRegistry metricRegistry;
+
+  @Autowired
+  private MetricsRestController metricsRestController;
+
   @Test
   public void shouldInitializeCustomer() throws Exception {
     try (final Connection connection = this.dataSource.getConnection()) {
@@ -44,4 +66,39 @@ public class TestInfrastructure extends AbstractCustomerTest {
       Assert.assertTrue(databaseMetaData.getTables(null, null, "maat_task_instances", null).next());
     }
   }
+
+  @Test
+  public void shouldExposeMetricsInPrometheusTextFormat() throws Exception {
+    final Customer customer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(customer);
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier()));
+
+    this.metricRegistry.counter("customer_test_requests", "path", "/customers/\"quoted\"").add(3L);
+    this.metricRegistry.timer("customer_test_latency", "stage", "test").record(TimeUnit.MILLISECONDS.toNanos(1500L));
+    this.metricRegistry.gauge("customer_test_pending", "stage", "test").increment();
+
+    final ResponseEntity<String> response = this.metricsRestController.fetchMetrics();
+    Assert.assertEquals(HttpStatus.OK, response.getStatusCode());
+    Assert.assertEquals("text/plain; version=0.0.4; charset=utf-8",
+        response.getHeaders().getFirst(HttpHeaders.CONTENT_TYPE));
+
+    final List<String> lines = Arrays.asList(response.getBody().split("\n"));
+    lines.stream()
+        .filter(line -> !line.startsWith("#"))
+        .forEach(line -> Assert.assertTrue("Malformed sample " + line, SAMPLE_LINE.matcher(line).matches()));
+
+    Assert.assertTrue(lines.contains("# TYPE customer_test_requests_total counter"));
+    Assert.assertTrue(lines.contains("customer_test_requests_total{path=\"/customers/\\\"quoted\\\"\"} 3"));
+    Assert.assertTrue(lines.contains("# TYPE customer_test_latency_seconds histogram"));
+    Assert.assertTrue(lines.contains("customer_test_latency_seconds_bucket{stage=\"test\",le=\"+Inf\"} 1"));
+    Assert.assertTrue(lines.contains("customer_test_latency_seconds_sum{stage=\"test\"} 1.5"));
+    Assert.assertTrue(lines.contains("customer_test_latency_seconds_count{stage=\"test\"} 1"));
+    Assert.assertTrue(lines.contains("# TYPE customer_test_pending gauge"));
+    Assert.assertTrue(lines.contains("customer_test_pending{stage=\"test\"} 1"));
+    Assert.assertTrue(lines.contains("# TYPE customer_cache_size gauge"));
+
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    Assert.assertTrue(lines.stream().anyMatch(line -> line.startsWith(
+        "customer_command_execution_seconds_count{command=\"CreateCustomerCommand\",tenant=\"" + tenant + "\"}")));
+  }
 }
@@ -0,0 +1,210 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer;
+
+import feign.RetryableException;
+import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerImportReport;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerImportResult;
+import org.apache.fineract.cn.customer.api.v1.domain.NonPerson;
+import org.apache.fineract.cn.customer.internal.service.OnboardingService;
+import org.apache.fineract.cn.customer.util.CustomerGenerator;
+import org.apache.fineract.cn.deposit.api.v1.instance.domain.ProductInstance;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.junit.Assert;
+import org.junit.Test;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Matchers;
+import org.mockito.Mockito;
+import org.springframework.beans.factory.annotation.Autowired;
+
+import java.net.ConnectException;
+import java.net.SocketTimeoutException;
+import java.util.Arrays;
+import java.util.List;
+
+public class TestOnboarding extends AbstractCustomerTest {
+
+  private static final String PRODUCT_IDENTIFIER = "savings";
+
+  @SuppressWarnings("SpringAutowiredFieldsWarningInspection")
+  @Autowired
+  private OnboardingService onboardingService;
+
+  public TestOnboarding() {
+    super();
+  }
+
+  @Test
+  public void shouldOnboardAndActivatePerson() throws Exception {
+    final Customer customer = this.createOnboardingCustomer();
+
+    this.onboardingService.onboard(customer, PRODUCT_IDENTIFIER, true);
+
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.ACTIVATE_CUSTOMER, customer.getIdentifier()));
+    Assert.assertEquals(Customer.State.ACTIVE.name(),
+        this.customerManager.findCustomer(customer.getIdentifier()).getCurrentState());
+
+    final ArgumentCaptor<ProductInstance> productInstance = ArgumentCaptor.forClass(ProductInstance.class);
+    Mockito.verify(this.depositAccountManager).create(productInstance.capture());
+    Assert.assertEquals(PRODUCT_IDENTIFIER, productInstance.getValue().getProductIdentifier());
+    Assert.assertEquals(customer.getIdentifier(), productInstance.getValue().getCustomerIdentifier());
+    Assert.assertEquals(customer.getIdentifier(), productInstance.getValue().getAccountIdentifier());
+    Mockito.verify(this.depositAccountManager).postProductInstanceCommand(customer.getIdentifier(), "ACTIVATE");
+  }
+
+  @Test
+  public void shouldRetryAccountCreationIfDepositServiceCannotBeReached() throws Exception {
+    Mockito.doThrow(new RetryableException("Connection refused", new ConnectException("Connection refused"), null))
+        .doNothing()
+        .when(this.depositAccountManager).create(Matchers.any(ProductInstance.class));
+    final Customer customer = this.createOnboardingCustomer();
+
+    this.onboardingService.onboard(customer, PRODUCT_IDENTIFIER, false);
+
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, customer.getIdentifier()));
+    Assert.assertEquals(Customer.State.PENDING.name(),
+        this.customerManager.findCustomer(customer.getIdentifier()).getCurrentState());
+    Mockito.verify(this.depositAccountManager, Mockito.times(2)).create(Matchers.any(ProductInstance.class));
+  }
+
+  @Test
+  public void shouldCloseCustomerIfAccountCannotBeCreated() throws Exception {
+    Mockito.doThrow(new IllegalStateException("Product not found."))
+        .when(this.depositAccountManager).create(Matchers.any(ProductInstance.class));
+    final Customer customer = this.createOnboardingCustomer();
+
+    this.onboardFailing(customer, false);
+
+    this.assertClosed(customer.getIdentifier());
+    Mockito.verify(this.depositAccountManager, Mockito.never())
+        .postProductInstanceCommand(Matchers.anyString(), Matchers.anyString());
+  }
+
+  @Test
+  public void shouldNotRetryAccountCreationAfterReadTimeout() throws Exception {
+    Mockito.doThrow(new RetryableException("Read timed out", new SocketTimeoutException("Read timed out"), null))
+        .when(this.depositAccountManager).create(Matchers.any(ProductInstance.class));
+    final Customer customer = this.createOnboardingCustomer();
+
+    this.onboardFailing(customer, false);
+
+    this.assertClosed(customer.getIdentifier());
+    Mockito.verify(this.depositAccountManager, Mockito.times(1)).create(Matchers.any(ProductInstance.class));
+    // the account may have been created, so it is closed as well
+    Mockito.verify(this.depositAccountManager).postProductInstanceCommand(customer.getIdentifier(), "CLOSE");
+  }
+
+  @Test
+  public void shouldCloseCustomerAndAccountIfAccountCannotBeActivated() throws Exception {
+    Mockito.doThrow(new IllegalStateException("Account cannot be activated."))
+        .when(this.depositAccountManager).postProductInstanceCommand(Matchers.anyString(), Matchers.eq("ACTIVATE"));
+    final Customer customer = this.createOnboardingCustomer();
+
+    this.onboardFailing(customer, true);
+
+    this.assertClosed(customer.getIdentifier());
+    Mockito.verify(this.depositAccountManager).postProductInstanceCommand(customer.getIdentifier(), "CLOSE");
+  }
+
+  @Test
+  public void shouldCloseCustomerIfAccountCannotBeClosed() throws Exception {
+    Mockito.doThrow(new IllegalStateException("Deposit service failed."))
+        .when(this.depositAccountManager).postProductInstanceCommand(Matchers.anyString(), Matchers.anyString());
+    final Customer customer = this.createOnboardingCustomer();
+
+    this.onboardFailing(customer, true);
+
+    this.assertClosed(customer.getIdentifier());
+    Mockito.verify(this.depositAccountManager).postProductInstanceCommand(customer.getIdentifier(), "ACTIVATE");
+    Mockito.verify(this.depositAccountManager).postProductInstanceCommand(customer.getIdentifier(), "CLOSE");
+  }
+
+  @Test
+  public void shouldOnboardPersonsInBatch() throws Exception {
+    final Customer existingCustomer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(existingCustomer);
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, existingCustomer.getIdentifier()));
+
+    final NonPerson validPerson = this.createNonPerson(RandomStringUtils.randomAlphanumeric(8));
+    final NonPerson invalidPerson = this.createNonPerson(RandomStringUtils.randomAlphanumeric(8));
+    invalidPerson.setProductIdentifier(" ");
+    final NonPerson existingPerson = this.createNonPerson(existingCustomer.getIdentifier());
+    final NonPerson failingPerson = this.createNonPerson(RandomStringUtils.randomAlphanumeric(8));
+
+    Mockito.doAnswer(invocation -> {
+      final ProductInstance productInstance = (ProductInstance) invocation.getArguments()[0];
+      if (failingPerson.getAccountNumber().equals(productInstance.getAccountIdentifier())) {
+        throw new IllegalStateException("Product not found.");
+      }
+      return null;
+    }).when(this.depositAccountManager).create(Matchers.any(ProductInstance.class));
+
+    final CustomerImportReport report = this.customerManager.createPersons(
+        Arrays.asList(validPerson, invalidPerson, existingPerson, failingPerson));
+
+    Assert.assertEquals(Integer.valueOf(1), report.getCreated());
+    Assert.assertEquals(Integer.valueOf(3), report.getRejected());
+    final List<CustomerImportResult> results = report.getResults();
+    Assert.assertEquals(4, results.size());
+    Assert.assertEquals(CustomerImportResult.Status.CREATED.name(), results.get(0).getStatus());
+    Assert.assertEquals(validPerson.getAccountNumber(), results.get(0).getIdentifier());
+    Assert.assertEquals(CustomerImportResult.Status.REJECTED.name(), results.get(1).getStatus());
+    Assert.assertTrue(results.get(1).getMessage().contains("productIdentifier"));
+    Assert.assertEquals(CustomerImportResult.Status.REJECTED.name(), results.get(2).getStatus());
+    Assert.assertTrue(results.get(2).getMessage().contains("already exists"));
+    Assert.assertEquals(CustomerImportResult.Status.REJECTED.name(), results.get(3).getStatus());
+
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, validPerson.getAccountNumber()));
+    this.assertClosed(failingPerson.getAccountNumber());
+    Mockito.verify(this.depositAccountManager, Mockito.times(2)).create(Matchers.any(ProductInstance.class));
+  }
+
+  private Customer createOnboardingCustomer() {
+    final Customer customer = new Customer();
+    customer.setIdentifier(RandomStringUtils.randomAlphanumeric(8));
+    customer.setType(Customer.Type.PERSON.name());
+    customer.setCurrentState(Customer.State.PENDING.name());
+    customer.setMember(false);
+    return customer;
+  }
+
+  private NonPerson createNonPerson(final String accountNumber) {
+    final NonPerson nonPerson = new NonPerson();
+    nonPerson.setAccountNumber(accountNumber);
+    nonPerson.setProductIdentifier(PRODUCT_IDENTIFIER);
+    return nonPerson;
+  }
+
+  private void onboardFailing(final Customer customer, final boolean activate) {
+    try {
+      this.onboardingService.onboard(customer, PRODUCT_IDENTIFIER, activate);
+      Assert.fail();
+    } catch (final ServiceException ex) {
+      // do nothing, expected
+    }
+  }
+
+  private void assertClosed(final String identifier) throws Exception {
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.CLOSE_CUSTOMER, identifier));
+    Assert.assertEquals(Customer.State.CLOSED.name(), this.customerManager.findCustomer(identifier).getCurrentState());
+  }
+}
@@ -31,7 +31,12 @@ import org.junit.runners.Suite;
     TestInfrastructure.class,
     TestTaskDefinition.class,
     TestTaskInstance.class,
-    TestDocuments.class
+    TestDocuments.class,
+    TestOnboarding.class,
+    TestCommandAdmission.class,
+    TestEventOutbox.class,
+    TestCustomerChanges.class,
+    TestCustomerStatistics.class
 })
 public class TestSuite extends SuiteTestEnvironment {
 }
@@ -21,17 +21,39 @@ package org.apache.fineract.cn.customer;
 import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
 import org.apache.fineract.cn.customer.api.v1.client.TaskAlreadyExistsException;
 import org.apache.fineract.cn.customer.api.v1.client.TaskNotFoundException;
+import org.apache.fineract.cn.customer.api.v1.domain.Command;
 import org.apache.fineract.cn.customer.api.v1.domain.TaskDefinition;
+import org.apache.fineract.cn.customer.internal.repository.TaskDefinitionEntity;
+import org.apache.fineract.cn.customer.internal.repository.TaskDefinitionRepository;
+import org.apache.fineract.cn.customer.internal.service.TaskDefinitionRegistry;
 import org.apache.fineract.cn.customer.util.TaskGenerator;
 import org.apache.commons.lang3.RandomStringUtils;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.util.Arrays;
 import java.util.List;
 
 public class TestTaskDefinition extends AbstractCustomerTest {
 
+  @Autowired
+  private TaskDefinitionRegistry taskDefinitionRegistry;
+
+  @Autowired
+  private TaskDefinitionRepository taskDefinitionRepository;
+
+  @Autowired
+  private PlatformTransactionManager transactionManager;
+
+  @Autowired
+  private JmsTemplate jmsTemplate;
+
   @Test
   public void shouldCreateTask() throws Exception {
     final TaskDefinition taskDefinition = TaskGenerator.createRandomTask(TaskDefinition.Type.CUSTOM, Boolean.FALSE, Boolean.FALSE);
@@ -125,4 +147,70 @@ public class TestTaskDefinition extends AbstractCustomerTest {
     Assert.assertEquals(updatedTaskDefinition.getPredefined(), fetchedTaskDefinition.getPredefined());
     Assert.assertArrayEquals(updatedTaskDefinition.getCommands(), fetchedTaskDefinition.getCommands());
   }
+
+  @Test
+  public void shouldServeCopiesFromTaskDefinitionRegistry() throws Exception {
+    final TaskDefinition taskDefinition = TaskGenerator.createRandomTask(TaskDefinition.Type.CUSTOM, Boolean.FALSE, Boolean.FALSE);
+    this.customerManager.createTask(taskDefinition);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_TASK, taskDefinition.getIdentifier());
+
+    final Long taskDefinitionId = this.taskDefinitionRepository.findByIdentifier(taskDefinition.getIdentifier()).getId();
+
+    final TaskDefinition registeredTaskDefinition =
+        this.taskDefinitionRegistry.findTaskDefinition(Command.Action.ACTIVATE, taskDefinitionId);
+    Assert.assertEquals(taskDefinition.getName(), registeredTaskDefinition.getName());
+    Assert.assertArrayEquals(taskDefinition.getCommands(), registeredTaskDefinition.getCommands());
+    Assert.assertNull(this.taskDefinitionRegistry.findTaskDefinition(Command.Action.LOCK, taskDefinitionId));
+
+    registeredTaskDefinition.setName(RandomStringUtils.randomAlphanumeric(256));
+    Assert.assertEquals(taskDefinition.getName(),
+        this.taskDefinitionRegistry.findTaskDefinition(Command.Action.ACTIVATE, taskDefinitionId).getName());
+
+    // an update through the service evicts the registry on commit
+    taskDefinition.setName(RandomStringUtils.randomAlphanumeric(256));
+    this.customerManager.updateTask(taskDefinition.getIdentifier(), taskDefinition);
+    this.eventRecorder.wait(CustomerEventConstants.PUT_TASK, taskDefinition.getIdentifier());
+
+    Assert.assertEquals(taskDefinition.getName(),
+        this.taskDefinitionRegistry.findTaskDefinition(Command.Action.ACTIVATE, taskDefinitionId).getName());
+  }
+
+  @Test
+  public void shouldEvictTaskDefinitionRegistryOnTaskEvent() throws Exception {
+    final TaskDefinition taskDefinition = TaskGenerator.createRandomTask(TaskDefinition.Type.CUSTOM, Boolean.FALSE, Boolean.FALSE);
+    this.customerManager.createTask(taskDefinition);
+
+    this.eventRecorder.wait(CustomerEventConstants.POST_TASK, taskDefinition.getIdentifier());
+
+    final Long taskDefinitionId = this.taskDefinitionRepository.findByIdentifier(taskDefinition.getIdentifier()).getId();
+    Assert.assertEquals(taskDefinition.getName(),
+        this.taskDefinitionRegistry.findTaskDefinition(Command.Action.ACTIVATE, taskDefinitionId).getName());
+
+    // changed the way another instance would, so only the event tells this instance about it
+    final String changedName = RandomStringUtils.randomAlphanumeric(256);
+    new TransactionTemplate(this.transactionManager).execute(status -> {
+      final TaskDefinitionEntity taskDefinitionEntity = this.taskDefinitionRepository.findByIdentifier(taskDefinition.getIdentifier());
+      taskDefinitionEntity.setName(changedName);
+      return this.taskDefinitionRepository.save(taskDefinitionEntity);
+    });
+    Assert.assertEquals(taskDefinition.getName(),
+        this.taskDefinitionRegistry.findTaskDefinition(Command.Action.ACTIVATE, taskDefinitionId).getName());
+
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    this.jmsTemplate.convertAndSend(CustomerEventConstants.DESTINATION, "\"" + taskDefinition.getIdentifier() + "\"", message -> {
+      message.setStringProperty(CustomerEventConstants.SELECTOR_NAME, CustomerEventConstants.PUT_TASK);
+      message.setStringProperty(TenantHeaderFilter.TENANT_HEADER, tenant);
+      return message;
+    });
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.PUT_TASK, taskDefinition.getIdentifier()));
+
+    final long deadline = System.currentTimeMillis() + 5000L;
+    String registeredName = this.taskDefinitionRegistry.findTaskDefinition(Command.Action.ACTIVATE, taskDefinitionId).getName();
+    while (!changedName.equals(registeredName) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(100L);
+      registeredName = this.taskDefinitionRegistry.findTaskDefinition(Command.Action.ACTIVATE, taskDefinitionId).getName();
+    }
+    Assert.assertEquals(changedName, registeredName);
+  }
 }
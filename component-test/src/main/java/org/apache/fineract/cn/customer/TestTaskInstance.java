@@ -24,15 +24,29 @@ import org.apache.fineract.cn.customer.api.v1.domain.Command;
 import org.apache.fineract.cn.customer.api.v1.domain.Customer;
 import org.apache.fineract.cn.customer.api.v1.domain.IdentificationCard;
 import org.apache.fineract.cn.customer.api.v1.domain.TaskDefinition;
+import org.apache.fineract.cn.customer.internal.command.handler.TaskAggregate;
+import org.apache.fineract.cn.customer.internal.repository.CustomerEntity;
+import org.apache.fineract.cn.customer.internal.repository.CustomerRepository;
 import org.apache.fineract.cn.customer.util.CustomerGenerator;
 import org.apache.fineract.cn.customer.util.IdentificationCardGenerator;
 import org.junit.Assert;
 import org.junit.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 
 public class TestTaskInstance extends AbstractCustomerTest {
 
+  @Autowired
+  private TaskAggregate taskAggregate;
+
+  @Autowired
+  private CustomerRepository customerRepository;
+
   @Test
   public void shouldProceedCustomerWorkFlowWithMandatoryIdTasks() throws Exception {
     // create a predefined and mandatory task validating every state transition
@@ -208,6 +222,93 @@ public class TestTaskInstance extends AbstractCustomerTest {
     this.eventRecorder.wait(CustomerEventConstants.PUT_TASK, customTask2.getIdentifier());
   }
 
+  @Test
+  public void shouldGateOnlyAssignedCommand() throws Exception {
+    // UNLOCK contains LOCK, but a task assigned to UNLOCK must not gate LOCK
+    final TaskDefinition unlockTask = new TaskDefinition();
+    unlockTask.setIdentifier("unlock-task-1");
+    unlockTask.setType(TaskDefinition.Type.CUSTOM.name());
+    unlockTask.setName("Do the barrel roll");
+    unlockTask.setCommands(
+        TaskDefinition.Command.UNLOCK.name()
+    );
+    unlockTask.setPredefined(Boolean.TRUE);
+    unlockTask.setMandatory(Boolean.TRUE);
+
+    this.customerManager.createTask(unlockTask);
+    this.eventRecorder.wait(CustomerEventConstants.POST_TASK, unlockTask.getIdentifier());
+
+    final Customer randomCustomer = CustomerGenerator.createRandomCustomer();
+    this.customerManager.createCustomer(randomCustomer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, randomCustomer.getIdentifier());
+
+    final Command activateCustomer = new Command();
+    activateCustomer.setAction(Command.Action.ACTIVATE.name());
+    this.customerManager.customerCommand(randomCustomer.getIdentifier(), activateCustomer);
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.ACTIVATE_CUSTOMER, randomCustomer.getIdentifier()));
+
+    final Command lockCustomer = new Command();
+    lockCustomer.setAction(Command.Action.LOCK.name());
+    this.customerManager.customerCommand(randomCustomer.getIdentifier(), lockCustomer);
+    Assert.assertTrue(this.eventRecorder.wait(CustomerEventConstants.LOCK_CUSTOMER, randomCustomer.getIdentifier()));
+
+    final Command unlockCustomer = new Command();
+    unlockCustomer.setAction(Command.Action.UNLOCK.name());
+    this.customerManager.customerCommand(randomCustomer.getIdentifier(), unlockCustomer);
+    Assert.assertFalse(this.eventRecorder.wait(CustomerEventConstants.UNLOCK_CUSTOMER, randomCustomer.getIdentifier()));
+
+    final Customer customer = this.customerManager.findCustomer(randomCustomer.getIdentifier());
+    Assert.assertEquals(Customer.State.LOCKED.name(), customer.getCurrentState());
+
+    // set predefined to false so it does not have a side effect on other tests
+    unlockTask.setPredefined(false);
+    this.customerManager.updateTask(unlockTask.getIdentifier(), unlockTask);
+    this.eventRecorder.wait(CustomerEventConstants.PUT_TASK, unlockTask.getIdentifier());
+  }
+
+  @Test
+  public void shouldGateAssignedCommandForManyCustomers() throws Exception {
+    final TaskDefinition unlockTask = new TaskDefinition();
+    unlockTask.setIdentifier("unlock-task-2");
+    unlockTask.setType(TaskDefinition.Type.CUSTOM.name());
+    unlockTask.setName("Do the barrel roll");
+    unlockTask.setCommands(
+        TaskDefinition.Command.UNLOCK.name()
+    );
+    unlockTask.setPredefined(Boolean.FALSE);
+    unlockTask.setMandatory(Boolean.TRUE);
+
+    this.customerManager.createTask(unlockTask);
+    this.eventRecorder.wait(CustomerEventConstants.POST_TASK, unlockTask.getIdentifier());
+
+    final List<CustomerEntity> customerEntities = new ArrayList<>();
+    for (int i = 0; i < 3; i++) {
+      final Customer randomCustomer = CustomerGenerator.createRandomCustomer();
+      this.customerManager.createCustomer(randomCustomer);
+      this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, randomCustomer.getIdentifier());
+      customerEntities.add(this.customerRepository.findByIdentifier(randomCustomer.getIdentifier()).get());
+    }
+
+    // every customer gets the task, only the middle one executes it
+    for (final CustomerEntity customerEntity : customerEntities) {
+      this.customerManager.addTaskToCustomer(customerEntity.getIdentifier(), unlockTask.getIdentifier());
+      this.eventRecorder.wait(CustomerEventConstants.PUT_CUSTOMER, customerEntity.getIdentifier());
+    }
+    this.customerManager.taskForCustomerExecuted(customerEntities.get(1).getIdentifier(), unlockTask.getIdentifier());
+    this.eventRecorder.wait(CustomerEventConstants.PUT_CUSTOMER, customerEntities.get(1).getIdentifier());
+
+    final Set<Long> gatedCustomers =
+        this.taskAggregate.customersWithOpenTasks(customerEntities, Command.Action.UNLOCK.name());
+    Assert.assertEquals(
+        new HashSet<>(Arrays.asList(customerEntities.get(0).getId(), customerEntities.get(2).getId())), gatedCustomers);
+    customerEntities.forEach(customerEntity -> Assert.assertEquals(
+        this.taskAggregate.openTasksForCustomerExist(customerEntity, Command.Action.UNLOCK.name()),
+        gatedCustomers.contains(customerEntity.getId())));
+
+    // UNLOCK contains LOCK, but a task assigned to UNLOCK must not gate LOCK
+    Assert.assertTrue(this.taskAggregate.customersWithOpenTasks(customerEntities, Command.Action.LOCK.name()).isEmpty());
+  }
+
   @Test(expected = TaskExecutionException.class)
   public void shouldNotProceedFourEyesWrongSigner() throws Exception {
     final TaskDefinition fourEyesTask = new TaskDefinition();
@@ -21,6 +21,7 @@ package org.apache.fineract.cn.customer.catalog;
 import com.google.common.collect.Lists;
 import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
 import org.apache.fineract.cn.customer.api.v1.client.CustomerManager;
+import org.apache.fineract.cn.customer.api.v1.client.CustomerValidationException;
 import org.apache.fineract.cn.customer.api.v1.domain.Customer;
 import org.apache.fineract.cn.customer.catalog.api.v1.CatalogEventConstants;
 import org.apache.fineract.cn.customer.catalog.api.v1.client.CatalogAlreadyInUseException;
@@ -350,4 +351,44 @@ public class TestCatalog {
       Assert.fail();
     }
   }
+
+  @Test
+  public void shouldValidateCustomValuesAgainstUpdatedField() throws Exception {
+    final Catalog catalog = CatalogGenerator.createRandomCatalog();
+
+    this.catalogManager.createCatalog(catalog);
+    this.eventRecorder.wait(CatalogEventConstants.POST_CATALOG, catalog.getIdentifier());
+
+    final Field selectionField = catalog.getFields()
+        .stream()
+        .filter(field -> field.getDataType().equals(Field.DataType.SINGLE_SELECTION.name()))
+        .findFirst()
+        .orElseThrow(AssertionError::new);
+
+    final Value value = new Value();
+    value.setCatalogIdentifier(catalog.getIdentifier());
+    value.setFieldIdentifier(selectionField.getIdentifier());
+    value.setValue("1");
+
+    final Customer firstCustomer = CustomerGenerator.createRandomCustomer();
+    firstCustomer.setCustomValues(Lists.newArrayList(value));
+    this.customerManager.createCustomer(firstCustomer);
+    this.eventRecorder.wait(CustomerEventConstants.POST_CUSTOMER, firstCustomer.getIdentifier());
+
+    final Option option = new Option();
+    option.setLabel("new-option");
+    option.setValue(2);
+    selectionField.setOptions(Lists.newArrayList(option));
+    this.catalogManager.updateField(catalog.getIdentifier(), selectionField.getIdentifier(), selectionField);
+    Assert.assertTrue(this.eventRecorder.wait(CatalogEventConstants.PUT_FIELD, selectionField.getIdentifier()));
+
+    final Customer secondCustomer = CustomerGenerator.createRandomCustomer();
+    secondCustomer.setCustomValues(Lists.newArrayList(value));
+    try {
+      this.customerManager.createCustomer(secondCustomer);
+      Assert.fail();
+    } catch (final CustomerValidationException ex) {
+      // expected, option 1 was removed from the field
+    }
+  }
 }
@@ -19,6 +19,7 @@
 package org.apache.fineract.cn.customer.listener;
 
 import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.api.v1.events.CustomerImportEvent;
 import org.apache.fineract.cn.customer.api.v1.events.ScanEvent;
 import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
 import org.apache.fineract.cn.test.listener.EventRecorder;
@@ -47,6 +48,15 @@ public class CustomerEventListener {
     this.eventRecorder.event(tenant, CustomerEventConstants.POST_CUSTOMER, payload, String.class);
   }
 
+  @JmsListener(
+      destination = CustomerEventConstants.DESTINATION,
+      selector = CustomerEventConstants.SELECTOR_POST_CUSTOMERS
+  )
+  public void customersCreatedEvent(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                    final String payload) {
+    this.eventRecorder.event(tenant, CustomerEventConstants.POST_CUSTOMERS, payload, CustomerImportEvent.class);
+  }
+
   @JmsListener(
       destination = CustomerEventConstants.DESTINATION,
       selector = CustomerEventConstants.SELECTOR_PUT_CUSTOMER
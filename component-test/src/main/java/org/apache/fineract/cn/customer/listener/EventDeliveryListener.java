@@ -0,0 +1,68 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.listener;
+
+import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Keeps the dedupe id of every delivered customer update event, including repeated deliveries which the
+ * event recorder does not tell apart.
+ */
+@Component
+public class EventDeliveryListener {
+
+  private final Map<String, List<String>> dedupeIdsByPayload;
+
+  public EventDeliveryListener() {
+    super();
+    this.dedupeIdsByPayload = new ConcurrentHashMap<>();
+  }
+
+  @JmsListener(
+      destination = CustomerEventConstants.DESTINATION,
+      selector = CustomerEventConstants.SELECTOR_PUT_CUSTOMER
+  )
+  public void customerUpdatedEvent(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                   @Header(name = CustomerEventConstants.DEDUPE_ID, required = false) final String dedupeId,
+                                   final String payload) {
+    this.dedupeIdsByPayload
+        .computeIfAbsent(tenant + "/" + payload, key -> Collections.synchronizedList(new ArrayList<>()))
+        .add(dedupeId);
+  }
+
+  public List<String> dedupeIds(final String tenant, final String payload) {
+    final List<String> dedupeIds = this.dedupeIdsByPayload.get(tenant + "/" + payload);
+    if (dedupeIds == null) {
+      return Collections.emptyList();
+    }
+    synchronized (dedupeIds) {
+      return new ArrayList<>(dedupeIds);
+    }
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.util;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Collects latencies and outcomes of one load test operation, safe for use from many threads.
+ */
+public final class OperationStatistics {
+
+  private final String operation;
+  private final LongAdder successes;
+  private final LongAdder errors;
+  private final Map<String, LongAdder> errorTypes;
+  private long[] latencies;
+  private int size;
+
+  public OperationStatistics(final String operation) {
+    super();
+    this.operation = operation;
+    this.successes = new LongAdder();
+    this.errors = new LongAdder();
+    this.errorTypes = new ConcurrentHashMap<>();
+    this.latencies = new long[1024];
+  }
+
+  public String getOperation() {
+    return this.operation;
+  }
+
+  /**
+   * @param errorType type of the error the operation failed with, {@code null} if it succeeded
+   * @return {@code true} if this is the first error of the given type
+   */
+  public boolean record(final long elapsedNanos, final String errorType) {
+    boolean firstOfType = false;
+    if (errorType == null) {
+      this.successes.increment();
+    } else {
+      this.errors.increment();
+      firstOfType = this.errorTypes.putIfAbsent(errorType, new LongAdder()) == null;
+      this.errorTypes.get(errorType).increment();
+    }
+    synchronized (this) {
+      if (this.size == this.latencies.length) {
+        this.latencies = Arrays.copyOf(this.latencies, this.size * 2);
+      }
+      this.latencies[this.size++] = elapsedNanos;
+    }
+    return firstOfType;
+  }
+
+  public long getCount() {
+    return this.successes.sum() + this.errors.sum();
+  }
+
+  public long getErrors() {
+    return this.errors.sum();
+  }
+
+  public double getErrorRate() {
+    final long count = this.getCount();
+    return count == 0L ? 0.0D : (double) this.getErrors() / count;
+  }
+
+  public Map<String, Long> getErrorTypes() {
+    final Map<String, Long> errorTypes = new TreeMap<>();
+    this.errorTypes.forEach((errorType, errorCount) -> errorTypes.put(errorType, errorCount.sum()));
+    return errorTypes;
+  }
+
+  public Map<String, Object> summarize(final long wallClockNanos) {
+    final long[] sorted;
+    synchronized (this) {
+      sorted = Arrays.copyOf(this.latencies, this.size);
+    }
+    Arrays.sort(sorted);
+
+    final long count = this.getCount();
+    final Map<String, Object> summary = new LinkedHashMap<>();
+    summary.put("operation", this.operation);
+    summary.put("count", count);
+    summary.put("errors", this.getErrors());
+    summary.put("errorRate", this.getErrorRate());
+    summary.put("errorTypes", this.getErrorTypes());
+    summary.put("throughputPerSecond",
+        wallClockNanos == 0L ? 0.0D : count / (wallClockNanos / (double) TimeUnit.SECONDS.toNanos(1L)));
+    summary.put("p50Millis", OperationStatistics.percentileMillis(sorted, 0.50D));
+    summary.put("p95Millis", OperationStatistics.percentileMillis(sorted, 0.95D));
+    summary.put("p99Millis", OperationStatistics.percentileMillis(sorted, 0.99D));
+    summary.put("maxMillis", sorted.length == 0 ? 0.0D : OperationStatistics.toMillis(sorted[sorted.length - 1]));
+    return summary;
+  }
+
+  private static double percentileMillis(final long[] sorted, final double percentile) {
+    if (sorted.length == 0) {
+      return 0.0D;
+    }
+    final int index = (int) Math.ceil(percentile * sorted.length) - 1;
+    return OperationStatistics.toMillis(sorted[Math.max(0, Math.min(index, sorted.length - 1))]);
+  }
+
+  private static double toMillis(final long nanos) {
+    return nanos / (double) TimeUnit.MILLISECONDS.toNanos(1L);
+  }
+}
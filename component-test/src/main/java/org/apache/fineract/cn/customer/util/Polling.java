@@ -0,0 +1,48 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.util;
+
+import java.util.concurrent.Callable;
+import java.util.function.Predicate;
+
+/**
+ * Polls state the service settles in the background, e.g. the change feed or the statistics projection.
+ */
+public final class Polling {
+
+  private static final long TIMEOUT = 10000L;
+  private static final long INTERVAL = 50L;
+
+  private Polling() {
+    super();
+  }
+
+  /**
+   * Calls the probe until its result is done or ten seconds have passed, and returns the last result.
+   */
+  public static <T> T pollUntil(final Callable<T> probe, final Predicate<T> done) throws Exception {
+    final long deadline = System.currentTimeMillis() + TIMEOUT;
+    T result = probe.call();
+    while (!done.test(result) && System.currentTimeMillis() < deadline) {
+      Thread.sleep(INTERVAL);
+      result = probe.call();
+    }
+    return result;
+  }
+}
@@ -18,7 +18,30 @@
  */
 package org.apache.fineract.cn.customer;
 
+import org.springframework.core.Ordered;
+
 public interface ServiceConstants {
 
   String LOGGER_NAME = "customer-logger";
+
+  String NDJSON_MEDIA_TYPE = "application/x-ndjson";
+
+  // the bean the command framework publishes @EventEmitter results with
+  String COMMAND_JMS_TEMPLATE_NAME = "jmsTemplate";
+
+  int CUSTOMER_BATCH_GET_LIMIT = 500;
+
+  int CUSTOMER_CHANGES_DEFAULT_LIMIT = 100;
+  int CUSTOMER_CHANGES_MAX_LIMIT = 1000;
+
+  int CUSTOMER_STATISTICS_MAX_DIMENSIONS = 3;
+  int CUSTOMER_STATISTICS_DEFAULT_COHORT_YEARS = 10;
+
+  // order of the advice around command dispatch and handlers, higher values run inside of the transaction
+  int CUSTOMER_COMMAND_SERIALIZER_ORDER = Ordered.HIGHEST_PRECEDENCE;
+  int COMMAND_SCHEDULER_ORDER = CUSTOMER_COMMAND_SERIALIZER_ORDER + 1;
+  int TRANSACTION_ORDER = 0;
+  int COMMAND_METRICS_ORDER = TRANSACTION_ORDER + 1;
+  int EVENT_OUTBOX_ORDER = TRANSACTION_ORDER + 2;
+  int CUSTOMER_CHANGE_RECORDER_ORDER = TRANSACTION_ORDER + 3;
 }
@@ -33,6 +33,7 @@ import org.apache.fineract.cn.customer.catalog.internal.repository.OptionReposit
 import org.apache.fineract.cn.customer.catalog.internal.command.CreateCatalogCommand;
 import org.apache.fineract.cn.customer.catalog.internal.command.DeleteFieldCommand;
 import org.apache.fineract.cn.customer.catalog.internal.repository.CatalogRepository;
+import org.apache.fineract.cn.customer.catalog.internal.service.CatalogModelCache;
 import org.apache.fineract.cn.customer.ServiceConstants;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -51,17 +52,20 @@ public class CatalogAggregate {
   private final CatalogRepository catalogRepository;
   private final FieldRepository fieldRepository;
   private final OptionRepository optionRepository;
+  private final CatalogModelCache catalogModelCache;
 
   @Autowired
   public CatalogAggregate(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
                           final CatalogRepository catalogRepository,
                           final FieldRepository fieldRepository,
-                          final OptionRepository optionRepository) {
+                          final OptionRepository optionRepository,
+                          final CatalogModelCache catalogModelCache) {
     super();
     this.logger = logger;
     this.catalogRepository = catalogRepository;
     this.fieldRepository = fieldRepository;
     this.optionRepository = optionRepository;
+    this.catalogModelCache = catalogModelCache;
   }
 
   @Transactional
@@ -76,6 +80,7 @@ public class CatalogAggregate {
         .collect(Collectors.toList())
     );
     this.catalogRepository.save(catalogEntity);
+    this.catalogModelCache.evictAfterCommit();
     return catalog.getIdentifier();
   }
 
@@ -86,6 +91,7 @@ public class CatalogAggregate {
     final Optional<CatalogEntity> optionalCatalog = this.catalogRepository.findByIdentifier(deleteCatalogCommand.identifier());
     if (optionalCatalog.isPresent()) {
       this.catalogRepository.delete(optionalCatalog.get());
+      this.catalogModelCache.evictAfterCommit();
       return deleteCatalogCommand.identifier();
     }
     return null;
@@ -101,6 +107,7 @@ public class CatalogAggregate {
           this.fieldRepository.findByCatalogAndIdentifier(optionalCatalog.get(), deleteFieldCommand.fieldIdentifier());
       if (optionalField.isPresent()) {
         this.fieldRepository.delete(optionalField.get());
+        this.catalogModelCache.evictAfterCommit();
         return deleteFieldCommand.fieldIdentifier();
       }
     }
@@ -138,6 +145,7 @@ public class CatalogAggregate {
           );
         }
         this.fieldRepository.save(temporarySavedField);
+        this.catalogModelCache.evictAfterCommit();
         return changeFieldCommand.field().getIdentifier();
       }
     }
@@ -28,7 +28,8 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @ComponentScan({
     "org.apache.fineract.cn.customer.catalog.internal.service",
     "org.apache.fineract.cn.customer.catalog.internal.repository",
-    "org.apache.fineract.cn.customer.catalog.internal.command.handler"
+    "org.apache.fineract.cn.customer.catalog.internal.command.handler",
+    "org.apache.fineract.cn.customer.catalog.internal.listener"
 })
 @EnableJpaRepositories({
     "org.apache.fineract.cn.customer.catalog.internal.repository"
@@ -0,0 +1,56 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.catalog.internal.listener;
+
+import org.apache.fineract.cn.customer.catalog.api.v1.CatalogEventConstants;
+import org.apache.fineract.cn.customer.catalog.internal.service.CatalogModelCache;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+@SuppressWarnings("unused")
+@Component
+public class CatalogModelEventListener {
+
+  private static final String SELECTOR_CATALOG_CHANGED =
+      CatalogEventConstants.SELECTOR_NAME + " IN ('"
+          + CatalogEventConstants.POST_CATALOG + "', '"
+          + CatalogEventConstants.DELETE_CATALOG + "', '"
+          + CatalogEventConstants.DELETE_FIELD + "', '"
+          + CatalogEventConstants.PUT_FIELD + "')";
+
+  private final CatalogModelCache catalogModelCache;
+
+  @Autowired
+  public CatalogModelEventListener(final CatalogModelCache catalogModelCache) {
+    super();
+    this.catalogModelCache = catalogModelCache;
+  }
+
+  @JmsListener(
+      destination = CatalogEventConstants.DESTINATION,
+      selector = SELECTOR_CATALOG_CHANGED
+  )
+  public void onCatalogChanged(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                               final String payload) {
+    this.catalogModelCache.evict(tenant);
+  }
+}
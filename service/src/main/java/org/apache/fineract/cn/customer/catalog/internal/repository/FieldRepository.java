@@ -19,12 +19,17 @@
 package org.apache.fineract.cn.customer.catalog.internal.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 
+import java.util.List;
 import java.util.Optional;
 
 @Repository
 public interface FieldRepository extends JpaRepository<FieldEntity, Long> {
 
   Optional<FieldEntity> findByCatalogAndIdentifier(final CatalogEntity catalog, final String identifier);
+
+  @Query("SELECT DISTINCT f FROM FieldEntity f JOIN FETCH f.catalog LEFT JOIN FETCH f.options")
+  List<FieldEntity> findAllWithCatalogAndOptions();
 }
@@ -20,8 +20,11 @@ package org.apache.fineract.cn.customer.catalog.internal.repository;
 
 import org.apache.fineract.cn.customer.internal.repository.CustomerEntity;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -30,6 +33,12 @@ public interface FieldValueRepository extends JpaRepository<FieldValueEntity, Lo
 
   List<FieldValueEntity> findByCustomer(final CustomerEntity customer);
 
+  @Query("SELECT fv.value, f.identifier, c.identifier FROM FieldValueEntity fv JOIN fv.field f JOIN f.catalog c WHERE fv.customer = :customer")
+  List<Object[]> findValuesByCustomer(@Param("customer") final CustomerEntity customer);
+
+  @Query("SELECT fv.customer.id, fv.value, f.identifier, c.identifier FROM FieldValueEntity fv JOIN fv.field f JOIN f.catalog c WHERE fv.customer IN :customers")
+  List<Object[]> findValuesByCustomerIn(@Param("customers") final Collection<CustomerEntity> customers);
+
   void deleteByCustomer(final CustomerEntity customer);
 
   Optional<FieldValueEntity> findByField(final FieldEntity fieldEntity);
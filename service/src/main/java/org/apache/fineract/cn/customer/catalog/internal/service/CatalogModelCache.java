@@ -0,0 +1,141 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.catalog.internal.service;
+
+import org.apache.fineract.cn.customer.catalog.internal.repository.CatalogRepository;
+import org.apache.fineract.cn.customer.catalog.internal.repository.FieldRepository;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per tenant, in-memory model of all catalogs and their fields.
+ *
+ * The model is loaded with two queries on first use and kept until a catalog command handler
+ * invalidates it, or another service instance announces a catalog change on the catalog destination.
+ * Loading happens outside of the map, so the queries do not block other tenants; a model loaded while
+ * its tenant was evicted is used once but not kept.
+ */
+@Component
+public class CatalogModelCache {
+
+  private final CatalogRepository catalogRepository;
+  private final FieldRepository fieldRepository;
+  private final ConcurrentHashMap<String, CatalogModel> models;
+  private final ConcurrentHashMap<String, AtomicLong> generations;
+
+  @Autowired
+  public CatalogModelCache(final CatalogRepository catalogRepository,
+                           final FieldRepository fieldRepository) {
+    super();
+    this.catalogRepository = catalogRepository;
+    this.fieldRepository = fieldRepository;
+    this.models = new ConcurrentHashMap<>();
+    this.generations = new ConcurrentHashMap<>();
+  }
+
+  public CompiledField findFieldOrThrow(final String catalogIdentifier, final String fieldIdentifier) {
+    final CatalogModel catalogModel = this.findModel(TenantContextHolder.checkedGetIdentifier());
+    if (!catalogModel.catalogIdentifiers.contains(catalogIdentifier)) {
+      throw ServiceException.notFound("Catalog {0} not found.", catalogIdentifier);
+    }
+    final CompiledField compiledField = catalogModel.fields.get(CatalogModelCache.key(catalogIdentifier, fieldIdentifier));
+    if (compiledField == null) {
+      throw ServiceException.notFound("Field {0} not found.", fieldIdentifier);
+    }
+    return compiledField;
+  }
+
+  public void evict(final String tenant) {
+    this.generation(tenant).incrementAndGet();
+    this.models.remove(tenant);
+  }
+
+  public void evictAfterCommit() {
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    this.evict(tenant);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(final int status) {
+          CatalogModelCache.this.evict(tenant);
+        }
+      });
+    }
+  }
+
+  private CatalogModel findModel(final String tenant) {
+    final CatalogModel cachedModel = this.models.get(tenant);
+    if (cachedModel != null) {
+      return cachedModel;
+    }
+
+    final long generation = this.generation(tenant).get();
+    final CatalogModel loadedModel = this.load();
+    final CatalogModel catalogModel = this.models.compute(tenant, (key, existingModel) -> {
+      if (existingModel != null) {
+        return existingModel;
+      }
+      return this.generation(tenant).get() == generation ? loadedModel : null;
+    });
+    return catalogModel != null ? catalogModel : loadedModel;
+  }
+
+  private AtomicLong generation(final String tenant) {
+    return this.generations.computeIfAbsent(tenant, key -> new AtomicLong());
+  }
+
+  private CatalogModel load() {
+    final HashSet<String> catalogIdentifiers = new HashSet<>();
+    this.catalogRepository.findAll().forEach(catalogEntity -> catalogIdentifiers.add(catalogEntity.getIdentifier()));
+
+    final HashMap<String, CompiledField> fields = new HashMap<>();
+    this.fieldRepository.findAllWithCatalogAndOptions().forEach(fieldEntity -> {
+      final CompiledField compiledField = CompiledField.compile(fieldEntity);
+      fields.put(CatalogModelCache.key(compiledField.getCatalogIdentifier(), compiledField.getIdentifier()), compiledField);
+    });
+
+    return new CatalogModel(catalogIdentifiers, fields);
+  }
+
+  private static String key(final String catalogIdentifier, final String fieldIdentifier) {
+    return catalogIdentifier + ":" + fieldIdentifier;
+  }
+
+  private static final class CatalogModel {
+    private final Set<String> catalogIdentifiers;
+    private final Map<String, CompiledField> fields;
+
+    private CatalogModel(final Set<String> catalogIdentifiers, final Map<String, CompiledField> fields) {
+      super();
+      this.catalogIdentifiers = catalogIdentifiers;
+      this.fields = fields;
+    }
+  }
+}
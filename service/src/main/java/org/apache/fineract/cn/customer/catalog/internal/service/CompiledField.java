@@ -0,0 +1,106 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.catalog.internal.service;
+
+import org.apache.fineract.cn.customer.catalog.api.v1.domain.Field;
+import org.apache.fineract.cn.customer.catalog.internal.repository.FieldEntity;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Immutable, validation ready view of a catalog field. Options are kept as a pre-built set of their
+ * string values so selections can be checked without touching the persistence context.
+ */
+public final class CompiledField {
+
+  private final Long id;
+  private final String catalogIdentifier;
+  private final String identifier;
+  private final String label;
+  private final Field.DataType dataType;
+  private final Integer length;
+  private final Integer precision;
+  private final Double minValue;
+  private final Double maxValue;
+  private final Set<String> options;
+
+  private CompiledField(final FieldEntity fieldEntity) {
+    super();
+    this.id = fieldEntity.getId();
+    this.catalogIdentifier = fieldEntity.getCatalog().getIdentifier();
+    this.identifier = fieldEntity.getIdentifier();
+    this.label = fieldEntity.getLabel();
+    this.dataType = Field.DataType.valueOf(fieldEntity.getDataType());
+    this.length = fieldEntity.getLength();
+    this.precision = fieldEntity.getPrecision();
+    this.minValue = fieldEntity.getMinValue();
+    this.maxValue = fieldEntity.getMaxValue();
+    final HashSet<String> optionValues = new HashSet<>();
+    if (fieldEntity.getOptions() != null) {
+      fieldEntity.getOptions().forEach(optionEntity -> optionValues.add(optionEntity.getValue().toString()));
+    }
+    this.options = Collections.unmodifiableSet(optionValues);
+  }
+
+  static CompiledField compile(final FieldEntity fieldEntity) {
+    return new CompiledField(fieldEntity);
+  }
+
+  public Long getId() {
+    return this.id;
+  }
+
+  public String getCatalogIdentifier() {
+    return this.catalogIdentifier;
+  }
+
+  public String getIdentifier() {
+    return this.identifier;
+  }
+
+  public String getLabel() {
+    return this.label;
+  }
+
+  public Field.DataType getDataType() {
+    return this.dataType;
+  }
+
+  public Integer getLength() {
+    return this.length;
+  }
+
+  public Integer getPrecision() {
+    return this.precision;
+  }
+
+  public Double getMinValue() {
+    return this.minValue;
+  }
+
+  public Double getMaxValue() {
+    return this.maxValue;
+  }
+
+  public Set<String> getOptions() {
+    return this.options;
+  }
+}
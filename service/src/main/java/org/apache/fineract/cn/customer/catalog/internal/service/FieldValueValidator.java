@@ -18,15 +18,8 @@
  */
 package org.apache.fineract.cn.customer.catalog.internal.service;
 
-import org.apache.fineract.cn.customer.catalog.api.v1.domain.Field;
 import org.apache.fineract.cn.customer.catalog.api.v1.domain.Value;
-import org.apache.fineract.cn.customer.catalog.internal.repository.CatalogEntity;
-import org.apache.fineract.cn.customer.catalog.internal.repository.FieldEntity;
-import org.apache.fineract.cn.customer.catalog.internal.repository.FieldRepository;
-import org.apache.fineract.cn.customer.catalog.internal.repository.CatalogRepository;
-import org.apache.fineract.cn.customer.catalog.internal.repository.OptionEntity;
 import org.apache.fineract.cn.customer.ServiceConstants;
-import java.util.HashSet;
 import java.util.List;
 import java.util.Set;
 import org.apache.fineract.cn.lang.DateConverter;
@@ -41,121 +34,110 @@ import org.springframework.util.StringUtils;
 public class FieldValueValidator {
 
   private final Logger logger;
-  private final CatalogRepository catalogRepository;
-  private final FieldRepository fieldRepository;
+  private final CatalogModelCache catalogModelCache;
 
   @Autowired
   public FieldValueValidator(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
-                             final CatalogRepository catalogRepository,
-                             final FieldRepository fieldRepository) {
+                             final CatalogModelCache catalogModelCache) {
     super();
     this.logger = logger;
-    this.catalogRepository = catalogRepository;
-    this.fieldRepository = fieldRepository;
+    this.catalogModelCache = catalogModelCache;
   }
 
   public void validateValues(final List<Value> values) {
     values.forEach(value -> {
-      final CatalogEntity catalogEntity =
-          this.catalogRepository.findByIdentifier(value.getCatalogIdentifier())
-              .orElseThrow(() -> ServiceException.notFound("Catalog {0} not found.", value.getCatalogIdentifier()));
+      final CompiledField compiledField =
+          this.catalogModelCache.findFieldOrThrow(value.getCatalogIdentifier(), value.getFieldIdentifier());
 
-      final FieldEntity fieldEntity =
-          this.fieldRepository.findByCatalogAndIdentifier(catalogEntity, value.getFieldIdentifier())
-              .orElseThrow(() -> ServiceException.notFound("Field {0} not found.", value.getFieldIdentifier()));
-
-      final Field.DataType dataType = Field.DataType.valueOf(fieldEntity.getDataType());
-
-      switch (dataType) {
+      switch (compiledField.getDataType()) {
         case TEXT:
-          this.checkLength(value, fieldEntity);
+          this.checkLength(value, compiledField);
           break;
         case NUMBER:
-          this.checkNumber(value, fieldEntity);
+          this.checkNumber(value, compiledField);
           break;
         case DATE:
-          this.checkDate(value, fieldEntity);
+          this.checkDate(value, compiledField);
           break;
         case SINGLE_SELECTION:
-          this.checkOptions(value, fieldEntity, fieldEntity.getOptions(), true);
+          this.checkOptions(value, compiledField, true);
           break;
         case MULTI_SELECTION:
-          this.checkOptions(value, fieldEntity, fieldEntity.getOptions(), false);
+          this.checkOptions(value, compiledField, false);
           break;
         default:
-          throw ServiceException.badRequest("Unsupported data type {0} of field {1}.", dataType.name(), fieldEntity.getLabel());
+          throw ServiceException.badRequest("Unsupported data type {0} of field {1}.",
+              compiledField.getDataType().name(), compiledField.getLabel());
       }
     });
   }
 
-  private void checkLength(final Value value, final FieldEntity fieldEntity) {
-    if (fieldEntity.getLength() != null
-        && value.getValue().length() > fieldEntity.getLength()) {
+  private void checkLength(final Value value, final CompiledField compiledField) {
+    if (compiledField.getLength() != null
+        && value.getValue().length() > compiledField.getLength()) {
       throw ServiceException.badRequest("Value for field {0} must be smaller than or equals {1}.",
-          fieldEntity.getLabel(), fieldEntity.getLength());
+          compiledField.getLabel(), compiledField.getLength());
     }
   }
 
-  private void checkNumber(final Value value, final FieldEntity fieldEntity) {
+  private void checkNumber(final Value value, final CompiledField compiledField) {
     try {
       final Double valueAsDouble = Double.valueOf(value.getValue());
 
-      if (fieldEntity.getMinValue() != null) {
-        if (valueAsDouble.compareTo(fieldEntity.getMinValue()) < 0) {
+      if (compiledField.getMinValue() != null) {
+        if (valueAsDouble.compareTo(compiledField.getMinValue()) < 0) {
           throw ServiceException.badRequest("Value for field {0} must be greater than or equals {1}.",
-              fieldEntity.getIdentifier(), fieldEntity.getMinValue());
+              compiledField.getIdentifier(), compiledField.getMinValue());
         }
       }
 
-      if (fieldEntity.getMaxValue() != null) {
-        if (valueAsDouble.compareTo(fieldEntity.getMaxValue()) > 0) {
+      if (compiledField.getMaxValue() != null) {
+        if (valueAsDouble.compareTo(compiledField.getMaxValue()) > 0) {
           throw ServiceException.badRequest("Value for field {0} must be lesser than or equals {1}.",
-              fieldEntity.getIdentifier(), fieldEntity.getMaxValue());
+              compiledField.getIdentifier(), compiledField.getMaxValue());
         }
       }
     } catch (final Throwable th) {
-      throw ServiceException.badRequest("Value for field {0} is not a number.", fieldEntity.getLabel());
+      throw ServiceException.badRequest("Value for field {0} is not a number.", compiledField.getLabel());
     }
 
     final String[] split = StringUtils.split(value.getValue(), ".");
-    if (fieldEntity.getLength() != null)  {
+    if (compiledField.getLength() != null)  {
       if (split.length == 2) {
-        if ((split[0].length() + split[1].length()) > fieldEntity.getLength()) {
+        if ((split[0].length() + split[1].length()) > compiledField.getLength()) {
           throw ServiceException.badRequest("Value for field {0} must be smaller than or equals {1}.",
-              fieldEntity.getLabel(), fieldEntity.getLength());
+              compiledField.getLabel(), compiledField.getLength());
         }
 
-        if (fieldEntity.getPrecision() != null)  {
-          if (split[1].length() > fieldEntity.getPrecision()) {
+        if (compiledField.getPrecision() != null)  {
+          if (split[1].length() > compiledField.getPrecision()) {
             throw ServiceException.badRequest("Precision for field {0} must be smaller than or equals {1}.",
-                fieldEntity.getLabel(), fieldEntity.getPrecision());
+                compiledField.getLabel(), compiledField.getPrecision());
           }
         }
       } else {
-        this.checkLength(value, fieldEntity);
+        this.checkLength(value, compiledField);
       }
     }
   }
 
-  private void checkDate(final Value value, final FieldEntity fieldEntity) {
+  private void checkDate(final Value value, final CompiledField compiledField) {
     try {
       DateConverter.fromIsoString(value.getValue());
     } catch (final Throwable th) {
-      throw ServiceException.badRequest("Value for field {0} must be a valid ISO value.",fieldEntity.getLabel() );
+      throw ServiceException.badRequest("Value for field {0} must be a valid ISO value.",compiledField.getLabel() );
     }
   }
 
-  private void checkOptions(final Value value, final FieldEntity fieldEntity, final List<OptionEntity> optionEntities, boolean singleSelection) {
+  private void checkOptions(final Value value, final CompiledField compiledField, boolean singleSelection) {
     final Set<String> valuesAsSet = StringUtils.commaDelimitedListToSet(value.getValue());
 
     if (singleSelection && valuesAsSet.size() > 1) {
-      throw ServiceException.badRequest("Field {0} only supports single selection.", fieldEntity.getLabel());
+      throw ServiceException.badRequest("Field {0} only supports single selection.", compiledField.getLabel());
     }
 
-    final HashSet<String> optionsAsSet = new HashSet<>(optionEntities.size());
-    optionEntities.forEach(optionEntity -> optionsAsSet.add(optionEntity.getValue().toString()));
-    if (!optionsAsSet.containsAll(valuesAsSet)) {
-      throw ServiceException.badRequest("Unsupported option {0} for field {1}.", value.getValue(), fieldEntity.getLabel());
+    if (!compiledField.getOptions().containsAll(valuesAsSet)) {
+      throw ServiceException.badRequest("Unsupported option {0} for field {1}.", value.getValue(), compiledField.getLabel());
     }
   }
 }
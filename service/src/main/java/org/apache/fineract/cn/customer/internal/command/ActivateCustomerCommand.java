@@ -18,7 +18,7 @@
  */
 package org.apache.fineract.cn.customer.internal.command;
 
-public class ActivateCustomerCommand {
+public class ActivateCustomerCommand implements CustomerScopedCommand {
 
   private final String identifier;
   private final String comment;
@@ -33,6 +33,11 @@ public class ActivateCustomerCommand {
     return this.identifier;
   }
 
+  @Override
+  public String customerIdentifier() {
+    return this.identifier;
+  }
+
   public String comment() {
     return this.comment;
   }
@@ -18,7 +18,7 @@
  */
 package org.apache.fineract.cn.customer.internal.command;
 
-public class AddTaskDefinitionToCustomerCommand {
+public class AddTaskDefinitionToCustomerCommand implements CustomerScopedCommand {
 
   private final String customerIdentifier;
   private final String taskIdentifier;
@@ -29,6 +29,7 @@ public class AddTaskDefinitionToCustomerCommand {
     this.taskIdentifier = taskIdentifier;
   }
 
+  @Override
   public String customerIdentifier() {
     return this.customerIdentifier;
   }
@@ -18,7 +18,7 @@
  */
 package org.apache.fineract.cn.customer.internal.command;
 
-import org.springframework.web.multipart.MultipartFile;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
 
 /**
  * @author Myrle Krantz
@@ -27,13 +27,13 @@ public class CreateDocumentPageCommand {
   private final String customerIdentifier;
   private final String documentIdentifier;
   private final Integer pageNumber;
-  private final MultipartFile document;
+  private final SpooledUpload document;
 
   public CreateDocumentPageCommand(
       final String customerIdentifier,
       final String documentIdentifier,
       final int pageNumber,
-      final MultipartFile document) {
+      final SpooledUpload document) {
     this.customerIdentifier = customerIdentifier;
     this.documentIdentifier = documentIdentifier;
     this.pageNumber = pageNumber;
@@ -52,7 +52,7 @@ public class CreateDocumentPageCommand {
     return pageNumber;
   }
 
-  public MultipartFile getDocument() {
+  public SpooledUpload getDocument() {
     return document;
   }
 }
@@ -20,7 +20,7 @@ package org.apache.fineract.cn.customer.internal.command;
 
 import org.apache.fineract.cn.customer.api.v1.domain.IdentificationCard;
 
-public class CreateIdentificationCardCommand {
+public class CreateIdentificationCardCommand implements CustomerScopedCommand {
 
   private final String identifier;
   private final IdentificationCard identificationCard;
@@ -35,6 +35,11 @@ public class CreateIdentificationCardCommand {
     return this.identifier;
   }
 
+  @Override
+  public String customerIdentifier() {
+    return this.identifier;
+  }
+
   public IdentificationCard identificationCard() {
     return this.identificationCard;
   }
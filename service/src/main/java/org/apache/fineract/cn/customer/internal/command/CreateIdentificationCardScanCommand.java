@@ -19,7 +19,7 @@
 package org.apache.fineract.cn.customer.internal.command;
 
 import org.apache.fineract.cn.customer.api.v1.domain.IdentificationCardScan;
-import org.springframework.web.multipart.MultipartFile;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
 
 public class CreateIdentificationCardScanCommand {
 
@@ -27,9 +27,9 @@ public class CreateIdentificationCardScanCommand {
 
   private final IdentificationCardScan scan;
 
-  private final MultipartFile image;
+  private final SpooledUpload image;
 
-  public CreateIdentificationCardScanCommand(final String number, final IdentificationCardScan scan, final MultipartFile image) {
+  public CreateIdentificationCardScanCommand(final String number, final IdentificationCardScan scan, final SpooledUpload image) {
     this.number = number;
     this.scan = scan;
     this.image = image;
@@ -43,7 +43,7 @@ public class CreateIdentificationCardScanCommand {
     return scan;
   }
 
-  public MultipartFile image() { return image; }
+  public SpooledUpload image() { return image; }
 
   @Override
   public String toString() {
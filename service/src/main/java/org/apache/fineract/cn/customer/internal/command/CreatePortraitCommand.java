@@ -18,14 +18,14 @@
  */
 package org.apache.fineract.cn.customer.internal.command;
 
-import org.springframework.web.multipart.MultipartFile;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
 
-public class CreatePortraitCommand {
+public class CreatePortraitCommand implements CustomerScopedCommand {
 
   private final String identifier;
-  private final MultipartFile portrait;
+  private final SpooledUpload portrait;
 
-  public CreatePortraitCommand(final String identifier, final MultipartFile portrait) {
+  public CreatePortraitCommand(final String identifier, final SpooledUpload portrait) {
     super();
     this.identifier = identifier;
     this.portrait = portrait;
@@ -35,7 +35,12 @@ public class CreatePortraitCommand {
     return this.identifier;
   }
 
-  public MultipartFile portrait() {
+  @Override
+  public String customerIdentifier() {
+    return this.identifier;
+  }
+
+  public SpooledUpload portrait() {
     return this.portrait;
   }
 }
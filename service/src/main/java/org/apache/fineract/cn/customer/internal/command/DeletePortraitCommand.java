@@ -18,7 +18,7 @@
  */
 package org.apache.fineract.cn.customer.internal.command;
 
-public class DeletePortraitCommand {
+public class DeletePortraitCommand implements CustomerScopedCommand {
 
   private final String identifier;
 
@@ -31,4 +31,9 @@ public class DeletePortraitCommand {
     return this.identifier;
   }
 
+  @Override
+  public String customerIdentifier() {
+    return this.identifier;
+  }
+
 }
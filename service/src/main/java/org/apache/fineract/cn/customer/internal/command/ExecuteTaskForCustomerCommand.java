@@ -18,7 +18,7 @@
  */
 package org.apache.fineract.cn.customer.internal.command;
 
-public class ExecuteTaskForCustomerCommand {
+public class ExecuteTaskForCustomerCommand implements CustomerScopedCommand {
 
   private final String customerIdentifier;
   private final String taskIdentifier;
@@ -29,6 +29,7 @@ public class ExecuteTaskForCustomerCommand {
     this.taskIdentifier = taskIdentifier;
   }
 
+  @Override
   public String customerIdentifier() {
     return this.customerIdentifier;
   }
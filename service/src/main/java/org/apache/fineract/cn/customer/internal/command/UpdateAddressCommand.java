@@ -20,7 +20,7 @@ package org.apache.fineract.cn.customer.internal.command;
 
 import org.apache.fineract.cn.customer.api.v1.domain.Address;
 
-public class UpdateAddressCommand {
+public class UpdateAddressCommand implements CustomerScopedCommand {
 
   private final String identifier;
   private final Address address;
@@ -35,6 +35,11 @@ public class UpdateAddressCommand {
     return this.identifier;
   }
 
+  @Override
+  public String customerIdentifier() {
+    return this.identifier;
+  }
+
   public Address address() {
     return this.address;
   }
@@ -22,7 +22,7 @@ import org.apache.fineract.cn.customer.api.v1.domain.ContactDetail;
 
 import java.util.List;
 
-public class UpdateContactDetailsCommand {
+public class UpdateContactDetailsCommand implements CustomerScopedCommand {
 
   private final String identifier;
   private final List<ContactDetail> contactDetails;
@@ -37,6 +37,11 @@ public class UpdateContactDetailsCommand {
     return this.identifier;
   }
 
+  @Override
+  public String customerIdentifier() {
+    return this.identifier;
+  }
+
   public List<ContactDetail> contactDetails() {
     return this.contactDetails;
   }
@@ -20,7 +20,7 @@ package org.apache.fineract.cn.customer.internal.command;
 
 import org.apache.fineract.cn.customer.api.v1.domain.Customer;
 
-public class UpdateCustomerCommand {
+public class UpdateCustomerCommand implements CustomerScopedCommand {
 
   private final Customer customer;
 
@@ -32,4 +32,9 @@ public class UpdateCustomerCommand {
   public Customer customer() {
     return this.customer;
   }
+
+  @Override
+  public String customerIdentifier() {
+    return this.customer.getIdentifier();
+  }
 }
@@ -20,7 +20,7 @@ package org.apache.fineract.cn.customer.internal.command;
 
 import org.apache.fineract.cn.customer.api.v1.domain.IdentificationCard;
 
-public class UpdateIdentificationCardCommand {
+public class UpdateIdentificationCardCommand implements CustomerScopedCommand {
 
   private final String identifier;
   private final String number;
@@ -37,6 +37,11 @@ public class UpdateIdentificationCardCommand {
     return this.identifier;
   }
 
+  @Override
+  public String customerIdentifier() {
+    return this.identifier;
+  }
+
   public String number() {
     return this.number;
   }
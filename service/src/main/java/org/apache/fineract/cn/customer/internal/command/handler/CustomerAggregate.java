@@ -21,16 +21,17 @@ package org.apache.fineract.cn.customer.internal.command.handler;
 import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
 import org.apache.fineract.cn.customer.api.v1.domain.Command;
 import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.events.CustomerImportEvent;
 import org.apache.fineract.cn.customer.api.v1.events.ScanEvent;
-import org.apache.fineract.cn.customer.catalog.internal.repository.CatalogEntity;
-import org.apache.fineract.cn.customer.catalog.internal.repository.CatalogRepository;
 import org.apache.fineract.cn.customer.catalog.internal.repository.FieldEntity;
 import org.apache.fineract.cn.customer.catalog.internal.repository.FieldRepository;
 import org.apache.fineract.cn.customer.catalog.internal.repository.FieldValueEntity;
 import org.apache.fineract.cn.customer.catalog.internal.repository.FieldValueRepository;
+import org.apache.fineract.cn.customer.catalog.internal.service.CatalogModelCache;
 import org.apache.fineract.cn.customer.internal.command.ActivateCustomerCommand;
 import org.apache.fineract.cn.customer.internal.command.CloseCustomerCommand;
 import org.apache.fineract.cn.customer.internal.command.CreateCustomerCommand;
+import org.apache.fineract.cn.customer.internal.command.CreateCustomersCommand;
 import org.apache.fineract.cn.customer.internal.command.CreateIdentificationCardCommand;
 import org.apache.fineract.cn.customer.internal.command.CreateIdentificationCardScanCommand;
 import org.apache.fineract.cn.customer.internal.command.CreatePortraitCommand;
@@ -44,6 +45,7 @@ import org.apache.fineract.cn.customer.internal.command.UpdateAddressCommand;
 import org.apache.fineract.cn.customer.internal.command.UpdateContactDetailsCommand;
 import org.apache.fineract.cn.customer.internal.command.UpdateCustomerCommand;
 import org.apache.fineract.cn.customer.internal.command.UpdateIdentificationCardCommand;
+import org.apache.fineract.cn.customer.internal.config.CustomerImportProperties;
 import org.apache.fineract.cn.customer.internal.mapper.AddressMapper;
 import org.apache.fineract.cn.customer.internal.mapper.CommandMapper;
 import org.apache.fineract.cn.customer.internal.mapper.ContactDetailMapper;
@@ -57,6 +59,7 @@ import org.apache.fineract.cn.customer.internal.repository.AddressRepository;
 import org.apache.fineract.cn.customer.internal.repository.CommandRepository;
 import org.apache.fineract.cn.customer.internal.repository.ContactDetailEntity;
 import org.apache.fineract.cn.customer.internal.repository.ContactDetailRepository;
+import org.apache.fineract.cn.customer.internal.repository.CustomerBulkRepository;
 import org.apache.fineract.cn.customer.internal.repository.CustomerEntity;
 import org.apache.fineract.cn.customer.internal.repository.CustomerRepository;
 import org.apache.fineract.cn.customer.internal.repository.IdentificationCardEntity;
@@ -65,11 +68,17 @@ import org.apache.fineract.cn.customer.internal.repository.IdentificationCardSca
 import org.apache.fineract.cn.customer.internal.repository.IdentificationCardScanRepository;
 import org.apache.fineract.cn.customer.internal.repository.PortraitEntity;
 import org.apache.fineract.cn.customer.internal.repository.PortraitRepository;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
+import org.apache.fineract.cn.customer.internal.repository.StoredBlob;
+import org.apache.fineract.cn.customer.internal.service.BlobService;
+import org.apache.fineract.cn.customer.internal.service.CustomerCache;
 import java.io.IOException;
 import java.sql.Date;
 import java.time.Clock;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
 import java.util.Optional;
 import java.util.stream.Collectors;
@@ -81,7 +90,6 @@ import org.apache.fineract.cn.command.annotation.EventEmitter;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.multipart.MultipartFile;
 
 @SuppressWarnings({"unused", "UnusedReturnValue"})
 @Aggregate
@@ -93,10 +101,14 @@ public class CustomerAggregate {
   private final PortraitRepository portraitRepository;
   private final ContactDetailRepository contactDetailRepository;
   private final FieldValueRepository fieldValueRepository;
-  private final CatalogRepository catalogRepository;
   private final FieldRepository fieldRepository;
+  private final CatalogModelCache catalogModelCache;
   private final CommandRepository commandRepository;
   private final TaskAggregate taskAggregate;
+  private final CustomerCache customerCache;
+  private final CustomerBulkRepository customerBulkRepository;
+  private final CustomerImportProperties customerImportProperties;
+  private final BlobService blobService;
 
   @Autowired
   public CustomerAggregate(final AddressRepository addressRepository,
@@ -106,10 +118,14 @@ public class CustomerAggregate {
                            final PortraitRepository portraitRepository,
                            final ContactDetailRepository contactDetailRepository,
                            final FieldValueRepository fieldValueRepository,
-                           final CatalogRepository catalogRepository,
                            final FieldRepository fieldRepository,
+                           final CatalogModelCache catalogModelCache,
                            final CommandRepository commandRepository,
-                           final TaskAggregate taskAggregate) {
+                           final TaskAggregate taskAggregate,
+                           final CustomerCache customerCache,
+                           final CustomerBulkRepository customerBulkRepository,
+                           final CustomerImportProperties customerImportProperties,
+                           final BlobService blobService) {
     super();
     this.addressRepository = addressRepository;
     this.customerRepository = customerRepository;
@@ -118,10 +134,14 @@ public class CustomerAggregate {
     this.portraitRepository = portraitRepository;
     this.contactDetailRepository = contactDetailRepository;
     this.fieldValueRepository = fieldValueRepository;
-    this.catalogRepository = catalogRepository;
     this.fieldRepository = fieldRepository;
+    this.catalogModelCache = catalogModelCache;
     this.commandRepository = commandRepository;
     this.taskAggregate = taskAggregate;
+    this.customerCache = customerCache;
+    this.customerBulkRepository = customerBulkRepository;
+    this.customerImportProperties = customerImportProperties;
+    this.blobService = blobService;
   }
 
   @Transactional
@@ -159,6 +179,60 @@ public class CustomerAggregate {
     return customer.getIdentifier();
   }
 
+  @Transactional
+  @CommandHandler
+  @EventEmitter(selectorName = CustomerEventConstants.SELECTOR_NAME, selectorValue = CustomerEventConstants.POST_CUSTOMERS)
+  public CustomerImportEvent createCustomers(final CreateCustomersCommand createCustomersCommand) {
+    final List<Customer> customers = createCustomersCommand.customers();
+    final ArrayList<CustomerEntity> customerEntities = new ArrayList<>(customers.size());
+    final ArrayList<AddressEntity> addressEntities = new ArrayList<>(customers.size());
+    final ArrayList<ContactDetailEntity> contactDetailEntities = new ArrayList<>();
+    final ArrayList<FieldValueEntity> fieldValueEntities = new ArrayList<>();
+    final HashMap<String, FieldEntity> fieldsByKey = new HashMap<>();
+
+    customers.forEach(customer -> {
+      final CustomerEntity customerEntity = CustomerMapper.map(customer);
+      customerEntity.setCurrentState(Customer.State.PENDING.name());
+      customerEntities.add(customerEntity);
+
+      if (customer.getAddress() != null) {
+        final AddressEntity addressEntity = AddressMapper.map(customer.getAddress());
+        customerEntity.setAddress(addressEntity);
+        addressEntities.add(addressEntity);
+      }
+
+      if (customer.getContactDetails() != null) {
+        customer.getContactDetails().forEach(contact -> {
+          final ContactDetailEntity contactDetailEntity = ContactDetailMapper.map(contact);
+          contactDetailEntity.setCustomer(customerEntity);
+          contactDetailEntities.add(contactDetailEntity);
+        });
+      }
+
+      if (customer.getCustomValues() != null) {
+        customer.getCustomValues().forEach(value -> {
+          final FieldValueEntity fieldValueEntity = FieldValueMapper.map(value);
+          fieldValueEntity.setCustomer(customerEntity);
+          fieldValueEntity.setField(fieldsByKey.computeIfAbsent(
+              value.getCatalogIdentifier() + ":" + value.getFieldIdentifier(),
+              key -> this.findFieldEntityOrThrow(value.getCatalogIdentifier(), value.getFieldIdentifier())));
+          fieldValueEntities.add(fieldValueEntity);
+        });
+      }
+    });
+
+    final Integer batchSize = this.customerImportProperties.getBatchSize();
+    this.customerBulkRepository.insertAddresses(addressEntities, batchSize);
+    this.customerBulkRepository.insertCustomers(customerEntities, batchSize);
+    this.customerBulkRepository.insertContactDetails(contactDetailEntities, batchSize);
+    this.customerBulkRepository.insertFieldValues(fieldValueEntities, batchSize);
+    this.customerBulkRepository.insertTaskInstances(
+        this.taskAggregate.createPredefinedTaskInstances(customerEntities, Command.Action.ACTIVATE), batchSize);
+
+    return new CustomerImportEvent(
+        customers.stream().map(Customer::getIdentifier).collect(Collectors.toList()));
+  }
+
   @Transactional
   @CommandHandler
   @EventEmitter(selectorName = CustomerEventConstants.SELECTOR_NAME, selectorValue = CustomerEventConstants.PUT_CUSTOMER)
@@ -166,6 +240,9 @@ public class CustomerAggregate {
     final Customer customer = updateCustomerCommand.customer();
 
     final CustomerEntity customerEntity = findCustomerEntityOrThrow(customer.getIdentifier());
+    if (customer.getVersion() != null && !customer.getVersion().equals(customerEntity.getVersion())) {
+      throw ServiceException.conflict("Customer {0} was changed concurrently.", customer.getIdentifier());
+    }
 
     customerEntity.setGivenName(customer.getGivenName());
     customerEntity.setMiddleName(customer.getMiddleName());
@@ -206,6 +283,8 @@ public class CustomerAggregate {
 
     this.customerRepository.save(customerEntity);
 
+    this.customerCache.evictAfterCommit(customer.getIdentifier());
+
     return customer.getIdentifier();
   }
 
@@ -232,6 +311,8 @@ public class CustomerAggregate {
         CommandMapper.create(savedCustomerEntity, Command.Action.ACTIVATE.name(), activateCustomerCommand.comment())
     );
 
+    this.customerCache.evictAfterCommit(activateCustomerCommand.identifier());
+
     return activateCustomerCommand.identifier();
   }
 
@@ -253,6 +334,8 @@ public class CustomerAggregate {
 
     this.taskAggregate.onCustomerCommand(savedCustomerEntity, Command.Action.UNLOCK);
 
+    this.customerCache.evictAfterCommit(lockCustomerCommand.identifier());
+
     return lockCustomerCommand.identifier();
   }
 
@@ -276,6 +359,8 @@ public class CustomerAggregate {
         CommandMapper.create(savedCustomerEntity, Command.Action.UNLOCK.name(), unlockCustomerCommand.comment())
     );
 
+    this.customerCache.evictAfterCommit(unlockCustomerCommand.identifier());
+
     return unlockCustomerCommand.identifier();
   }
 
@@ -297,6 +382,8 @@ public class CustomerAggregate {
 
     this.taskAggregate.onCustomerCommand(savedCustomerEntity, Command.Action.REOPEN);
 
+    this.customerCache.evictAfterCommit(closeCustomerCommand.identifier());
+
     return closeCustomerCommand.identifier();
   }
 
@@ -320,6 +407,8 @@ public class CustomerAggregate {
         CommandMapper.create(savedCustomerEntity, Command.Action.REOPEN.name(), reopenCustomerCommand.comment())
     );
 
+    this.customerCache.evictAfterCommit(reopenCustomerCommand.identifier());
+
     return reopenCustomerCommand.identifier();
   }
 
@@ -340,6 +429,8 @@ public class CustomerAggregate {
 
     this.addressRepository.delete(oldAddressEntity);
 
+    this.customerCache.evictAfterCommit(updateAddressCommand.identifier());
+
     return updateAddressCommand.identifier();
   }
 
@@ -367,6 +458,8 @@ public class CustomerAggregate {
       );
     }
 
+    this.customerCache.evictAfterCommit(updateContactDetailsCommand.identifier());
+
     return updateContactDetailsCommand.identifier();
   }
 
@@ -431,6 +524,7 @@ public class CustomerAggregate {
       final List<IdentificationCardScanEntity> cardScanEntities = this.identificationCardScanRepository.findByIdentificationCard(identificationCardEntity);
 
       this.identificationCardScanRepository.delete(cardScanEntities);
+      cardScanEntities.forEach(cardScanEntity -> this.blobService.releaseAfterCommit(cardScanEntity.getBlobKey()));
 
       this.identificationCardRepository.delete(identificationCardEntity);
 
@@ -449,19 +543,24 @@ public class CustomerAggregate {
   @CommandHandler(logStart = CommandLogLevel.INFO, logFinish = CommandLogLevel.INFO)
   @EventEmitter(selectorName = CustomerEventConstants.SELECTOR_NAME, selectorValue = CustomerEventConstants.POST_IDENTIFICATION_CARD_SCAN)
   public ScanEvent createIdentificationCardScan(final CreateIdentificationCardScanCommand command) throws Exception {
+    this.blobService.discardAfterCompletion(command.image());
+
     final Optional<IdentificationCardEntity> identificationCardEntity = this.identificationCardRepository.findByNumber(command.number());
 
     final IdentificationCardEntity cardEntity = identificationCardEntity.orElseThrow(() -> ServiceException.notFound("Identification card {0} not found.", command.number()));
 
     final IdentificationCardScanEntity identificationCardScanEntity = IdentificationCardScanMapper.map(command.scan());
 
-    final MultipartFile image = command.image();
+    final SpooledUpload image = command.image();
 
     final LocalDateTime now = LocalDateTime.now(Clock.systemUTC());
 
-    identificationCardScanEntity.setImage(image.getBytes());
+    final StoredBlob storedBlob = this.blobService.store(image);
+
+    identificationCardScanEntity.setBlobKey(storedBlob.getKey());
+    identificationCardScanEntity.setContentHash(storedBlob.getContentHash());
     identificationCardScanEntity.setContentType(image.getContentType());
-    identificationCardScanEntity.setSize(image.getSize());
+    identificationCardScanEntity.setSize(storedBlob.getSize());
     identificationCardScanEntity.setIdentificationCard(cardEntity);
     identificationCardScanEntity.setCreatedBy(UserContextHolder.checkedGetUser());
     identificationCardScanEntity.setCreatedOn(now);
@@ -487,6 +586,7 @@ public class CustomerAggregate {
     scanEntity.ifPresent(identificationCardScanEntity -> {
 
       this.identificationCardScanRepository.delete(identificationCardScanEntity);
+      this.blobService.releaseAfterCommit(identificationCardScanEntity.getBlobKey());
 
       final IdentificationCardEntity identificationCard = identificationCardScanEntity.getIdentificationCard();
 
@@ -507,9 +607,12 @@ public class CustomerAggregate {
       return null;
     }
 
+    this.blobService.discardAfterCompletion(createPortraitCommand.portrait());
+
     final CustomerEntity customerEntity = findCustomerEntityOrThrow(createPortraitCommand.identifier());
 
-    final PortraitEntity portraitEntity = PortraitMapper.map(createPortraitCommand.portrait());
+    final PortraitEntity portraitEntity = PortraitMapper.map(createPortraitCommand.portrait(),
+        this.blobService.store(createPortraitCommand.portrait()));
     portraitEntity.setCustomer(customerEntity);
     this.portraitRepository.save(portraitEntity);
 
@@ -527,7 +630,11 @@ public class CustomerAggregate {
   public String deletePortrait(final DeletePortraitCommand deletePortraitCommand) throws IOException {
     final CustomerEntity customerEntity = findCustomerEntityOrThrow(deletePortraitCommand.identifier());
 
-    this.portraitRepository.deleteByCustomer(customerEntity);
+    final PortraitEntity portraitEntity = this.portraitRepository.findByCustomer(customerEntity);
+    if (portraitEntity != null) {
+      this.portraitRepository.delete(portraitEntity);
+      this.blobService.releaseAfterCommit(portraitEntity.getBlobKey());
+    }
 
     customerEntity.setLastModifiedBy(UserContextHolder.checkedGetUser());
     customerEntity.setLastModifiedOn(LocalDateTime.now(Clock.systemUTC()));
@@ -537,21 +644,21 @@ public class CustomerAggregate {
     return deletePortraitCommand.identifier();
   }
 
+  private FieldEntity findFieldEntityOrThrow(final String catalogIdentifier, final String fieldIdentifier) {
+    // resolved against the compiled catalog model, the returned reference is not loaded from the database
+    return this.fieldRepository.getOne(
+        this.catalogModelCache.findFieldOrThrow(catalogIdentifier, fieldIdentifier).getId());
+  }
+
   private void setCustomValues(final Customer customer, final CustomerEntity savedCustomerEntity) {
     this.fieldValueRepository.save(
         customer.getCustomValues()
             .stream()
             .map(value -> {
-              final Optional<CatalogEntity> catalog =
-                  this.catalogRepository.findByIdentifier(value.getCatalogIdentifier());
-              final Optional<FieldEntity> field =
-                  this.fieldRepository.findByCatalogAndIdentifier(
-                      catalog.orElseThrow(() -> ServiceException.notFound("Catalog {0} not found.", value.getCatalogIdentifier())),
-                      value.getFieldIdentifier());
               final FieldValueEntity fieldValueEntity = FieldValueMapper.map(value);
               fieldValueEntity.setCustomer(savedCustomerEntity);
               fieldValueEntity.setField(
-                  field.orElseThrow(() -> ServiceException.notFound("Field {0} not found.", value.getFieldIdentifier())));
+                  this.findFieldEntityOrThrow(value.getCatalogIdentifier(), value.getFieldIdentifier()));
               return fieldValueEntity;
             })
             .collect(Collectors.toList())
@@ -33,6 +33,7 @@ import org.apache.fineract.cn.customer.internal.repository.DocumentEntity;
 import org.apache.fineract.cn.customer.internal.repository.DocumentPageEntity;
 import org.apache.fineract.cn.customer.internal.repository.DocumentPageRepository;
 import org.apache.fineract.cn.customer.internal.repository.DocumentRepository;
+import org.apache.fineract.cn.customer.internal.service.BlobService;
 import java.io.IOException;
 import java.time.Clock;
 import java.time.LocalDateTime;
@@ -52,27 +53,33 @@ public class DocumentCommandHandler {
   private final DocumentRepository documentRepository;
   private final DocumentPageRepository documentPageRepository;
   private final CustomerRepository customerRepository;
+  private final BlobService blobService;
 
   @Autowired
   public DocumentCommandHandler(
       final DocumentRepository documentRepository,
       final DocumentPageRepository documentPageRepository,
-      final CustomerRepository customerRepository) {
+      final CustomerRepository customerRepository,
+      final BlobService blobService) {
     this.documentRepository = documentRepository;
     this.documentPageRepository = documentPageRepository;
     this.customerRepository = customerRepository;
+    this.blobService = blobService;
   }
 
   @Transactional
   @CommandHandler
   @EventEmitter(selectorName = CustomerEventConstants.SELECTOR_NAME, selectorValue = CustomerEventConstants.POST_DOCUMENT_PAGE)
   public DocumentPageEvent process(final CreateDocumentPageCommand command) throws IOException {
+    blobService.discardAfterCompletion(command.getDocument());
+
     final DocumentEntity documentEntity = documentRepository.findByCustomerIdAndDocumentIdentifier(
         command.getCustomerIdentifier(),
         command.getDocumentIdentifier())
         .orElseThrow(() -> ServiceException.badRequest("Document not found"));
 
-    final DocumentPageEntity documentPageEntity = DocumentMapper.map(command.getDocument(), command.getPageNumber(), documentEntity);
+    final DocumentPageEntity documentPageEntity = DocumentMapper.map(command.getDocument(),
+        blobService.store(command.getDocument()), command.getPageNumber(), documentEntity);
     documentPageRepository.save(documentPageEntity);
 
     return new DocumentPageEvent(command.getCustomerIdentifier(), command.getDocumentIdentifier(), command.getPageNumber());
@@ -119,7 +126,10 @@ public class DocumentCommandHandler {
             ServiceException.notFound("Document ''{0}'' for customer ''{1}'' not found",
                 command.getDocumentIdentifier(), command.getCustomerIdentifier()));
     documentPageRepository.findByCustomerIdAndDocumentIdentifier(command.getCustomerIdentifier(), command.getDocumentIdentifier())
-        .forEach(documentPageRepository::delete);
+        .forEach(documentPageEntity -> {
+          documentPageRepository.delete(documentPageEntity);
+          blobService.releaseAfterCommit(documentPageEntity.getBlobKey());
+        });
     documentRepository.delete(existingDocument);
 
     return new DocumentEvent(command.getCustomerIdentifier(), command.getDocumentIdentifier());
@@ -151,7 +161,10 @@ public class DocumentCommandHandler {
         command.getCustomerIdentifier(),
         command.getDocumentIdentifier(),
         command.getPageNumber())
-        .ifPresent(documentPageRepository::delete);
+        .ifPresent(documentPageEntity -> {
+          documentPageRepository.delete(documentPageEntity);
+          blobService.releaseAfterCommit(documentPageEntity.getBlobKey());
+        });
 
     //No exception if it's not present, because why bother.  It's not present.  That was the goal.
 
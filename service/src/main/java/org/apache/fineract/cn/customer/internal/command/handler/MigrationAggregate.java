@@ -21,6 +21,13 @@ package org.apache.fineract.cn.customer.internal.command.handler;
 import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
 import org.apache.fineract.cn.customer.ServiceConstants;
 import org.apache.fineract.cn.customer.internal.command.InitializeServiceCommand;
+import org.apache.fineract.cn.customer.internal.repository.BlobStore;
+import org.apache.fineract.cn.customer.internal.repository.StoredBlob;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.util.List;
+import java.util.Map;
 import javax.sql.DataSource;
 import org.apache.fineract.cn.command.annotation.Aggregate;
 import org.apache.fineract.cn.command.annotation.CommandHandler;
@@ -29,6 +36,7 @@ import org.apache.fineract.cn.postgresql.domain.FlywayFactoryBean;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.jdbc.core.JdbcTemplate;
 
 @SuppressWarnings({
     "unused"
@@ -36,18 +44,26 @@ import org.springframework.beans.factory.annotation.Qualifier;
 @Aggregate
 public class MigrationAggregate {
 
+  private static final String[] IMAGE_TABLES = {
+      "maat_portraits", "maat_identification_card_scans", "maat_document_pages"
+  };
+  private static final int IMAGE_MIGRATION_BATCH_SIZE = 100;
+
   private final Logger logger;
   private final DataSource dataSource;
   private final FlywayFactoryBean flywayFactoryBean;
+  private final BlobStore blobStore;
 
   @Autowired
   public MigrationAggregate(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
                             final DataSource dataSource,
-                            final FlywayFactoryBean flywayFactoryBean) {
+                            final FlywayFactoryBean flywayFactoryBean,
+                            final BlobStore blobStore) {
     super();
     this.logger = logger;
     this.dataSource = dataSource;
     this.flywayFactoryBean = flywayFactoryBean;
+    this.blobStore = blobStore;
   }
 
   @CommandHandler
@@ -55,6 +71,35 @@ public class MigrationAggregate {
   public String initialize(final InitializeServiceCommand initializeServiceCommand) {
     this.logger.debug("Start service migration.");
     this.flywayFactoryBean.create(this.dataSource).migrate();
+    this.migrateImagesToBlobStore();
     return CustomerEventConstants.INITIALIZE;
   }
-}
\ No newline at end of file
+
+  // images stored before the blob store was introduced still live in BYTEA columns
+  private void migrateImagesToBlobStore() {
+    final JdbcTemplate jdbcTemplate = new JdbcTemplate(this.dataSource);
+    for (final String table : IMAGE_TABLES) {
+      List<Map<String, Object>> rows;
+      do {
+        rows = jdbcTemplate.queryForList(
+            "SELECT id, image FROM " + table + " WHERE blob_key IS NULL AND image IS NOT NULL ORDER BY id LIMIT ?",
+            IMAGE_MIGRATION_BATCH_SIZE);
+        for (final Map<String, Object> row : rows) {
+          final StoredBlob storedBlob;
+          try {
+            storedBlob = this.blobStore.store(new ByteArrayInputStream((byte[]) row.get("image")));
+          } catch (final IOException ex) {
+            throw new UncheckedIOException(ex);
+          }
+          jdbcTemplate.update(
+              "INSERT INTO maat_blobs (blob_key, created_on) VALUES (?, now()) ON CONFLICT (blob_key) DO NOTHING",
+              storedBlob.getKey());
+          jdbcTemplate.update(
+              "UPDATE " + table + " SET blob_key = ?, content_hash = ?, size = ?, image = NULL WHERE id = ?",
+              storedBlob.getKey(), storedBlob.getContentHash(), storedBlob.getSize(), row.get("id"));
+        }
+        this.logger.debug("Moved {} images of {} to the blob store.", rows.size(), table);
+      } while (!rows.isEmpty());
+    }
+  }
+}
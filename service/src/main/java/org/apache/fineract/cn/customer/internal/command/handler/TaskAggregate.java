@@ -33,12 +33,16 @@ import org.apache.fineract.cn.customer.internal.repository.TaskDefinitionEntity;
 import org.apache.fineract.cn.customer.internal.repository.TaskDefinitionRepository;
 import org.apache.fineract.cn.customer.internal.repository.TaskInstanceEntity;
 import org.apache.fineract.cn.customer.internal.repository.TaskInstanceRepository;
+import org.apache.fineract.cn.customer.internal.service.CustomerCache;
+import org.apache.fineract.cn.customer.internal.service.TaskDefinitionRegistry;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
-import org.apache.commons.lang.StringUtils;
 import org.apache.fineract.cn.api.util.UserContextHolder;
 import org.apache.fineract.cn.command.annotation.Aggregate;
 import org.apache.fineract.cn.command.annotation.CommandHandler;
@@ -54,15 +58,21 @@ public class TaskAggregate {
   private final TaskDefinitionRepository taskDefinitionRepository;
   private final TaskInstanceRepository taskInstanceRepository;
   private final CustomerRepository customerRepository;
+  private final CustomerCache customerCache;
+  private final TaskDefinitionRegistry taskDefinitionRegistry;
 
   @Autowired
   public TaskAggregate(final TaskDefinitionRepository taskDefinitionRepository,
                        final TaskInstanceRepository taskInstanceRepository,
-                       final CustomerRepository customerRepository) {
+                       final CustomerRepository customerRepository,
+                       final CustomerCache customerCache,
+                       final TaskDefinitionRegistry taskDefinitionRegistry) {
     super();
     this.taskDefinitionRepository = taskDefinitionRepository;
     this.taskInstanceRepository = taskInstanceRepository;
     this.customerRepository = customerRepository;
+    this.customerCache = customerCache;
+    this.taskDefinitionRegistry = taskDefinitionRegistry;
   }
 
   @Transactional
@@ -70,6 +80,7 @@ public class TaskAggregate {
   @EventEmitter(selectorName = CustomerEventConstants.SELECTOR_NAME, selectorValue = CustomerEventConstants.POST_TASK)
   public String createTaskDefinition(final CreateTaskDefinitionCommand createTaskDefinitionCommand) {
     this.taskDefinitionRepository.save(TaskDefinitionMapper.map(createTaskDefinitionCommand.taskDefinition()));
+    this.taskDefinitionRegistry.evictAfterCommit();
     return createTaskDefinitionCommand.taskDefinition().getIdentifier();
   }
 
@@ -82,11 +93,12 @@ public class TaskAggregate {
     final TaskDefinition updatedTaskDefinition = updateTaskDefinitionCommand.taskDefinition();
     taskDefinitionEntity.setName(updatedTaskDefinition.getName());
     taskDefinitionEntity.setDescription(updatedTaskDefinition.getDescription());
-    taskDefinitionEntity.setAssignedCommands(StringUtils.join(updatedTaskDefinition.getCommands(), ";"));
+    TaskDefinitionMapper.setCommands(taskDefinitionEntity, updatedTaskDefinition.getCommands());
     taskDefinitionEntity.setMandatory(updatedTaskDefinition.getMandatory());
     taskDefinitionEntity.setPredefined(updatedTaskDefinition.getPredefined());
 
     this.taskDefinitionRepository.save(taskDefinitionEntity);
+    this.taskDefinitionRegistry.evictAfterCommit();
 
     return updatedTaskDefinition.getIdentifier();
   }
@@ -102,6 +114,8 @@ public class TaskAggregate {
 
     this.taskInstanceRepository.save(TaskInstanceMapper.create(taskDefinitionEntity, customerEntity));
 
+    this.customerCache.evictAfterCommit(addTaskDefinitionToCustomerCommand.customerIdentifier());
+
     return addTaskDefinitionToCustomerCommand.customerIdentifier();
   }
 
@@ -128,38 +142,57 @@ public class TaskAggregate {
       }
     }
 
+    this.customerCache.evictAfterCommit(executeTaskForCustomerCommand.customerIdentifier());
+
     return executeTaskForCustomerCommand.customerIdentifier();
   }
 
   @Transactional
   public void onCustomerCommand(final CustomerEntity customerEntity, Command.Action action) {
-    final List<TaskDefinitionEntity> predefinedTasks =
-        this.taskDefinitionRepository.findByAssignedCommandsContaining(action.name());
-    if (predefinedTasks != null && predefinedTasks.size() > 0) {
+    final List<Long> predefinedTasks = this.taskDefinitionRegistry.findPredefinedTaskDefinitionIds(action);
+    if (predefinedTasks.size() > 0) {
       this.taskInstanceRepository.save(
           predefinedTasks
               .stream()
-              .filter(TaskDefinitionEntity::isPredefined)
-              .map(taskDefinitionEntity -> TaskInstanceMapper.create(taskDefinitionEntity, customerEntity))
+              .map(taskDefinitionId ->
+                  TaskInstanceMapper.create(this.taskDefinitionRepository.getOne(taskDefinitionId), customerEntity))
               .collect(Collectors.toList())
       );
     }
   }
 
   @Transactional
-  public Boolean openTasksForCustomerExist(final CustomerEntity customerEntity, final String command) {
-    final List<TaskInstanceEntity> taskInstanceEntities = this.taskInstanceRepository.findByCustomer(customerEntity);
+  public List<TaskInstanceEntity> createPredefinedTaskInstances(final List<CustomerEntity> customerEntities,
+                                                                final Command.Action action) {
+    final List<TaskDefinitionEntity> predefinedTasks =
+        this.taskDefinitionRegistry.findPredefinedTaskDefinitionIds(action)
+            .stream()
+            .map(this.taskDefinitionRepository::getOne)
+            .collect(Collectors.toList());
+    return customerEntities
+        .stream()
+        .flatMap(customerEntity -> predefinedTasks
+            .stream()
+            .map(taskDefinitionEntity -> TaskInstanceMapper.create(taskDefinitionEntity, customerEntity)))
+        .collect(Collectors.toList());
+  }
 
-    //noinspection SimplifiableIfStatement
-    if (taskInstanceEntities != null) {
-      return taskInstanceEntities
-          .stream()
-              .filter(taskInstanceEntity -> taskInstanceEntity.getTaskDefinition().getAssignedCommands().contains(command))
-              .filter(taskInstanceEntity -> taskInstanceEntity.getTaskDefinition().isMandatory())
-              .anyMatch(taskInstanceEntity -> taskInstanceEntity.getExecutedBy() == null);
-    } else {
+  @Transactional
+  public Boolean openTasksForCustomerExist(final CustomerEntity customerEntity, final String command) {
+    if (!this.taskDefinitionRegistry.hasMandatoryTaskDefinitions(Command.Action.valueOf(command))) {
       return false;
     }
+    return this.taskInstanceRepository.existsOpenMandatoryTask(customerEntity.getId(), command);
+  }
+
+  @Transactional
+  public Set<Long> customersWithOpenTasks(final Collection<CustomerEntity> customerEntities, final String command) {
+    if (customerEntities.isEmpty()
+        || !this.taskDefinitionRegistry.hasMandatoryTaskDefinitions(Command.Action.valueOf(command))) {
+      return Collections.emptySet();
+    }
+    return this.taskInstanceRepository.findCustomersWithOpenMandatoryTasks(
+        customerEntities.stream().map(CustomerEntity::getId).collect(Collectors.toList()), command);
   }
 
   private CustomerEntity findCustomerEntityOrThrow(String identifier) {
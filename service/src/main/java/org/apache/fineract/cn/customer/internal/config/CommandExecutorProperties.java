@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.config;
+
+import org.hibernate.validator.constraints.Range;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+import javax.validation.constraints.NotNull;
+
+@Component
+@ConfigurationProperties(prefix="command.executor")
+@Validated
+public class CommandExecutorProperties {
+
+  public enum Mode {
+    /**
+     * Commands are handed to the async pool as they arrive.
+     */
+    UNBOUNDED,
+    /**
+     * At most {@code maxConcurrent} commands run at once, further commands wait in a bounded queue and
+     * are admitted round-robin per tenant.
+     */
+    BOUNDED
+  }
+
+  @NotNull
+  private Mode mode = Mode.UNBOUNDED;
+
+  @Range(min = 1L)
+  private int maxConcurrent = 16;
+
+  @Range(min = 0L)
+  private int queueCapacity = 256;
+
+  @Range(min = 0L)
+  private long maxWait = 2000L;
+
+  @Range(min = 1L)
+  private int retryAfter = 1;
+
+  @Range(min = 1L)
+  private long maxExecution = 60000L;
+
+  public Mode getMode() {
+    return mode;
+  }
+
+  public void setMode(Mode mode) {
+    this.mode = mode;
+  }
+
+  public int getMaxConcurrent() {
+    return maxConcurrent;
+  }
+
+  public void setMaxConcurrent(int maxConcurrent) {
+    this.maxConcurrent = maxConcurrent;
+  }
+
+  public int getQueueCapacity() {
+    return queueCapacity;
+  }
+
+  public void setQueueCapacity(int queueCapacity) {
+    this.queueCapacity = queueCapacity;
+  }
+
+  public long getMaxWait() {
+    return maxWait;
+  }
+
+  public void setMaxWait(long maxWait) {
+    this.maxWait = maxWait;
+  }
+
+  public int getRetryAfter() {
+    return retryAfter;
+  }
+
+  public void setRetryAfter(int retryAfter) {
+    this.retryAfter = retryAfter;
+  }
+
+  public long getMaxExecution() {
+    return maxExecution;
+  }
+
+  public void setMaxExecution(long maxExecution) {
+    this.maxExecution = maxExecution;
+  }
+}
@@ -18,25 +18,57 @@
  */
 package org.apache.fineract.cn.customer.internal.config;
 
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.internal.service.OutboxedEventSuppressor;
 import org.apache.fineract.cn.postgresql.config.EnablePostgreSQL;
+import org.springframework.beans.factory.config.BeanFactoryPostProcessor;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.ComponentScan;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
+import org.springframework.transaction.config.TransactionManagementConfigUtils;
 
 @Configuration
 @EnablePostgreSQL
 @ComponentScan({
     "org.apache.fineract.cn.customer.internal.service",
     "org.apache.fineract.cn.customer.internal.repository",
-    "org.apache.fineract.cn.customer.internal.command.handler"
+    "org.apache.fineract.cn.customer.internal.command.handler",
+    "org.apache.fineract.cn.customer.internal.listener"
 })
 @EnableJpaRepositories({
     "org.apache.fineract.cn.customer.internal.repository"
 })
+@EnableConfigurationProperties({CustomerCacheProperties.class, CustomerImportProperties.class, BlobStoreProperties.class,
+    OnboardingProperties.class, CommandExecutorProperties.class, OutboxProperties.class, ReportingProperties.class,
+    ProcessStepProperties.class})
 public class CustomerServiceConfiguration {
 
   public CustomerServiceConfiguration() {
     super();
   }
 
+  /**
+   * Transaction management is enabled outside of this service without an order, so the transaction advisor
+   * is pinned to {@link ServiceConstants#TRANSACTION_ORDER} here; the aspects around command handlers are
+   * ordered relative to it.
+   */
+  @Bean
+  public static BeanFactoryPostProcessor transactionAdvisorOrder() {
+    return beanFactory -> {
+      if (beanFactory.containsBeanDefinition(TransactionManagementConfigUtils.TRANSACTION_ADVISOR_BEAN_NAME)) {
+        beanFactory.getBeanDefinition(TransactionManagementConfigUtils.TRANSACTION_ADVISOR_BEAN_NAME)
+            .getPropertyValues()
+            .add("order", ServiceConstants.TRANSACTION_ORDER);
+      }
+    };
+  }
+
+  @Bean
+  public static BeanPostProcessor outboxedEventSuppressor() {
+    return new OutboxedEventSuppressor(ServiceConstants.COMMAND_JMS_TEMPLATE_NAME);
+  }
+
 }
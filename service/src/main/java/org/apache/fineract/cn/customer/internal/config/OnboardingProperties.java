@@ -0,0 +1,117 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.config;
+
+import org.hibernate.validator.constraints.Range;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.stereotype.Component;
+import org.springframework.validation.annotation.Validated;
+
+@Component
+@ConfigurationProperties(prefix="onboarding")
+@Validated
+public class OnboardingProperties {
+  @Range(min = 1L)
+  private long stepTimeout = 10000L;
+
+  @Range(min = 1L)
+  private int maxAttempts = 3;
+
+  @Range(min = 0L)
+  private long retryBackoff = 200L;
+
+  @Range(min = 1L)
+  private int batchMaxSize = 100;
+
+  @Range(min = 1L)
+  private int batchParallelism = 8;
+
+  @Range(min = 1L)
+  private int maxConnections = 50;
+
+  @Range(min = 1L)
+  private int connectTimeout = 2000;
+
+  @Range(min = 1L)
+  private int readTimeout = 5000;
+
+  public long getStepTimeout() {
+    return stepTimeout;
+  }
+
+  public void setStepTimeout(long stepTimeout) {
+    this.stepTimeout = stepTimeout;
+  }
+
+  public int getMaxAttempts() {
+    return maxAttempts;
+  }
+
+  public void setMaxAttempts(int maxAttempts) {
+    this.maxAttempts = maxAttempts;
+  }
+
+  public long getRetryBackoff() {
+    return retryBackoff;
+  }
+
+  public void setRetryBackoff(long retryBackoff) {
+    this.retryBackoff = retryBackoff;
+  }
+
+  public int getBatchMaxSize() {
+    return batchMaxSize;
+  }
+
+  public void setBatchMaxSize(int batchMaxSize) {
+    this.batchMaxSize = batchMaxSize;
+  }
+
+  public int getBatchParallelism() {
+    return batchParallelism;
+  }
+
+  public void setBatchParallelism(int batchParallelism) {
+    this.batchParallelism = batchParallelism;
+  }
+
+  public int getMaxConnections() {
+    return maxConnections;
+  }
+
+  public void setMaxConnections(int maxConnections) {
+    this.maxConnections = maxConnections;
+  }
+
+  public int getConnectTimeout() {
+    return connectTimeout;
+  }
+
+  public void setConnectTimeout(int connectTimeout) {
+    this.connectTimeout = connectTimeout;
+  }
+
+  public int getReadTimeout() {
+    return readTimeout;
+  }
+
+  public void setReadTimeout(int readTimeout) {
+    this.readTimeout = readTimeout;
+  }
+}
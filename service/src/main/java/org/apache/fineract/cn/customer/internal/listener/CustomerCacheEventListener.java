@@ -0,0 +1,63 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.listener;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.internal.service.CustomerCache;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.jms.annotation.JmsListener;
+import org.springframework.messaging.handler.annotation.Header;
+import org.springframework.stereotype.Component;
+
+@SuppressWarnings("unused")
+@Component
+public class CustomerCacheEventListener {
+
+  private static final String SELECTOR_CUSTOMER_CHANGED =
+      CustomerEventConstants.SELECTOR_NAME + " IN ('"
+          + CustomerEventConstants.PUT_CUSTOMER + "', '"
+          + CustomerEventConstants.PUT_ADDRESS + "', '"
+          + CustomerEventConstants.PUT_CONTACT_DETAILS + "', '"
+          + CustomerEventConstants.ACTIVATE_CUSTOMER + "', '"
+          + CustomerEventConstants.LOCK_CUSTOMER + "', '"
+          + CustomerEventConstants.UNLOCK_CUSTOMER + "', '"
+          + CustomerEventConstants.CLOSE_CUSTOMER + "', '"
+          + CustomerEventConstants.REOPEN_CUSTOMER + "')";
+
+  private final CustomerCache customerCache;
+  private final Gson gson;
+
+  @Autowired
+  public CustomerCacheEventListener(final CustomerCache customerCache) {
+    super();
+    this.customerCache = customerCache;
+    this.gson = new Gson();
+  }
+
+  @JmsListener(
+      destination = CustomerEventConstants.DESTINATION,
+      selector = SELECTOR_CUSTOMER_CHANGED
+  )
+  public void onCustomerChanged(@Header(TenantHeaderFilter.TENANT_HEADER) final String tenant,
+                                final String payload) {
+    this.customerCache.evict(tenant, this.gson.fromJson(payload, String.class));
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.mapper;
+
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.lang.ServiceException;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+
+/**
+ * Field projections of customers, as requested with a comma separated {@code fields} parameter.
+ *
+ * A projection of {@code null} stands for all fields. The identifier is always part of a projection, so
+ * callers can tell the customers apart.
+ */
+public final class CustomerFields {
+
+  public static final String IDENTIFIER = "identifier";
+  public static final String ADDRESS = "address";
+  public static final String CONTACT_DETAILS = "contactDetails";
+  public static final String CUSTOM_VALUES = "customValues";
+
+  private static final Map<String, BiConsumer<Customer, Customer>> COPIERS;
+  // fields kept in tables of their own, listings select customer columns only
+  private static final Set<String> UNLISTED =
+      Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(ADDRESS, CONTACT_DETAILS, CUSTOM_VALUES)));
+
+  static {
+    final Map<String, BiConsumer<Customer, Customer>> copiers = new LinkedHashMap<>();
+    copiers.put(IDENTIFIER, (source, target) -> target.setIdentifier(source.getIdentifier()));
+    copiers.put("type", (source, target) -> target.setType(source.getType()));
+    copiers.put("givenName", (source, target) -> target.setGivenName(source.getGivenName()));
+    copiers.put("middleName", (source, target) -> target.setMiddleName(source.getMiddleName()));
+    copiers.put("surname", (source, target) -> target.setSurname(source.getSurname()));
+    copiers.put("dateOfBirth", (source, target) -> target.setDateOfBirth(source.getDateOfBirth()));
+    copiers.put("member", (source, target) -> target.setMember(source.getMember()));
+    copiers.put("accountBeneficiary", (source, target) -> target.setAccountBeneficiary(source.getAccountBeneficiary()));
+    copiers.put("referenceCustomer", (source, target) -> target.setReferenceCustomer(source.getReferenceCustomer()));
+    copiers.put("assignedOffice", (source, target) -> target.setAssignedOffice(source.getAssignedOffice()));
+    copiers.put("assignedEmployee", (source, target) -> target.setAssignedEmployee(source.getAssignedEmployee()));
+    copiers.put(ADDRESS, (source, target) -> target.setAddress(source.getAddress()));
+    copiers.put(CONTACT_DETAILS, (source, target) -> target.setContactDetails(source.getContactDetails()));
+    copiers.put("currentState", (source, target) -> target.setCurrentState(source.getCurrentState()));
+    copiers.put("applicationDate", (source, target) -> target.setApplicationDate(source.getApplicationDate()));
+    copiers.put(CUSTOM_VALUES, (source, target) -> target.setCustomValues(source.getCustomValues()));
+    copiers.put("createdBy", (source, target) -> target.setCreatedBy(source.getCreatedBy()));
+    copiers.put("createdOn", (source, target) -> target.setCreatedOn(source.getCreatedOn()));
+    copiers.put("lastModifiedBy", (source, target) -> target.setLastModifiedBy(source.getLastModifiedBy()));
+    copiers.put("lastModifiedOn", (source, target) -> target.setLastModifiedOn(source.getLastModifiedOn()));
+    copiers.put("version", (source, target) -> target.setVersion(source.getVersion()));
+    COPIERS = Collections.unmodifiableMap(copiers);
+  }
+
+  private CustomerFields() {
+    super();
+  }
+
+  public static Set<String> parse(final String fields) {
+    if (fields == null || fields.trim().isEmpty()) {
+      return null;
+    }
+
+    final Set<String> projection = new LinkedHashSet<>();
+    projection.add(IDENTIFIER);
+    for (final String field : fields.split(",")) {
+      final String trimmed = field.trim();
+      if (!COPIERS.containsKey(trimmed)) {
+        throw ServiceException.badRequest("Customer field {0} not supported.", trimmed);
+      }
+      projection.add(trimmed);
+    }
+    return projection;
+  }
+
+  /**
+   * Parses the projection of a customer listing, which can not hold address, contact details and custom
+   * values.
+   */
+  public static Set<String> parseListing(final String fields) {
+    final Set<String> projection = CustomerFields.parse(fields);
+    if (projection != null) {
+      for (final String field : projection) {
+        if (UNLISTED.contains(field)) {
+          throw ServiceException.badRequest("Customer field {0} not supported in listings.", field);
+        }
+      }
+    }
+    return projection;
+  }
+
+  public static boolean includes(final Set<String> projection, final String field) {
+    return projection == null || projection.contains(field);
+  }
+
+  public static Customer project(final Customer customer, final Set<String> projection) {
+    if (projection == null) {
+      return customer;
+    }
+    final Customer projected = new Customer();
+    projection.forEach(field -> COPIERS.get(field).accept(customer, projected));
+    return projected;
+  }
+}
@@ -23,6 +23,7 @@ import org.apache.fineract.cn.customer.internal.repository.CustomerEntity;
 import java.sql.Date;
 import java.time.Clock;
 import java.time.LocalDateTime;
+import java.util.Set;
 import org.apache.fineract.cn.api.util.UserContextHolder;
 import org.apache.fineract.cn.lang.DateConverter;
 import org.apache.fineract.cn.lang.DateOfBirth;
@@ -90,7 +91,72 @@ public final class CustomerMapper {
       customer.setLastModifiedBy(customerEntity.getLastModifiedBy());
       customer.setLastModifiedOn(DateConverter.toIsoString(customerEntity.getLastModifiedOn()));
     }
+    customer.setVersion(customerEntity.getVersion());
 
     return customer;
   }
+
+  /**
+   * Maps only the given fields of the customer, all of them if the projection is null.
+   */
+  public static Customer map(final CustomerEntity customerEntity, final Set<String> projection) {
+    if (projection == null) {
+      return CustomerMapper.map(customerEntity);
+    }
+
+    final Customer customer = new Customer();
+    customer.setIdentifier(customerEntity.getIdentifier());
+    if (projection.contains("type")) {
+      customer.setType(customerEntity.getType());
+    }
+    if (projection.contains("givenName")) {
+      customer.setGivenName(customerEntity.getGivenName());
+    }
+    if (projection.contains("middleName")) {
+      customer.setMiddleName(customerEntity.getMiddleName());
+    }
+    if (projection.contains("surname")) {
+      customer.setSurname(customerEntity.getSurname());
+    }
+    if (projection.contains("dateOfBirth") && customerEntity.getDateOfBirth() != null) {
+      customer.setDateOfBirth(DateOfBirth.fromLocalDate(customerEntity.getDateOfBirth().toLocalDate()));
+    }
+    if (projection.contains("member")) {
+      customer.setMember(customerEntity.getMember());
+    }
+    if (projection.contains("accountBeneficiary")) {
+      customer.setAccountBeneficiary(customerEntity.getAccountBeneficiary());
+    }
+    if (projection.contains("referenceCustomer")) {
+      customer.setReferenceCustomer(customerEntity.getReferenceCustomer());
+    }
+    if (projection.contains("assignedOffice")) {
+      customer.setAssignedOffice(customerEntity.getAssignedOffice());
+    }
+    if (projection.contains("assignedEmployee")) {
+      customer.setAssignedEmployee(customerEntity.getAssignedEmployee());
+    }
+    if (projection.contains("currentState")) {
+      customer.setCurrentState(customerEntity.getCurrentState());
+    }
+    if (projection.contains("applicationDate") && customerEntity.getApplicationDate() != null) {
+      customer.setApplicationDate(DateConverter.toIsoString(customerEntity.getApplicationDate()).substring(0, 10));
+    }
+    if (projection.contains("createdBy")) {
+      customer.setCreatedBy(customerEntity.getCreatedBy());
+    }
+    if (projection.contains("createdOn") && customerEntity.getCreatedOn() != null) {
+      customer.setCreatedOn(DateConverter.toIsoString(customerEntity.getCreatedOn()));
+    }
+    if (projection.contains("lastModifiedBy")) {
+      customer.setLastModifiedBy(customerEntity.getLastModifiedBy());
+    }
+    if (projection.contains("lastModifiedOn") && customerEntity.getLastModifiedOn() != null) {
+      customer.setLastModifiedOn(DateConverter.toIsoString(customerEntity.getLastModifiedOn()));
+    }
+    if (projection.contains("version")) {
+      customer.setVersion(customerEntity.getVersion());
+    }
+    return customer;
+  }
 }
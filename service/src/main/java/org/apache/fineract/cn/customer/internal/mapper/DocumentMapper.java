@@ -22,12 +22,12 @@ import org.apache.fineract.cn.customer.api.v1.domain.CustomerDocument;
 import org.apache.fineract.cn.customer.internal.repository.CustomerEntity;
 import org.apache.fineract.cn.customer.internal.repository.DocumentEntity;
 import org.apache.fineract.cn.customer.internal.repository.DocumentPageEntity;
-import java.io.IOException;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
+import org.apache.fineract.cn.customer.internal.repository.StoredBlob;
 import java.time.Clock;
 import java.time.LocalDateTime;
 import org.apache.fineract.cn.api.util.UserContextHolder;
 import org.apache.fineract.cn.lang.DateConverter;
-import org.springframework.web.multipart.MultipartFile;
 
 /**
  * @author Myrle Krantz
@@ -39,15 +39,18 @@ public class DocumentMapper {
 
 
   public static DocumentPageEntity map(
-      final MultipartFile multipartFile,
+      final SpooledUpload spooledUpload,
+      final StoredBlob storedBlob,
       final int pageNumber,
-      final DocumentEntity documentEntity) throws IOException {
+      final DocumentEntity documentEntity) {
     final DocumentPageEntity ret = new DocumentPageEntity();
     ret.setDocument(documentEntity);
     ret.setPageNumber(pageNumber);
-    ret.setImage(multipartFile.getBytes());
-    ret.setSize(multipartFile.getSize());
-    ret.setContentType(multipartFile.getContentType());
+    ret.setBlobKey(storedBlob.getKey());
+    ret.setContentHash(storedBlob.getContentHash());
+    ret.setSize(storedBlob.getSize());
+    ret.setContentType(spooledUpload.getContentType());
+    ret.setCreatedOn(LocalDateTime.now(Clock.systemUTC()));
     return ret;
   }
 
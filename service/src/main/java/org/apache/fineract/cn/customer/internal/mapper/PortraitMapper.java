@@ -19,9 +19,11 @@
 package org.apache.fineract.cn.customer.internal.mapper;
 
 import org.apache.fineract.cn.customer.internal.repository.PortraitEntity;
-import org.springframework.web.multipart.MultipartFile;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
+import org.apache.fineract.cn.customer.internal.repository.StoredBlob;
 
-import java.io.IOException;
+import java.time.Clock;
+import java.time.LocalDateTime;
 
 public class PortraitMapper {
 
@@ -29,11 +31,13 @@ public class PortraitMapper {
     super();
   }
 
-  public static PortraitEntity map(final MultipartFile multipartFile) throws IOException {
+  public static PortraitEntity map(final SpooledUpload spooledUpload, final StoredBlob storedBlob) {
     final PortraitEntity portraitEntity = new PortraitEntity();
-    portraitEntity.setImage(multipartFile.getBytes());
-    portraitEntity.setSize(multipartFile.getSize());
-    portraitEntity.setContentType(multipartFile.getContentType());
+    portraitEntity.setBlobKey(storedBlob.getKey());
+    portraitEntity.setContentHash(storedBlob.getContentHash());
+    portraitEntity.setSize(storedBlob.getSize());
+    portraitEntity.setContentType(spooledUpload.getContentType());
+    portraitEntity.setCreatedOn(LocalDateTime.now(Clock.systemUTC()));
     return portraitEntity;
   }
 
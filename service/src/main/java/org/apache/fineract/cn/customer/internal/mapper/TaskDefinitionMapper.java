@@ -20,6 +20,10 @@ package org.apache.fineract.cn.customer.internal.mapper;
 
 import org.apache.fineract.cn.customer.api.v1.domain.TaskDefinition;
 import org.apache.fineract.cn.customer.internal.repository.TaskDefinitionEntity;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.List;
+import java.util.stream.Collectors;
 import org.apache.commons.lang.StringUtils;
 
 public final class TaskDefinitionMapper {
@@ -34,7 +38,7 @@ public final class TaskDefinitionMapper {
     taskDefinitionEntity.setType(taskDefinition.getType());
     taskDefinitionEntity.setName(taskDefinition.getName());
     taskDefinitionEntity.setDescription(taskDefinition.getDescription());
-    taskDefinitionEntity.setAssignedCommands(StringUtils.join(taskDefinition.getCommands(), ";"));
+    TaskDefinitionMapper.setCommands(taskDefinitionEntity, taskDefinition.getCommands());
     taskDefinitionEntity.setMandatory(taskDefinition.getMandatory());
     taskDefinitionEntity.setPredefined(taskDefinition.getPredefined());
     return taskDefinitionEntity;
@@ -51,4 +55,19 @@ public final class TaskDefinitionMapper {
     taskDefinition.setPredefined(taskDefinitionEntity.isPredefined());
     return taskDefinition;
   }
+
+  public static void setCommands(final TaskDefinitionEntity taskDefinitionEntity, final String[] commands) {
+    // trimmed and without blanks, the same way V14 split the existing assigned commands
+    final List<String> trimmedCommands = Arrays.stream(commands)
+        .filter(StringUtils::isNotBlank)
+        .map(String::trim)
+        .distinct()
+        .collect(Collectors.toList());
+    taskDefinitionEntity.setAssignedCommands(StringUtils.join(trimmedCommands, ";"));
+    if (taskDefinitionEntity.getCommands() == null) {
+      taskDefinitionEntity.setCommands(new HashSet<>());
+    }
+    taskDefinitionEntity.getCommands().clear();
+    taskDefinitionEntity.getCommands().addAll(trimmedCommands);
+  }
 }
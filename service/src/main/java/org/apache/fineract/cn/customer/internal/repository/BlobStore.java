@@ -0,0 +1,66 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Path;
+
+/**
+ * Storage for binary content such as portraits, identification card scans and document pages.
+ *
+ * Content is addressed by its SHA-256 hash, so storing the same bytes twice yields the same key.
+ * Entities only keep the key, size, content type and hash of their content.
+ */
+public interface BlobStore {
+
+  StoredBlob store(final InputStream content) throws IOException;
+
+  /**
+   * Creates an empty temporary file on the same storage, so a spooled upload can later be moved
+   * into place via {@link #store(SpooledUpload)} without copying it again.
+   */
+  Path createSpoolFile() throws IOException;
+
+  StoredBlob store(final SpooledUpload spooledUpload) throws IOException;
+
+  boolean exists(final String key);
+
+  /**
+   * Transfers up to count bytes, starting at position, of the given blob to the target.
+   */
+  long transferTo(final String key, final long position, final long count, final WritableByteChannel target)
+      throws IOException;
+
+  void delete(final String key) throws IOException;
+
+  /**
+   * Moves the blob aside under a unique name, so it is gone for readers and writers but can still be
+   * restored or deleted later.
+   *
+   * @return the detached file, or null if there is no such blob
+   */
+  Path detach(final String key) throws IOException;
+
+  /**
+   * Moves a detached blob back into place, unless the same content has been stored again since.
+   */
+  void restore(final String key, final Path detachedFile) throws IOException;
+}
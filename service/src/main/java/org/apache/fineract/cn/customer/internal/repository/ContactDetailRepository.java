@@ -21,10 +21,13 @@ package org.apache.fineract.cn.customer.internal.repository;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface ContactDetailRepository extends JpaRepository<ContactDetailEntity, Long> {
 
   List<ContactDetailEntity> findByCustomer(final CustomerEntity customerEntity);
+
+  List<ContactDetailEntity> findByCustomerIn(final Collection<CustomerEntity> customerEntities);
 }
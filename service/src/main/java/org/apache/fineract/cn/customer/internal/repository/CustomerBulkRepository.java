@@ -0,0 +1,205 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.repository;
+
+import org.apache.fineract.cn.customer.catalog.internal.repository.FieldValueEntity;
+import org.hibernate.Session;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Connection;
+import java.sql.PreparedStatement;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.List;
+import java.util.function.BiConsumer;
+
+/**
+ * Writes customers and their dependent rows with JDBC batches on the connection of the current
+ * transaction. Ids are drawn from the table sequences up front because inserts relying on the
+ * identity columns cannot be batched.
+ */
+@Repository
+public class CustomerBulkRepository {
+
+  private static final String INSERT_ADDRESS =
+      "INSERT INTO maat_addresses (id, street, city, postal_code, region, country_code, country) " +
+      "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_CUSTOMER =
+      "INSERT INTO maat_customers (id, a_type, identifier, given_name, middle_name, surname, date_of_birth, " +
+      "is_member, account_beneficiary, reference_customer, assigned_office, assigned_employee, current_state, " +
+      "application_date, address_id, created_by, created_on, a_version) " +
+      "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_CONTACT_DETAIL =
+      "INSERT INTO maat_contact_details (id, customer_id, a_type, a_group, a_value, preference_level, validated) " +
+      "VALUES (?, ?, ?, ?, ?, ?, ?)";
+
+  private static final String INSERT_FIELD_VALUE =
+      "INSERT INTO nun_field_values (id, entity_id, field_id, a_value) VALUES (?, ?, ?, ?)";
+
+  private static final String INSERT_TASK_INSTANCE =
+      "INSERT INTO maat_task_instances (id, task_definition_id, customer_id) VALUES (?, ?, ?)";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public CustomerBulkRepository() {
+    super();
+  }
+
+  public void insertAddresses(final List<AddressEntity> addressEntities, final Integer batchSize) {
+    this.insert("maat_addresses_id_seq", INSERT_ADDRESS, addressEntities, batchSize, AddressEntity::setId,
+        (statement, addressEntity) -> {
+          statement.setLong(1, addressEntity.getId());
+          statement.setString(2, addressEntity.getStreet());
+          statement.setString(3, addressEntity.getCity());
+          statement.setString(4, addressEntity.getPostalCode());
+          statement.setString(5, addressEntity.getRegion());
+          statement.setString(6, addressEntity.getCountryCode());
+          statement.setString(7, addressEntity.getCountry());
+        });
+  }
+
+  public void insertCustomers(final List<CustomerEntity> customerEntities, final Integer batchSize) {
+    this.insert("maat_customers_id_seq", INSERT_CUSTOMER, customerEntities, batchSize, CustomerEntity::setId,
+        (statement, customerEntity) -> {
+          statement.setLong(1, customerEntity.getId());
+          statement.setString(2, customerEntity.getType());
+          statement.setString(3, customerEntity.getIdentifier());
+          statement.setString(4, customerEntity.getGivenName());
+          statement.setString(5, customerEntity.getMiddleName());
+          statement.setString(6, customerEntity.getSurname());
+          statement.setDate(7, customerEntity.getDateOfBirth());
+          statement.setBoolean(8, customerEntity.getMember() != null ? customerEntity.getMember() : Boolean.FALSE);
+          statement.setString(9, customerEntity.getAccountBeneficiary());
+          statement.setString(10, customerEntity.getReferenceCustomer());
+          statement.setString(11, customerEntity.getAssignedOffice());
+          statement.setString(12, customerEntity.getAssignedEmployee());
+          statement.setString(13, customerEntity.getCurrentState());
+          if (customerEntity.getApplicationDate() != null) {
+            statement.setDate(14, java.sql.Date.valueOf(customerEntity.getApplicationDate()));
+          } else {
+            statement.setNull(14, Types.DATE);
+          }
+          if (customerEntity.getAddress() != null) {
+            statement.setLong(15, customerEntity.getAddress().getId());
+          } else {
+            statement.setNull(15, Types.BIGINT);
+          }
+          statement.setString(16, customerEntity.getCreatedBy());
+          statement.setTimestamp(17, Timestamp.valueOf(customerEntity.getCreatedOn()));
+          customerEntity.setVersion(0L);
+          statement.setLong(18, customerEntity.getVersion());
+        });
+  }
+
+  public void insertContactDetails(final List<ContactDetailEntity> contactDetailEntities, final Integer batchSize) {
+    this.insert("maat_contact_details_id_seq", INSERT_CONTACT_DETAIL, contactDetailEntities, batchSize,
+        ContactDetailEntity::setId,
+        (statement, contactDetailEntity) -> {
+          statement.setLong(1, contactDetailEntity.getId());
+          statement.setLong(2, contactDetailEntity.getCustomer().getId());
+          statement.setString(3, contactDetailEntity.getType());
+          statement.setString(4, contactDetailEntity.getGroup());
+          statement.setString(5, contactDetailEntity.getValue());
+          if (contactDetailEntity.getPreferenceLevel() != null) {
+            statement.setInt(6, contactDetailEntity.getPreferenceLevel());
+          } else {
+            statement.setNull(6, Types.SMALLINT);
+          }
+          if (contactDetailEntity.getValid() != null) {
+            statement.setBoolean(7, contactDetailEntity.getValid());
+          } else {
+            statement.setNull(7, Types.BOOLEAN);
+          }
+        });
+  }
+
+  public void insertFieldValues(final List<FieldValueEntity> fieldValueEntities, final Integer batchSize) {
+    this.insert("nun_field_values_id_seq", INSERT_FIELD_VALUE, fieldValueEntities, batchSize,
+        FieldValueEntity::setId,
+        (statement, fieldValueEntity) -> {
+          statement.setLong(1, fieldValueEntity.getId());
+          statement.setLong(2, fieldValueEntity.getCustomer().getId());
+          statement.setLong(3, fieldValueEntity.getField().getId());
+          statement.setString(4, fieldValueEntity.getValue());
+        });
+  }
+
+  public void insertTaskInstances(final List<TaskInstanceEntity> taskInstanceEntities, final Integer batchSize) {
+    this.insert("maat_task_instances_id_seq", INSERT_TASK_INSTANCE, taskInstanceEntities, batchSize,
+        TaskInstanceEntity::setId,
+        (statement, taskInstanceEntity) -> {
+          statement.setLong(1, taskInstanceEntity.getId());
+          statement.setLong(2, taskInstanceEntity.getTaskDefinition().getId());
+          statement.setLong(3, taskInstanceEntity.getCustomer().getId());
+        });
+  }
+
+  private <T> void insert(final String sequence, final String insertStatement, final List<T> entities,
+                          final Integer batchSize, final BiConsumer<T, Long> idSetter,
+                          final StatementBinder<T> binder) {
+    if (entities.isEmpty()) {
+      return;
+    }
+
+    this.entityManager.unwrap(Session.class).doWork(connection -> {
+      this.allocateIds(connection, sequence, entities, idSetter);
+
+      try (final PreparedStatement statement = connection.prepareStatement(insertStatement)) {
+        int pending = 0;
+        for (final T entity : entities) {
+          binder.bind(statement, entity);
+          statement.addBatch();
+          if (++pending == batchSize) {
+            statement.executeBatch();
+            pending = 0;
+          }
+        }
+        if (pending > 0) {
+          statement.executeBatch();
+        }
+      }
+    });
+  }
+
+  private <T> void allocateIds(final Connection connection, final String sequence, final List<T> entities,
+                               final BiConsumer<T, Long> idSetter) throws SQLException {
+    try (final PreparedStatement statement =
+             connection.prepareStatement("SELECT nextval('" + sequence + "') FROM generate_series(1, ?)")) {
+      statement.setInt(1, entities.size());
+      try (final ResultSet resultSet = statement.executeQuery()) {
+        for (final T entity : entities) {
+          resultSet.next();
+          idSetter.accept(entity, resultSet.getLong(1));
+        }
+      }
+    }
+  }
+
+  @FunctionalInterface
+  private interface StatementBinder<T> {
+    void bind(final PreparedStatement statement, final T entity) throws SQLException;
+  }
+}
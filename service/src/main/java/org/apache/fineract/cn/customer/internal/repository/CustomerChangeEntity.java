@@ -0,0 +1,112 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.repository;
+
+import java.time.LocalDateTime;
+import javax.persistence.Column;
+import javax.persistence.Convert;
+import javax.persistence.Entity;
+import javax.persistence.GeneratedValue;
+import javax.persistence.GenerationType;
+import javax.persistence.Id;
+import javax.persistence.Table;
+import org.apache.fineract.cn.postgresql.util.LocalDateTimeConverter;
+
+@Entity
+@Table(name = "maat_customer_changes")
+public class CustomerChangeEntity {
+
+  @Id
+  @GeneratedValue(strategy = GenerationType.IDENTITY)
+  @Column(name = "id")
+  private Long id;
+  @Column(name = "txid", insertable = false, updatable = false)
+  private Long txid;
+  @Column(name = "customer_identifier")
+  private String customerIdentifier;
+  @Column(name = "a_action")
+  private String action;
+  @Column(name = "snapshot")
+  private String snapshot;
+  @Column(name = "changed_by")
+  private String changedBy;
+  @Column(name = "changed_on")
+  @Convert(converter = LocalDateTimeConverter.class)
+  private LocalDateTime changedOn;
+
+  public CustomerChangeEntity() {
+    super();
+  }
+
+  public Long getId() {
+    return this.id;
+  }
+
+  public void setId(final Long id) {
+    this.id = id;
+  }
+
+  public Long getTxid() {
+    return this.txid;
+  }
+
+  public void setTxid(final Long txid) {
+    this.txid = txid;
+  }
+
+  public String getCustomerIdentifier() {
+    return this.customerIdentifier;
+  }
+
+  public void setCustomerIdentifier(final String customerIdentifier) {
+    this.customerIdentifier = customerIdentifier;
+  }
+
+  public String getAction() {
+    return this.action;
+  }
+
+  public void setAction(final String action) {
+    this.action = action;
+  }
+
+  public String getSnapshot() {
+    return this.snapshot;
+  }
+
+  public void setSnapshot(final String snapshot) {
+    this.snapshot = snapshot;
+  }
+
+  public String getChangedBy() {
+    return this.changedBy;
+  }
+
+  public void setChangedBy(final String changedBy) {
+    this.changedBy = changedBy;
+  }
+
+  public LocalDateTime getChangedOn() {
+    return this.changedOn;
+  }
+
+  public void setChangedOn(final LocalDateTime changedOn) {
+    this.changedOn = changedOn;
+  }
+}
@@ -0,0 +1,110 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.repository;
+
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Append-only log of customer snapshots, read by offset.
+ *
+ * The offset of a change is the id of the transaction which wrote it, so appending takes no lock. Since
+ * transactions may commit in a different order than they started, readers only see changes of
+ * transactions older than the oldest one still running; those are complete, and no change can ever
+ * appear below an offset a reader has passed. Pages hold whole transactions.
+ */
+@Repository
+public class CustomerChangeRepository {
+
+  private static final String FINISHED = "txid < txid_snapshot_xmin(txid_current_snapshot())";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public CustomerChangeRepository() {
+    super();
+  }
+
+  public void append(final CustomerChangeEntity customerChangeEntity) {
+    this.entityManager.persist(customerChangeEntity);
+  }
+
+  /**
+   * @return the offset up to which every transaction has finished, so no change can appear below it anymore
+   */
+  public long findFinishedOffset() {
+    final Number xmin = (Number) this.entityManager
+        .createNativeQuery("SELECT txid_snapshot_xmin(txid_current_snapshot())")
+        .getSingleResult();
+    return xmin.longValue() - 1L;
+  }
+
+  /**
+   * Removes the changes made before the given time which a later change of the same customer supersedes,
+   * so the log keeps the latest snapshot of every customer and the recent history.
+   *
+   * @return the number of changes removed
+   */
+  public int compact(final LocalDateTime before) {
+    return this.entityManager
+        .createNativeQuery("DELETE FROM maat_customer_changes c WHERE c.changed_on < ?1 AND EXISTS (" +
+            "SELECT 1 FROM maat_customer_changes n WHERE n.customer_identifier = c.customer_identifier " +
+            "AND (n.txid, n.id) > (c.txid, c.id))")
+        .setParameter(1, Timestamp.valueOf(before))
+        .executeUpdate();
+  }
+
+  /**
+   * Returns at most {@code limit} changes after the given offset, cut at a transaction boundary, or all
+   * changes of the next transaction if it alone has more.
+   */
+  public List<CustomerChangeEntity> findAfter(final Long offset, final Integer limit) {
+    @SuppressWarnings("unchecked")
+    final List<CustomerChangeEntity> changes = this.entityManager
+        .createNativeQuery("SELECT * FROM maat_customer_changes WHERE txid > ?1 AND " + FINISHED +
+            " ORDER BY txid, id LIMIT ?2", CustomerChangeEntity.class)
+        .setParameter(1, offset)
+        .setParameter(2, limit)
+        .getResultList();
+    if (changes.size() < limit) {
+      return changes;
+    }
+
+    final long lastTxid = changes.get(changes.size() - 1).getTxid();
+    final List<CustomerChangeEntity> completeChanges = changes.stream()
+        .filter(change -> change.getTxid() != lastTxid)
+        .collect(Collectors.toList());
+    if (!completeChanges.isEmpty()) {
+      return completeChanges;
+    }
+
+    @SuppressWarnings("unchecked")
+    final List<CustomerChangeEntity> transactionChanges = this.entityManager
+        .createNativeQuery("SELECT * FROM maat_customer_changes WHERE txid = ?1 ORDER BY id", CustomerChangeEntity.class)
+        .setParameter(1, lastTxid)
+        .getResultList();
+    return transactionChanges;
+  }
+}
@@ -0,0 +1,122 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.repository;
+
+import org.apache.fineract.cn.lang.ServiceException;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Set;
+
+/**
+ * Opaque continuation token for keyset paging. It carries the sort property, the sort direction,
+ * the closed customer filter, and the sort key plus id of the last customer returned, so the next
+ * page can seek directly past that row instead of skipping an offset.
+ */
+public final class CustomerCursor {
+
+  static final Set<String> SEEKABLE_PROPERTIES =
+      Collections.unmodifiableSet(new HashSet<>(Arrays.asList("identifier", "type", "currentState")));
+
+  private static final String SEPARATOR = ":";
+
+  private final String property;
+  private final Sort.Direction direction;
+  private final boolean includeClosed;
+  private final String value;
+  private final Long id;
+
+  private CustomerCursor(final String property, final Sort.Direction direction, final boolean includeClosed,
+                         final String value, final Long id) {
+    super();
+    this.property = property;
+    this.direction = direction;
+    this.includeClosed = includeClosed;
+    this.value = value;
+    this.id = id;
+  }
+
+  public static boolean isSeekable(final String property) {
+    return SEEKABLE_PROPERTIES.contains(property);
+  }
+
+  public static CustomerCursor after(final CustomerEntity customerEntity, final String property,
+                                     final Sort.Direction direction, final boolean includeClosed) {
+    final String value;
+    switch (property) {
+      case "identifier":
+        value = customerEntity.getIdentifier();
+        break;
+      case "type":
+        value = customerEntity.getType();
+        break;
+      case "currentState":
+        value = customerEntity.getCurrentState();
+        break;
+      default:
+        throw ServiceException.badRequest("Sort column {0} not supported for cursor paging.", property);
+    }
+    return new CustomerCursor(property, direction, includeClosed, value, customerEntity.getId());
+  }
+
+  public static CustomerCursor decode(final String token) {
+    try {
+      final String decoded = new String(Base64.getUrlDecoder().decode(token), StandardCharsets.UTF_8);
+      final String[] parts = decoded.split(SEPARATOR, 5);
+      if (parts.length != 5 || !isSeekable(parts[0])
+          || !(Boolean.TRUE.toString().equals(parts[2]) || Boolean.FALSE.toString().equals(parts[2]))) {
+        throw ServiceException.badRequest("Cursor {0} is invalid.", token);
+      }
+      return new CustomerCursor(parts[0], Sort.Direction.valueOf(parts[1]), Boolean.parseBoolean(parts[2]), parts[4],
+          Long.valueOf(parts[3]));
+    } catch (final IllegalArgumentException ex) {
+      throw ServiceException.badRequest("Cursor {0} is invalid.", token);
+    }
+  }
+
+  public String encode() {
+    final String raw = this.property + SEPARATOR + this.direction.name() + SEPARATOR + this.includeClosed
+        + SEPARATOR + this.id + SEPARATOR + this.value;
+    return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+  }
+
+  public String getProperty() {
+    return this.property;
+  }
+
+  public Sort.Direction getDirection() {
+    return this.direction;
+  }
+
+  public boolean isIncludeClosed() {
+    return this.includeClosed;
+  }
+
+  public String getValue() {
+    return this.value;
+  }
+
+  public Long getId() {
+    return this.id;
+  }
+}
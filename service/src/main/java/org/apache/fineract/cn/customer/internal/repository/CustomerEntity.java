@@ -21,6 +21,7 @@ package org.apache.fineract.cn.customer.internal.repository;
 import java.sql.Date;
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.List;
 import javax.persistence.CascadeType;
 import javax.persistence.Column;
 import javax.persistence.Convert;
@@ -30,8 +31,10 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
+import javax.persistence.OneToMany;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import javax.persistence.Version;
 import org.apache.fineract.cn.postgresql.util.LocalDateConverter;
 import org.apache.fineract.cn.postgresql.util.LocalDateTimeConverter;
 
@@ -73,6 +76,8 @@ public class CustomerEntity {
   @OneToOne(fetch = FetchType.LAZY, cascade = CascadeType.ALL)
   @JoinColumn(name = "address_id")
   private AddressEntity address;
+  @OneToMany(mappedBy = "customer", fetch = FetchType.LAZY)
+  private List<ContactDetailEntity> contactDetails;
   @Column(name = "created_by")
   private String createdBy;
   @Column(name = "created_on")
@@ -83,6 +88,9 @@ public class CustomerEntity {
   @Column(name = "last_modified_on")
   @Convert(converter = LocalDateTimeConverter.class)
   private LocalDateTime lastModifiedOn;
+  @Version
+  @Column(name = "a_version", nullable = false)
+  private Long version;
 
   public CustomerEntity() {
     super();
@@ -208,6 +216,14 @@ public class CustomerEntity {
     this.address = address;
   }
 
+  public List<ContactDetailEntity> getContactDetails() {
+    return this.contactDetails;
+  }
+
+  public void setContactDetails(final List<ContactDetailEntity> contactDetails) {
+    this.contactDetails = contactDetails;
+  }
+
   public String getCreatedBy() {
     return this.createdBy;
   }
@@ -240,6 +256,14 @@ public class CustomerEntity {
     this.lastModifiedOn = lastModifiedOn;
   }
 
+  public Long getVersion() {
+    return this.version;
+  }
+
+  public void setVersion(final Long version) {
+    this.version = version;
+  }
+
   @Override
   public boolean equals(final Object o) {
     if (this == o) return true;
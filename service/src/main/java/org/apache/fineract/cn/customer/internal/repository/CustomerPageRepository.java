@@ -0,0 +1,216 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.repository;
+
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.BiConsumer;
+import java.util.stream.Collectors;
+
+/**
+ * Customer listing without the count query Spring Data issues next to every page, either by offset
+ * or by seeking past the position encoded in a {@link CustomerCursor}.
+ *
+ * Listings may be restricted to a set of properties, in which case only those columns are selected and
+ * the customers are returned as detached entities with just those properties, plus id and sort keys, set.
+ */
+@Repository
+public class CustomerPageRepository {
+
+  static final Map<String, BiConsumer<CustomerEntity, Object>> SELECTABLE_PROPERTIES;
+
+  static {
+    final Map<String, BiConsumer<CustomerEntity, Object>> selectableProperties = new HashMap<>();
+    selectableProperties.put("id", (customerEntity, value) -> customerEntity.setId((Long) value));
+    selectableProperties.put("identifier", (customerEntity, value) -> customerEntity.setIdentifier((String) value));
+    selectableProperties.put("type", (customerEntity, value) -> customerEntity.setType((String) value));
+    selectableProperties.put("givenName", (customerEntity, value) -> customerEntity.setGivenName((String) value));
+    selectableProperties.put("middleName", (customerEntity, value) -> customerEntity.setMiddleName((String) value));
+    selectableProperties.put("surname", (customerEntity, value) -> customerEntity.setSurname((String) value));
+    selectableProperties.put("dateOfBirth", (customerEntity, value) -> customerEntity.setDateOfBirth((Date) value));
+    selectableProperties.put("member", (customerEntity, value) -> customerEntity.setMember((Boolean) value));
+    selectableProperties.put("accountBeneficiary",
+        (customerEntity, value) -> customerEntity.setAccountBeneficiary((String) value));
+    selectableProperties.put("referenceCustomer",
+        (customerEntity, value) -> customerEntity.setReferenceCustomer((String) value));
+    selectableProperties.put("assignedOffice", (customerEntity, value) -> customerEntity.setAssignedOffice((String) value));
+    selectableProperties.put("assignedEmployee",
+        (customerEntity, value) -> customerEntity.setAssignedEmployee((String) value));
+    selectableProperties.put("currentState", (customerEntity, value) -> customerEntity.setCurrentState((String) value));
+    selectableProperties.put("applicationDate",
+        (customerEntity, value) -> customerEntity.setApplicationDate((LocalDate) value));
+    selectableProperties.put("createdBy", (customerEntity, value) -> customerEntity.setCreatedBy((String) value));
+    selectableProperties.put("createdOn", (customerEntity, value) -> customerEntity.setCreatedOn((LocalDateTime) value));
+    selectableProperties.put("lastModifiedBy",
+        (customerEntity, value) -> customerEntity.setLastModifiedBy((String) value));
+    selectableProperties.put("lastModifiedOn",
+        (customerEntity, value) -> customerEntity.setLastModifiedOn((LocalDateTime) value));
+    selectableProperties.put("version", (customerEntity, value) -> customerEntity.setVersion((Long) value));
+    SELECTABLE_PROPERTIES = Collections.unmodifiableMap(selectableProperties);
+  }
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public CustomerPageRepository() {
+    super();
+  }
+
+  /**
+   * @param properties the properties to select, all if null, properties which are no columns are skipped
+   */
+  public Slice<CustomerEntity> findAll(final Boolean includeClosed, final Pageable pageable,
+                                      final Set<String> properties) {
+    final StringBuilder statement = new StringBuilder(" FROM CustomerEntity c");
+    if (!includeClosed) {
+      statement.append(" WHERE c.currentState <> :closed");
+    }
+    statement.append(" ORDER BY ");
+    final Sort sort = pageable.getSort();
+    final List<String> sortProperties = new ArrayList<>();
+    if (sort != null) {
+      sort.forEach(order -> {
+        CustomerPageRepository.throwIfNotSortable(order.getProperty());
+        sortProperties.add(order.getProperty());
+        statement.append("c.").append(order.getProperty()).append(order.isAscending() ? " ASC, " : " DESC, ");
+      });
+    }
+    statement.append("c.id ASC");
+
+    final List<String> selectedProperties = CustomerPageRepository.selectedProperties(properties, sortProperties);
+    final Query query = this.createQuery(selectedProperties, statement);
+    if (!includeClosed) {
+      query.setParameter("closed", Customer.State.CLOSED.name());
+    }
+    query.setFirstResult(pageable.getOffset());
+    return CustomerPageRepository.toSlice(query, pageable, selectedProperties);
+  }
+
+  /**
+   * @param properties the properties to select, all if null, properties which are no columns are skipped
+   */
+  public Slice<CustomerEntity> findAfter(final Boolean includeClosed, final CustomerCursor cursor, final Integer size,
+                                        final Set<String> properties) {
+    final String property = "c." + cursor.getProperty();
+    final boolean ascending = cursor.getDirection().isAscending();
+    final String comparator = ascending ? " > " : " < ";
+    final String direction = ascending ? " ASC" : " DESC";
+
+    final StringBuilder statement = new StringBuilder(" FROM CustomerEntity c WHERE (")
+        .append(property).append(comparator).append(":value OR (")
+        .append(property).append(" = :value AND c.id").append(comparator).append(":id))");
+    if (!includeClosed) {
+      statement.append(" AND c.currentState <> :closed");
+    }
+    statement.append(" ORDER BY ").append(property).append(direction).append(", c.id").append(direction);
+
+    final List<String> selectedProperties =
+        CustomerPageRepository.selectedProperties(properties, Collections.singletonList(cursor.getProperty()));
+    final Query query = this.createQuery(selectedProperties, statement);
+    query.setParameter("value", cursor.getValue());
+    query.setParameter("id", cursor.getId());
+    if (!includeClosed) {
+      query.setParameter("closed", Customer.State.CLOSED.name());
+    }
+    return CustomerPageRepository.toSlice(
+        query, new PageRequest(0, size, cursor.getDirection(), cursor.getProperty()), selectedProperties);
+  }
+
+  public Long count(final Boolean includeClosed) {
+    if (includeClosed) {
+      return this.entityManager.createQuery("SELECT COUNT(c) FROM CustomerEntity c", Long.class).getSingleResult();
+    } else {
+      return this.entityManager
+          .createQuery("SELECT COUNT(c) FROM CustomerEntity c WHERE c.currentState <> :closed", Long.class)
+          .setParameter("closed", Customer.State.CLOSED.name())
+          .getSingleResult();
+    }
+  }
+
+  private Query createQuery(final List<String> selectedProperties, final CharSequence fromClause) {
+    if (selectedProperties == null) {
+      return this.entityManager.createQuery("SELECT c" + fromClause, CustomerEntity.class);
+    }
+    final String selectClause = selectedProperties.stream()
+        .map(property -> "c." + property)
+        .collect(Collectors.joining(", ", "SELECT ", ""));
+    return this.entityManager.createQuery(selectClause + fromClause);
+  }
+
+  private static List<String> selectedProperties(final Set<String> properties, final List<String> sortProperties) {
+    if (properties == null) {
+      return null;
+    }
+    // id and sort keys are needed for the next cursor
+    final Set<String> selectedProperties = new LinkedHashSet<>();
+    selectedProperties.add("id");
+    selectedProperties.addAll(sortProperties);
+    properties.stream().filter(SELECTABLE_PROPERTIES::containsKey).forEach(selectedProperties::add);
+    return new ArrayList<>(selectedProperties);
+  }
+
+  private static Slice<CustomerEntity> toSlice(final Query query, final Pageable pageable,
+                                               final List<String> selectedProperties) {
+    query.setMaxResults(pageable.getPageSize() + 1);
+    @SuppressWarnings("unchecked")
+    final List<Object> rows = query.getResultList();
+    final boolean hasNext = rows.size() > pageable.getPageSize();
+    final List<CustomerEntity> customerEntities = (hasNext ? rows.subList(0, pageable.getPageSize()) : rows)
+        .stream()
+        .map(row -> selectedProperties != null
+            ? CustomerPageRepository.toEntity((Object[]) row, selectedProperties)
+            : (CustomerEntity) row)
+        .collect(Collectors.toList());
+    return new SliceImpl<>(customerEntities, pageable, hasNext);
+  }
+
+  private static CustomerEntity toEntity(final Object[] row, final List<String> selectedProperties) {
+    final CustomerEntity customerEntity = new CustomerEntity();
+    for (int index = 0; index < row.length; index++) {
+      SELECTABLE_PROPERTIES.get(selectedProperties.get(index)).accept(customerEntity, row[index]);
+    }
+    return customerEntity;
+  }
+
+  private static void throwIfNotSortable(final String property) {
+    if (!CustomerSearchRepository.SORTABLE_COLUMNS.containsKey(property)) {
+      throw ServiceException.badRequest("Sort column {0} not supported.", property);
+    }
+  }
+}
@@ -22,10 +22,16 @@ import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import javax.persistence.QueryHint;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
+import java.util.stream.Stream;
 
 @Repository
 public interface CustomerRepository extends JpaRepository<CustomerEntity, Long> {
@@ -33,13 +39,37 @@ public interface CustomerRepository extends JpaRepository<CustomerEntity, Long>
   @Query("SELECT CASE WHEN COUNT(c) > 0 THEN 'true' ELSE 'false' END FROM CustomerEntity c WHERE c.identifier = :identifier")
   Boolean existsByIdentifier(@Param("identifier") final String identifier);
 
-  Page<CustomerEntity> findByIdentifierContainingOrGivenNameContainingOrSurnameContaining(
-      final String identifier, final String givenName, final String surname, final Pageable pageable);
-
   Optional<CustomerEntity> findByIdentifier(final String identifier);
 
+  @Query("SELECT c.identifier FROM CustomerEntity c WHERE c.identifier > :after ORDER BY c.identifier")
+  List<String> findIdentifiersAfter(@Param("after") final String after, final Pageable pageable);
+
+  @Query("SELECT c.identifier FROM CustomerEntity c WHERE c.identifier IN :identifiers")
+  List<String> findExistingIdentifiers(@Param("identifiers") final Collection<String> identifiers);
+
+  List<CustomerEntity> findByIdentifierIn(final Collection<String> identifiers);
+
+  @Query("SELECT c FROM CustomerEntity c LEFT JOIN FETCH c.address WHERE c.identifier IN :identifiers")
+  List<CustomerEntity> findWithAddressByIdentifierIn(@Param("identifiers") final Collection<String> identifiers);
+
+  @Query("SELECT DISTINCT c FROM CustomerEntity c LEFT JOIN FETCH c.address LEFT JOIN FETCH c.contactDetails WHERE c.identifier = :identifier")
+  Optional<CustomerEntity> findAssembledByIdentifier(@Param("identifier") final String identifier);
+
   Page<CustomerEntity> findByCurrentStateNot(final String state, final Pageable pageable);
 
-  Page<CustomerEntity> findByCurrentStateNotAndIdentifierContainingOrGivenNameContainingOrSurnameContaining(
-      final String state, final String identifier, final String givenName, final String surname, final Pageable pageable);
+  @QueryHints({
+      @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+      @QueryHint(name = "org.hibernate.readOnly", value = "true")
+  })
+  @Query("SELECT c FROM CustomerEntity c LEFT JOIN FETCH c.address ORDER BY c.id")
+  Stream<CustomerEntity> streamAll();
+
+  @QueryHints({
+      @QueryHint(name = "org.hibernate.fetchSize", value = "500"),
+      @QueryHint(name = "org.hibernate.readOnly", value = "true")
+  })
+  @Query("SELECT c FROM CustomerEntity c LEFT JOIN FETCH c.address " +
+      "WHERE c.lastModifiedOn >= :modifiedSince OR (c.lastModifiedOn IS NULL AND c.createdOn >= :modifiedSince) " +
+      "ORDER BY c.id")
+  Stream<CustomerEntity> streamModifiedSince(@Param("modifiedSince") final LocalDateTime modifiedSince);
 }
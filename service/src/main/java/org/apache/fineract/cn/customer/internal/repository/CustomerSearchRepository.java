@@ -0,0 +1,165 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.repository;
+
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Repository;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import javax.persistence.Query;
+import java.math.BigInteger;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ranked customer search backed by the trigram indexes created in V11. Exact identifier hits are
+ * listed first, followed by prefix hits, substring hits and finally fuzzy (misspelled) name hits.
+ */
+@Repository
+public class CustomerSearchRepository {
+
+  static final Map<String, String> SORTABLE_COLUMNS;
+
+  static {
+    final HashMap<String, String> sortableColumns = new HashMap<>();
+    sortableColumns.put("identifier", "c.identifier");
+    sortableColumns.put("type", "c.a_type");
+    sortableColumns.put("givenName", "c.given_name");
+    sortableColumns.put("middleName", "c.middle_name");
+    sortableColumns.put("surname", "c.surname");
+    sortableColumns.put("dateOfBirth", "c.date_of_birth");
+    sortableColumns.put("member", "c.is_member");
+    sortableColumns.put("assignedOffice", "c.assigned_office");
+    sortableColumns.put("assignedEmployee", "c.assigned_employee");
+    sortableColumns.put("currentState", "c.current_state");
+    sortableColumns.put("applicationDate", "c.application_date");
+    sortableColumns.put("createdOn", "c.created_on");
+    sortableColumns.put("lastModifiedOn", "c.last_modified_on");
+    SORTABLE_COLUMNS = Collections.unmodifiableMap(sortableColumns);
+  }
+
+  private static final String MATCH_CLAUSE =
+      " FROM maat_customers c" +
+      " WHERE (lower(c.identifier) LIKE :pattern ESCAPE '!'" +
+      " OR lower(c.given_name) LIKE :pattern ESCAPE '!'" +
+      " OR lower(c.surname) LIKE :pattern ESCAPE '!'" +
+      " OR lower(c.given_name) % :term" +
+      " OR lower(c.surname) % :term)";
+
+  private static final String EXCLUDE_CLOSED_CLAUSE = " AND c.current_state <> :closed";
+
+  private static final String RANK_CLAUSE =
+      " ORDER BY CASE" +
+      " WHEN lower(c.identifier) = :term THEN 0" +
+      " WHEN lower(c.identifier) LIKE :prefix ESCAPE '!' THEN 1" +
+      " WHEN lower(c.given_name) LIKE :prefix ESCAPE '!' OR lower(c.surname) LIKE :prefix ESCAPE '!' THEN 2" +
+      " WHEN lower(c.identifier) LIKE :pattern ESCAPE '!'" +
+      " OR lower(c.given_name) LIKE :pattern ESCAPE '!'" +
+      " OR lower(c.surname) LIKE :pattern ESCAPE '!' THEN 3" +
+      " ELSE 4 END," +
+      " greatest(similarity(lower(c.given_name), :term), similarity(lower(c.surname), :term)) DESC";
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  public CustomerSearchRepository() {
+    super();
+  }
+
+  public Slice<CustomerEntity> search(final String term, final Boolean includeClosed, final Pageable pageable,
+                                     final Boolean withTotals) {
+    final String normalizedTerm = term.trim().toLowerCase();
+    if (normalizedTerm.isEmpty()) {
+      // would match every customer through the %% pattern
+      throw ServiceException.badRequest("Search term must not be blank.");
+    }
+    final String escapedTerm = CustomerSearchRepository.escape(normalizedTerm);
+
+    final StringBuilder selectStatement = new StringBuilder("SELECT c.*").append(MATCH_CLAUSE);
+    final StringBuilder countStatement = new StringBuilder("SELECT count(*)").append(MATCH_CLAUSE);
+    if (!includeClosed) {
+      selectStatement.append(EXCLUDE_CLOSED_CLAUSE);
+      countStatement.append(EXCLUDE_CLOSED_CLAUSE);
+    }
+    selectStatement.append(RANK_CLAUSE);
+    this.appendSort(selectStatement, pageable.getSort());
+    selectStatement.append(", c.id");
+
+    final Query selectQuery = this.entityManager.createNativeQuery(selectStatement.toString(), CustomerEntity.class);
+    selectQuery.setParameter("prefix", escapedTerm + "%");
+    this.bindMatchParameters(selectQuery, normalizedTerm, escapedTerm, includeClosed);
+    selectQuery.setFirstResult(pageable.getOffset());
+    if (!withTotals) {
+      selectQuery.setMaxResults(pageable.getPageSize() + 1);
+      @SuppressWarnings("unchecked")
+      final List<CustomerEntity> customerEntities = selectQuery.getResultList();
+      final boolean hasNext = customerEntities.size() > pageable.getPageSize();
+      return new SliceImpl<>(
+          hasNext ? customerEntities.subList(0, pageable.getPageSize()) : customerEntities, pageable, hasNext);
+    }
+
+    selectQuery.setMaxResults(pageable.getPageSize());
+    @SuppressWarnings("unchecked")
+    final List<CustomerEntity> customerEntities = selectQuery.getResultList();
+
+    final Query countQuery = this.entityManager.createNativeQuery(countStatement.toString());
+    this.bindMatchParameters(countQuery, normalizedTerm, escapedTerm, includeClosed);
+    final long total = ((BigInteger) countQuery.getSingleResult()).longValue();
+
+    return new PageImpl<>(customerEntities, pageable, total);
+  }
+
+  private void bindMatchParameters(final Query query, final String term, final String escapedTerm,
+                                   final Boolean includeClosed) {
+    query.setParameter("term", term);
+    query.setParameter("pattern", "%" + escapedTerm + "%");
+    if (!includeClosed) {
+      query.setParameter("closed", Customer.State.CLOSED.name());
+    }
+  }
+
+  private void appendSort(final StringBuilder statement, final Sort sort) {
+    if (sort == null) {
+      return;
+    }
+    sort.forEach(order -> {
+      final String column = SORTABLE_COLUMNS.get(order.getProperty());
+      if (column == null) {
+        throw ServiceException.badRequest("Sort column {0} not supported.", order.getProperty());
+      }
+      statement.append(", ").append(column).append(order.isAscending() ? " ASC" : " DESC");
+    });
+  }
+
+  private static String escape(final String term) {
+    return term
+        .replace("!", "!!")
+        .replace("%", "!%")
+        .replace("_", "!_");
+  }
+}
@@ -18,8 +18,10 @@
  */
 package org.apache.fineract.cn.customer.internal.repository;
 
+import org.apache.fineract.cn.postgresql.util.LocalDateTimeConverter;
+
 import javax.persistence.*;
-import java.util.Arrays;
+import java.time.LocalDateTime;
 import java.util.Objects;
 
 /**
@@ -47,9 +49,15 @@ public class DocumentPageEntity {
   @Column(name = "size")
   private Long size;
 
-  @Lob
-  @Column(name = "image")
-  private byte[] image;
+  @Column(name = "blob_key")
+  private String blobKey;
+
+  @Column(name = "content_hash")
+  private String contentHash;
+
+  @Column(name = "created_on")
+  @Convert(converter = LocalDateTimeConverter.class)
+  private LocalDateTime createdOn;
 
   public DocumentPageEntity() {
   }
@@ -95,12 +103,28 @@ public class DocumentPageEntity {
     this.size = size;
   }
 
-  public byte[] getImage() {
-    return image;
+  public String getBlobKey() {
+    return blobKey;
+  }
+
+  public void setBlobKey(String blobKey) {
+    this.blobKey = blobKey;
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
+  }
+
+  public LocalDateTime getCreatedOn() {
+    return createdOn;
   }
 
-  public void setImage(byte[] image) {
-    this.image = image;
+  public void setCreatedOn(LocalDateTime createdOn) {
+    this.createdOn = createdOn;
   }
 
   @Override
@@ -125,7 +149,9 @@ public class DocumentPageEntity {
         ", pageNumber=" + pageNumber +
         ", contentType='" + contentType + '\'' +
         ", size=" + size +
-        ", image=" + Arrays.toString(image) +
+        ", blobKey='" + blobKey + '\'' +
+        ", contentHash='" + contentHash + '\'' +
+        ", createdOn=" + createdOn +
         '}';
   }
 }
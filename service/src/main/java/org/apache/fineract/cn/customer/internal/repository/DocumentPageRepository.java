@@ -38,4 +38,6 @@ public interface DocumentPageRepository extends JpaRepository<DocumentPageEntity
   @Query("SELECT d FROM DocumentPageEntity d WHERE d.document.customer.identifier = :customerIdentifier AND d.document.identifier = :documentIdentifier")
   Stream<DocumentPageEntity> findByCustomerIdAndDocumentIdentifier(
       @Param("customerIdentifier") String customerIdentifier, @Param("documentIdentifier") String documentIdentifier);
+
+  Long countByBlobKey(final String blobKey);
 }
@@ -0,0 +1,199 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.repository;
+
+import org.apache.fineract.cn.customer.internal.config.BlobStoreProperties;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Repository;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.nio.channels.FileChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.FileAlreadyExistsException;
+import java.nio.file.Files;
+import java.nio.file.NoSuchFileException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.UUID;
+
+/**
+ * Keeps blobs as files below a configurable directory, partitioned by tenant and fanned out by
+ * the first two bytes of the content hash. Content is written to a temporary file first and moved
+ * into place atomically, so readers never see partial files.
+ */
+@Repository
+public class FileSystemBlobStore implements BlobStore {
+
+  private static final String DIGEST_ALGORITHM = "SHA-256";
+  private static final char[] HEX = "0123456789abcdef".toCharArray();
+
+  private final Path rootDirectory;
+
+  @Autowired
+  public FileSystemBlobStore(final BlobStoreProperties blobStoreProperties) {
+    super();
+    this.rootDirectory = Paths.get(blobStoreProperties.getDirectory());
+  }
+
+  @Override
+  public StoredBlob store(final InputStream content) throws IOException {
+    final Path temporaryFile = this.createSpoolFile();
+    try {
+      final MessageDigest messageDigest = FileSystemBlobStore.newMessageDigest();
+      final long size;
+      try (final OutputStream outputStream =
+               new DigestOutputStream(Files.newOutputStream(temporaryFile), messageDigest)) {
+        size = FileSystemBlobStore.copy(content, outputStream);
+      }
+
+      final String contentHash = FileSystemBlobStore.toHex(messageDigest.digest());
+      this.moveIntoPlace(temporaryFile, contentHash);
+      return new StoredBlob(contentHash, contentHash, size);
+    } finally {
+      Files.deleteIfExists(temporaryFile);
+    }
+  }
+
+  @Override
+  public Path createSpoolFile() throws IOException {
+    final Path tenantDirectory = this.tenantDirectory();
+    Files.createDirectories(tenantDirectory);
+    return Files.createTempFile(tenantDirectory, "upload-", ".tmp");
+  }
+
+  @Override
+  public StoredBlob store(final SpooledUpload spooledUpload) throws IOException {
+    try {
+      this.moveIntoPlace(spooledUpload.getFile(), spooledUpload.getContentHash());
+      return new StoredBlob(spooledUpload.getContentHash(), spooledUpload.getContentHash(), spooledUpload.getSize());
+    } finally {
+      Files.deleteIfExists(spooledUpload.getFile());
+    }
+  }
+
+  @Override
+  public boolean exists(final String key) {
+    return Files.exists(this.resolve(key));
+  }
+
+  @Override
+  public long transferTo(final String key, final long position, final long count, final WritableByteChannel target)
+      throws IOException {
+    try (final FileChannel fileChannel = FileChannel.open(this.resolve(key), StandardOpenOption.READ)) {
+      final long end = Math.min(fileChannel.size(), position + count);
+      long current = position;
+      while (current < end) {
+        current += fileChannel.transferTo(current, end - current, target);
+      }
+      return current - position;
+    }
+  }
+
+  @Override
+  public void delete(final String key) throws IOException {
+    try {
+      Files.delete(this.resolve(key));
+    } catch (final NoSuchFileException ex) {
+      // already gone, nothing to do
+    }
+  }
+
+  @Override
+  public Path detach(final String key) throws IOException {
+    final Path blobFile = this.resolve(key);
+    final Path detachedFile = blobFile.resolveSibling(key + "." + UUID.randomUUID() + ".detached");
+    try {
+      Files.move(blobFile, detachedFile, StandardCopyOption.ATOMIC_MOVE);
+      return detachedFile;
+    } catch (final NoSuchFileException ex) {
+      return null;
+    }
+  }
+
+  @Override
+  public void restore(final String key, final Path detachedFile) throws IOException {
+    try {
+      this.moveIntoPlace(detachedFile, key);
+    } finally {
+      Files.deleteIfExists(detachedFile);
+    }
+  }
+
+  private void moveIntoPlace(final Path temporaryFile, final String contentHash) throws IOException {
+    final Path blobFile = this.resolve(contentHash);
+    Files.createDirectories(blobFile.getParent());
+    if (!Files.exists(blobFile)) {
+      try {
+        Files.move(temporaryFile, blobFile, StandardCopyOption.ATOMIC_MOVE);
+      } catch (final FileAlreadyExistsException ex) {
+        // stored concurrently, content is identical
+      }
+    }
+  }
+
+  private Path tenantDirectory() {
+    return this.rootDirectory.resolve(TenantContextHolder.checkedGetIdentifier());
+  }
+
+  private Path resolve(final String key) {
+    if (key.length() < 4 || !key.chars().allMatch(c -> Character.digit(c, 16) >= 0)) {
+      throw new IllegalArgumentException("Invalid blob key " + key);
+    }
+    return this.tenantDirectory()
+        .resolve(key.substring(0, 2))
+        .resolve(key.substring(2, 4))
+        .resolve(key);
+  }
+
+  private static long copy(final InputStream inputStream, final OutputStream outputStream) throws IOException {
+    final byte[] buffer = new byte[8192];
+    long size = 0L;
+    int read;
+    while ((read = inputStream.read(buffer)) != -1) {
+      outputStream.write(buffer, 0, read);
+      size += read;
+    }
+    return size;
+  }
+
+  private static MessageDigest newMessageDigest() {
+    try {
+      return MessageDigest.getInstance(DIGEST_ALGORITHM);
+    } catch (final NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private static String toHex(final byte[] bytes) {
+    final char[] chars = new char[bytes.length * 2];
+    for (int i = 0; i < bytes.length; i++) {
+      chars[i * 2] = HEX[(bytes[i] >> 4) & 0x0f];
+      chars[i * 2 + 1] = HEX[bytes[i] & 0x0f];
+    }
+    return new String(chars);
+  }
+}
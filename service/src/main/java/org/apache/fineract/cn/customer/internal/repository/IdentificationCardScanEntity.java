@@ -27,7 +27,6 @@ import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
-import javax.persistence.Lob;
 import javax.persistence.ManyToOne;
 import javax.persistence.Table;
 import org.apache.fineract.cn.postgresql.util.LocalDateTimeConverter;
@@ -44,9 +43,10 @@ public class IdentificationCardScanEntity {
   private String identifier;
   @Column(name = "description")
   private String description;
-  @Lob
-  @Column(name = "image")
-  private byte[] image;
+  @Column(name = "blob_key")
+  private String blobKey;
+  @Column(name = "content_hash")
+  private String contentHash;
   @Column(name = "size")
   private Long size;
   @Column(name = "content_type")
@@ -88,12 +88,20 @@ public class IdentificationCardScanEntity {
     this.description = description;
   }
 
-  public byte[] getImage() {
-    return image;
+  public String getBlobKey() {
+    return blobKey;
   }
 
-  public void setImage(byte[] image) {
-    this.image = image;
+  public void setBlobKey(String blobKey) {
+    this.blobKey = blobKey;
+  }
+
+  public String getContentHash() {
+    return contentHash;
+  }
+
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
   }
 
   public Long getSize() {
@@ -35,4 +35,6 @@ public interface IdentificationCardScanRepository extends JpaRepository<Identifi
   Optional<IdentificationCardScanEntity> findByIdentifierAndIdentificationCard(final String identifier, final IdentificationCardEntity identificationCardEntity);
 
   List<IdentificationCardScanEntity> findByIdentificationCard(final IdentificationCardEntity identificationCardEntity);
+
+  Long countByBlobKey(final String blobKey);
 }
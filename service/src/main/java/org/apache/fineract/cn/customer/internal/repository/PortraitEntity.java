@@ -18,16 +18,18 @@
  */
 package org.apache.fineract.cn.customer.internal.repository;
 
+import java.time.LocalDateTime;
 import javax.persistence.Column;
+import javax.persistence.Convert;
 import javax.persistence.Entity;
 import javax.persistence.FetchType;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
 import javax.persistence.JoinColumn;
-import javax.persistence.Lob;
 import javax.persistence.OneToOne;
 import javax.persistence.Table;
+import org.apache.fineract.cn.postgresql.util.LocalDateTimeConverter;
 
 @Entity
 @Table(name = "maat_portraits")
@@ -42,9 +44,11 @@ public class PortraitEntity {
   @JoinColumn(name = "customer_id")
   private CustomerEntity customer;
 
-  @Lob
-  @Column(name = "image")
-  private byte[] image;
+  @Column(name = "blob_key")
+  private String blobKey;
+
+  @Column(name = "content_hash")
+  private String contentHash;
 
   @Column(name = "size")
   private Long size;
@@ -52,6 +56,10 @@ public class PortraitEntity {
   @Column(name = "content_type")
   private String contentType;
 
+  @Column(name = "created_on")
+  @Convert(converter = LocalDateTimeConverter.class)
+  private LocalDateTime createdOn;
+
   public PortraitEntity() {
     super();
   }
@@ -72,12 +80,20 @@ public class PortraitEntity {
     this.customer = customer;
   }
 
-  public byte[] getImage() {
-    return image;
+  public String getBlobKey() {
+    return blobKey;
+  }
+
+  public void setBlobKey(String blobKey) {
+    this.blobKey = blobKey;
+  }
+
+  public String getContentHash() {
+    return contentHash;
   }
 
-  public void setImage(byte[] image) {
-    this.image = image;
+  public void setContentHash(String contentHash) {
+    this.contentHash = contentHash;
   }
 
   public Long getSize() {
@@ -95,4 +111,12 @@ public class PortraitEntity {
   public void setContentType(String contentType) {
     this.contentType = contentType;
   }
+
+  public LocalDateTime getCreatedOn() {
+    return this.createdOn;
+  }
+
+  public void setCreatedOn(final LocalDateTime createdOn) {
+    this.createdOn = createdOn;
+  }
 }
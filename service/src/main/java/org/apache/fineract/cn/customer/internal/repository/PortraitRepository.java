@@ -32,4 +32,6 @@ public interface PortraitRepository extends JpaRepository<PortraitEntity, Long>
   PortraitEntity findByCustomer(final CustomerEntity customerEntity);
 
   void deleteByCustomer(final CustomerEntity customerEntity);
+
+  Long countByBlobKey(final String blobKey);
 }
@@ -0,0 +1,45 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.repository;
+
+public class StoredBlob {
+
+  private final String key;
+  private final String contentHash;
+  private final Long size;
+
+  public StoredBlob(final String key, final String contentHash, final Long size) {
+    super();
+    this.key = key;
+    this.contentHash = contentHash;
+    this.size = size;
+  }
+
+  public String getKey() {
+    return this.key;
+  }
+
+  public String getContentHash() {
+    return this.contentHash;
+  }
+
+  public Long getSize() {
+    return this.size;
+  }
+}
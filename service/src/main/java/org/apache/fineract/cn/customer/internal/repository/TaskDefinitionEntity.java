@@ -18,11 +18,15 @@
  */
 package org.apache.fineract.cn.customer.internal.repository;
 
+import java.util.Set;
+import javax.persistence.CollectionTable;
 import javax.persistence.Column;
+import javax.persistence.ElementCollection;
 import javax.persistence.Entity;
 import javax.persistence.GeneratedValue;
 import javax.persistence.GenerationType;
 import javax.persistence.Id;
+import javax.persistence.JoinColumn;
 import javax.persistence.Table;
 
 @Entity
@@ -43,6 +47,10 @@ public class TaskDefinitionEntity {
   private String description;
   @Column(name = "assigned_commands")
   private String assignedCommands;
+  @ElementCollection
+  @CollectionTable(name = "maat_task_definition_commands", joinColumns = @JoinColumn(name = "task_definition_id"))
+  @Column(name = "a_command")
+  private Set<String> commands;
   @Column(name = "mandatory")
   private Boolean mandatory;
   @Column(name = "predefined")
@@ -100,6 +108,14 @@ public class TaskDefinitionEntity {
     this.assignedCommands = assignedCommands;
   }
 
+  public Set<String> getCommands() {
+    return this.commands;
+  }
+
+  public void setCommands(final Set<String> commands) {
+    this.commands = commands;
+  }
+
   public Boolean isMandatory() {
     return this.mandatory;
   }
@@ -33,5 +33,6 @@ public interface TaskDefinitionRepository extends JpaRepository<TaskDefinitionEn
 
   TaskDefinitionEntity findByIdentifier(final String identifier);
 
-  List<TaskDefinitionEntity> findByAssignedCommandsContaining(final String command);
+  @Query("SELECT DISTINCT t FROM TaskDefinitionEntity t LEFT JOIN FETCH t.commands ORDER BY t.id")
+  List<TaskDefinitionEntity> findAllWithCommands();
 }
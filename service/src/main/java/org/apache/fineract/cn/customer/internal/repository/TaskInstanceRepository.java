@@ -19,9 +19,13 @@
 package org.apache.fineract.cn.customer.internal.repository;
 
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.util.Collection;
 import java.util.List;
+import java.util.Set;
 
 @Repository
 public interface TaskInstanceRepository extends JpaRepository<TaskInstanceEntity, Long> {
@@ -30,4 +34,20 @@ public interface TaskInstanceRepository extends JpaRepository<TaskInstanceEntity
 
   List<TaskInstanceEntity> findByCustomerAndTaskDefinition(final CustomerEntity customer,
                                                            final TaskDefinitionEntity taskDefinitionEntity);
+
+  @Query(value = "SELECT EXISTS (SELECT 1 FROM maat_task_instances ti " +
+      "JOIN maat_task_definitions td ON td.id = ti.task_definition_id " +
+      "JOIN maat_task_definition_commands tc ON tc.task_definition_id = td.id " +
+      "WHERE ti.customer_id = :customerId AND tc.a_command = :command " +
+      "AND td.mandatory = TRUE AND ti.executed_by IS NULL)", nativeQuery = true)
+  Boolean existsOpenMandatoryTask(@Param("customerId") final Long customerId, @Param("command") final String command);
+
+  @Query("SELECT DISTINCT ti.customer.id FROM TaskInstanceEntity ti JOIN ti.taskDefinition td JOIN td.commands c " +
+      "WHERE ti.customer.id IN :customerIds AND c = :command AND td.mandatory = true AND ti.executedBy IS NULL")
+  Set<Long> findCustomersWithOpenMandatoryTasks(@Param("customerIds") final Collection<Long> customerIds,
+                                                @Param("command") final String command);
+
+  @Query("SELECT ti.customer.id, ti.taskDefinition.id FROM TaskInstanceEntity ti " +
+      "WHERE ti.customer.id IN :customerIds AND ti.executedBy IS NULL ORDER BY ti.id")
+  List<Object[]> findOpenTasksByCustomerIds(@Param("customerIds") final Collection<Long> customerIds);
 }
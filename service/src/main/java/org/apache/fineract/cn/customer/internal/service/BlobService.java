@@ -0,0 +1,321 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.internal.repository.BlobStore;
+import org.apache.fineract.cn.customer.internal.repository.DocumentPageRepository;
+import org.apache.fineract.cn.customer.internal.repository.IdentificationCardScanRepository;
+import org.apache.fineract.cn.customer.internal.repository.PortraitRepository;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
+import org.apache.fineract.cn.customer.internal.repository.StoredBlob;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.multipart.MultipartFile;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.math.BigInteger;
+import java.nio.channels.Channels;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.security.DigestOutputStream;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+
+/**
+ * Ties the blob store to the entities referencing it. Since blobs are content addressed, several
+ * rows may share one blob, so a blob is only removed once the last reference is gone.
+ *
+ * Storing and releasing a blob both lock its row in maat_blobs until their transaction ends. A release
+ * therefore either sees the reference a concurrent upload of the same content is about to commit, or
+ * finishes before that upload puts the content back in place.
+ */
+@Service
+public class BlobService {
+
+  static final String BYTES_SENT = "customer_blob_bytes_sent";
+
+  private static final int SNIFF_LENGTH = 8;
+  private static final byte[] JPEG_SIGNATURE = {(byte) 0xFF, (byte) 0xD8, (byte) 0xFF};
+  private static final byte[] PNG_SIGNATURE = {(byte) 0x89, 'P', 'N', 'G', '\r', '\n', 0x1A, '\n'};
+
+  private final Logger logger;
+  private final BlobStore blobStore;
+  private final PortraitRepository portraitRepository;
+  private final IdentificationCardScanRepository identificationCardScanRepository;
+  private final DocumentPageRepository documentPageRepository;
+  private final TransactionTemplate newTransaction;
+  private final MetricRegistry metricRegistry;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  public BlobService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                     final BlobStore blobStore,
+                     final PortraitRepository portraitRepository,
+                     final IdentificationCardScanRepository identificationCardScanRepository,
+                     final DocumentPageRepository documentPageRepository,
+                     final PlatformTransactionManager transactionManager,
+                     final MetricRegistry metricRegistry) {
+    super();
+    this.logger = logger;
+    this.blobStore = blobStore;
+    this.portraitRepository = portraitRepository;
+    this.identificationCardScanRepository = identificationCardScanRepository;
+    this.documentPageRepository = documentPageRepository;
+    this.newTransaction = new TransactionTemplate(transactionManager);
+    this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    this.metricRegistry = metricRegistry;
+  }
+
+  /**
+   * Writes the upload to a spool file of the blob store in a single pass, computing its size,
+   * SHA-256 hash and content type on the way. Uploads exceeding the given maximum size are rejected
+   * as soon as that is known, without reading them any further.
+   */
+  public SpooledUpload spool(final MultipartFile multipartFile, final long maxSize) throws IOException {
+    if (multipartFile.getSize() > maxSize) {
+      throw ServiceException.badRequest("Image can''t exceed size of {0}", maxSize);
+    }
+
+    final Path spoolFile = this.blobStore.createSpoolFile();
+    try {
+      final MessageDigest messageDigest = BlobService.newMessageDigest();
+      final byte[] head = new byte[SNIFF_LENGTH];
+      int headLength = 0;
+      long size = 0L;
+      try (final InputStream inputStream = multipartFile.getInputStream();
+           final OutputStream outputStream =
+               new DigestOutputStream(Files.newOutputStream(spoolFile), messageDigest)) {
+        final byte[] buffer = new byte[8192];
+        int read;
+        while ((read = inputStream.read(buffer)) != -1) {
+          size += read;
+          if (size > maxSize) {
+            throw ServiceException.badRequest("Image can''t exceed size of {0}", maxSize);
+          }
+          if (headLength < head.length) {
+            final int length = Math.min(read, head.length - headLength);
+            System.arraycopy(buffer, 0, head, headLength, length);
+            headLength += length;
+          }
+          outputStream.write(buffer, 0, read);
+        }
+      }
+
+      return new SpooledUpload(spoolFile, String.format("%064x", new BigInteger(1, messageDigest.digest())), size,
+          BlobService.sniffContentType(head, headLength, multipartFile.getContentType()));
+    } catch (final IOException | RuntimeException ex) {
+      Files.deleteIfExists(spoolFile);
+      throw ex;
+    }
+  }
+
+  /**
+   * Must be called within the transaction that stores the reference to the blob. Should that
+   * transaction roll back, the blob is released again.
+   */
+  public StoredBlob store(final SpooledUpload spooledUpload) throws IOException {
+    final String blobKey = spooledUpload.getContentHash();
+    this.lock(blobKey);
+    final StoredBlob storedBlob = this.blobStore.store(spooledUpload);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(final int status) {
+          if (status == STATUS_ROLLED_BACK) {
+            BlobService.this.releaseInNewTransaction(blobKey);
+          }
+        }
+      });
+    }
+    return storedBlob;
+  }
+
+  public boolean exists(final String blobKey) {
+    return this.blobStore.exists(blobKey);
+  }
+
+  /**
+   * Must be called within the transaction of the command carrying the upload. Once that transaction
+   * has ended, the spool file is deleted unless it was stored, e.g. because the command failed.
+   */
+  public void discardAfterCompletion(final SpooledUpload spooledUpload) {
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(final int status) {
+          BlobService.this.discard(spooledUpload);
+        }
+      });
+    }
+  }
+
+  public void discard(final SpooledUpload spooledUpload) {
+    try {
+      Files.deleteIfExists(spooledUpload.getFile());
+    } catch (final IOException ex) {
+      this.logger.warn("Could not delete spooled upload {}.", spooledUpload.getFile(), ex);
+    }
+  }
+
+  public long transferTo(final String blobKey, final long position, final long count,
+                         final OutputStream outputStream) throws IOException {
+    final long transferred = this.blobStore.transferTo(blobKey, position, count, Channels.newChannel(outputStream));
+    this.metricRegistry.counter(BYTES_SENT, "tenant", TenantContextHolder.checkedGetIdentifier()).add(transferred);
+    return transferred;
+  }
+
+  /**
+   * Must be called within the transaction that removed a reference to the given blob. The blob is
+   * deleted once that transaction commits, if no other row refers to it anymore.
+   */
+  public void releaseAfterCommit(final String blobKey) {
+    if (blobKey == null) {
+      return;
+    }
+
+    this.entityManager.flush();
+    this.release(blobKey);
+  }
+
+  private static String sniffContentType(final byte[] head, final int headLength, final String declaredContentType) {
+    if (BlobService.startsWith(head, headLength, JPEG_SIGNATURE)) {
+      return MediaType.IMAGE_JPEG_VALUE;
+    }
+    if (BlobService.startsWith(head, headLength, PNG_SIGNATURE)) {
+      return MediaType.IMAGE_PNG_VALUE;
+    }
+    return declaredContentType;
+  }
+
+  private static boolean startsWith(final byte[] head, final int headLength, final byte[] signature) {
+    if (headLength < signature.length) {
+      return false;
+    }
+    for (int i = 0; i < signature.length; i++) {
+      if (head[i] != signature[i]) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static MessageDigest newMessageDigest() {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (final NoSuchAlgorithmException ex) {
+      throw new IllegalStateException(ex);
+    }
+  }
+
+  private void lock(final String blobKey) {
+    this.entityManager.createNativeQuery(
+        "INSERT INTO maat_blobs (blob_key, created_on) VALUES (:blobKey, now())" +
+        " ON CONFLICT (blob_key) DO UPDATE SET blob_key = EXCLUDED.blob_key")
+        .setParameter("blobKey", blobKey)
+        .executeUpdate();
+  }
+
+  private void release(final String blobKey) {
+    this.lock(blobKey);
+    if (this.countReferences(blobKey) > 0L) {
+      return;
+    }
+
+    this.entityManager.createNativeQuery("DELETE FROM maat_blobs WHERE blob_key = :blobKey")
+        .setParameter("blobKey", blobKey)
+        .executeUpdate();
+
+    // moved aside while the row is still locked, so a concurrent upload waiting for the lock stores it anew
+    final Path detachedFile;
+    try {
+      detachedFile = this.blobStore.detach(blobKey);
+    } catch (final IOException ex) {
+      this.logger.warn("Could not delete blob {}.", blobKey, ex);
+      return;
+    }
+    if (detachedFile == null) {
+      return;
+    }
+
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(final int status) {
+          if (status == STATUS_COMMITTED) {
+            BlobService.this.deleteDetached(detachedFile);
+          } else {
+            BlobService.this.restore(blobKey, detachedFile);
+          }
+        }
+      });
+    } else {
+      this.deleteDetached(detachedFile);
+    }
+  }
+
+  private void releaseInNewTransaction(final String blobKey) {
+    try {
+      this.newTransaction.execute(status -> {
+        this.release(blobKey);
+        return null;
+      });
+    } catch (final RuntimeException ex) {
+      this.logger.warn("Could not release blob {} of a rolled back upload.", blobKey, ex);
+    }
+  }
+
+  private long countReferences(final String blobKey) {
+    return this.portraitRepository.countByBlobKey(blobKey)
+        + this.identificationCardScanRepository.countByBlobKey(blobKey)
+        + this.documentPageRepository.countByBlobKey(blobKey);
+  }
+
+  private void deleteDetached(final Path detachedFile) {
+    try {
+      Files.deleteIfExists(detachedFile);
+    } catch (final IOException ex) {
+      this.logger.warn("Could not delete blob {}.", detachedFile, ex);
+    }
+  }
+
+  private void restore(final String blobKey, final Path detachedFile) {
+    try {
+      this.blobStore.restore(blobKey, detachedFile);
+    } catch (final IOException ex) {
+      this.logger.warn("Could not restore blob {}.", blobKey, ex);
+    }
+  }
+}
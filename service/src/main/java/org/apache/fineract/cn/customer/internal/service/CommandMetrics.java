@@ -0,0 +1,148 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+/**
+ * Instruments command dispatch for every {@code @CommandHandler}, per command type and tenant.
+ *
+ * Submissions through the command gateway are remembered so the time a command waits for an async
+ * worker can be told apart from the time its handler runs. The advice is ordered inside the handler's
+ * transaction; the time spent completing that transaction is recorded separately through a transaction
+ * synchronization.
+ */
+@Aspect
+@Component
+@Order(ServiceConstants.COMMAND_METRICS_ORDER)
+public class CommandMetrics {
+
+  static final String QUEUE_WAIT = "customer_command_queue_wait";
+  static final String EXECUTION = "customer_command_execution";
+  static final String COMMIT = "customer_command_commit";
+  static final String FAILURES = "customer_command_failures";
+  static final String IN_FLIGHT = "customer_command_in_flight";
+  static final String QUEUED = "customer_command_queued";
+
+  private static final String UNKNOWN_TENANT = "unknown";
+
+  private final MetricRegistry metricRegistry;
+  private final Cache<Object, Long> submissions;
+
+  @Autowired
+  public CommandMetrics(final MetricRegistry metricRegistry) {
+    super();
+    this.metricRegistry = metricRegistry;
+    // weak keys compare by identity, which is what we want for command instances
+    this.submissions = Caffeine.newBuilder().weakKeys().build();
+  }
+
+  @Around("execution(* org.apache.fineract.cn.command.gateway.CommandGateway.process(..)) && args(command, ..)")
+  public Object recordSubmission(final ProceedingJoinPoint joinPoint, final Object command) throws Throwable {
+    final String commandType = command.getClass().getSimpleName();
+    final String tenant = CommandMetrics.currentTenant();
+    this.submissions.put(command, System.nanoTime());
+    this.metricRegistry.gauge(QUEUED, "command", commandType, "tenant", tenant).increment();
+    try {
+      return joinPoint.proceed();
+    } catch (final Throwable th) {
+      if (this.submissions.asMap().remove(command) != null) {
+        this.metricRegistry.gauge(QUEUED, "command", commandType, "tenant", tenant).decrement();
+      }
+      throw th;
+    }
+  }
+
+  @Around("@annotation(org.apache.fineract.cn.command.annotation.CommandHandler)")
+  public Object recordExecution(final ProceedingJoinPoint joinPoint) throws Throwable {
+    final Object command = joinPoint.getArgs().length > 0 ? joinPoint.getArgs()[0] : null;
+    final String commandType = command != null
+        ? command.getClass().getSimpleName()
+        : joinPoint.getSignature().getName();
+    final String tenant = CommandMetrics.currentTenant();
+    final long started = System.nanoTime();
+
+    if (command != null) {
+      final Long submitted = this.submissions.asMap().remove(command);
+      if (submitted != null) {
+        this.metricRegistry.gauge(QUEUED, "command", commandType, "tenant", tenant).decrement();
+        this.metricRegistry.timer(QUEUE_WAIT, "command", commandType, "tenant", tenant).record(started - submitted);
+      }
+    }
+
+    final MetricRegistry.Gauge inFlight = this.metricRegistry.gauge(IN_FLIGHT, "command", commandType, "tenant", tenant);
+    inFlight.increment();
+    try {
+      final Object result = joinPoint.proceed();
+      this.recordCommit(commandType, tenant);
+      return result;
+    } catch (final Throwable th) {
+      this.metricRegistry.counter(FAILURES, "command", commandType, "tenant", tenant,
+          "exception", th.getClass().getSimpleName()).increment();
+      throw th;
+    } finally {
+      this.metricRegistry.timer(EXECUTION, "command", commandType, "tenant", tenant).recordSince(started);
+      inFlight.decrement();
+    }
+  }
+
+  private void recordCommit(final String commandType, final String tenant) {
+    if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+      return;
+    }
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      private long completing;
+
+      @Override
+      public void beforeCompletion() {
+        this.completing = System.nanoTime();
+      }
+
+      @Override
+      public void afterCompletion(final int status) {
+        if (this.completing == 0L) {
+          return;
+        }
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+          CommandMetrics.this.metricRegistry.timer(COMMIT, "command", commandType, "tenant", tenant)
+              .recordSince(this.completing);
+        } else {
+          CommandMetrics.this.metricRegistry.counter(FAILURES, "command", commandType, "tenant", tenant,
+              "exception", "RollbackOnCommit").increment();
+        }
+      }
+    });
+  }
+
+  private static String currentTenant() {
+    return TenantContextHolder.identifier().orElse(UNKNOWN_TENANT);
+  }
+}
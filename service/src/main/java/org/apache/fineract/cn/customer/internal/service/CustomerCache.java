@@ -0,0 +1,196 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.fineract.cn.customer.api.v1.domain.Address;
+import org.apache.fineract.cn.customer.api.v1.domain.ContactDetail;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.catalog.api.v1.domain.Value;
+import org.apache.fineract.cn.customer.internal.config.CustomerCacheProperties;
+import org.apache.fineract.cn.lang.DateOfBirth;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Bounded read-through cache of assembled customers, partitioned by tenant.
+ *
+ * Command handlers evict the entries they touch once their transaction completes, other service
+ * instances evict on the corresponding events published to the customer destination.
+ *
+ * Callers get their own copy of a cached customer, so changing it does not change what other
+ * callers are served.
+ */
+@Component
+public class CustomerCache {
+
+  private final CustomerCacheProperties customerCacheProperties;
+  private final Cache<String, Customer> cache;
+
+  @Autowired
+  public CustomerCache(final CustomerCacheProperties customerCacheProperties) {
+    super();
+    this.customerCacheProperties = customerCacheProperties;
+    this.cache = Caffeine.newBuilder()
+        .maximumSize(customerCacheProperties.getMaximumSize())
+        .expireAfterWrite(customerCacheProperties.getExpireAfterWriteInSeconds(), TimeUnit.SECONDS)
+        .recordStats()
+        .build();
+  }
+
+  public Optional<Customer> get(final String identifier, final Function<String, Optional<Customer>> loader) {
+    if (!this.customerCacheProperties.isEnabled()) {
+      return loader.apply(identifier);
+    }
+    return Optional.ofNullable(
+        this.cache.get(CustomerCache.key(TenantContextHolder.checkedGetIdentifier(), identifier),
+            key -> loader.apply(identifier).orElse(null)))
+        .map(CustomerCache::copy);
+  }
+
+  /**
+   * Serves the cached customers and loads the others in bulk. Bulk loaded customers are not cached,
+   * because unlike a single load, a bulk load is not ordered against the evictions of concurrent commands.
+   */
+  public Map<String, Customer> getAll(final Collection<String> identifiers,
+                                      final Function<Collection<String>, Map<String, Customer>> loader) {
+    if (!this.customerCacheProperties.isEnabled()) {
+      return loader.apply(identifiers);
+    }
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    final Map<String, Customer> customers = new HashMap<>();
+    final List<String> missing = new ArrayList<>();
+    identifiers.forEach(identifier -> {
+      final Customer customer = this.cache.getIfPresent(CustomerCache.key(tenant, identifier));
+      if (customer != null) {
+        customers.put(identifier, CustomerCache.copy(customer));
+      } else {
+        missing.add(identifier);
+      }
+    });
+    if (!missing.isEmpty()) {
+      customers.putAll(loader.apply(missing));
+    }
+    return customers;
+  }
+
+  public void evict(final String tenant, final String identifier) {
+    this.cache.invalidate(CustomerCache.key(tenant, identifier));
+  }
+
+  public void evictAfterCommit(final String identifier) {
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    this.evict(tenant, identifier);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(final int status) {
+          CustomerCache.this.evict(tenant, identifier);
+        }
+      });
+    }
+  }
+
+  public CacheStats stats() {
+    return this.cache.stats();
+  }
+
+  public long estimatedSize() {
+    return this.cache.estimatedSize();
+  }
+
+  private static String key(final String tenant, final String identifier) {
+    return tenant + ":" + identifier;
+  }
+
+  private static Customer copy(final Customer customer) {
+    final Customer copy = new Customer();
+    copy.setIdentifier(customer.getIdentifier());
+    copy.setType(customer.getType());
+    copy.setGivenName(customer.getGivenName());
+    copy.setMiddleName(customer.getMiddleName());
+    copy.setSurname(customer.getSurname());
+    if (customer.getDateOfBirth() != null) {
+      final DateOfBirth dateOfBirth = new DateOfBirth();
+      dateOfBirth.setYear(customer.getDateOfBirth().getYear());
+      dateOfBirth.setMonth(customer.getDateOfBirth().getMonth());
+      dateOfBirth.setDay(customer.getDateOfBirth().getDay());
+      copy.setDateOfBirth(dateOfBirth);
+    }
+    copy.setMember(customer.getMember());
+    copy.setAccountBeneficiary(customer.getAccountBeneficiary());
+    copy.setReferenceCustomer(customer.getReferenceCustomer());
+    copy.setAssignedOffice(customer.getAssignedOffice());
+    copy.setAssignedEmployee(customer.getAssignedEmployee());
+    if (customer.getAddress() != null) {
+      final Address address = customer.getAddress();
+      final Address addressCopy = new Address();
+      addressCopy.setStreet(address.getStreet());
+      addressCopy.setCity(address.getCity());
+      addressCopy.setRegion(address.getRegion());
+      addressCopy.setPostalCode(address.getPostalCode());
+      addressCopy.setCountryCode(address.getCountryCode());
+      addressCopy.setCountry(address.getCountry());
+      copy.setAddress(addressCopy);
+    }
+    if (customer.getContactDetails() != null) {
+      copy.setContactDetails(customer.getContactDetails().stream().map(contactDetail -> {
+        final ContactDetail contactDetailCopy = new ContactDetail();
+        contactDetailCopy.setType(contactDetail.getType());
+        contactDetailCopy.setGroup(contactDetail.getGroup());
+        contactDetailCopy.setValue(contactDetail.getValue());
+        contactDetailCopy.setValidated(contactDetail.getValidated());
+        contactDetailCopy.setPreferenceLevel(contactDetail.getPreferenceLevel());
+        return contactDetailCopy;
+      }).collect(Collectors.toList()));
+    }
+    copy.setCurrentState(customer.getCurrentState());
+    copy.setApplicationDate(customer.getApplicationDate());
+    if (customer.getCustomValues() != null) {
+      copy.setCustomValues(customer.getCustomValues().stream().map(value -> {
+        final Value valueCopy = new Value();
+        valueCopy.setCatalogIdentifier(value.getCatalogIdentifier());
+        valueCopy.setFieldIdentifier(value.getFieldIdentifier());
+        valueCopy.setValue(value.getValue());
+        return valueCopy;
+      }).collect(Collectors.toList()));
+    }
+    copy.setCreatedBy(customer.getCreatedBy());
+    copy.setCreatedOn(customer.getCreatedOn());
+    copy.setLastModifiedBy(customer.getLastModifiedBy());
+    copy.setLastModifiedOn(customer.getLastModifiedOn());
+    copy.setVersion(customer.getVersion());
+    return copy;
+  }
+}
@@ -0,0 +1,129 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.api.util.UserContextHolder;
+import org.apache.fineract.cn.command.annotation.EventEmitter;
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.internal.command.CreateCustomersCommand;
+import org.apache.fineract.cn.customer.internal.command.CustomerScopedCommand;
+import org.apache.fineract.cn.customer.internal.repository.CustomerChangeEntity;
+import org.apache.fineract.cn.customer.internal.repository.CustomerChangeRepository;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+/**
+ * Appends a snapshot of the customer to the change log after every customer command which emits an
+ * event, in the command's own transaction, so the change feed holds exactly the committed changes. Once
+ * the transaction commits, the {@link CustomerProjectionService} is told to catch up with the feed.
+ */
+@Aspect
+@Component
+@Order(ServiceConstants.CUSTOMER_CHANGE_RECORDER_ORDER)
+public class CustomerChangeRecorder {
+
+  private final CustomerService customerService;
+  private final CustomerChangeRepository customerChangeRepository;
+  private final CustomerProjectionService customerProjectionService;
+  private final Gson gson;
+
+  @Autowired
+  public CustomerChangeRecorder(final CustomerService customerService,
+                                final CustomerChangeRepository customerChangeRepository,
+                                final CustomerProjectionService customerProjectionService) {
+    super();
+    this.customerService = customerService;
+    this.customerChangeRepository = customerChangeRepository;
+    this.customerProjectionService = customerProjectionService;
+    this.gson = new Gson();
+  }
+
+  @Around("@annotation(org.apache.fineract.cn.command.annotation.CommandHandler) && @annotation(eventEmitter)")
+  public Object record(final ProceedingJoinPoint joinPoint, final EventEmitter eventEmitter) throws Throwable {
+    final Object result = joinPoint.proceed();
+
+    final Object command = joinPoint.getArgs().length > 0 ? joinPoint.getArgs()[0] : null;
+    final List<String> customerIdentifiers = CustomerChangeRecorder.customerIdentifiers(command);
+    if (customerIdentifiers.isEmpty() || !TransactionSynchronizationManager.isActualTransactionActive()) {
+      return result;
+    }
+
+    final LocalDateTime changedOn = LocalDateTime.now(Clock.systemUTC());
+    final String changedBy = UserContextHolder.checkedGetUser();
+    final Map<String, Customer> customers = customerIdentifiers.size() == 1
+        ? this.customerService.loadCustomer(customerIdentifiers.get(0))
+            .map(customer -> Collections.singletonMap(customer.getIdentifier(), customer))
+            .orElse(Collections.emptyMap())
+        : this.customerService.loadCustomers(customerIdentifiers, null);
+    customerIdentifiers.forEach(customerIdentifier -> {
+      final Customer customer = customers.get(customerIdentifier);
+      if (customer == null) {
+        return;
+      }
+      final CustomerChangeEntity customerChangeEntity = new CustomerChangeEntity();
+      customerChangeEntity.setCustomerIdentifier(customerIdentifier);
+      customerChangeEntity.setAction(eventEmitter.selectorValue());
+      customerChangeEntity.setSnapshot(this.gson.toJson(customer));
+      customerChangeEntity.setChangedBy(changedBy);
+      customerChangeEntity.setChangedOn(changedOn);
+      this.customerChangeRepository.append(customerChangeEntity);
+    });
+
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCommit() {
+        CustomerChangeRecorder.this.customerProjectionService.notifyChanged(tenant);
+      }
+    });
+    return result;
+  }
+
+  private static List<String> customerIdentifiers(final Object command) {
+    if (command instanceof CustomerScopedCommand) {
+      final String customerIdentifier = ((CustomerScopedCommand) command).customerIdentifier();
+      return customerIdentifier != null
+          ? Collections.singletonList(customerIdentifier)
+          : Collections.emptyList();
+    }
+    if (command instanceof CreateCustomersCommand) {
+      return ((CreateCustomersCommand) command).customers()
+          .stream()
+          .map(Customer::getIdentifier)
+          .collect(Collectors.toList());
+    }
+    return Collections.emptyList();
+  }
+}
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerChange;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerChangePage;
+import org.apache.fineract.cn.customer.internal.repository.CustomerChangeRepository;
+import org.apache.fineract.cn.lang.DateConverter;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import java.util.List;
+import java.util.stream.Collectors;
+
+@Service
+public class CustomerChangeService {
+
+  private final CustomerChangeRepository customerChangeRepository;
+  private final Gson gson;
+
+  @Autowired
+  public CustomerChangeService(final CustomerChangeRepository customerChangeRepository) {
+    super();
+    this.customerChangeRepository = customerChangeRepository;
+    this.gson = new Gson();
+  }
+
+  public CustomerChangePage fetchChanges(final Long after, final Integer limit) {
+    final List<CustomerChange> changes = this.customerChangeRepository.findAfter(after, limit)
+        .stream()
+        .map(customerChangeEntity -> {
+          final CustomerChange customerChange = new CustomerChange();
+          customerChange.setOffset(customerChangeEntity.getTxid());
+          customerChange.setAction(customerChangeEntity.getAction());
+          customerChange.setCustomer(this.gson.fromJson(customerChangeEntity.getSnapshot(), Customer.class));
+          customerChange.setChangedBy(customerChangeEntity.getChangedBy());
+          customerChange.setChangedOn(DateConverter.toIsoString(customerChangeEntity.getChangedOn()));
+          return customerChange;
+        })
+        .collect(Collectors.toList());
+
+    final CustomerChangePage customerChangePage = new CustomerChangePage();
+    customerChangePage.setChanges(changes);
+    customerChangePage.setLastOffset(changes.isEmpty() ? after : changes.get(changes.size() - 1).getOffset());
+    return customerChangePage;
+  }
+}
@@ -0,0 +1,227 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import org.apache.fineract.cn.api.util.UserContext;
+import org.apache.fineract.cn.api.util.UserContextHolder;
+import org.apache.fineract.cn.command.gateway.CommandCallback;
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.internal.command.CustomerScopedCommand;
+import org.apache.fineract.cn.customer.internal.config.CommandExecutorProperties;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.dao.OptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import javax.persistence.OptimisticLockException;
+import java.util.ArrayDeque;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Applies {@link CustomerScopedCommand}s one at a time per customer, in the order they were submitted to
+ * the command gateway, while commands for different customers still run in parallel.
+ *
+ * Every customer with a command in flight has a lane. A command submitted while its customer's lane is
+ * busy is not dispatched, but parked in the lane without holding a thread or an admission slot of the
+ * {@link TenantFairCommandScheduler}; its caller gets a callback completing once the command has been
+ * handled. When a handler completes, the next parked command of its customer is dispatched. A command
+ * whose handler has not completed within {@code maxExecution} is considered lost and no longer holds up
+ * its lane. Should a write still collide with another one, the failed optimistic lock on the customer's
+ * version is reported as a conflict.
+ */
+@Aspect
+@Component
+@Order(ServiceConstants.CUSTOMER_COMMAND_SERIALIZER_ORDER)
+public class CustomerCommandSerializer {
+
+  private final CommandExecutorProperties commandExecutorProperties;
+  private final Map<String, Lane> lanes;
+
+  private static final class Lane {
+    private final ArrayDeque<ParkedCommand> parked;
+    private Object running;
+    private long runningSince;
+    private CompletableFuture<Object> runningResult;
+
+    private Lane() {
+      super();
+      this.parked = new ArrayDeque<>();
+    }
+
+    private void run(final Object command, final CompletableFuture<Object> result) {
+      this.running = command;
+      this.runningSince = System.nanoTime();
+      this.runningResult = result;
+    }
+  }
+
+  private static final class ParkedCommand {
+    private final ProceedingJoinPoint joinPoint;
+    private final Object command;
+    private final Optional<UserContext> userContext;
+    private final CompletableFuture<Object> result;
+
+    private ParkedCommand(final ProceedingJoinPoint joinPoint, final Object command) {
+      super();
+      this.joinPoint = joinPoint;
+      this.command = command;
+      this.userContext = UserContextHolder.getUserContext();
+      this.result = new CompletableFuture<>();
+    }
+  }
+
+  @Autowired
+  public CustomerCommandSerializer(final CommandExecutorProperties commandExecutorProperties) {
+    super();
+    this.commandExecutorProperties = commandExecutorProperties;
+    this.lanes = new HashMap<>();
+  }
+
+  @Around("execution(* org.apache.fineract.cn.command.gateway.CommandGateway.process(..)) && args(command, ..)")
+  public Object sequence(final ProceedingJoinPoint joinPoint, final Object command) throws Throwable {
+    final String lane = CustomerCommandSerializer.lane(command);
+    if (lane == null) {
+      return joinPoint.proceed();
+    }
+
+    final ParkedCommand parkedCommand;
+    final Object lostCommand;
+    synchronized (this.lanes) {
+      final Lane customerLane = this.lanes.computeIfAbsent(lane, key -> new Lane());
+      if (customerLane.running == null) {
+        customerLane.run(command, null);
+        parkedCommand = null;
+        lostCommand = null;
+      } else {
+        parkedCommand = new ParkedCommand(joinPoint, command);
+        customerLane.parked.add(parkedCommand);
+        lostCommand = this.isLost(customerLane) ? customerLane.running : null;
+      }
+    }
+
+    if (parkedCommand == null) {
+      try {
+        return joinPoint.proceed();
+      } catch (final Throwable th) {
+        this.advance(lane, command, null, th);
+        throw th;
+      }
+    }
+
+    if (lostCommand != null) {
+      this.advance(lane, lostCommand, null,
+          new TimeoutException("Command " + lostCommand.getClass().getSimpleName() + " was not handled in time."));
+    }
+
+    final boolean callbackExpected = ((MethodSignature) joinPoint.getSignature()).getReturnType() != void.class;
+    return callbackExpected ? new CommandCallback<>(parkedCommand.result) : null;
+  }
+
+  @Around("@annotation(org.apache.fineract.cn.command.annotation.CommandHandler) && args(command)")
+  public Object apply(final ProceedingJoinPoint joinPoint, final CustomerScopedCommand command) throws Throwable {
+    final String lane = CustomerCommandSerializer.lane(command);
+    if (lane == null) {
+      return joinPoint.proceed();
+    }
+
+    Object result = null;
+    Throwable failure = null;
+    try {
+      result = joinPoint.proceed();
+      return result;
+    } catch (final OptimisticLockingFailureException | OptimisticLockException ex) {
+      failure = ServiceException.conflict("Customer {0} was changed concurrently.", command.customerIdentifier());
+      throw failure;
+    } catch (final Throwable th) {
+      failure = th;
+      throw th;
+    } finally {
+      this.advance(lane, command, result, failure);
+    }
+  }
+
+  private void advance(final String lane, final Object command, final Object result, final Throwable failure) {
+    final CompletableFuture<Object> completedResult;
+    final ParkedCommand next;
+    synchronized (this.lanes) {
+      final Lane customerLane = this.lanes.get(lane);
+      if (customerLane == null || customerLane.running != command) {
+        return;
+      }
+      completedResult = customerLane.runningResult;
+      next = customerLane.parked.poll();
+      if (next == null) {
+        this.lanes.remove(lane);
+      } else {
+        customerLane.run(next.command, next.result);
+      }
+    }
+
+    if (completedResult != null) {
+      if (failure == null) {
+        completedResult.complete(result);
+      } else {
+        completedResult.completeExceptionally(failure);
+      }
+    }
+    if (next != null) {
+      this.dispatch(lane, next);
+    }
+  }
+
+  private void dispatch(final String lane, final ParkedCommand parkedCommand) {
+    final Optional<UserContext> previousUserContext = UserContextHolder.getUserContext();
+    parkedCommand.userContext.ifPresent(UserContextHolder::setUserContext);
+    try {
+      parkedCommand.joinPoint.proceed();
+    } catch (final Throwable th) {
+      this.advance(lane, parkedCommand.command, null, th);
+    } finally {
+      UserContextHolder.clear();
+      previousUserContext.ifPresent(UserContextHolder::setUserContext);
+    }
+  }
+
+  private boolean isLost(final Lane customerLane) {
+    return System.nanoTime() - customerLane.runningSince
+        > TimeUnit.MILLISECONDS.toNanos(this.commandExecutorProperties.getMaxExecution());
+  }
+
+  private static String lane(final Object command) {
+    if (!(command instanceof CustomerScopedCommand)) {
+      return null;
+    }
+    final String customerIdentifier = ((CustomerScopedCommand) command).customerIdentifier();
+    if (customerIdentifier == null) {
+      return null;
+    }
+    return TenantContextHolder.checkedGetIdentifier() + "/" + customerIdentifier;
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import org.apache.fineract.cn.customer.api.v1.domain.ContactDetail;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.catalog.api.v1.domain.Value;
+import org.apache.fineract.cn.customer.catalog.internal.repository.FieldValueRepository;
+import org.apache.fineract.cn.customer.internal.mapper.AddressMapper;
+import org.apache.fineract.cn.customer.internal.mapper.ContactDetailMapper;
+import org.apache.fineract.cn.customer.internal.mapper.CustomerMapper;
+import org.apache.fineract.cn.customer.internal.repository.ContactDetailRepository;
+import org.apache.fineract.cn.customer.internal.repository.CustomerEntity;
+import org.apache.fineract.cn.customer.internal.repository.CustomerRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.persistence.EntityManager;
+import javax.persistence.PersistenceContext;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+
+/**
+ * Streams all customers, or those modified since a given point in time, through a server side
+ * cursor. Joined data is loaded chunk by chunk and the persistence context is cleared after each
+ * chunk so memory stays constant regardless of the number of customers.
+ */
+@Service
+public class CustomerExportService {
+
+  private static final int CHUNK_SIZE = 500;
+
+  private final CustomerRepository customerRepository;
+  private final ContactDetailRepository contactDetailRepository;
+  private final FieldValueRepository fieldValueRepository;
+
+  @PersistenceContext
+  private EntityManager entityManager;
+
+  @Autowired
+  public CustomerExportService(final CustomerRepository customerRepository,
+                               final ContactDetailRepository contactDetailRepository,
+                               final FieldValueRepository fieldValueRepository) {
+    super();
+    this.customerRepository = customerRepository;
+    this.contactDetailRepository = contactDetailRepository;
+    this.fieldValueRepository = fieldValueRepository;
+  }
+
+  @Transactional(readOnly = true)
+  public void export(final LocalDateTime modifiedSince, final Boolean includeDetails, final Consumer<Customer> consumer) {
+    try (final Stream<CustomerEntity> customerEntities = modifiedSince != null
+        ? this.customerRepository.streamModifiedSince(modifiedSince)
+        : this.customerRepository.streamAll()) {
+      final Iterator<CustomerEntity> iterator = customerEntities.iterator();
+      final ArrayList<CustomerEntity> chunk = new ArrayList<>(CHUNK_SIZE);
+      while (iterator.hasNext()) {
+        chunk.add(iterator.next());
+        if (chunk.size() == CHUNK_SIZE) {
+          this.exportChunk(chunk, includeDetails, consumer);
+          chunk.clear();
+        }
+      }
+      if (!chunk.isEmpty()) {
+        this.exportChunk(chunk, includeDetails, consumer);
+      }
+    }
+  }
+
+  private void exportChunk(final List<CustomerEntity> chunk, final Boolean includeDetails,
+                           final Consumer<Customer> consumer) {
+    final Map<Long, List<ContactDetail>> contactDetails = new HashMap<>();
+    final Map<Long, List<Value>> customValues = new HashMap<>();
+    if (includeDetails) {
+      this.contactDetailRepository.findByCustomerIn(chunk).forEach(contactDetailEntity ->
+          contactDetails.computeIfAbsent(contactDetailEntity.getCustomer().getId(), id -> new ArrayList<>())
+              .add(ContactDetailMapper.map(contactDetailEntity)));
+
+      this.fieldValueRepository.findValuesByCustomerIn(chunk).forEach(fieldValue -> {
+        final Value value = new Value();
+        value.setValue((String) fieldValue[1]);
+        value.setFieldIdentifier((String) fieldValue[2]);
+        value.setCatalogIdentifier((String) fieldValue[3]);
+        customValues.computeIfAbsent((Long) fieldValue[0], id -> new ArrayList<>()).add(value);
+      });
+    }
+
+    chunk.forEach(customerEntity -> {
+      final Customer customer = CustomerMapper.map(customerEntity);
+      if (includeDetails) {
+        if (customerEntity.getAddress() != null) {
+          customer.setAddress(AddressMapper.map(customerEntity.getAddress()));
+        }
+        customer.setContactDetails(contactDetails.getOrDefault(customerEntity.getId(), Collections.emptyList()));
+        customer.setCustomValues(customValues.getOrDefault(customerEntity.getId(), Collections.emptyList()));
+      }
+      consumer.accept(customer);
+    });
+
+    this.entityManager.clear();
+  }
+}
@@ -0,0 +1,124 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerImportResult;
+import org.apache.fineract.cn.customer.catalog.internal.service.FieldValueValidator;
+import org.apache.fineract.cn.customer.internal.repository.CustomerRepository;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+
+import javax.validation.ConstraintViolation;
+import javax.validation.Validation;
+import javax.validation.Validator;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+@Service
+public class CustomerImportService {
+
+  private static final int IDENTIFIER_CHUNK_SIZE = 1000;
+
+  private final CustomerRepository customerRepository;
+  private final FieldValueValidator fieldValueValidator;
+  private final Validator validator;
+
+  @Autowired
+  public CustomerImportService(final CustomerRepository customerRepository,
+                               final FieldValueValidator fieldValueValidator) {
+    super();
+    this.customerRepository = customerRepository;
+    this.fieldValueValidator = fieldValueValidator;
+    this.validator = Validation.buildDefaultValidatorFactory().getValidator();
+  }
+
+  /**
+   * Validates every row before anything is written, yielding one result per row.
+   */
+  public List<CustomerImportResult> validate(final List<Customer> customers) {
+    final Set<String> existingIdentifiers = this.findExistingIdentifiers(customers);
+    final Set<String> seenIdentifiers = new HashSet<>(customers.size());
+
+    final ArrayList<CustomerImportResult> results = new ArrayList<>(customers.size());
+    for (int index = 0; index < customers.size(); index++) {
+      final Customer customer = customers.get(index);
+      final CustomerImportResult result = new CustomerImportResult();
+      result.setIndex(index);
+      result.setIdentifier(customer.getIdentifier());
+      final String violation = this.findViolation(customer, existingIdentifiers, seenIdentifiers);
+      if (violation != null) {
+        result.setStatus(CustomerImportResult.Status.REJECTED.name());
+        result.setMessage(violation);
+      } else {
+        result.setStatus(CustomerImportResult.Status.CREATED.name());
+      }
+      results.add(result);
+    }
+    return results;
+  }
+
+  private String findViolation(final Customer customer, final Set<String> existingIdentifiers,
+                               final Set<String> seenIdentifiers) {
+    final Set<ConstraintViolation<Customer>> constraintViolations = this.validator.validate(customer);
+    if (!constraintViolations.isEmpty()) {
+      return constraintViolations
+          .stream()
+          .map(constraintViolation -> constraintViolation.getPropertyPath() + " " + constraintViolation.getMessage())
+          .collect(Collectors.joining(", "));
+    }
+
+    if (existingIdentifiers.contains(customer.getIdentifier())) {
+      return "Customer " + customer.getIdentifier() + " already exists.";
+    }
+
+    if (!seenIdentifiers.add(customer.getIdentifier())) {
+      return "Customer " + customer.getIdentifier() + " is contained more than once.";
+    }
+
+    if (customer.getCustomValues() != null) {
+      try {
+        this.fieldValueValidator.validateValues(customer.getCustomValues());
+      } catch (final ServiceException ex) {
+        return ex.getMessage();
+      }
+    }
+
+    return null;
+  }
+
+  private Set<String> findExistingIdentifiers(final List<Customer> customers) {
+    final List<String> identifiers = customers
+        .stream()
+        .map(Customer::getIdentifier)
+        .filter(identifier -> identifier != null)
+        .collect(Collectors.toList());
+
+    final HashSet<String> existingIdentifiers = new HashSet<>();
+    for (int start = 0; start < identifiers.size(); start += IDENTIFIER_CHUNK_SIZE) {
+      existingIdentifiers.addAll(this.customerRepository.findExistingIdentifiers(
+          identifiers.subList(start, Math.min(start + IDENTIFIER_CHUNK_SIZE, identifiers.size()))));
+    }
+    return existingIdentifiers;
+  }
+}
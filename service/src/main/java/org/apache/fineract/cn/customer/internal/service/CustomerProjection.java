@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerStatisticsGroup;
+import org.apache.fineract.cn.customer.catalog.api.v1.domain.Value;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Column oriented copy of the customers of a tenant, reduced to the attributes reporting groups by.
+ *
+ * Text columns are dictionary encoded, so a row costs a few ints however long the values are, and grouping
+ * compares ints instead of strings. Rows are never removed, because customers are never deleted. The
+ * projection is not thread safe, callers synchronize on it.
+ */
+final class CustomerProjection {
+
+  // offsets count transactions since the second format, files of the first one are rebuilt
+  private static final int MAGIC = 0x43505232;
+  private static final int CODE_BITS = 21;
+  private static final long CODE_MASK = (1L << CODE_BITS) - 1L;
+
+  private final Map<String, Integer> rowsByIdentifier;
+  private final List<String> identifiers;
+  private final DictionaryColumn assignedOffices;
+  private final DictionaryColumn currentStates;
+  private final Map<String, DictionaryColumn> customValues;
+  private int[] birthYears;
+  private long lastOffset;
+  private long flushedOffset;
+
+  CustomerProjection() {
+    super();
+    this.rowsByIdentifier = new HashMap<>();
+    this.identifiers = new ArrayList<>();
+    this.assignedOffices = new DictionaryColumn();
+    this.currentStates = new DictionaryColumn();
+    this.customValues = new LinkedHashMap<>();
+    this.birthYears = new int[16];
+  }
+
+  long lastOffset() {
+    return this.lastOffset;
+  }
+
+  int size() {
+    return this.identifiers.size();
+  }
+
+  boolean isDirty() {
+    return this.lastOffset != this.flushedOffset;
+  }
+
+  void apply(final long offset, final Customer customer) {
+    final int row = this.rowsByIdentifier.computeIfAbsent(customer.getIdentifier(), identifier -> {
+      this.identifiers.add(identifier);
+      return this.identifiers.size() - 1;
+    });
+
+    this.assignedOffices.set(row, customer.getAssignedOffice());
+    this.currentStates.set(row, customer.getCurrentState());
+    this.birthYears = CustomerProjection.ensureCapacity(this.birthYears, row + 1);
+    this.birthYears[row] = customer.getDateOfBirth() != null && customer.getDateOfBirth().getYear() != null
+        ? customer.getDateOfBirth().getYear()
+        : 0;
+
+    this.customValues.values().forEach(column -> column.set(row, null));
+    if (customer.getCustomValues() != null) {
+      for (final Value value : customer.getCustomValues()) {
+        this.customValues
+            .computeIfAbsent(CustomerProjection.fieldKey(value.getCatalogIdentifier(), value.getFieldIdentifier()),
+                key -> new DictionaryColumn())
+            .set(row, value.getValue());
+      }
+    }
+
+    this.lastOffset = Math.max(this.lastOffset, offset);
+  }
+
+  /**
+   * Marks every change up to the given offset as applied, as it is after a fill from the customer tables.
+   */
+  void skipTo(final long offset) {
+    this.lastOffset = Math.max(this.lastOffset, offset);
+  }
+
+  Dimension assignedOffice() {
+    return this.assignedOffices;
+  }
+
+  Dimension currentState() {
+    return this.currentStates;
+  }
+
+  Dimension customValue(final String catalogIdentifier, final String fieldIdentifier) {
+    final DictionaryColumn column =
+        this.customValues.get(CustomerProjection.fieldKey(catalogIdentifier, fieldIdentifier));
+    return column != null ? column : new DictionaryColumn();
+  }
+
+  Dimension birthCohort(final int cohortYears) {
+    return new Dimension() {
+      @Override
+      public int code(final int row) {
+        final int[] birthYears = CustomerProjection.this.birthYears;
+        final int year = row < birthYears.length ? birthYears[row] : 0;
+        return year > 0 ? year / cohortYears + 1 : 0;
+      }
+
+      @Override
+      public String label(final int code) {
+        final int firstYear = (code - 1) * cohortYears;
+        return firstYear + "-" + (firstYear + cohortYears - 1);
+      }
+
+      @Override
+      public int cardinality() {
+        return 10000 / cohortYears + 1;
+      }
+    };
+  }
+
+  /**
+   * Counts the rows per combination of dimension values, packing the codes of a row into a single long key.
+   */
+  List<CustomerStatisticsGroup> count(final List<Dimension> dimensions) {
+    if (dimensions.size() * CODE_BITS >= Long.SIZE) {
+      throw new IllegalArgumentException("Too many dimensions to count: " + dimensions.size());
+    }
+
+    final int size = this.size();
+    final Map<Long, long[]> counts = new HashMap<>();
+    for (int row = 0; row < size; row++) {
+      long key = 0L;
+      for (final Dimension dimension : dimensions) {
+        key = (key << CODE_BITS) | dimension.code(row);
+      }
+      counts.computeIfAbsent(key, k -> new long[1])[0]++;
+    }
+
+    final List<CustomerStatisticsGroup> groups = new ArrayList<>(counts.size());
+    counts.forEach((key, count) -> {
+      final String[] values = new String[dimensions.size()];
+      long remaining = key;
+      for (int index = dimensions.size() - 1; index >= 0; index--) {
+        final int code = (int) (remaining & CODE_MASK);
+        values[index] = code != 0 ? dimensions.get(index).label(code) : null;
+        remaining >>>= CODE_BITS;
+      }
+      final CustomerStatisticsGroup group = new CustomerStatisticsGroup();
+      group.setValues(Arrays.asList(values));
+      group.setCount(count[0]);
+      groups.add(group);
+    });
+    groups.sort((left, right) -> Long.compare(right.getCount(), left.getCount()));
+    return groups;
+  }
+
+  static boolean fitsKey(final Dimension dimension) {
+    return dimension.cardinality() < CODE_MASK;
+  }
+
+  /**
+   * Writes the projection in its file format and closes the stream.
+   */
+  void writeTo(final OutputStream outputStream) throws IOException {
+    final DataOutputStream out =
+        new DataOutputStream(new BufferedOutputStream(new GZIPOutputStream(outputStream)));
+    final int size = this.size();
+    out.writeInt(MAGIC);
+    out.writeLong(this.lastOffset);
+    out.writeInt(size);
+    for (final String identifier : this.identifiers) {
+      out.writeUTF(identifier);
+    }
+    this.assignedOffices.writeTo(out, size);
+    this.currentStates.writeTo(out, size);
+    for (int row = 0; row < size; row++) {
+      CustomerProjection.writeVarInt(out, this.birthYears[row]);
+    }
+    out.writeInt(this.customValues.size());
+    for (final Map.Entry<String, DictionaryColumn> entry : this.customValues.entrySet()) {
+      out.writeUTF(entry.getKey());
+      entry.getValue().writeTo(out, size);
+    }
+    out.close();
+  }
+
+  void markFlushed(final long offset) {
+    this.flushedOffset = Math.max(this.flushedOffset, offset);
+  }
+
+  static CustomerProjection readFrom(final InputStream inputStream) throws IOException {
+    final DataInputStream in = new DataInputStream(new BufferedInputStream(new GZIPInputStream(inputStream)));
+    if (in.readInt() != MAGIC) {
+      throw new IOException("Not a customer projection.");
+    }
+
+    final CustomerProjection projection = new CustomerProjection();
+    projection.lastOffset = in.readLong();
+    projection.flushedOffset = projection.lastOffset;
+    final int size = in.readInt();
+    for (int row = 0; row < size; row++) {
+      final String identifier = in.readUTF();
+      projection.rowsByIdentifier.put(identifier, row);
+      projection.identifiers.add(identifier);
+    }
+    projection.assignedOffices.readFrom(in, size);
+    projection.currentStates.readFrom(in, size);
+    projection.birthYears = CustomerProjection.ensureCapacity(projection.birthYears, size);
+    for (int row = 0; row < size; row++) {
+      projection.birthYears[row] = CustomerProjection.readVarInt(in);
+    }
+    final int customColumns = in.readInt();
+    for (int index = 0; index < customColumns; index++) {
+      final DictionaryColumn column = new DictionaryColumn();
+      projection.customValues.put(in.readUTF(), column);
+      column.readFrom(in, size);
+    }
+    return projection;
+  }
+
+  private static String fieldKey(final String catalogIdentifier, final String fieldIdentifier) {
+    return catalogIdentifier + "/" + fieldIdentifier;
+  }
+
+  private static int[] ensureCapacity(final int[] values, final int capacity) {
+    if (capacity <= values.length) {
+      return values;
+    }
+    return Arrays.copyOf(values, Math.max(capacity, values.length * 2));
+  }
+
+  private static void writeVarInt(final DataOutputStream out, final int value) throws IOException {
+    int remaining = value;
+    while ((remaining & ~0x7F) != 0) {
+      out.writeByte((remaining & 0x7F) | 0x80);
+      remaining >>>= 7;
+    }
+    out.writeByte(remaining);
+  }
+
+  private static int readVarInt(final DataInputStream in) throws IOException {
+    int value = 0;
+    int shift = 0;
+    int next;
+    do {
+      next = in.readUnsignedByte();
+      value |= (next & 0x7F) << shift;
+      shift += 7;
+    } while ((next & 0x80) != 0);
+    return value;
+  }
+
+  /**
+   * A column to group by, yielding a small positive code per row, zero if the row has no value.
+   */
+  interface Dimension {
+
+    int code(final int row);
+
+    String label(final int code);
+
+    int cardinality();
+  }
+
+  private static final class DictionaryColumn implements Dimension {
+
+    private final List<String> dictionary;
+    private final Map<String, Integer> codes;
+    private int[] values;
+
+    DictionaryColumn() {
+      super();
+      this.dictionary = new ArrayList<>();
+      this.codes = new HashMap<>();
+      this.values = new int[16];
+    }
+
+    void set(final int row, final String value) {
+      this.values = CustomerProjection.ensureCapacity(this.values, row + 1);
+      this.values[row] = value != null ? this.encode(value) : 0;
+    }
+
+    @Override
+    public int code(final int row) {
+      return row < this.values.length ? this.values[row] : 0;
+    }
+
+    @Override
+    public String label(final int code) {
+      return this.dictionary.get(code - 1);
+    }
+
+    @Override
+    public int cardinality() {
+      return this.dictionary.size();
+    }
+
+    void writeTo(final DataOutputStream out, final int size) throws IOException {
+      out.writeInt(this.dictionary.size());
+      for (final String value : this.dictionary) {
+        out.writeUTF(value);
+      }
+      for (int row = 0; row < size; row++) {
+        CustomerProjection.writeVarInt(out, this.code(row));
+      }
+    }
+
+    void readFrom(final DataInputStream in, final int size) throws IOException {
+      final int dictionarySize = in.readInt();
+      for (int index = 0; index < dictionarySize; index++) {
+        this.encode(in.readUTF());
+      }
+      this.values = CustomerProjection.ensureCapacity(this.values, size);
+      for (int row = 0; row < size; row++) {
+        this.values[row] = CustomerProjection.readVarInt(in);
+      }
+    }
+
+    private int encode(final String value) {
+      return this.codes.computeIfAbsent(value, key -> {
+        this.dictionary.add(key);
+        return this.dictionary.size();
+      });
+    }
+  }
+}
@@ -0,0 +1,330 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.api.v1.domain.CustomerStatistics;
+import org.apache.fineract.cn.customer.internal.config.ReportingProperties;
+import org.apache.fineract.cn.customer.internal.mapper.CustomerFields;
+import org.apache.fineract.cn.customer.internal.repository.CustomerChangeEntity;
+import org.apache.fineract.cn.customer.internal.repository.CustomerChangeRepository;
+import org.apache.fineract.cn.customer.internal.repository.CustomerRepository;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardCopyOption;
+import java.time.Clock;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Answers grouped customer counts from a {@link CustomerProjection} per tenant instead of the customer
+ * tables.
+ *
+ * A tenant's projection is filled once from the customer tables, and from then on follows the customer
+ * change feed: every committed customer command and every statistics request triggers a catch up in the
+ * background. Statistics requests answer from the projection as it is, its offset tells how far it got.
+ * Projections are written to {@code reporting.directory} every {@code reporting.flush-interval}
+ * milliseconds if they changed, and are read back on first use after a restart, so only the changes since
+ * the last flush are replayed.
+ *
+ * Since projections never need the change log before their own offset, changes older than
+ * {@code reporting.change-retention} milliseconds are compacted away every
+ * {@code reporting.compaction-interval} milliseconds once a later change of the customer exists.
+ */
+@Service
+public class CustomerProjectionService implements InitializingBean, DisposableBean {
+
+  static final String ASSIGNED_OFFICE = "assignedOffice";
+  static final String CURRENT_STATE = "currentState";
+  static final String BIRTH_COHORT = "birthCohort";
+  static final String CUSTOM_VALUE = "customValue";
+
+  private static final String PROJECTION_FILE = "customers.projection";
+  private static final Set<String> FILL_FIELDS = Collections.unmodifiableSet(new HashSet<>(Arrays.asList(
+      CustomerFields.IDENTIFIER, ASSIGNED_OFFICE, CURRENT_STATE, "dateOfBirth", CustomerFields.CUSTOM_VALUES)));
+
+  private final Logger logger;
+  private final ReportingProperties reportingProperties;
+  private final CustomerChangeRepository customerChangeRepository;
+  private final CustomerRepository customerRepository;
+  private final CustomerService customerService;
+  private final TransactionTemplate transactionTemplate;
+  private final TransactionTemplate compactionTemplate;
+  private final Gson gson;
+  private final Path rootDirectory;
+  private final Map<String, CustomerProjection> projectionsByTenant;
+  private final Set<String> pendingTenants;
+  private ScheduledExecutorService scheduler;
+
+  @Autowired
+  public CustomerProjectionService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                                   final ReportingProperties reportingProperties,
+                                   final CustomerChangeRepository customerChangeRepository,
+                                   final CustomerRepository customerRepository,
+                                   final CustomerService customerService,
+                                   final PlatformTransactionManager transactionManager) {
+    super();
+    this.logger = logger;
+    this.reportingProperties = reportingProperties;
+    this.customerChangeRepository = customerChangeRepository;
+    this.customerRepository = customerRepository;
+    this.customerService = customerService;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.transactionTemplate.setReadOnly(true);
+    this.compactionTemplate = new TransactionTemplate(transactionManager);
+    this.gson = new Gson();
+    this.rootDirectory = Paths.get(reportingProperties.getDirectory());
+    this.projectionsByTenant = new ConcurrentHashMap<>();
+    this.pendingTenants = ConcurrentHashMap.newKeySet();
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "customer-projection");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.scheduler.scheduleWithFixedDelay(this::flush,
+        this.reportingProperties.getFlushInterval(), this.reportingProperties.getFlushInterval(),
+        TimeUnit.MILLISECONDS);
+    this.scheduler.scheduleWithFixedDelay(this::compact,
+        this.reportingProperties.getCompactionInterval(), this.reportingProperties.getCompactionInterval(),
+        TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() {
+    if (this.scheduler != null) {
+      this.scheduler.shutdown();
+    }
+    this.flush();
+  }
+
+  void notifyChanged(final String tenant) {
+    // changes committed while a catch up is queued are picked up by that catch up
+    if (this.scheduler == null || !this.pendingTenants.add(tenant)) {
+      return;
+    }
+    this.scheduler.execute(() -> {
+      this.pendingTenants.remove(tenant);
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(tenant);
+      try {
+        this.catchUp(tenant);
+      } catch (final Exception ex) {
+        this.logger.warn("Could not update customer projection of tenant {}.", tenant, ex);
+      } finally {
+        TenantContextHolder.clear();
+      }
+    });
+  }
+
+  public CustomerStatistics fetchStatistics(final List<String> groupBy, final String catalogIdentifier,
+                                            final String fieldIdentifier, final Integer cohortYears) {
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    final CustomerProjection projection = this.projectionsByTenant.computeIfAbsent(tenant, this::load);
+    this.notifyChanged(tenant);
+    synchronized (projection) {
+      final List<CustomerProjection.Dimension> dimensions = new ArrayList<>(groupBy.size());
+      groupBy.forEach(dimension -> {
+        switch (dimension) {
+          case ASSIGNED_OFFICE:
+            dimensions.add(projection.assignedOffice());
+            break;
+          case CURRENT_STATE:
+            dimensions.add(projection.currentState());
+            break;
+          case BIRTH_COHORT:
+            dimensions.add(projection.birthCohort(cohortYears));
+            break;
+          case CUSTOM_VALUE:
+            if (catalogIdentifier == null || fieldIdentifier == null) {
+              throw ServiceException.badRequest("Catalog and field required to group by {0}.", dimension);
+            }
+            dimensions.add(projection.customValue(catalogIdentifier, fieldIdentifier));
+            break;
+          default:
+            throw ServiceException.badRequest("Unknown dimension {0}.", dimension);
+        }
+      });
+      dimensions.forEach(dimension -> {
+        if (!CustomerProjection.fitsKey(dimension)) {
+          throw ServiceException.badRequest("Too many distinct values to group by.");
+        }
+      });
+
+      final CustomerStatistics customerStatistics = new CustomerStatistics();
+      customerStatistics.setDimensions(groupBy);
+      customerStatistics.setTotal((long) projection.size());
+      customerStatistics.setGroups(projection.count(dimensions));
+      customerStatistics.setLastOffset(projection.lastOffset());
+      return customerStatistics;
+    }
+  }
+
+  /**
+   * Runs on the scheduler only, so changes are applied by one thread at a time; the projection is locked
+   * while a batch is applied, not while it is read.
+   */
+  private void catchUp(final String tenant) {
+    CustomerProjection projection = this.projectionsByTenant.computeIfAbsent(tenant, this::load);
+    final boolean filled;
+    synchronized (projection) {
+      filled = projection.lastOffset() != 0L;
+    }
+    if (!filled) {
+      projection = this.fill();
+      this.projectionsByTenant.put(tenant, projection);
+    }
+
+    List<CustomerChangeEntity> changes;
+    do {
+      final long offset;
+      synchronized (projection) {
+        offset = projection.lastOffset();
+      }
+      changes = this.transactionTemplate.execute(status ->
+          this.customerChangeRepository.findAfter(offset, this.reportingProperties.getBatchSize()));
+      synchronized (projection) {
+        for (final CustomerChangeEntity change : changes) {
+          projection.apply(change.getTxid(), this.gson.fromJson(change.getSnapshot(), Customer.class));
+        }
+      }
+    } while (!changes.isEmpty());
+  }
+
+  /**
+   * Builds a projection from the customer tables. Every change up to the offset taken before reading is
+   * contained in what is read, changes after it are replayed from the feed afterwards.
+   */
+  private CustomerProjection fill() {
+    final CustomerProjection projection = new CustomerProjection();
+    final long offset = this.transactionTemplate.execute(status -> this.customerChangeRepository.findFinishedOffset());
+
+    String lastIdentifier = "";
+    List<String> identifiers;
+    do {
+      final String after = lastIdentifier;
+      identifiers = this.transactionTemplate.execute(status -> this.customerRepository.findIdentifiersAfter(after,
+          new PageRequest(0, this.reportingProperties.getBatchSize())));
+      if (identifiers.isEmpty()) {
+        break;
+      }
+      final List<String> batch = identifiers;
+      final Map<String, Customer> customers =
+          this.transactionTemplate.execute(status -> this.customerService.loadCustomers(batch, FILL_FIELDS));
+      customers.values().forEach(customer -> projection.apply(offset, customer));
+      lastIdentifier = identifiers.get(identifiers.size() - 1);
+    } while (identifiers.size() == this.reportingProperties.getBatchSize());
+
+    projection.skipTo(offset);
+    return projection;
+  }
+
+  private CustomerProjection load(final String tenant) {
+    final Path projectionFile = this.rootDirectory.resolve(tenant).resolve(PROJECTION_FILE);
+    if (Files.exists(projectionFile)) {
+      try (final InputStream inputStream = Files.newInputStream(projectionFile)) {
+        return CustomerProjection.readFrom(inputStream);
+      } catch (final IOException ex) {
+        this.logger.warn("Could not read customer projection of tenant {}, rebuilding it.", tenant, ex);
+      }
+    }
+    return new CustomerProjection();
+  }
+
+  private void compact() {
+    final LocalDateTime before = LocalDateTime.now(Clock.systemUTC())
+        .minus(this.reportingProperties.getChangeRetention(), ChronoUnit.MILLIS);
+    this.projectionsByTenant.keySet().forEach(tenant -> {
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(tenant);
+      try {
+        final int removed = this.compactionTemplate.execute(status -> this.customerChangeRepository.compact(before));
+        this.logger.debug("Compacted {} customer changes of tenant {}.", removed, tenant);
+      } catch (final Exception ex) {
+        this.logger.warn("Could not compact customer changes of tenant {}.", tenant, ex);
+      } finally {
+        TenantContextHolder.clear();
+      }
+    });
+  }
+
+  private void flush() {
+    this.projectionsByTenant.forEach((tenant, projection) -> {
+      final ByteArrayOutputStream content = new ByteArrayOutputStream();
+      try {
+        final long offset;
+        synchronized (projection) {
+          if (!projection.isDirty()) {
+            return;
+          }
+          offset = projection.lastOffset();
+          projection.writeTo(content);
+        }
+
+        final Path tenantDirectory = this.rootDirectory.resolve(tenant);
+        Files.createDirectories(tenantDirectory);
+        final Path temporaryFile = Files.createTempFile(tenantDirectory, "projection-", ".tmp");
+        try {
+          Files.write(temporaryFile, content.toByteArray());
+          Files.move(temporaryFile, tenantDirectory.resolve(PROJECTION_FILE),
+              StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } finally {
+          Files.deleteIfExists(temporaryFile);
+        }
+        synchronized (projection) {
+          projection.markFlushed(offset);
+        }
+      } catch (final IOException ex) {
+        this.logger.warn("Could not write customer projection of tenant {}.", tenant, ex);
+      }
+    });
+  }
+}
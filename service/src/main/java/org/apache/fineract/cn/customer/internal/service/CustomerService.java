@@ -20,62 +20,90 @@ package org.apache.fineract.cn.customer.internal.service;
 
 import org.apache.fineract.cn.customer.api.v1.domain.*;
 import org.apache.fineract.cn.customer.catalog.api.v1.domain.Value;
-import org.apache.fineract.cn.customer.catalog.internal.repository.FieldEntity;
-import org.apache.fineract.cn.customer.catalog.internal.repository.FieldValueEntity;
 import org.apache.fineract.cn.customer.catalog.internal.repository.FieldValueRepository;
 import org.apache.fineract.cn.customer.internal.mapper.*;
 import org.apache.fineract.cn.customer.internal.repository.*;
+import org.apache.fineract.cn.lang.ServiceException;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 
 import java.util.ArrayList;
+import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
+import java.util.Objects;
 import java.util.Optional;
+import java.util.Set;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
 
 @Service
 public class CustomerService {
 
+  private static final int IDENTIFIER_CHUNK_SIZE = 200;
+
   private final CustomerRepository customerRepository;
+  private final CustomerSearchRepository customerSearchRepository;
+  private final CustomerPageRepository customerPageRepository;
   private final IdentificationCardRepository identificationCardRepository;
   private final IdentificationCardScanRepository identificationCardScanRepository;
   private final PortraitRepository portraitRepository;
   private final ContactDetailRepository contactDetailRepository;
   private final FieldValueRepository fieldValueRepository;
   private final CommandRepository commandRepository;
-  private final TaskDefinitionRepository taskDefinitionRepository;
   private final TaskInstanceRepository taskInstanceRepository;
+  private final CustomerCache customerCache;
+  private final TaskDefinitionRegistry taskDefinitionRegistry;
 
   @Autowired
   public CustomerService(final CustomerRepository customerRepository,
+                         final CustomerSearchRepository customerSearchRepository,
+                         final CustomerPageRepository customerPageRepository,
                          final IdentificationCardRepository identificationCardRepository,
                          final IdentificationCardScanRepository identificationCardScanRepository,
                          final PortraitRepository portraitRepository,
                          final ContactDetailRepository contactDetailRepository,
                          final FieldValueRepository fieldValueRepository,
                          final CommandRepository commandRepository,
-                         final TaskDefinitionRepository taskDefinitionRepository,
-                         final TaskInstanceRepository taskInstanceRepository) {
+                         final TaskInstanceRepository taskInstanceRepository,
+                         final CustomerCache customerCache,
+                         final TaskDefinitionRegistry taskDefinitionRegistry) {
     super();
     this.customerRepository = customerRepository;
+    this.customerSearchRepository = customerSearchRepository;
+    this.customerPageRepository = customerPageRepository;
     this.identificationCardRepository = identificationCardRepository;
     this.identificationCardScanRepository = identificationCardScanRepository;
     this.portraitRepository = portraitRepository;
     this.contactDetailRepository = contactDetailRepository;
     this.fieldValueRepository = fieldValueRepository;
     this.commandRepository = commandRepository;
-    this.taskDefinitionRepository = taskDefinitionRepository;
     this.taskInstanceRepository = taskInstanceRepository;
+    this.customerCache = customerCache;
+    this.taskDefinitionRegistry = taskDefinitionRegistry;
   }
 
   public Boolean customerExists(final String identifier) {
     return this.customerRepository.existsByIdentifier(identifier);
   }
 
+  public Set<String> findExistingIdentifiers(final Collection<String> identifiers) {
+    if (identifiers.isEmpty()) {
+      return new HashSet<>();
+    }
+    return new HashSet<>(this.customerRepository.findExistingIdentifiers(identifiers));
+  }
+
+
   public Boolean identificationCardExists(final String number) {
     return this.identificationCardRepository.existsByNumber(number);
   }
@@ -87,13 +115,84 @@ public class CustomerService {
   }
 
   public Optional<Customer> findCustomer(final String identifier) {
-    return customerRepository.findByIdentifier(identifier)
+    return this.customerCache.get(identifier, this::loadCustomer);
+  }
+
+  /**
+   * @return the customers found, in the order of the given identifiers, reduced to the given projection
+   */
+  public List<Customer> findCustomers(final Collection<String> identifiers, final Set<String> projection) {
+    if (identifiers.isEmpty()) {
+      return Collections.emptyList();
+    }
+    final Map<String, Customer> customers =
+        this.customerCache.getAll(identifiers, missing -> this.loadCustomers(missing, projection));
+    return identifiers.stream()
+        .map(customers::get)
+        .filter(Objects::nonNull)
+        .map(customer -> CustomerFields.project(customer, projection))
+        .collect(Collectors.toList());
+  }
+
+  Map<String, Customer> loadCustomers(final Collection<String> identifiers, final Set<String> projection) {
+    final boolean withAddress = CustomerFields.includes(projection, CustomerFields.ADDRESS);
+    final boolean withContactDetails = CustomerFields.includes(projection, CustomerFields.CONTACT_DETAILS);
+    final boolean withCustomValues = CustomerFields.includes(projection, CustomerFields.CUSTOM_VALUES);
+
+    final Map<String, Customer> customers = new HashMap<>();
+    final List<String> remaining = new ArrayList<>(identifiers);
+    for (int from = 0; from < remaining.size(); from += IDENTIFIER_CHUNK_SIZE) {
+      final List<String> chunk = remaining.subList(from, Math.min(from + IDENTIFIER_CHUNK_SIZE, remaining.size()));
+      final List<CustomerEntity> customerEntities = withAddress
+          ? this.customerRepository.findWithAddressByIdentifierIn(chunk)
+          : this.customerRepository.findByIdentifierIn(chunk);
+      if (customerEntities.isEmpty()) {
+        continue;
+      }
+
+      final Map<Long, List<ContactDetail>> contactDetails = new HashMap<>();
+      if (withContactDetails) {
+        this.contactDetailRepository.findByCustomerIn(customerEntities).forEach(contactDetailEntity ->
+            contactDetails.computeIfAbsent(contactDetailEntity.getCustomer().getId(), id -> new ArrayList<>())
+                .add(ContactDetailMapper.map(contactDetailEntity)));
+      }
+      final Map<Long, List<Value>> customValues = new HashMap<>();
+      if (withCustomValues) {
+        this.fieldValueRepository.findValuesByCustomerIn(customerEntities).forEach(fieldValue -> {
+          final Value value = new Value();
+          value.setValue((String) fieldValue[1]);
+          value.setFieldIdentifier((String) fieldValue[2]);
+          value.setCatalogIdentifier((String) fieldValue[3]);
+          customValues.computeIfAbsent((Long) fieldValue[0], id -> new ArrayList<>()).add(value);
+        });
+      }
+
+      customerEntities.forEach(customerEntity -> {
+        final Customer customer = CustomerMapper.map(customerEntity);
+        if (withAddress && customerEntity.getAddress() != null) {
+          customer.setAddress(AddressMapper.map(customerEntity.getAddress()));
+        }
+        if (withContactDetails) {
+          customer.setContactDetails(contactDetails.getOrDefault(customerEntity.getId(), Collections.emptyList()));
+        }
+        if (withCustomValues) {
+          customer.setCustomValues(customValues.getOrDefault(customerEntity.getId(), Collections.emptyList()));
+        }
+        customers.put(customerEntity.getIdentifier(), customer);
+      });
+    }
+    return customers;
+  }
+
+  Optional<Customer> loadCustomer(final String identifier) {
+    return customerRepository.findAssembledByIdentifier(identifier)
         .map(customerEntity -> {
           final Customer customer = CustomerMapper.map(customerEntity);
-          if(customerEntity !=null && customerEntity.getAddress() != null)
+          if (customerEntity.getAddress() != null) {
             customer.setAddress(AddressMapper.map(customerEntity.getAddress()));
+          }
 
-          final List<ContactDetailEntity> contactDetailEntities = this.contactDetailRepository.findByCustomer(customerEntity);
+          final List<ContactDetailEntity> contactDetailEntities = customerEntity.getContactDetails();
           if (contactDetailEntities != null) {
             customer.setContactDetails(
                 contactDetailEntities
@@ -103,17 +202,16 @@ public class CustomerService {
             );
           }
 
-          final List<FieldValueEntity> fieldValueEntities = this.fieldValueRepository.findByCustomer(customerEntity);
-          if (fieldValueEntities != null) {
+          final List<Object[]> fieldValues = this.fieldValueRepository.findValuesByCustomer(customerEntity);
+          if (fieldValues != null) {
             customer.setCustomValues(
-                fieldValueEntities
+                fieldValues
                     .stream()
-                    .map(fieldValueEntity -> {
+                    .map(fieldValue -> {
                       final Value value = new Value();
-                      value.setValue(fieldValueEntity.getValue());
-                      final FieldEntity fieldEntity = fieldValueEntity.getField();
-                      value.setCatalogIdentifier(fieldEntity.getCatalog().getIdentifier());
-                      value.setFieldIdentifier(fieldEntity.getIdentifier());
+                      value.setValue((String) fieldValue[0]);
+                      value.setFieldIdentifier((String) fieldValue[1]);
+                      value.setCatalogIdentifier((String) fieldValue[2]);
                       return value;
                     }).collect(Collectors.toList())
             );
@@ -123,32 +221,66 @@ public class CustomerService {
         });
   }
 
-  public CustomerPage fetchCustomer(final String term, final Boolean includeClosed, final Pageable pageable) {
-    final Page<CustomerEntity> customerEntities;
-    if (includeClosed) {
+  /**
+   * @param searchTerm the search term, a blank term lists all customers like no term
+   * @param projection the fields to fetch, all if null; listings select only the columns of those fields
+   */
+  public CustomerPage fetchCustomer(final String searchTerm, final Boolean includeClosed, final Pageable pageable,
+                                    final String cursor, final Boolean withTotals, final Set<String> projection) {
+    final String term = searchTerm != null && !searchTerm.trim().isEmpty() ? searchTerm : null;
+    final Slice<CustomerEntity> customerEntities;
+    final String sortProperty;
+    final Sort.Direction sortDirection;
+    if (cursor != null) {
       if (term != null) {
-        customerEntities =
-            this.customerRepository.findByIdentifierContainingOrGivenNameContainingOrSurnameContaining(term, term, term, pageable);
-      } else {
-        customerEntities = this.customerRepository.findAll(pageable);
+        throw ServiceException.badRequest("Cursor paging is not supported for term searches.");
+      }
+      final CustomerCursor customerCursor = CustomerCursor.decode(cursor);
+      if (customerCursor.isIncludeClosed() != includeClosed) {
+        throw ServiceException.badRequest("Cursor was issued for includeClosed={0}.", customerCursor.isIncludeClosed());
       }
+      customerEntities =
+          this.customerPageRepository.findAfter(includeClosed, customerCursor, pageable.getPageSize(), projection);
+      sortProperty = customerCursor.getProperty();
+      sortDirection = customerCursor.getDirection();
     } else {
       if (term != null) {
-        customerEntities =
-            this.customerRepository.findByCurrentStateNotAndIdentifierContainingOrGivenNameContainingOrSurnameContaining(
-                Customer.State.CLOSED.name(), term, term, term, pageable);
+        customerEntities = this.customerSearchRepository.search(term, includeClosed, pageable, withTotals);
+      } else if (!withTotals || projection != null) {
+        customerEntities = this.customerPageRepository.findAll(includeClosed, pageable, projection);
+      } else if (includeClosed) {
+        customerEntities = this.customerRepository.findAll(pageable);
       } else {
         customerEntities = this.customerRepository.findByCurrentStateNot(Customer.State.CLOSED.name(), pageable);
       }
+      final Iterator<Sort.Order> orders =
+          pageable.getSort() != null ? pageable.getSort().iterator() : Collections.<Sort.Order>emptyIterator();
+      final Sort.Order order = orders.hasNext() ? orders.next() : null;
+      sortProperty = order != null && !orders.hasNext() ? order.getProperty() : null;
+      sortDirection = order != null ? order.getDirection() : null;
     }
 
     final CustomerPage customerPage = new CustomerPage();
-    customerPage.setTotalPages(customerEntities.getTotalPages());
-    customerPage.setTotalElements(customerEntities.getTotalElements());
+    if (withTotals) {
+      if (customerEntities instanceof Page) {
+        final Page<CustomerEntity> page = (Page<CustomerEntity>) customerEntities;
+        customerPage.setTotalPages(page.getTotalPages());
+        customerPage.setTotalElements(page.getTotalElements());
+      } else {
+        final Long totalElements = this.customerPageRepository.count(includeClosed);
+        customerPage.setTotalPages((int) ((totalElements + pageable.getPageSize() - 1) / pageable.getPageSize()));
+        customerPage.setTotalElements(totalElements);
+      }
+    }
     if (customerEntities.getSize() > 0) {
       final ArrayList<Customer> customers = new ArrayList<>(customerEntities.getSize());
       customerPage.setCustomers(customers);
-      customerEntities.forEach(customerEntity -> customers.add(CustomerMapper.map(customerEntity)));
+      customerEntities.forEach(customerEntity -> customers.add(CustomerMapper.map(customerEntity, projection)));
+    }
+    if (term == null && customerEntities.hasNext() && CustomerCursor.isSeekable(sortProperty)) {
+      final List<CustomerEntity> content = customerEntities.getContent();
+      customerPage.setNextCursor(
+          CustomerCursor.after(content.get(content.size() - 1), sortProperty, sortDirection, includeClosed).encode());
     }
 
     return customerPage;
@@ -196,40 +328,72 @@ public class CustomerService {
     return this.findIdentificationCardEntity(number, identifier).map(IdentificationCardScanMapper::map);
   }
 
-  public Optional<byte[]> findIdentificationCardScanImage(final String number, final String identifier) {
-    return this.findIdentificationCardEntity(number, identifier).map(IdentificationCardScanEntity::getImage);
+  public Optional<IdentificationCardScanEntity> findIdentificationCardScanImage(final String number, final String identifier) {
+    return this.findIdentificationCardEntity(number, identifier);
   }
 
   public List<ProcessStep> getProcessSteps(final String customerIdentifier) {
     return customerRepository.findByIdentifier(customerIdentifier)
-        .map(customerEntity -> {
-          final List<ProcessStep> processSteps = new ArrayList<>();
-
-          final Customer.State state = Customer.State.valueOf(customerEntity.getCurrentState());
-          switch (state) {
-            case PENDING:
-              processSteps.add(this.buildProcessStep(customerEntity, Command.Action.ACTIVATE));
-              processSteps.add(this.buildProcessStep(customerEntity, Command.Action.CLOSE));
-              break;
-            case ACTIVE:
-              processSteps.add(this.buildProcessStep(customerEntity, Command.Action.LOCK));
-              processSteps.add(this.buildProcessStep(customerEntity, Command.Action.CLOSE));
-              break;
-            case LOCKED:
-              processSteps.add(this.buildProcessStep(customerEntity, Command.Action.UNLOCK));
-              processSteps.add(this.buildProcessStep(customerEntity, Command.Action.CLOSE));
-              break;
-            case CLOSED:
-              processSteps.add(this.buildProcessStep(customerEntity, Command.Action.REOPEN));
-              break;
-          }
-
-          return processSteps;
-        })
+        .map(customerEntity -> this.buildProcessSteps(Collections.singletonList(customerEntity))
+            .get(customerEntity.getIdentifier()))
         .orElse(Collections.emptyList());
   }
 
-  private ProcessStep buildProcessStep(final CustomerEntity customerEntity, final Command.Action action) {
+  /**
+   * Returns the process steps keyed by customer identifier, in the iteration order of the given
+   * identifiers. Unknown customers are left out.
+   */
+  public LinkedHashMap<String, List<ProcessStep>> getProcessSteps(final Collection<String> customerIdentifiers) {
+    if (customerIdentifiers.isEmpty()) {
+      return new LinkedHashMap<>();
+    }
+    final Map<String, CustomerEntity> customerEntities = this.customerRepository.findByIdentifierIn(customerIdentifiers)
+        .stream()
+        .collect(Collectors.toMap(CustomerEntity::getIdentifier, customerEntity -> customerEntity));
+    return this.buildProcessSteps(customerIdentifiers.stream()
+        .map(customerEntities::get)
+        .filter(Objects::nonNull)
+        .collect(Collectors.toList()));
+  }
+
+  private LinkedHashMap<String, List<ProcessStep>> buildProcessSteps(final List<CustomerEntity> customerEntities) {
+    final Map<Long, List<Long>> openTasks = new HashMap<>();
+    if (!customerEntities.isEmpty()) {
+      final List<Long> customerIds = customerEntities.stream().map(CustomerEntity::getId).collect(Collectors.toList());
+      this.taskInstanceRepository.findOpenTasksByCustomerIds(customerIds).forEach(row ->
+          openTasks.computeIfAbsent((Long) row[0], id -> new ArrayList<>()).add((Long) row[1]));
+    }
+
+    final LinkedHashMap<String, List<ProcessStep>> processStepsByCustomer = new LinkedHashMap<>();
+    customerEntities.forEach(customerEntity -> {
+      final List<Long> openTaskDefinitionIds = openTasks.getOrDefault(customerEntity.getId(), Collections.emptyList());
+      final List<ProcessStep> processSteps = new ArrayList<>();
+
+      final Customer.State state = Customer.State.valueOf(customerEntity.getCurrentState());
+      switch (state) {
+        case PENDING:
+          processSteps.add(this.buildProcessStep(Command.Action.ACTIVATE, openTaskDefinitionIds));
+          processSteps.add(this.buildProcessStep(Command.Action.CLOSE, openTaskDefinitionIds));
+          break;
+        case ACTIVE:
+          processSteps.add(this.buildProcessStep(Command.Action.LOCK, openTaskDefinitionIds));
+          processSteps.add(this.buildProcessStep(Command.Action.CLOSE, openTaskDefinitionIds));
+          break;
+        case LOCKED:
+          processSteps.add(this.buildProcessStep(Command.Action.UNLOCK, openTaskDefinitionIds));
+          processSteps.add(this.buildProcessStep(Command.Action.CLOSE, openTaskDefinitionIds));
+          break;
+        case CLOSED:
+          processSteps.add(this.buildProcessStep(Command.Action.REOPEN, openTaskDefinitionIds));
+          break;
+      }
+
+      processStepsByCustomer.put(customerEntity.getIdentifier(), processSteps);
+    });
+    return processStepsByCustomer;
+  }
+
+  private ProcessStep buildProcessStep(final Command.Action action, final List<Long> openTaskDefinitionIds) {
     final ProcessStep processStep = new ProcessStep();
 
     final Command command = new Command();
@@ -237,14 +401,12 @@ public class CustomerService {
     processStep.setCommand(command);
 
     final ArrayList<TaskDefinition> taskDefinitions = new ArrayList<>();
-    this.taskDefinitionRepository.findByAssignedCommandsContaining(action.name())
-        .forEach(taskDefinitionEntity ->
-            this.taskInstanceRepository.findByCustomerAndTaskDefinition(customerEntity, taskDefinitionEntity)
-            .forEach(taskInstanceEntity -> {
-              if (taskInstanceEntity.getExecutedBy() == null) {
-                taskDefinitions.add(TaskDefinitionMapper.map(taskDefinitionEntity));
-              }
-            }));
+    openTaskDefinitionIds.forEach(taskDefinitionId -> {
+      final TaskDefinition taskDefinition = this.taskDefinitionRegistry.findTaskDefinition(action, taskDefinitionId);
+      if (taskDefinition != null) {
+        taskDefinitions.add(taskDefinition);
+      }
+    });
     processStep.setTaskDefinitions(taskDefinitions);
 
     return processStep;
@@ -0,0 +1,121 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import com.google.gson.Gson;
+import org.apache.fineract.cn.command.annotation.EventEmitter;
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.internal.command.CustomerScopedCommand;
+import org.apache.fineract.cn.customer.internal.config.OutboxProperties;
+import org.apache.fineract.cn.customer.internal.repository.OutboxEventEntity;
+import org.apache.fineract.cn.customer.internal.repository.OutboxEventRepository;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Clock;
+import java.time.LocalDateTime;
+
+/**
+ * Writes the event of every {@code @EventEmitter} command handler to the outbox table, in the handler's
+ * own transaction, when {@code outbox.enabled} is set. {@link OutboxRelay} publishes the stored events.
+ *
+ * The command framework still hands the handler's result to the JMS template once the command is done, on
+ * the thread which ran the handler. Once the event is committed, it is remembered for that thread, and
+ * {@link OutboxedEventSuppressor} drops the send carrying the same payload and selector, so consumers see
+ * every event exactly once from the relay.
+ */
+@Aspect
+@Component
+@Order(ServiceConstants.EVENT_OUTBOX_ORDER)
+public class EventOutbox {
+
+  private static final ThreadLocal<OutboxEventEntity> OUTBOXED = new ThreadLocal<>();
+
+  private final OutboxProperties outboxProperties;
+  private final OutboxEventRepository outboxEventRepository;
+  private final OutboxRelay outboxRelay;
+  private final Gson gson;
+
+  @Autowired
+  public EventOutbox(final OutboxProperties outboxProperties,
+                     final OutboxEventRepository outboxEventRepository,
+                     final OutboxRelay outboxRelay) {
+    super();
+    this.outboxProperties = outboxProperties;
+    this.outboxEventRepository = outboxEventRepository;
+    this.outboxRelay = outboxRelay;
+    this.gson = new Gson();
+  }
+
+  @Around("@annotation(org.apache.fineract.cn.command.annotation.CommandHandler) && @annotation(eventEmitter)")
+  public Object record(final ProceedingJoinPoint joinPoint, final EventEmitter eventEmitter) throws Throwable {
+    if (!this.outboxProperties.isEnabled()) {
+      return joinPoint.proceed();
+    }
+    // an event left over belongs to a previous command whose send was never seen
+    OUTBOXED.remove();
+
+    final Object result = joinPoint.proceed();
+    if (result == null || !TransactionSynchronizationManager.isActualTransactionActive()) {
+      return result;
+    }
+
+    final Object command = joinPoint.getArgs().length > 0 ? joinPoint.getArgs()[0] : null;
+    final OutboxEventEntity outboxEventEntity = new OutboxEventEntity();
+    outboxEventEntity.setSelectorName(eventEmitter.selectorName());
+    outboxEventEntity.setSelectorValue(eventEmitter.selectorValue());
+    if (command instanceof CustomerScopedCommand) {
+      outboxEventEntity.setCustomerIdentifier(((CustomerScopedCommand) command).customerIdentifier());
+    }
+    outboxEventEntity.setPayload(this.gson.toJson(result));
+    outboxEventEntity.setCreatedOn(LocalDateTime.now(Clock.systemUTC()));
+    this.outboxEventRepository.save(outboxEventEntity);
+
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+      @Override
+      public void afterCompletion(final int status) {
+        if (status == TransactionSynchronization.STATUS_COMMITTED) {
+          OUTBOXED.set(outboxEventEntity);
+          EventOutbox.this.outboxRelay.notifyPending(tenant);
+        }
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Returns the event the current thread has just committed to the outbox, or null.
+   */
+  static OutboxEventEntity outboxed() {
+    return OUTBOXED.get();
+  }
+
+  static void clearOutboxed() {
+    OUTBOXED.remove();
+  }
+}
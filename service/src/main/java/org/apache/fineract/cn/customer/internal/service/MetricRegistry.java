@@ -0,0 +1,239 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory registry of latency timers, counters and gauges, keyed by metric name and tags.
+ *
+ * Timers and counters are cumulative for the lifetime of the service instance, timers keep a fixed set of
+ * latency buckets so they can be exposed as histograms.
+ */
+@Component
+public class MetricRegistry {
+
+  private static final double[] BUCKETS = {0.005D, 0.01D, 0.025D, 0.05D, 0.1D, 0.25D, 0.5D, 1.0D, 2.5D, 5.0D, 10.0D};
+
+  private final ConcurrentHashMap<String, Timer> timers;
+  private final ConcurrentHashMap<String, Counter> counters;
+  private final ConcurrentHashMap<String, Gauge> gauges;
+
+  public MetricRegistry() {
+    super();
+    this.timers = new ConcurrentHashMap<>();
+    this.counters = new ConcurrentHashMap<>();
+    this.gauges = new ConcurrentHashMap<>();
+  }
+
+  public Timer timer(final String name, final String... tags) {
+    return this.timers.computeIfAbsent(MetricRegistry.key(name, tags), k -> new Timer(name, tags));
+  }
+
+  public Counter counter(final String name, final String... tags) {
+    return this.counters.computeIfAbsent(MetricRegistry.key(name, tags), k -> new Counter(name, tags));
+  }
+
+  public Gauge gauge(final String name, final String... tags) {
+    return this.gauges.computeIfAbsent(MetricRegistry.key(name, tags), k -> new Gauge(name, tags));
+  }
+
+  public static double[] bucketBounds() {
+    return BUCKETS.clone();
+  }
+
+  public Collection<Timer> timers() {
+    return Collections.unmodifiableCollection(new ArrayList<>(this.timers.values()));
+  }
+
+  public Collection<Counter> counters() {
+    return Collections.unmodifiableCollection(new ArrayList<>(this.counters.values()));
+  }
+
+  public Collection<Gauge> gauges() {
+    return Collections.unmodifiableCollection(new ArrayList<>(this.gauges.values()));
+  }
+
+  private static String key(final String name, final String[] tags) {
+    if (tags.length % 2 != 0) {
+      throw new IllegalArgumentException("Tags must be given as name/value pairs.");
+    }
+    final StringBuilder key = new StringBuilder(name);
+    for (final String tag : tags) {
+      key.append('|').append(tag);
+    }
+    return key.toString();
+  }
+
+  private static Map<String, String> tagMap(final String[] tags) {
+    final LinkedHashMap<String, String> tagMap = new LinkedHashMap<>();
+    for (int i = 0; i < tags.length; i += 2) {
+      tagMap.put(tags[i], tags[i + 1]);
+    }
+    return Collections.unmodifiableMap(tagMap);
+  }
+
+  public static final class Counter {
+    private final String name;
+    private final Map<String, String> tags;
+    private final LongAdder count;
+
+    private Counter(final String name, final String[] tags) {
+      super();
+      this.name = name;
+      this.tags = MetricRegistry.tagMap(tags);
+      this.count = new LongAdder();
+    }
+
+    public void increment() {
+      this.count.increment();
+    }
+
+    public void add(final long amount) {
+      this.count.add(amount);
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public Map<String, String> getTags() {
+      return this.tags;
+    }
+
+    public long getCount() {
+      return this.count.sum();
+    }
+  }
+
+  public static final class Gauge {
+    private final String name;
+    private final Map<String, String> tags;
+    private final AtomicLong value;
+
+    private Gauge(final String name, final String[] tags) {
+      super();
+      this.name = name;
+      this.tags = MetricRegistry.tagMap(tags);
+      this.value = new AtomicLong();
+    }
+
+    public void increment() {
+      this.value.incrementAndGet();
+    }
+
+    public void decrement() {
+      this.value.decrementAndGet();
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public Map<String, String> getTags() {
+      return this.tags;
+    }
+
+    public long getValue() {
+      return this.value.get();
+    }
+  }
+
+  public static final class Timer {
+    private final String name;
+    private final Map<String, String> tags;
+    private final LongAdder count;
+    private final LongAdder totalNanos;
+    private final AtomicLong maxNanos;
+    private final LongAdder[] buckets;
+
+    private Timer(final String name, final String[] tags) {
+      super();
+      this.name = name;
+      this.tags = MetricRegistry.tagMap(tags);
+      this.count = new LongAdder();
+      this.totalNanos = new LongAdder();
+      this.maxNanos = new AtomicLong();
+      this.buckets = new LongAdder[BUCKETS.length];
+      for (int i = 0; i < this.buckets.length; i++) {
+        this.buckets[i] = new LongAdder();
+      }
+    }
+
+    public void record(final long nanos) {
+      this.count.increment();
+      this.totalNanos.add(nanos);
+      this.maxNanos.accumulateAndGet(nanos, Math::max);
+      final double seconds = nanos / (double) TimeUnit.SECONDS.toNanos(1L);
+      for (int i = 0; i < BUCKETS.length; i++) {
+        if (seconds <= BUCKETS[i]) {
+          this.buckets[i].increment();
+          break;
+        }
+      }
+    }
+
+    public void recordSince(final long startNanos) {
+      this.record(System.nanoTime() - startNanos);
+    }
+
+    public String getName() {
+      return this.name;
+    }
+
+    public Map<String, String> getTags() {
+      return this.tags;
+    }
+
+    public long getCount() {
+      return this.count.sum();
+    }
+
+    public long getTotalNanos() {
+      return this.totalNanos.sum();
+    }
+
+    public long getMaxNanos() {
+      return this.maxNanos.get();
+    }
+
+    /**
+     * Returns the cumulative number of recordings per bucket of {@link MetricRegistry#bucketBounds()}, in seconds.
+     */
+    public long[] getCumulativeBucketCounts() {
+      final long[] cumulative = new long[this.buckets.length];
+      long sum = 0L;
+      for (int i = 0; i < this.buckets.length; i++) {
+        sum += this.buckets[i].sum();
+        cumulative[i] = sum;
+      }
+      return cumulative;
+    }
+  }
+}
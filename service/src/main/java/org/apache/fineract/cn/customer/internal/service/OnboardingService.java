@@ -0,0 +1,288 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import feign.RetryableException;
+import org.apache.fineract.cn.command.gateway.CommandCallback;
+import org.apache.fineract.cn.command.gateway.CommandGateway;
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.api.v1.domain.Customer;
+import org.apache.fineract.cn.customer.internal.command.ActivateCustomerCommand;
+import org.apache.fineract.cn.customer.internal.command.CloseCustomerCommand;
+import org.apache.fineract.cn.customer.internal.command.CreateCustomerCommand;
+import org.apache.fineract.cn.customer.internal.config.OnboardingProperties;
+import org.apache.fineract.cn.deposit.api.v1.client.DepositAccountManager;
+import org.apache.fineract.cn.deposit.api.v1.instance.domain.ProductInstance;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.apache.http.conn.ConnectTimeoutException;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.annotation.Async;
+import org.springframework.stereotype.Service;
+
+import java.net.ConnectException;
+import java.net.NoRouteToHostException;
+import java.net.UnknownHostException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Orchestrates the onboarding of a customer together with its deposit account.
+ *
+ * Creating the customer runs on the command bus while the account is created in the deposit service, and
+ * the same happens for their activation. Every stage is bounded by a timeout, calls into the deposit
+ * service are retried only if the connection could not be established, and anything already created is
+ * closed again if a later stage fails. A call that timed out while waiting for the response is never
+ * retried, because the deposit service may have applied it already; the account is then treated as
+ * possibly created.
+ */
+@Service
+public class OnboardingService {
+
+  private static final String METRIC_NAME = "customer_onboarding_stage";
+  private static final String ACTIVATE = "ACTIVATE";
+  private static final String CLOSE = "CLOSE";
+
+  private final Logger logger;
+  private final CommandGateway commandGateway;
+  private final DepositAccountManager depositAccountManager;
+  private final OnboardingProperties onboardingProperties;
+  private final MetricRegistry metricRegistry;
+
+  @Autowired
+  public OnboardingService(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                           final CommandGateway commandGateway,
+                           final DepositAccountManager depositAccountManager,
+                           final OnboardingProperties onboardingProperties,
+                           final MetricRegistry metricRegistry) {
+    super();
+    this.logger = logger;
+    this.commandGateway = commandGateway;
+    this.depositAccountManager = depositAccountManager;
+    this.onboardingProperties = onboardingProperties;
+    this.metricRegistry = metricRegistry;
+  }
+
+  public void onboard(final Customer customer, final String productIdentifier, final boolean activate) {
+    final String identifier = customer.getIdentifier();
+
+    final ProductInstance productInstance = new ProductInstance();
+    productInstance.setProductIdentifier(productIdentifier);
+    productInstance.setCustomerIdentifier(identifier);
+    productInstance.setAccountIdentifier(identifier);
+
+    final PendingCommand customerCreation = this.startCommand("create-customer", new CreateCustomerCommand(customer));
+    boolean accountCreated = false;
+    try {
+      this.callDepositService("create-account", () -> this.depositAccountManager.create(productInstance));
+      accountCreated = true;
+      customerCreation.await();
+
+      if (activate) {
+        final PendingCommand customerActivation =
+            this.startCommand("activate-customer", new ActivateCustomerCommand(identifier, ACTIVATE));
+        this.callDepositService("activate-account",
+            () -> this.depositAccountManager.postProductInstanceCommand(identifier, ACTIVATE));
+        customerActivation.await();
+      }
+    } catch (final StageFailedException ex) {
+      this.compensate(identifier, customerCreation, accountCreated || ex.isOutcomeUnknown());
+      throw ex.toServiceException(identifier);
+    }
+  }
+
+  /**
+   * Runs {@link #onboard(Customer, String, boolean)} on the async executor, which carries the tenant and
+   * user context of the caller over to the worker thread.
+   */
+  @Async
+  public CompletableFuture<Void> onboardAsync(final Customer customer, final String productIdentifier,
+                                              final boolean activate) {
+    final CompletableFuture<Void> result = new CompletableFuture<>();
+    try {
+      this.onboard(customer, productIdentifier, activate);
+      result.complete(null);
+    } catch (final RuntimeException ex) {
+      result.completeExceptionally(ex);
+    }
+    return result;
+  }
+
+  private void compensate(final String identifier, final PendingCommand customerCreation, final boolean accountMayExist) {
+    final long start = System.nanoTime();
+    boolean compensated = true;
+    try {
+      if (customerCreation.awaitQuietly()) {
+        this.commandGateway.process(new CloseCustomerCommand(identifier, "Onboarding failed."));
+      } else if (!customerCreation.isFailed()) {
+        compensated = false;
+        this.logger.warn("Customer {} may still be created after a failed onboarding.", identifier);
+      }
+      if (accountMayExist) {
+        this.callDepositService("close-account",
+            () -> this.depositAccountManager.postProductInstanceCommand(identifier, CLOSE));
+      }
+    } catch (final RuntimeException ex) {
+      compensated = false;
+      this.logger.warn("Could not compensate failed onboarding of customer {}.", identifier, ex);
+    } finally {
+      this.metricRegistry.timer(METRIC_NAME, "stage", "compensate", "outcome", compensated ? "success" : "failure")
+          .recordSince(start);
+    }
+  }
+
+  private PendingCommand startCommand(final String stage, final Object command) {
+    final long start = System.nanoTime();
+    try {
+      return new PendingCommand(stage, start, this.commandGateway.process(command, String.class));
+    } catch (final Exception ex) {
+      this.record(stage, start, false);
+      throw new StageFailedException(stage, ex);
+    }
+  }
+
+  private void callDepositService(final String stage, final Runnable call) {
+    final long start = System.nanoTime();
+    int attempt = 1;
+    while (true) {
+      try {
+        call.run();
+        this.record(stage, start, true);
+        return;
+      } catch (final RetryableException ex) {
+        if (!StageFailedException.isConnectFailure(ex) || attempt >= this.onboardingProperties.getMaxAttempts()) {
+          this.record(stage, start, false);
+          throw new StageFailedException(stage, ex);
+        }
+        this.logger.debug("Retrying {} after attempt {} failed: {}", stage, attempt, ex.getMessage());
+        this.backOff(stage, start, attempt);
+        attempt++;
+      } catch (final RuntimeException ex) {
+        this.record(stage, start, false);
+        throw new StageFailedException(stage, ex);
+      }
+    }
+  }
+
+  private void backOff(final String stage, final long start, final int attempt) {
+    try {
+      TimeUnit.MILLISECONDS.sleep(this.onboardingProperties.getRetryBackoff() * attempt);
+    } catch (final InterruptedException ex) {
+      Thread.currentThread().interrupt();
+      this.record(stage, start, false);
+      throw new StageFailedException(stage, ex);
+    }
+  }
+
+  private void record(final String stage, final long start, final boolean success) {
+    this.metricRegistry.timer(METRIC_NAME, "stage", stage, "outcome", success ? "success" : "failure")
+        .recordSince(start);
+  }
+
+  private final class PendingCommand {
+    private final String stage;
+    private final long start;
+    private final CommandCallback<String> callback;
+    private Boolean succeeded;
+    private Exception failure;
+
+    private PendingCommand(final String stage, final long start, final CommandCallback<String> callback) {
+      super();
+      this.stage = stage;
+      this.start = start;
+      this.callback = callback;
+    }
+
+    private void await() {
+      if (!this.awaitQuietly()) {
+        throw new StageFailedException(this.stage, this.failure);
+      }
+    }
+
+    private boolean awaitQuietly() {
+      if (this.succeeded == null) {
+        try {
+          this.callback.get(OnboardingService.this.onboardingProperties.getStepTimeout(), TimeUnit.MILLISECONDS);
+          this.succeeded = Boolean.TRUE;
+        } catch (final Exception ex) {
+          this.succeeded = Boolean.FALSE;
+          this.failure = ex;
+        }
+        OnboardingService.this.record(this.stage, this.start, this.succeeded);
+      }
+      return this.succeeded;
+    }
+
+    private boolean isFailed() {
+      return Boolean.FALSE.equals(this.succeeded) && !StageFailedException.isTimeout(this.failure);
+    }
+  }
+
+  private static final class StageFailedException extends RuntimeException {
+    private final String stage;
+
+    private StageFailedException(final String stage, final Throwable cause) {
+      super(cause);
+      this.stage = stage;
+    }
+
+    /**
+     * The request reached the deposit service, but its response did not arrive, so it may have been
+     * applied.
+     */
+    private boolean isOutcomeUnknown() {
+      return this.getCause() instanceof RetryableException && !StageFailedException.isConnectFailure(this.getCause());
+    }
+
+    private ServiceException toServiceException(final String identifier) {
+      for (Throwable cause = this.getCause(); cause != null; cause = cause.getCause()) {
+        if (cause instanceof ServiceException) {
+          return (ServiceException) cause;
+        }
+      }
+      if (StageFailedException.isTimeout(this.getCause())) {
+        return ServiceException.internalError("Onboarding of customer {0} timed out in stage {1}.", identifier, this.stage);
+      }
+      return ServiceException.internalError("Onboarding of customer {0} failed in stage {1}.", identifier, this.stage);
+    }
+
+    private static boolean isConnectFailure(final Throwable throwable) {
+      for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+        if (cause instanceof ConnectException
+            || cause instanceof ConnectTimeoutException
+            || cause instanceof NoRouteToHostException
+            || cause instanceof UnknownHostException) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private static boolean isTimeout(final Throwable throwable) {
+      for (Throwable cause = throwable; cause != null; cause = cause.getCause()) {
+        if (cause instanceof TimeoutException) {
+          return true;
+        }
+      }
+      return false;
+    }
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.api.v1.CustomerEventConstants;
+import org.apache.fineract.cn.customer.internal.config.OutboxProperties;
+import org.apache.fineract.cn.customer.internal.repository.OutboxEventEntity;
+import org.apache.fineract.cn.customer.internal.repository.OutboxEventRepository;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.apache.fineract.cn.lang.config.TenantHeaderFilter;
+import org.apache.fineract.cn.postgresql.config.MetaDataSourceWrapper;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.InitializingBean;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.jms.TextMessage;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains the outbox table of every tenant which has stored events, oldest first, and publishes them in
+ * batches of {@code outbox.batch-size} through a single JMS session and producer.
+ *
+ * Tenants are polled every {@code outbox.linger} milliseconds, or immediately once a full batch is
+ * pending. Events are removed only after they have been sent, so a crash in between leads to a repeated
+ * event; consumers can recognize it by its {@link CustomerEventConstants#DEDUPE_ID} property.
+ *
+ * At startup every tenant listed in the meta database is drained once, so events left by a restart are
+ * published even if the tenant issues no further commands. The relay runs whether or not
+ * {@code outbox.enabled} is set, events stored before it was switched off are still published.
+ */
+@Component
+public class OutboxRelay implements InitializingBean, DisposableBean {
+
+  static final String PUBLISHED = "customer_outbox_published";
+  static final String BATCH = "customer_outbox_batch";
+
+  private final Logger logger;
+  private final OutboxProperties outboxProperties;
+  private final OutboxEventRepository outboxEventRepository;
+  private final JmsTemplate jmsTemplate;
+  private final MetaDataSourceWrapper metaDataSourceWrapper;
+  private final TransactionTemplate transactionTemplate;
+  private final MetricRegistry metricRegistry;
+  private final Map<String, AtomicLong> pendingByTenant;
+  private ScheduledExecutorService scheduler;
+
+  @Autowired
+  public OutboxRelay(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
+                     final OutboxProperties outboxProperties,
+                     final OutboxEventRepository outboxEventRepository,
+                     final JmsTemplate jmsTemplate,
+                     final MetaDataSourceWrapper metaDataSourceWrapper,
+                     final PlatformTransactionManager transactionManager,
+                     final MetricRegistry metricRegistry) {
+    super();
+    this.logger = logger;
+    this.outboxProperties = outboxProperties;
+    this.outboxEventRepository = outboxEventRepository;
+    this.jmsTemplate = jmsTemplate;
+    this.metaDataSourceWrapper = metaDataSourceWrapper;
+    this.transactionTemplate = new TransactionTemplate(transactionManager);
+    this.metricRegistry = metricRegistry;
+    this.pendingByTenant = new ConcurrentHashMap<>();
+  }
+
+  @Override
+  public void afterPropertiesSet() {
+    this.scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+      final Thread thread = new Thread(runnable, "outbox-relay");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.scheduler.execute(this::drainLeftovers);
+    this.scheduler.scheduleWithFixedDelay(this::drain,
+        this.outboxProperties.getLinger(), this.outboxProperties.getLinger(), TimeUnit.MILLISECONDS);
+  }
+
+  @Override
+  public void destroy() {
+    if (this.scheduler != null) {
+      this.scheduler.shutdown();
+    }
+  }
+
+  void notifyPending(final String tenant) {
+    // a tenant seen for the first time is drained completely, which picks up events left by a restart
+    final long pending = this.pendingByTenant
+        .computeIfAbsent(tenant, key -> new AtomicLong(this.outboxProperties.getBatchSize() - 1L))
+        .incrementAndGet();
+    if (pending >= this.outboxProperties.getBatchSize() && this.scheduler != null) {
+      this.scheduler.execute(this::drain);
+    }
+  }
+
+  private void drain() {
+    this.pendingByTenant.forEach((tenant, pending) -> {
+      if (pending.get() <= 0L) {
+        return;
+      }
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(tenant);
+      try {
+        int published;
+        do {
+          published = this.publishBatch(tenant);
+          pending.accumulateAndGet(published, (current, sent) -> Math.max(0L, current - sent));
+        } while (published == this.outboxProperties.getBatchSize());
+        if (published == 0) {
+          pending.set(0L);
+        }
+      } catch (final Exception ex) {
+        this.logger.warn("Could not publish outbox events of tenant {}, retrying.", tenant, ex);
+      } finally {
+        TenantContextHolder.clear();
+      }
+    });
+  }
+
+  private void drainLeftovers() {
+    final List<String> tenants;
+    try {
+      tenants = new JdbcTemplate(this.metaDataSourceWrapper.getMetaDataSource())
+          .queryForList("SELECT identifier FROM tenants", String.class);
+    } catch (final Exception ex) {
+      this.logger.warn("Could not list tenants, leftover outbox events are published with the next event.", ex);
+      return;
+    }
+
+    tenants.forEach(tenant -> {
+      TenantContextHolder.clear();
+      TenantContextHolder.setIdentifier(tenant);
+      try {
+        int published;
+        do {
+          published = this.publishBatch(tenant);
+        } while (published == this.outboxProperties.getBatchSize());
+      } catch (final Exception ex) {
+        // tenants which are not provisioned for this service have no outbox
+        this.logger.info("Could not check tenant {} for leftover outbox events: {}", tenant, ex.getMessage());
+      } finally {
+        TenantContextHolder.clear();
+      }
+    });
+  }
+
+  private int publishBatch(final String tenant) {
+    final long started = System.nanoTime();
+    final List<OutboxEventEntity> events = this.transactionTemplate.execute(status ->
+        this.outboxEventRepository.findOldest(new PageRequest(0, this.outboxProperties.getBatchSize())));
+    if (events.isEmpty()) {
+      return 0;
+    }
+
+    this.jmsTemplate.execute((session, producer) -> {
+      for (final OutboxEventEntity event : events) {
+        final TextMessage message = session.createTextMessage(event.getPayload());
+        message.setStringProperty(TenantHeaderFilter.TENANT_HEADER, tenant);
+        message.setStringProperty(event.getSelectorName(), event.getSelectorValue());
+        message.setStringProperty(CustomerEventConstants.DEDUPE_ID, tenant + ":" + event.getId());
+        producer.send(message);
+      }
+      return null;
+    });
+
+    this.transactionTemplate.execute(status -> {
+      this.outboxEventRepository.deleteInBatch(events);
+      return null;
+    });
+    this.metricRegistry.counter(PUBLISHED, "tenant", tenant).add(events.size());
+    this.metricRegistry.timer(BATCH, "tenant", tenant).recordSince(started);
+    return events.size();
+  }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.apache.activemq.command.ActiveMQTextMessage;
+import org.apache.fineract.cn.customer.internal.repository.OutboxEventEntity;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.jms.core.JmsTemplate;
+import org.springframework.jms.core.MessagePostProcessor;
+
+import javax.jms.JMSException;
+import javax.jms.Message;
+
+/**
+ * Proxies the JMS template the command framework sends events with, so the send following an
+ * {@code @EventEmitter} handler is dropped if {@link EventOutbox} has already stored its event.
+ *
+ * A send is only dropped if it carries the payload of the stored event and its message post processor
+ * sets the stored selector. Only the framework's template bean is proxied, by class, the framework
+ * injects it by its class.
+ */
+public class OutboxedEventSuppressor implements BeanPostProcessor {
+
+  private final String jmsTemplateBeanName;
+
+  public OutboxedEventSuppressor(final String jmsTemplateBeanName) {
+    super();
+    this.jmsTemplateBeanName = jmsTemplateBeanName;
+  }
+
+  @Override
+  public Object postProcessBeforeInitialization(final Object bean, final String beanName) {
+    return bean;
+  }
+
+  @Override
+  public Object postProcessAfterInitialization(final Object bean, final String beanName) {
+    if (!this.jmsTemplateBeanName.equals(beanName) || !(bean instanceof JmsTemplate)) {
+      return bean;
+    }
+
+    final ProxyFactory proxyFactory = new ProxyFactory(bean);
+    proxyFactory.setProxyTargetClass(true);
+    proxyFactory.addAdvice((MethodInterceptor) invocation -> {
+      final Object[] arguments = invocation.getArguments();
+      if (invocation.getMethod().getName().equals("convertAndSend")
+          && arguments.length == 2
+          && arguments[1] instanceof MessagePostProcessor
+          && isOutboxed(arguments[0], (MessagePostProcessor) arguments[1])) {
+        EventOutbox.clearOutboxed();
+        return null;
+      }
+      return invocation.proceed();
+    });
+    return proxyFactory.getProxy();
+  }
+
+  private static boolean isOutboxed(final Object payload, final MessagePostProcessor messagePostProcessor)
+      throws JMSException {
+    final OutboxEventEntity outboxEventEntity = EventOutbox.outboxed();
+    if (outboxEventEntity == null || !outboxEventEntity.getPayload().equals(payload)) {
+      return false;
+    }
+    // the post processor only sets properties, a detached message is enough to read the selector back
+    final Message message = messagePostProcessor.postProcessMessage(new ActiveMQTextMessage());
+    return outboxEventEntity.getSelectorValue().equals(message.getStringProperty(outboxEventEntity.getSelectorName()));
+  }
+}
@@ -0,0 +1,175 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import org.apache.fineract.cn.customer.api.v1.domain.Command;
+import org.apache.fineract.cn.customer.api.v1.domain.TaskDefinition;
+import org.apache.fineract.cn.customer.internal.mapper.TaskDefinitionMapper;
+import org.apache.fineract.cn.customer.internal.repository.TaskDefinitionRepository;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationAdapter;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Per tenant, in-memory index of all task definitions by the customer command they are assigned to.
+ *
+ * The index is loaded with a single query on first use and kept until a task definition is created or
+ * updated, either by this instance or by another one announcing the change on the customer destination.
+ * Loading happens outside of the map, so the query does not block other tenants; an index loaded while
+ * its tenant was evicted is used once but not kept. Task definitions are handed out as copies.
+ */
+@Component
+public class TaskDefinitionRegistry {
+
+  private final TaskDefinitionRepository taskDefinitionRepository;
+  private final ConcurrentHashMap<String, Map<Command.Action, Map<Long, RegisteredTaskDefinition>>> registries;
+  private final ConcurrentHashMap<String, AtomicLong> generations;
+
+  @Autowired
+  public TaskDefinitionRegistry(final TaskDefinitionRepository taskDefinitionRepository) {
+    super();
+    this.taskDefinitionRepository = taskDefinitionRepository;
+    this.registries = new ConcurrentHashMap<>();
+    this.generations = new ConcurrentHashMap<>();
+  }
+
+  public List<Long> findPredefinedTaskDefinitionIds(final Command.Action action) {
+    final ArrayList<Long> taskDefinitionIds = new ArrayList<>();
+    this.findByAction(action).values().forEach(registeredTaskDefinition -> {
+      if (registeredTaskDefinition.predefined) {
+        taskDefinitionIds.add(registeredTaskDefinition.id);
+      }
+    });
+    return taskDefinitionIds;
+  }
+
+  public boolean hasMandatoryTaskDefinitions(final Command.Action action) {
+    return this.findByAction(action).values().stream()
+        .anyMatch(registeredTaskDefinition -> registeredTaskDefinition.mandatory);
+  }
+
+  public TaskDefinition findTaskDefinition(final Command.Action action, final Long taskDefinitionId) {
+    final RegisteredTaskDefinition registeredTaskDefinition = this.findByAction(action).get(taskDefinitionId);
+    return registeredTaskDefinition != null ? TaskDefinitionRegistry.copy(registeredTaskDefinition.taskDefinition) : null;
+  }
+
+  public void evict(final String tenant) {
+    this.generation(tenant).incrementAndGet();
+    this.registries.remove(tenant);
+  }
+
+  public void evictAfterCommit() {
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    this.evict(tenant);
+    if (TransactionSynchronizationManager.isSynchronizationActive()) {
+      TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronizationAdapter() {
+        @Override
+        public void afterCompletion(final int status) {
+          TaskDefinitionRegistry.this.evict(tenant);
+        }
+      });
+    }
+  }
+
+  private Map<Long, RegisteredTaskDefinition> findByAction(final Command.Action action) {
+    return this.findRegistry(TenantContextHolder.checkedGetIdentifier())
+        .getOrDefault(action, Collections.emptyMap());
+  }
+
+  private Map<Command.Action, Map<Long, RegisteredTaskDefinition>> findRegistry(final String tenant) {
+    final Map<Command.Action, Map<Long, RegisteredTaskDefinition>> cachedRegistry = this.registries.get(tenant);
+    if (cachedRegistry != null) {
+      return cachedRegistry;
+    }
+
+    final long generation = this.generation(tenant).get();
+    final Map<Command.Action, Map<Long, RegisteredTaskDefinition>> loadedRegistry = this.load();
+    final Map<Command.Action, Map<Long, RegisteredTaskDefinition>> registry =
+        this.registries.compute(tenant, (key, existingRegistry) -> {
+          if (existingRegistry != null) {
+            return existingRegistry;
+          }
+          return this.generation(tenant).get() == generation ? loadedRegistry : null;
+        });
+    return registry != null ? registry : loadedRegistry;
+  }
+
+  private AtomicLong generation(final String tenant) {
+    return this.generations.computeIfAbsent(tenant, key -> new AtomicLong());
+  }
+
+  private Map<Command.Action, Map<Long, RegisteredTaskDefinition>> load() {
+    final EnumMap<Command.Action, Map<Long, RegisteredTaskDefinition>> registry = new EnumMap<>(Command.Action.class);
+    this.taskDefinitionRepository.findAllWithCommands().forEach(taskDefinitionEntity -> {
+      final RegisteredTaskDefinition registeredTaskDefinition = new RegisteredTaskDefinition(
+          taskDefinitionEntity.getId(),
+          TaskDefinitionMapper.map(taskDefinitionEntity),
+          Boolean.TRUE.equals(taskDefinitionEntity.isPredefined()),
+          Boolean.TRUE.equals(taskDefinitionEntity.isMandatory()));
+      for (final Command.Action action : Command.Action.values()) {
+        if (taskDefinitionEntity.getCommands().contains(action.name())) {
+          registry.computeIfAbsent(action, key -> new LinkedHashMap<>())
+              .put(registeredTaskDefinition.id, registeredTaskDefinition);
+        }
+      }
+    });
+    return registry;
+  }
+
+  private static TaskDefinition copy(final TaskDefinition taskDefinition) {
+    final TaskDefinition copy = new TaskDefinition();
+    copy.setIdentifier(taskDefinition.getIdentifier());
+    copy.setType(taskDefinition.getType());
+    copy.setName(taskDefinition.getName());
+    copy.setDescription(taskDefinition.getDescription());
+    copy.setCommands(taskDefinition.getCommands());
+    copy.setMandatory(taskDefinition.getMandatory());
+    copy.setPredefined(taskDefinition.getPredefined());
+    return copy;
+  }
+
+  private static final class RegisteredTaskDefinition {
+    private final Long id;
+    private final TaskDefinition taskDefinition;
+    private final boolean predefined;
+    private final boolean mandatory;
+
+    private RegisteredTaskDefinition(final Long id,
+                                     final TaskDefinition taskDefinition,
+                                     final boolean predefined,
+                                     final boolean mandatory) {
+      super();
+      this.id = id;
+      this.taskDefinition = taskDefinition;
+      this.predefined = predefined;
+      this.mandatory = mandatory;
+    }
+  }
+}
@@ -0,0 +1,228 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.internal.service;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.internal.config.CommandExecutorProperties;
+import org.apache.fineract.cn.lang.TenantContextHolder;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Admission control for command dispatch when {@code command.executor.mode} is {@code BOUNDED}.
+ *
+ * A command submitted through the command gateway holds one of {@code maxConcurrent} slots until its
+ * handler, including the handler's transaction, has completed. Submissions that find no free slot wait in
+ * a queue of at most {@code queueCapacity} entries, partitioned by tenant and drained round-robin, so a
+ * bulk load of one tenant only delays its own commands. Submissions that can not be admitted within
+ * {@code maxWait} are rejected with a {@link CommandRejectedException}.
+ *
+ * Commands issued from within a command handler bypass admission, they already run on behalf of an
+ * admitted command. Commands the {@link CustomerCommandSerializer} parks behind another command of the
+ * same customer are only admitted once they are dispatched.
+ *
+ * In either mode, a command the async executor refuses because its threads and queue are exhausted is
+ * rejected with a {@link CommandRejectedException} as well.
+ */
+@Aspect
+@Component
+@Order(ServiceConstants.COMMAND_SCHEDULER_ORDER)
+public class TenantFairCommandScheduler {
+
+  static final String ADMISSION_WAIT = "customer_command_admission_wait";
+  static final String REJECTED = "customer_command_rejected";
+
+  private static final ThreadLocal<Integer> HANDLER_DEPTH = ThreadLocal.withInitial(() -> 0);
+
+  private final CommandExecutorProperties commandExecutorProperties;
+  private final MetricRegistry metricRegistry;
+  private final ReentrantLock lock;
+  private final LinkedHashMap<String, ArrayDeque<Ticket>> waiting;
+  private final Cache<Object, Boolean> permits;
+  private int active;
+  private int queued;
+
+  private static final class Ticket {
+    private final Condition admittedCondition;
+    private boolean admitted;
+
+    private Ticket(final Condition admittedCondition) {
+      super();
+      this.admittedCondition = admittedCondition;
+    }
+  }
+
+  @Autowired
+  public TenantFairCommandScheduler(final CommandExecutorProperties commandExecutorProperties,
+                                    final MetricRegistry metricRegistry) {
+    super();
+    this.commandExecutorProperties = commandExecutorProperties;
+    this.metricRegistry = metricRegistry;
+    this.lock = new ReentrantLock();
+    this.waiting = new LinkedHashMap<>();
+    // a slot is given back should the handler never see the submitted instance, e.g. if it failed to dispatch
+    this.permits = Caffeine.newBuilder()
+        .weakKeys()
+        .expireAfterWrite(commandExecutorProperties.getMaxExecution(), TimeUnit.MILLISECONDS)
+        .<Object, Boolean>removalListener((command, permit, cause) -> {
+          if (cause.wasEvicted()) {
+            this.release();
+          }
+        })
+        .build();
+  }
+
+  @Around("execution(* org.apache.fineract.cn.command.gateway.CommandGateway.process(..)) && args(command, ..)")
+  public Object admit(final ProceedingJoinPoint joinPoint, final Object command) throws Throwable {
+    if (this.commandExecutorProperties.getMode() != CommandExecutorProperties.Mode.BOUNDED
+        || HANDLER_DEPTH.get() > 0) {
+      return this.dispatch(joinPoint, command);
+    }
+
+    this.permits.cleanUp();
+    final String tenant = TenantContextHolder.checkedGetIdentifier();
+    final long started = System.nanoTime();
+    this.acquire(tenant, command.getClass().getSimpleName());
+    this.metricRegistry.timer(ADMISSION_WAIT, "tenant", tenant).recordSince(started);
+
+    this.permits.put(command, Boolean.TRUE);
+    try {
+      return this.dispatch(joinPoint, command);
+    } catch (final Throwable th) {
+      if (this.permits.asMap().remove(command) != null) {
+        this.release();
+      }
+      throw th;
+    }
+  }
+
+  @Around("@annotation(org.apache.fineract.cn.command.annotation.CommandHandler)")
+  public Object complete(final ProceedingJoinPoint joinPoint) throws Throwable {
+    final Object command = joinPoint.getArgs().length > 0 ? joinPoint.getArgs()[0] : null;
+    HANDLER_DEPTH.set(HANDLER_DEPTH.get() + 1);
+    try {
+      return joinPoint.proceed();
+    } finally {
+      HANDLER_DEPTH.set(HANDLER_DEPTH.get() - 1);
+      if (command != null && this.permits.asMap().remove(command) != null) {
+        this.release();
+      }
+    }
+  }
+
+  private Object dispatch(final ProceedingJoinPoint joinPoint, final Object command) throws Throwable {
+    try {
+      return joinPoint.proceed();
+    } catch (final RejectedExecutionException ex) {
+      throw this.reject(TenantContextHolder.identifier().orElse("unknown"), command.getClass().getSimpleName(),
+          "executor saturated");
+    }
+  }
+
+  private void acquire(final String tenant, final String commandType) throws InterruptedException {
+    this.lock.lock();
+    try {
+      if (this.active < this.commandExecutorProperties.getMaxConcurrent() && this.queued == 0) {
+        this.active++;
+        return;
+      }
+      if (this.queued >= this.commandExecutorProperties.getQueueCapacity()) {
+        throw this.reject(tenant, commandType, "queue full");
+      }
+
+      final Ticket ticket = new Ticket(this.lock.newCondition());
+      this.waiting.computeIfAbsent(tenant, key -> new ArrayDeque<>()).add(ticket);
+      this.queued++;
+
+      long remaining = TimeUnit.MILLISECONDS.toNanos(this.commandExecutorProperties.getMaxWait());
+      try {
+        while (!ticket.admitted && remaining > 0L) {
+          remaining = ticket.admittedCondition.awaitNanos(remaining);
+        }
+      } finally {
+        if (!ticket.admitted) {
+          this.withdraw(tenant, ticket);
+        }
+      }
+      if (!ticket.admitted) {
+        throw this.reject(tenant, commandType, "timed out");
+      }
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void release() {
+    this.lock.lock();
+    try {
+      this.active--;
+      this.dispatchWaiting();
+    } finally {
+      this.lock.unlock();
+    }
+  }
+
+  private void dispatchWaiting() {
+    while (this.active < this.commandExecutorProperties.getMaxConcurrent() && this.queued > 0) {
+      final Iterator<Map.Entry<String, ArrayDeque<Ticket>>> tenants = this.waiting.entrySet().iterator();
+      final Map.Entry<String, ArrayDeque<Ticket>> next = tenants.next();
+      final Ticket ticket = next.getValue().poll();
+      tenants.remove();
+      if (!next.getValue().isEmpty()) {
+        // move the tenant to the back of the line
+        this.waiting.put(next.getKey(), next.getValue());
+      }
+      this.queued--;
+      this.active++;
+      ticket.admitted = true;
+      ticket.admittedCondition.signal();
+    }
+  }
+
+  private void withdraw(final String tenant, final Ticket ticket) {
+    final ArrayDeque<Ticket> tickets = this.waiting.get(tenant);
+    if (tickets != null && tickets.remove(ticket)) {
+      this.queued--;
+      if (tickets.isEmpty()) {
+        this.waiting.remove(tenant);
+      }
+    }
+  }
+
+  private CommandRejectedException reject(final String tenant, final String commandType, final String reason) {
+    this.metricRegistry.counter(REJECTED, "command", commandType, "tenant", tenant, "reason", reason).increment();
+    return new CommandRejectedException(
+        "Command " + commandType + " rejected, " + reason + ".", this.commandExecutorProperties.getRetryAfter());
+  }
+}
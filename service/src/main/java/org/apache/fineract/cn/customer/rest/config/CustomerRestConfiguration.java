@@ -25,7 +25,6 @@ import org.apache.fineract.cn.anubis.config.EnableAnubis;
 import org.apache.fineract.cn.async.config.EnableAsync;
 import org.apache.fineract.cn.cassandra.config.EnableCassandra;
 import org.apache.fineract.cn.command.config.EnableCommandProcessing;
-import org.apache.fineract.cn.deposit.api.v1.client.DepositAccountManager;
 import org.apache.fineract.cn.lang.ApplicationName;
 import org.apache.fineract.cn.lang.config.EnableApplicationName;
 import org.apache.fineract.cn.lang.config.EnableServiceException;
@@ -33,6 +32,7 @@ import org.apache.fineract.cn.lang.config.EnableTenantContext;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.boot.autoconfigure.EnableAutoConfiguration;
+import org.springframework.boot.web.servlet.MultipartConfigFactory;
 import org.springframework.boot.context.properties.EnableConfigurationProperties;
 import org.springframework.cloud.client.discovery.EnableDiscoveryClient;
 import org.springframework.cloud.netflix.feign.EnableFeignClients;
@@ -43,6 +43,8 @@ import org.springframework.context.annotation.Import;
 import org.springframework.web.servlet.config.annotation.PathMatchConfigurer;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter;
 
+import javax.servlet.MultipartConfigElement;
+
 @Configuration
 @EnableAutoConfiguration
 @EnableAsync
@@ -59,9 +61,9 @@ import org.springframework.web.servlet.config.annotation.WebMvcConfigurerAdapter
     CatalogRestConfiguration.class,
     CustomerServiceConfiguration.class
 })
-@EnableConfigurationProperties({UploadProperties.class})
+@EnableConfigurationProperties({UploadProperties.class, AwaitProperties.class})
 @EnableFeignClients(clients = {
-        DepositAccountManager.class
+        OnboardingDepositAccountManager.class
 })
 public class CustomerRestConfiguration extends WebMvcConfigurerAdapter {
 
@@ -74,6 +76,19 @@ public class CustomerRestConfiguration extends WebMvcConfigurerAdapter {
     return LoggerFactory.getLogger(applicationName.getServiceName());
   }
 
+  /**
+   * Uploads beyond the image limit are rejected while parsing, before anything is spooled. The
+   * request may exceed it by the form fields sent along with the image.
+   */
+  @Bean
+  public MultipartConfigElement multipartConfigElement(final UploadProperties uploadProperties) {
+    final MultipartConfigFactory multipartConfigFactory = new MultipartConfigFactory();
+    multipartConfigFactory.setMaxFileSize(uploadProperties.getImage().getMaxSize());
+    multipartConfigFactory.setMaxRequestSize(
+        uploadProperties.getImage().getMaxSize() + uploadProperties.getFormFieldsMaxSize());
+    return multipartConfigFactory.createMultipartConfig();
+  }
+
   @Override
   public void configurePathMatch(final PathMatchConfigurer configurer) {
     configurer.setUseSuffixPatternMatch(Boolean.FALSE);
@@ -0,0 +1,65 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.rest.config;
+
+import feign.Client;
+import feign.Request;
+import feign.httpclient.ApacheHttpClient;
+import org.apache.fineract.cn.customer.internal.config.OnboardingProperties;
+import org.apache.http.client.config.RequestConfig;
+import org.apache.http.impl.client.CloseableHttpClient;
+import org.apache.http.impl.client.HttpClients;
+import org.apache.http.impl.conn.PoolingHttpClientConnectionManager;
+import org.springframework.context.annotation.Bean;
+
+/**
+ * Feign configuration of {@link OnboardingDepositAccountManager}. Deliberately not annotated with
+ * {@code @Configuration}, so its beans only live in the context of that client and the other Feign
+ * clients keep their defaults.
+ */
+public class DepositClientConfiguration {
+
+  public DepositClientConfiguration() {
+    super();
+  }
+
+  @Bean(destroyMethod = "close")
+  public CloseableHttpClient depositHttpClient(final OnboardingProperties onboardingProperties) {
+    final PoolingHttpClientConnectionManager connectionManager = new PoolingHttpClientConnectionManager();
+    connectionManager.setMaxTotal(onboardingProperties.getMaxConnections());
+    connectionManager.setDefaultMaxPerRoute(onboardingProperties.getMaxConnections());
+    return HttpClients.custom()
+        .setConnectionManager(connectionManager)
+        .setDefaultRequestConfig(RequestConfig.custom()
+            .setConnectTimeout(onboardingProperties.getConnectTimeout())
+            .setSocketTimeout(onboardingProperties.getReadTimeout())
+            .build())
+        .build();
+  }
+
+  @Bean
+  public Client depositFeignClient(final CloseableHttpClient depositHttpClient) {
+    return new ApacheHttpClient(depositHttpClient);
+  }
+
+  @Bean
+  public Request.Options depositRequestOptions(final OnboardingProperties onboardingProperties) {
+    return new Request.Options(onboardingProperties.getConnectTimeout(), onboardingProperties.getReadTimeout());
+  }
+}
@@ -0,0 +1,33 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.rest.config;
+
+import org.apache.fineract.cn.api.util.CustomFeignClientsConfiguration;
+import org.apache.fineract.cn.deposit.api.v1.client.DepositAccountManager;
+import org.springframework.cloud.netflix.feign.FeignClient;
+
+/**
+ * Deposit client used by onboarding. It is registered in place of {@link DepositAccountManager}, so the
+ * connection pool and timeouts of {@link DepositClientConfiguration} apply to the deposit calls only.
+ */
+@FeignClient(name = "deposit-onboarding", path = "/deposit/v1",
+    url = "http://${kubernetes.deposit.service.name}:${kubernetes.deposit.server.port}",
+    configuration = {CustomFeignClientsConfiguration.class, DepositClientConfiguration.class})
+public interface OnboardingDepositAccountManager extends DepositAccountManager {
+}
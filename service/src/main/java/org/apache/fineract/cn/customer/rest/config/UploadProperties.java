@@ -34,6 +34,8 @@ import javax.validation.Valid;
 public class UploadProperties {
   @Valid
   private final Image image = new Image();
+  @Range(min = 0L)
+  private long formFieldsMaxSize;
 
   public static class Image {
     @Range(min = 0L)
@@ -51,4 +53,12 @@ public class UploadProperties {
   public Image getImage() {
     return image;
   }
+
+  public long getFormFieldsMaxSize() {
+    return formFieldsMaxSize;
+  }
+
+  public void setFormFieldsMaxSize(long formFieldsMaxSize) {
+    this.formFieldsMaxSize = formFieldsMaxSize;
+  }
 }
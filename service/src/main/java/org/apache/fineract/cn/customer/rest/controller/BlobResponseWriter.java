@@ -0,0 +1,113 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.rest.controller;
+
+import org.apache.fineract.cn.customer.internal.service.BlobService;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.context.request.ServletWebRequest;
+
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import java.io.IOException;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Writes a stored blob as HTTP response, honoring conditional requests and single byte ranges.
+ *
+ * The strong ETag is the SHA-256 content hash, so it changes exactly when the content does. Last-Modified
+ * is taken from the referencing row, since a deduplicated blob file may be older than the row using it.
+ * Multiple ranges and syntactically invalid ranges are not supported, such requests are answered with
+ * the full content.
+ */
+final class BlobResponseWriter {
+
+  private static final Pattern BYTE_RANGE = Pattern.compile("^bytes=(\\d{0,18})-(\\d{0,18})$");
+
+  private BlobResponseWriter() {
+    super();
+  }
+
+  static void write(final BlobService blobService,
+                    final String blobKey,
+                    final String contentHash,
+                    final String contentType,
+                    final long size,
+                    final LocalDateTime lastModified,
+                    final HttpServletRequest request,
+                    final HttpServletResponse response) throws IOException {
+    if (blobKey == null || !blobService.exists(blobKey)) {
+      throw ServiceException.notFound("Content {0} not found.", contentHash);
+    }
+
+    final String etag = contentHash != null ? "\"" + contentHash + "\"" : null;
+    final long lastModifiedMillis = lastModified != null ? lastModified.toInstant(ZoneOffset.UTC).toEpochMilli() : -1L;
+    if (etag != null
+        && new ServletWebRequest(request, response).checkNotModified(etag, lastModifiedMillis)) {
+      return;
+    }
+
+    response.setHeader(HttpHeaders.ACCEPT_RANGES, "bytes");
+    response.setContentType(contentType);
+
+    final String range = request.getHeader(HttpHeaders.RANGE);
+    final String ifRange = request.getHeader(HttpHeaders.IF_RANGE);
+    if (range == null || (ifRange != null && !ifRange.equals(etag))) {
+      response.setContentLengthLong(size);
+      blobService.transferTo(blobKey, 0L, size, response.getOutputStream());
+      return;
+    }
+
+    final Matcher matcher = BYTE_RANGE.matcher(range.trim());
+    if (!matcher.matches()
+        || (matcher.group(1).isEmpty() && matcher.group(2).isEmpty())
+        || (!matcher.group(1).isEmpty() && !matcher.group(2).isEmpty()
+            && Long.parseLong(matcher.group(1)) > Long.parseLong(matcher.group(2)))) {
+      response.setContentLengthLong(size);
+      blobService.transferTo(blobKey, 0L, size, response.getOutputStream());
+      return;
+    }
+
+    final long start;
+    final long end;
+    if (matcher.group(1).isEmpty()) {
+      start = Math.max(0L, size - Long.parseLong(matcher.group(2)));
+      end = size - 1L;
+    } else {
+      start = Long.parseLong(matcher.group(1));
+      end = matcher.group(2).isEmpty() ? size - 1L : Math.min(Long.parseLong(matcher.group(2)), size - 1L);
+    }
+
+    if (start >= size) {
+      response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes */" + size);
+      response.setStatus(HttpStatus.REQUESTED_RANGE_NOT_SATISFIABLE.value());
+      return;
+    }
+
+    final long length = end - start + 1L;
+    response.setStatus(HttpStatus.PARTIAL_CONTENT.value());
+    response.setHeader(HttpHeaders.CONTENT_RANGE, "bytes " + start + "-" + end + "/" + size);
+    response.setContentLengthLong(length);
+    blobService.transferTo(blobKey, start, length, response.getOutputStream());
+  }
+}
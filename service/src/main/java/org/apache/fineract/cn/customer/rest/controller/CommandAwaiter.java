@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.rest.controller;
+
+import org.apache.fineract.cn.command.gateway.CommandCallback;
+import org.apache.fineract.cn.command.gateway.CommandGateway;
+import org.apache.fineract.cn.customer.internal.service.CommandRejectedException;
+import org.apache.fineract.cn.customer.rest.config.AwaitProperties;
+import org.apache.fineract.cn.lang.ServiceException;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Dispatches commands for endpoints which support {@code Prefer: return=representation} or
+ * {@code ?await=true}.
+ *
+ * When a caller asks for it, the request thread waits for the command to be processed and answers with
+ * the resulting resource. The number of waiting requests is bounded; requests beyond that bound, and
+ * commands not done within the deadline, fall back to {@code 202 Accepted}.
+ */
+@Component
+class CommandAwaiter {
+
+  static final String PREFER = "Prefer";
+  static final String PREFERENCE_APPLIED = "Preference-Applied";
+  static final String RETURN_REPRESENTATION = "return=representation";
+
+  private final CommandGateway commandGateway;
+  private final AwaitProperties awaitProperties;
+  private final Semaphore pending;
+
+  @Autowired
+  CommandAwaiter(final CommandGateway commandGateway,
+                 final AwaitProperties awaitProperties) {
+    super();
+    this.commandGateway = commandGateway;
+    this.awaitProperties = awaitProperties;
+    this.pending = new Semaphore(awaitProperties.getMaxPending());
+  }
+
+  boolean isRequested(final String prefer, final Boolean await) {
+    if (Boolean.TRUE.equals(await)) {
+      return true;
+    }
+    if (prefer != null) {
+      for (final String preference : prefer.split(",")) {
+        if (RETURN_REPRESENTATION.equalsIgnoreCase(preference.trim())) {
+          return true;
+        }
+      }
+    }
+    return false;
+  }
+
+  <T> ResponseEntity<T> process(final Object command,
+                                final boolean await,
+                                final Supplier<ResponseEntity.BodyBuilder> representation,
+                                final Supplier<T> resource) {
+    if (!await || !this.pending.tryAcquire()) {
+      this.commandGateway.process(command);
+      return ResponseEntity.accepted().build();
+    }
+
+    try {
+      final CommandCallback<String> callback = this.commandGateway.process(command, String.class);
+      callback.get(this.awaitProperties.getTimeout(), TimeUnit.MILLISECONDS);
+    } catch (final CommandRejectedException ex) {
+      // answered with 429 by CommandRejectedExceptionHandler
+      throw ex;
+    } catch (final Exception ex) {
+      for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+        if (cause instanceof ServiceException) {
+          throw (ServiceException) cause;
+        }
+        if (cause instanceof TimeoutException) {
+          return ResponseEntity.accepted().build();
+        }
+        if (cause instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+          return ResponseEntity.accepted().build();
+        }
+      }
+      throw ServiceException.internalError("Command {0} failed.", command.getClass().getSimpleName());
+    } finally {
+      this.pending.release();
+    }
+
+    return representation.get()
+        .header(PREFERENCE_APPLIED, RETURN_REPRESENTATION)
+        .body(resource.get());
+  }
+}
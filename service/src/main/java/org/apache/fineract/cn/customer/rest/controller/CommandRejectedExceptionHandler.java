@@ -0,0 +1,54 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.rest.controller;
+
+import org.apache.fineract.cn.customer.ServiceConstants;
+import org.apache.fineract.cn.customer.internal.service.CommandRejectedException;
+import org.slf4j.Logger;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.bind.annotation.ExceptionHandler;
+
+/**
+ * Translates commands the bounded command executor could not admit into {@code 429 Too Many Requests}.
+ */
+@ControllerAdvice
+public class CommandRejectedExceptionHandler {
+
+  private final Logger logger;
+
+  @Autowired
+  public CommandRejectedExceptionHandler(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger) {
+    super();
+    this.logger = logger;
+  }
+
+  @ExceptionHandler(CommandRejectedException.class)
+  public ResponseEntity<String> handleCommandRejected(final CommandRejectedException ex) {
+    this.logger.debug(ex.getMessage());
+    return ResponseEntity
+        .status(HttpStatus.TOO_MANY_REQUESTS)
+        .header(HttpHeaders.RETRY_AFTER, Integer.toString(ex.getRetryAfter()))
+        .body(ex.getMessage());
+  }
+}
@@ -20,12 +20,14 @@ package org.apache.fineract.cn.customer.rest.controller;
 
 import org.apache.fineract.cn.customer.PermittableGroupIds;
 import org.apache.fineract.cn.customer.api.v1.domain.*;
+import org.apache.fineract.cn.customer.api.v1.events.CustomerImportEvent;
 import org.apache.fineract.cn.customer.catalog.internal.service.FieldValueValidator;
 import org.apache.fineract.cn.customer.ServiceConstants;
 import org.apache.fineract.cn.customer.internal.command.ActivateCustomerCommand;
 import org.apache.fineract.cn.customer.internal.command.AddTaskDefinitionToCustomerCommand;
 import org.apache.fineract.cn.customer.internal.command.CloseCustomerCommand;
 import org.apache.fineract.cn.customer.internal.command.CreateCustomerCommand;
+import org.apache.fineract.cn.customer.internal.command.CreateCustomersCommand;
 import org.apache.fineract.cn.customer.internal.command.CreateIdentificationCardCommand;
 import org.apache.fineract.cn.customer.internal.command.CreateIdentificationCardScanCommand;
 import org.apache.fineract.cn.customer.internal.command.CreatePortraitCommand;
@@ -43,27 +45,63 @@ import org.apache.fineract.cn.customer.internal.command.UpdateContactDetailsComm
 import org.apache.fineract.cn.customer.internal.command.UpdateCustomerCommand;
 import org.apache.fineract.cn.customer.internal.command.UpdateIdentificationCardCommand;
 import org.apache.fineract.cn.customer.internal.command.UpdateTaskDefinitionCommand;
+import org.apache.fineract.cn.customer.internal.config.CustomerImportProperties;
+import org.apache.fineract.cn.customer.internal.config.OnboardingProperties;
+import org.apache.fineract.cn.customer.internal.config.ProcessStepProperties;
+import org.apache.fineract.cn.customer.internal.mapper.CustomerFields;
+import org.apache.fineract.cn.customer.internal.repository.IdentificationCardScanEntity;
 import org.apache.fineract.cn.customer.internal.repository.PortraitEntity;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
+import org.apache.fineract.cn.customer.internal.service.BlobService;
+import org.apache.fineract.cn.customer.internal.service.CustomerChangeService;
+import org.apache.fineract.cn.customer.internal.service.CustomerExportService;
+import org.apache.fineract.cn.customer.internal.service.CustomerImportService;
+import org.apache.fineract.cn.customer.internal.service.CustomerProjectionService;
 import org.apache.fineract.cn.customer.internal.service.CustomerService;
+import org.apache.fineract.cn.customer.internal.service.OnboardingService;
 import org.apache.fineract.cn.customer.internal.service.TaskService;
+import org.apache.fineract.cn.customer.rest.config.UploadProperties;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.stream.Collectors;
 import java.util.stream.Stream;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
+import javax.validation.ConstraintViolation;
 import javax.validation.Valid;
+import javax.validation.Validation;
+import javax.validation.Validator;
 import javax.validation.constraints.Size;
 import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
 import org.apache.fineract.cn.api.util.UserContextHolder;
 import org.apache.fineract.cn.command.gateway.CommandGateway;
-import org.apache.fineract.cn.deposit.api.v1.client.DepositAccountManager;
-import org.apache.fineract.cn.deposit.api.v1.instance.domain.ProductInstance;
+import org.apache.fineract.cn.lang.DateConverter;
 import org.apache.fineract.cn.lang.ServiceException;
 import org.apache.fineract.cn.lang.validation.constraints.ValidIdentifier;
 import org.slf4j.Logger;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.beans.factory.annotation.Qualifier;
-import org.springframework.core.env.Environment;
 import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
 import org.springframework.data.domain.Sort;
@@ -71,12 +109,14 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
 import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
+import org.springframework.web.servlet.support.ServletUriComponentsBuilder;
 
 @RestController
 @RequestMapping("/")
@@ -87,8 +127,19 @@ public class CustomerRestController {
   private final CustomerService customerService;
   private final FieldValueValidator fieldValueValidator;
   private final TaskService taskService;
-  private final Environment environment;
-  private final DepositAccountManager depositAccountManager;
+  private final OnboardingService onboardingService;
+  private final CustomerImportService customerImportService;
+  private final CustomerExportService customerExportService;
+  private final CustomerChangeService customerChangeService;
+  private final CustomerProjectionService customerProjectionService;
+  private final BlobService blobService;
+  private final UploadProperties uploadProperties;
+  private final CustomerImportProperties customerImportProperties;
+  private final OnboardingProperties onboardingProperties;
+  private final ProcessStepProperties processStepProperties;
+  private final ObjectMapper objectMapper;
+  private final CommandAwaiter commandAwaiter;
+  private final Validator validator;
 
   @Autowired
   public CustomerRestController(@Qualifier(ServiceConstants.LOGGER_NAME) final Logger logger,
@@ -96,16 +147,37 @@ public class CustomerRestController {
                                 final CustomerService customerService,
                                 final FieldValueValidator fieldValueValidator,
                                 final TaskService taskService,
-                                final Environment environment,
-                                final DepositAccountManager depositAccountManager) {
+                                final OnboardingService onboardingService,
+                                final CustomerImportService customerImportService,
+                                final CustomerExportService customerExportService,
+                                final CustomerChangeService customerChangeService,
+                                final CustomerProjectionService customerProjectionService,
+                                final BlobService blobService,
+                                final UploadProperties uploadProperties,
+                                final CustomerImportProperties customerImportProperties,
+                                final OnboardingProperties onboardingProperties,
+                                final ProcessStepProperties processStepProperties,
+                                final ObjectMapper objectMapper,
+                                final CommandAwaiter commandAwaiter) {
     super();
     this.logger = logger;
     this.commandGateway = commandGateway;
     this.customerService = customerService;
     this.fieldValueValidator = fieldValueValidator;
     this.taskService = taskService;
-    this.environment = environment;
-    this.depositAccountManager = depositAccountManager;
+    this.onboardingService = onboardingService;
+    this.customerImportService = customerImportService;
+    this.customerExportService = customerExportService;
+    this.customerChangeService = customerChangeService;
+    this.customerProjectionService = customerProjectionService;
+    this.blobService = blobService;
+    this.uploadProperties = uploadProperties;
+    this.customerImportProperties = customerImportProperties;
+    this.onboardingProperties = onboardingProperties;
+    this.processStepProperties = processStepProperties;
+    this.objectMapper = objectMapper;
+    this.commandAwaiter = commandAwaiter;
+    this.validator = Validation.buildDefaultValidatorFactory().getValidator();
   }
 
   @Permittable(value = AcceptedTokenType.SYSTEM)
@@ -131,7 +203,9 @@ public class CustomerRestController {
   )
   public
   @ResponseBody
-  ResponseEntity<Void> createCustomer(@RequestBody @Valid final Customer customer) throws InterruptedException {
+  ResponseEntity<Customer> createCustomer(@RequestBody @Valid final Customer customer,
+                                          @RequestHeader(value = CommandAwaiter.PREFER, required = false) final String prefer,
+                                          @RequestParam(value = "await", required = false) final Boolean await) throws InterruptedException {
     if (this.customerService.customerExists(customer.getIdentifier())) {
       throw ServiceException.conflict("Customer {0} already exists.", customer.getIdentifier());
     }
@@ -140,9 +214,43 @@ public class CustomerRestController {
       this.fieldValueValidator.validateValues(customer.getCustomValues());
     }
 
-    this.commandGateway.process(new CreateCustomerCommand(customer));
+    return this.commandAwaiter.process(new CreateCustomerCommand(customer),
+        this.commandAwaiter.isRequested(prefer, await),
+        () -> ResponseEntity.created(ServletUriComponentsBuilder.fromCurrentRequestUri()
+            .path("/{identifier}").buildAndExpand(customer.getIdentifier()).toUri()),
+        () -> this.findCustomerOrThrow(customer.getIdentifier()));
+  }
 
-    return ResponseEntity.accepted().build();
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
+  @RequestMapping(
+      value = "/customers/bulk",
+      method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = {MediaType.APPLICATION_JSON_VALUE, ServiceConstants.NDJSON_MEDIA_TYPE}
+  )
+  public
+  @ResponseBody
+  ResponseEntity<CustomerImportReport> createCustomers(final HttpServletRequest request) throws Exception {
+    final List<Customer> customers = this.readCustomers(request);
+    if (customers.size() > this.customerImportProperties.getMaxRows()) {
+      throw ServiceException.badRequest("Bulk import is limited to {0} customers.",
+          this.customerImportProperties.getMaxRows());
+    }
+
+    final List<CustomerImportResult> results = this.customerImportService.validate(customers);
+    final List<Customer> acceptedCustomers = results
+        .stream()
+        .filter(result -> result.getStatus().equals(CustomerImportResult.Status.CREATED.name()))
+        .map(result -> customers.get(result.getIndex()))
+        .collect(Collectors.toList());
+
+    final boolean done = acceptedCustomers.isEmpty() || this.awaitImport(acceptedCustomers);
+
+    final CustomerImportReport customerImportReport = new CustomerImportReport();
+    customerImportReport.setCreated(acceptedCustomers.size());
+    customerImportReport.setRejected(customers.size() - acceptedCustomers.size());
+    customerImportReport.setResults(results);
+    return done ? ResponseEntity.ok(customerImportReport) : ResponseEntity.accepted().body(customerImportReport);
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
@@ -155,33 +263,95 @@ public class CustomerRestController {
   public
   @ResponseBody
   ResponseEntity<Void> createPerson(@RequestBody @Valid final NonPerson nonPerson) throws InterruptedException {
-    Customer customer = new Customer();
-    customer.setIdentifier(nonPerson.getAccountNumber());
-    customer.setType(Customer.Type.PERSON.name());
-    customer.setCurrentState(Customer.State.PENDING.name());
-    customer.setMember(false);
+    final Customer customer = this.createOnboardingCustomer(nonPerson, Customer.Type.PERSON);
     if (this.customerService.customerExists(customer.getIdentifier())) {
       throw ServiceException.conflict("Customer {0} already exists.", customer.getIdentifier());
     }
 
-    this.commandGateway.process(new CreateCustomerCommand(customer));
+    this.onboardingService.onboard(customer, nonPerson.getProductIdentifier(), nonPerson.isActive());
 
-    ProductInstance productInstance = new ProductInstance();
-    productInstance.setProductIdentifier(nonPerson.getProductIdentifier());
-    productInstance.setCustomerIdentifier(customer.getIdentifier());
-    productInstance.setAccountIdentifier(customer.getIdentifier());
-    //create account
-    depositAccountManager.create(productInstance);
+    return ResponseEntity.accepted().build();
+  }
 
-    //activate
-    if(nonPerson.isActive()){
-      this.commandGateway.process(new ActivateCustomerCommand(nonPerson.getAccountNumber(), "ACTIVATE"));
-      this.depositAccountManager.postProductInstanceCommand(customer.getIdentifier(), "ACTIVATE");
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
+  @RequestMapping(
+          value = "/person/batch",
+          method = RequestMethod.POST,
+          produces = MediaType.APPLICATION_JSON_VALUE,
+          consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  public
+  @ResponseBody
+  ResponseEntity<CustomerImportReport> createPersons(@RequestBody final List<NonPerson> nonPersons) {
+    if (nonPersons.size() > this.onboardingProperties.getBatchMaxSize()) {
+      throw ServiceException.badRequest("Batch onboarding is limited to {0} persons.",
+          this.onboardingProperties.getBatchMaxSize());
     }
 
-    return ResponseEntity.accepted().build();
-  }
+    // @Valid does not cascade into the elements of a list body, so every person is validated on its own
+    final List<String> violations = nonPersons
+        .stream()
+        .map(this::findViolation)
+        .collect(Collectors.toList());
+    final List<Customer> customers = new ArrayList<>(nonPersons.size());
+    for (int index = 0; index < nonPersons.size(); index++) {
+      customers.add(violations.get(index) == null
+          ? this.createOnboardingCustomer(nonPersons.get(index), Customer.Type.PERSON)
+          : null);
+    }
+    final Set<String> claimedIdentifiers = this.customerService.findExistingIdentifiers(customers
+        .stream()
+        .filter(customer -> customer != null)
+        .map(Customer::getIdentifier)
+        .collect(Collectors.toList()));
+
+    final List<CustomerImportResult> results = new ArrayList<>(nonPersons.size());
+    final int parallelism = this.onboardingProperties.getBatchParallelism();
+    for (int offset = 0; offset < nonPersons.size(); offset += parallelism) {
+      final List<CompletableFuture<CustomerImportResult>> window = new ArrayList<>(parallelism);
+      for (int index = offset; index < Math.min(offset + parallelism, nonPersons.size()); index++) {
+        final CustomerImportResult result = new CustomerImportResult();
+        result.setIndex(index);
+        if (violations.get(index) != null) {
+          result.setStatus(CustomerImportResult.Status.REJECTED.name());
+          result.setMessage(violations.get(index));
+          window.add(CompletableFuture.completedFuture(result));
+          continue;
+        }
+        result.setIdentifier(customers.get(index).getIdentifier());
+        if (!claimedIdentifiers.add(result.getIdentifier())) {
+          result.setStatus(CustomerImportResult.Status.REJECTED.name());
+          result.setMessage("Customer " + result.getIdentifier() + " already exists.");
+          window.add(CompletableFuture.completedFuture(result));
+        } else {
+          final NonPerson nonPerson = nonPersons.get(index);
+          window.add(this.onboardingService
+              .onboardAsync(customers.get(index), nonPerson.getProductIdentifier(), nonPerson.isActive())
+              .handle((ignored, throwable) -> {
+                if (throwable == null) {
+                  result.setStatus(CustomerImportResult.Status.CREATED.name());
+                } else {
+                  result.setStatus(CustomerImportResult.Status.REJECTED.name());
+                  result.setMessage((throwable instanceof CompletionException ? throwable.getCause() : throwable).getMessage());
+                }
+                return result;
+              }));
+        }
+      }
+      for (final CompletableFuture<CustomerImportResult> future : window) {
+        results.add(future.join());
+      }
+    }
 
+    final CustomerImportReport customerImportReport = new CustomerImportReport();
+    customerImportReport.setCreated((int) results
+        .stream()
+        .filter(result -> result.getStatus().equals(CustomerImportResult.Status.CREATED.name()))
+        .count());
+    customerImportReport.setRejected(results.size() - customerImportReport.getCreated());
+    customerImportReport.setResults(results);
+    return ResponseEntity.ok(customerImportReport);
+  }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
   @RequestMapping(
@@ -193,28 +363,13 @@ public class CustomerRestController {
   public
   @ResponseBody
   ResponseEntity<Void> createNonPerson(@RequestBody @Valid final NonPerson nonPerson) throws InterruptedException {
-    Customer customer = new Customer();
-    customer.setIdentifier(nonPerson.getAccountNumber());
-    customer.setType(Customer.Type.BUSINESS.name());
-    customer.setCurrentState(Customer.State.PENDING.name());
-    customer.setMember(false);
+    final Customer customer = this.createOnboardingCustomer(nonPerson, Customer.Type.BUSINESS);
     if (this.customerService.customerExists(customer.getIdentifier())) {
       throw ServiceException.conflict("Customer {0} already exists.", customer.getIdentifier());
     }
 
-    this.commandGateway.process(new CreateCustomerCommand(customer));
+    this.onboardingService.onboard(customer, nonPerson.getProductIdentifier(), nonPerson.isActive());
 
-    ProductInstance productInstance = new ProductInstance();
-    productInstance.setProductIdentifier(nonPerson.getProductIdentifier());
-    productInstance.setCustomerIdentifier(customer.getIdentifier());
-    productInstance.setAccountIdentifier(customer.getIdentifier());
-    //create account
-    depositAccountManager.create(productInstance);
-    //activate
-    if(nonPerson.isActive()){
-      this.commandGateway.process(new ActivateCustomerCommand(customer.getIdentifier(), "ACTIVATE"));
-      this.depositAccountManager.postProductInstanceCommand(customer.getIdentifier(), "ACTIVATE");
-    }
     return ResponseEntity.accepted().build();
   }
 
@@ -232,10 +387,120 @@ public class CustomerRestController {
                                               @RequestParam(value = "pageIndex", required = false) final Integer pageIndex,
                                               @RequestParam(value = "size", required = false) final Integer size,
                                               @RequestParam(value = "sortColumn", required = false) final String sortColumn,
-                                              @RequestParam(value = "sortDirection", required = false) final String sortDirection) {
+                                              @RequestParam(value = "sortDirection", required = false) final String sortDirection,
+                                              @RequestParam(value = "cursor", required = false) final String cursor,
+                                              @RequestParam(value = "withTotals", required = false) final Boolean withTotals,
+                                              @RequestParam(value = "fields", required = false) final String fields) {
     return ResponseEntity.ok(this.customerService.fetchCustomer(
         term, (includeClosed != null ? includeClosed : Boolean.FALSE),
-        this.createPageRequest(pageIndex, size, sortColumn, sortDirection)));
+        this.createPageRequest(pageIndex, size, sortColumn, sortDirection),
+        cursor, (withTotals != null ? withTotals : Boolean.TRUE), CustomerFields.parseListing(fields)));
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
+  @RequestMapping(
+      value = "/customers:export",
+      method = RequestMethod.GET,
+      produces = ServiceConstants.NDJSON_MEDIA_TYPE,
+      consumes = MediaType.ALL_VALUE
+  )
+  public
+  void exportCustomers(@RequestParam(value = "modifiedSince", required = false) final String modifiedSince,
+                       @RequestParam(value = "includeDetails", required = false) final Boolean includeDetails,
+                       final HttpServletResponse response) throws IOException {
+    final LocalDateTime modifiedSinceDateTime;
+    try {
+      modifiedSinceDateTime = modifiedSince != null ? DateConverter.fromIsoString(modifiedSince) : null;
+    } catch (final DateTimeParseException ex) {
+      throw ServiceException.badRequest("Invalid modifiedSince {0}.", modifiedSince);
+    }
+
+    response.setContentType(ServiceConstants.NDJSON_MEDIA_TYPE);
+    response.setCharacterEncoding(StandardCharsets.UTF_8.name());
+    final OutputStream outputStream = response.getOutputStream();
+    try {
+      this.customerExportService.export(modifiedSinceDateTime, includeDetails != null ? includeDetails : Boolean.FALSE,
+          customer -> {
+            try {
+              outputStream.write(this.objectMapper.writeValueAsBytes(customer));
+              outputStream.write('\n');
+            } catch (final IOException ex) {
+              throw new UncheckedIOException(ex);
+            }
+          });
+    } catch (final UncheckedIOException ex) {
+      throw ex.getCause();
+    }
+    outputStream.flush();
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
+  @RequestMapping(
+      value = "/customers:batchGet",
+      method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  public
+  @ResponseBody
+  ResponseEntity<List<Customer>> findCustomers(@RequestBody final List<String> identifiers,
+                                               @RequestParam(value = "fields", required = false) final String fields) {
+    if (identifiers.size() > ServiceConstants.CUSTOMER_BATCH_GET_LIMIT) {
+      throw ServiceException.badRequest("At most {0} customers can be fetched at once.",
+          ServiceConstants.CUSTOMER_BATCH_GET_LIMIT);
+    }
+    return ResponseEntity.ok(
+        this.customerService.findCustomers(new LinkedHashSet<>(identifiers), CustomerFields.parse(fields)));
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
+  @RequestMapping(
+      value = "/customers:changes",
+      method = RequestMethod.GET,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.ALL_VALUE
+  )
+  public
+  @ResponseBody
+  ResponseEntity<CustomerChangePage> fetchCustomerChanges(@RequestParam(value = "after", required = false) final Long after,
+                                                          @RequestParam(value = "limit", required = false) final Integer limit) {
+    if (after != null && after < 0L) {
+      throw ServiceException.badRequest("Invalid offset {0}.", after);
+    }
+    if (limit != null && (limit < 1 || limit > ServiceConstants.CUSTOMER_CHANGES_MAX_LIMIT)) {
+      throw ServiceException.badRequest("Limit must be between 1 and {0}.", ServiceConstants.CUSTOMER_CHANGES_MAX_LIMIT);
+    }
+    return ResponseEntity.ok(this.customerChangeService.fetchChanges(
+        after != null ? after : 0L,
+        limit != null ? limit : ServiceConstants.CUSTOMER_CHANGES_DEFAULT_LIMIT));
+  }
+
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
+  @RequestMapping(
+      value = "/customers:statistics",
+      method = RequestMethod.GET,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.ALL_VALUE
+  )
+  public
+  @ResponseBody
+  ResponseEntity<CustomerStatistics> fetchCustomerStatistics(@RequestParam(value = "groupBy") final String groupBy,
+                                                             @RequestParam(value = "catalog", required = false) final String catalog,
+                                                             @RequestParam(value = "field", required = false) final String field,
+                                                             @RequestParam(value = "cohortYears", required = false) final Integer cohortYears) {
+    final List<String> dimensions = Arrays.stream(groupBy.split(","))
+        .map(String::trim)
+        .filter(dimension -> !dimension.isEmpty())
+        .collect(Collectors.toList());
+    if (dimensions.isEmpty() || dimensions.size() > ServiceConstants.CUSTOMER_STATISTICS_MAX_DIMENSIONS) {
+      throw ServiceException.badRequest("Between 1 and {0} dimensions required.",
+          ServiceConstants.CUSTOMER_STATISTICS_MAX_DIMENSIONS);
+    }
+    if (cohortYears != null && (cohortYears < 1 || cohortYears > 100)) {
+      throw ServiceException.badRequest("Cohort years must be between 1 and 100.");
+    }
+    return ResponseEntity.ok(this.customerProjectionService.fetchStatistics(dimensions, catalog, field,
+        cohortYears != null ? cohortYears : ServiceConstants.CUSTOMER_STATISTICS_DEFAULT_COHORT_YEARS));
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
@@ -248,12 +513,7 @@ public class CustomerRestController {
   public
   @ResponseBody
   ResponseEntity<Customer> findCustomer(@PathVariable("identifier") final String identifier) {
-    final Optional<Customer> customer = this.customerService.findCustomer(identifier);
-    if (customer.isPresent()) {
-      return ResponseEntity.ok(customer.get());
-    } else {
-      throw ServiceException.notFound("Customer {0} not found.", identifier);
-    }
+    return ResponseEntity.ok(this.findCustomerOrThrow(identifier));
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
@@ -265,17 +525,21 @@ public class CustomerRestController {
   )
   public
   @ResponseBody
-  ResponseEntity<Void> updateCustomer(@PathVariable("identifier") final String identifier,
-                                      @RequestBody final Customer customer) {
+  ResponseEntity<Customer> updateCustomer(@PathVariable("identifier") final String identifier,
+                                          @RequestBody final Customer customer,
+                                          @RequestHeader(value = CommandAwaiter.PREFER, required = false) final String prefer,
+                                          @RequestParam(value = "await", required = false) final Boolean await) {
     if (this.customerService.customerExists(identifier)) {
       if (customer.getCustomValues() != null) {
         this.fieldValueValidator.validateValues(customer.getCustomValues());
       }
-      this.commandGateway.process(new UpdateCustomerCommand(customer));
+      return this.commandAwaiter.process(new UpdateCustomerCommand(customer),
+          this.commandAwaiter.isRequested(prefer, await),
+          ResponseEntity::ok,
+          () -> this.findCustomerOrThrow(identifier));
     } else {
       throw ServiceException.notFound("Customer {0} not found.", identifier);
     }
-    return ResponseEntity.accepted().build();
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
@@ -287,44 +551,53 @@ public class CustomerRestController {
   )
   public
   @ResponseBody
-  ResponseEntity<Void> customerCommand(@PathVariable("identifier") final String identifier,
-                                       @RequestBody final Command command) {
+  ResponseEntity<Customer> customerCommand(@PathVariable("identifier") final String identifier,
+                                           @RequestBody final Command command,
+                                           @RequestHeader(value = CommandAwaiter.PREFER, required = false) final String prefer,
+                                           @RequestParam(value = "await", required = false) final Boolean await) {
     final Optional<Customer> customerOptional = this.customerService.findCustomer(identifier);
     if (customerOptional.isPresent()) {
       final Customer customer = customerOptional.get();
       final Command.Action action = Command.Action.valueOf(command.getAction());
       final String currentState = customer.getCurrentState();
+      Object customerCommand = null;
       switch (action) {
         case ACTIVATE:
           if (Customer.State.PENDING.name().equals(currentState)) {
-            this.commandGateway.process(new ActivateCustomerCommand(identifier, command.getComment()));
+            customerCommand = new ActivateCustomerCommand(identifier, command.getComment());
           }
           break;
         case LOCK:
           if (Customer.State.ACTIVE.name().equals(currentState)) {
-            this.commandGateway.process(new LockCustomerCommand(identifier, command.getComment()));
+            customerCommand = new LockCustomerCommand(identifier, command.getComment());
           }
           break;
         case UNLOCK:
           if (Customer.State.LOCKED.name().equals(currentState)) {
-            this.commandGateway.process(new UnlockCustomerCommand(identifier, command.getComment()));
+            customerCommand = new UnlockCustomerCommand(identifier, command.getComment());
           }
           break;
         case CLOSE:
           if (Customer.State.ACTIVE.name().equals(currentState)
               || Customer.State.LOCKED.name().equals(currentState)
               || Customer.State.PENDING.name().equals(currentState)) {
-            this.commandGateway.process(new CloseCustomerCommand(identifier, command.getComment()));
+            customerCommand = new CloseCustomerCommand(identifier, command.getComment());
           }
           break;
         case REOPEN:
           if (Customer.State.CLOSED.name().equals(currentState)) {
-            this.commandGateway.process(new ReopenCustomerCommand(identifier, command.getComment()));
+            customerCommand = new ReopenCustomerCommand(identifier, command.getComment());
           }
           break;
         default:
           throw ServiceException.badRequest("Unsupported action {0}.", command.getAction());
       }
+      if (customerCommand != null) {
+        return this.commandAwaiter.process(customerCommand,
+            this.commandAwaiter.isRequested(prefer, await),
+            ResponseEntity::ok,
+            () -> this.findCustomerOrThrow(identifier));
+      }
     } else {
       throw ServiceException.notFound("Customer {0} not found.", identifier);
     }
@@ -438,14 +711,18 @@ public class CustomerRestController {
   )
   public
   @ResponseBody
-  ResponseEntity<Void> putAddress(@PathVariable("identifier") final String identifier,
-                                  @RequestBody @Valid final Address address) {
+  ResponseEntity<Customer> putAddress(@PathVariable("identifier") final String identifier,
+                                      @RequestBody @Valid final Address address,
+                                      @RequestHeader(value = CommandAwaiter.PREFER, required = false) final String prefer,
+                                      @RequestParam(value = "await", required = false) final Boolean await) {
     if (this.customerService.customerExists(identifier)) {
-      this.commandGateway.process(new UpdateAddressCommand(identifier, address));
+      return this.commandAwaiter.process(new UpdateAddressCommand(identifier, address),
+          this.commandAwaiter.isRequested(prefer, await),
+          ResponseEntity::ok,
+          () -> this.findCustomerOrThrow(identifier));
     } else {
       throw ServiceException.notFound("Customer {0} not found.", identifier);
     }
-    return ResponseEntity.accepted().build();
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
@@ -457,14 +734,18 @@ public class CustomerRestController {
   )
   public
   @ResponseBody
-  ResponseEntity<Void> putContactDetails(@PathVariable("identifier") final String identifier,
-                                         @RequestBody final List<ContactDetail> contactDetails) {
+  ResponseEntity<Customer> putContactDetails(@PathVariable("identifier") final String identifier,
+                                             @RequestBody final List<ContactDetail> contactDetails,
+                                             @RequestHeader(value = CommandAwaiter.PREFER, required = false) final String prefer,
+                                             @RequestParam(value = "await", required = false) final Boolean await) {
     if (this.customerService.customerExists(identifier)) {
-      this.commandGateway.process(new UpdateContactDetailsCommand(identifier, contactDetails));
+      return this.commandAwaiter.process(new UpdateContactDetailsCommand(identifier, contactDetails),
+          this.commandAwaiter.isRequested(prefer, await),
+          ResponseEntity::ok,
+          () -> this.findCustomerOrThrow(identifier));
     } else {
       throw ServiceException.notFound("Customer {0} not found.", identifier);
     }
-    return ResponseEntity.accepted().build();
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.IDENTIFICATIONS)
@@ -615,18 +896,20 @@ public class CustomerRestController {
           consumes = MediaType.ALL_VALUE
   )
   public
-  @ResponseBody
-  ResponseEntity<byte[]> fetchIdentificationCardScanImage(@PathVariable("identifier") final String identifier,
-                                          @PathVariable("number") final String number,
-                                          @PathVariable("scanIdentifier") final String scanIdentifier) {
+  void fetchIdentificationCardScanImage(@PathVariable("identifier") final String identifier,
+                                        @PathVariable("number") final String number,
+                                        @PathVariable("scanIdentifier") final String scanIdentifier,
+                                        final HttpServletRequest request,
+                                        final HttpServletResponse response) throws IOException {
     this.throwIfCustomerNotExists(identifier);
     this.throwIfIdentificationCardNotExists(number);
     this.throwIfIdentificationCardScanNotExists(number, scanIdentifier);
 
-    final Optional<byte[]> image = this.customerService.findIdentificationCardScanImage(number, scanIdentifier);
-
-    return image.map(ResponseEntity::ok)
+    final IdentificationCardScanEntity scan = this.customerService.findIdentificationCardScanImage(number, scanIdentifier)
             .orElseThrow(() -> ServiceException.notFound("Identification card scan {0} not found.", number));
+
+    BlobResponseWriter.write(this.blobService, scan.getBlobKey(), scan.getContentHash(), scan.getContentType(),
+        scan.getSize(), scan.getCreatedOn(), request, response);
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.IDENTIFICATIONS)
@@ -644,18 +927,23 @@ public class CustomerRestController {
                                   @RequestBody final MultipartFile image) throws Exception {
     this.throwIfCustomerNotExists(identifier);
     this.throwIfIdentificationCardNotExists(number);
-    this.throwIfInvalidSize(image.getSize());
-    this.throwIfInvalidContentType(image.getContentType());
 
     if (this.customerService.identificationCardScanExists(number, scanIdentifier)) {
       throw ServiceException.conflict("Scan {0} already exists.", scanIdentifier);
     }
 
+    final SpooledUpload spooledImage = this.spoolImage(image);
+
     final IdentificationCardScan scan = new IdentificationCardScan();
     scan.setIdentifier(scanIdentifier);
     scan.setDescription(description);
 
-    this.commandGateway.process(new CreateIdentificationCardScanCommand(number, scan, image));
+    try {
+      this.commandGateway.process(new CreateIdentificationCardScanCommand(number, scan, spooledImage));
+    } catch (final RuntimeException ex) {
+      this.blobService.discard(spooledImage);
+      throw ex;
+    }
 
     return ResponseEntity.accepted().build();
   }
@@ -686,15 +974,14 @@ public class CustomerRestController {
       method = RequestMethod.GET,
       consumes = MediaType.ALL_VALUE
   )
-  public ResponseEntity<byte[]> getPortrait(@PathVariable("identifier") final String identifier) {
+  public void getPortrait(@PathVariable("identifier") final String identifier,
+                          final HttpServletRequest request,
+                          final HttpServletResponse response) throws IOException {
     final PortraitEntity portrait = this.customerService.findPortrait(identifier)
         .orElseThrow(() -> ServiceException.notFound("Portrait for Customer ''{0}'' not found.", identifier));
 
-    return ResponseEntity
-            .ok()
-            .contentType(MediaType.parseMediaType(portrait.getContentType()))
-            .contentLength(portrait.getImage().length)
-            .body(portrait.getImage());
+    BlobResponseWriter.write(this.blobService, portrait.getBlobKey(), portrait.getContentHash(),
+        portrait.getContentType(), portrait.getSize(), portrait.getCreatedOn(), request, response);
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.PORTRAIT)
@@ -705,14 +992,16 @@ public class CustomerRestController {
       consumes = MediaType.MULTIPART_FORM_DATA_VALUE
   )
   public @ResponseBody ResponseEntity<Void> postPortrait(@PathVariable("identifier") final String identifier,
-                                          @RequestBody final MultipartFile portrait) {
+                                          @RequestBody final MultipartFile portrait,
+                                          @RequestHeader(value = CommandAwaiter.PREFER, required = false) final String prefer,
+                                          @RequestParam(value = "await", required = false) final Boolean await) throws IOException {
     if(portrait == null) {
       throw ServiceException.badRequest("Portrait not found");
     }
 
     this.throwIfCustomerNotExists(identifier);
-    this.throwIfInvalidSize(portrait.getSize());
-    this.throwIfInvalidContentType(portrait.getContentType());
+
+    final SpooledUpload spooledPortrait = this.spoolImage(portrait);
 
     try {
       this.commandGateway.process(new DeletePortraitCommand(identifier), String.class).get();
@@ -720,9 +1009,15 @@ public class CustomerRestController {
       logger.warn("Could not delete portrait: {0}", e.getMessage());
     }
 
-    this.commandGateway.process(new CreatePortraitCommand(identifier, portrait));
-
-    return ResponseEntity.accepted().build();
+    try {
+      return this.commandAwaiter.process(new CreatePortraitCommand(identifier, spooledPortrait),
+          this.commandAwaiter.isRequested(prefer, await),
+          ResponseEntity::ok,
+          () -> null);
+    } catch (final RuntimeException ex) {
+      this.blobService.discard(spooledPortrait);
+      throw ex;
+    }
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.PORTRAIT)
@@ -819,6 +1114,103 @@ public class CustomerRestController {
     return ResponseEntity.ok(this.customerService.getProcessSteps(customerIdentifier));
   }
 
+  @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.CUSTOMER)
+  @RequestMapping(
+      value = "/customers/actions:batch",
+      method = RequestMethod.POST,
+      produces = MediaType.APPLICATION_JSON_VALUE,
+      consumes = MediaType.APPLICATION_JSON_VALUE
+  )
+  public
+  @ResponseBody
+  ResponseEntity<Map<String, List<ProcessStep>>> fetchProcessSteps(@RequestBody final List<String> customerIdentifiers) {
+    if (customerIdentifiers.size() > this.processStepProperties.getMaxBatchSize()) {
+      throw ServiceException.badRequest("Process steps can be fetched for at most {0} customers.",
+          this.processStepProperties.getMaxBatchSize());
+    }
+    return ResponseEntity.ok(this.customerService.getProcessSteps(new LinkedHashSet<>(customerIdentifiers)));
+  }
+
+  /**
+   * Returns false if the import is still running after {@code bulk.customer.timeout}. It is not
+   * cancelled then; the validated report is answered with {@code 202 Accepted}.
+   */
+  private boolean awaitImport(final List<Customer> acceptedCustomers) throws Exception {
+    try {
+      this.commandGateway.process(new CreateCustomersCommand(acceptedCustomers), CustomerImportEvent.class)
+          .get(this.customerImportProperties.getTimeout(), TimeUnit.MILLISECONDS);
+      return true;
+    } catch (final Exception ex) {
+      for (Throwable cause = ex; cause != null; cause = cause.getCause()) {
+        if (cause instanceof TimeoutException) {
+          return false;
+        }
+        if (cause instanceof InterruptedException) {
+          Thread.currentThread().interrupt();
+          return false;
+        }
+      }
+      throw ex;
+    }
+  }
+
+  private Customer findCustomerOrThrow(final String identifier) {
+    return this.customerService.findCustomer(identifier)
+        .orElseThrow(() -> ServiceException.notFound("Customer {0} not found.", identifier));
+  }
+
+  private String findViolation(final NonPerson nonPerson) {
+    if (nonPerson == null) {
+      return "Person must not be null.";
+    }
+    final Set<ConstraintViolation<NonPerson>> constraintViolations = this.validator.validate(nonPerson);
+    if (constraintViolations.isEmpty()) {
+      return null;
+    }
+    return constraintViolations
+        .stream()
+        .map(constraintViolation -> constraintViolation.getPropertyPath() + " " + constraintViolation.getMessage())
+        .collect(Collectors.joining(", "));
+  }
+
+  private Customer createOnboardingCustomer(final NonPerson nonPerson, final Customer.Type type) {
+    final Customer customer = new Customer();
+    customer.setIdentifier(nonPerson.getAccountNumber());
+    customer.setType(type.name());
+    customer.setCurrentState(Customer.State.PENDING.name());
+    customer.setMember(false);
+    return customer;
+  }
+
+  private List<Customer> readCustomers(final HttpServletRequest request) throws IOException {
+    final String contentType = request.getContentType();
+    if (contentType != null && contentType.startsWith(ServiceConstants.NDJSON_MEDIA_TYPE)) {
+      final ArrayList<Customer> customers = new ArrayList<>();
+      final BufferedReader reader =
+          new BufferedReader(new InputStreamReader(request.getInputStream(), StandardCharsets.UTF_8));
+      String line;
+      int lineNumber = 0;
+      while ((line = reader.readLine()) != null) {
+        lineNumber++;
+        if (line.trim().isEmpty()) {
+          continue;
+        }
+        try {
+          customers.add(this.objectMapper.readValue(line, Customer.class));
+        } catch (final JsonProcessingException ex) {
+          throw ServiceException.badRequest("Line {0} is not a valid customer.", lineNumber);
+        }
+      }
+      return customers;
+    }
+
+    try {
+      return this.objectMapper.readValue(request.getInputStream(), new TypeReference<List<Customer>>() { });
+    } catch (final JsonProcessingException ex) {
+      throw ServiceException.badRequest("Request body is not a valid list of customers.");
+    }
+  }
+
   private Pageable createPageRequest(final Integer pageIndex, final Integer size, final String sortColumn, final String sortDirection) {
     final Integer pageIndexToUse = pageIndex != null ? pageIndex : 0;
     final Integer sizeToUse = size != null ? size : 20;
@@ -845,12 +1237,16 @@ public class CustomerRestController {
     }
   }
 
-  private void throwIfInvalidSize(final Long size) {
-    final Long maxSize = this.environment.getProperty("upload.image.max-size", Long.class);
-
-    if(size > maxSize) {
-      throw ServiceException.badRequest("Image can''t exceed size of {0}", maxSize);
+  private SpooledUpload spoolImage(final MultipartFile image) throws IOException {
+    final SpooledUpload spooledUpload =
+        this.blobService.spool(image, this.uploadProperties.getImage().getMaxSize());
+    try {
+      this.throwIfInvalidContentType(spooledUpload.getContentType());
+    } catch (final ServiceException ex) {
+      this.blobService.discard(spooledUpload);
+      throw ex;
     }
+    return spooledUpload;
   }
 
   private void throwIfInvalidContentType(final String contentType) {
@@ -27,10 +27,16 @@ import org.apache.fineract.cn.customer.internal.command.CreateDocumentPageComman
 import org.apache.fineract.cn.customer.internal.command.DeleteDocumentCommand;
 import org.apache.fineract.cn.customer.internal.command.DeleteDocumentPageCommand;
 import org.apache.fineract.cn.customer.internal.repository.DocumentPageEntity;
+import org.apache.fineract.cn.customer.internal.repository.SpooledUpload;
+import org.apache.fineract.cn.customer.internal.service.BlobService;
 import org.apache.fineract.cn.customer.internal.service.CustomerService;
 import org.apache.fineract.cn.customer.internal.service.DocumentService;
+import org.apache.fineract.cn.customer.rest.config.UploadProperties;
+import java.io.IOException;
 import java.util.List;
 import java.util.stream.Collectors;
+import javax.servlet.http.HttpServletRequest;
+import javax.servlet.http.HttpServletResponse;
 import javax.validation.Valid;
 import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
 import org.apache.fineract.cn.anubis.annotation.Permittable;
@@ -42,8 +48,10 @@ import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.PathVariable;
 import org.springframework.web.bind.annotation.RequestBody;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.RequestParam;
 import org.springframework.web.bind.annotation.ResponseBody;
 import org.springframework.web.bind.annotation.RestController;
 import org.springframework.web.multipart.MultipartFile;
@@ -57,15 +65,24 @@ public class DocumentsRestController {
   private final CommandGateway commandGateway;
   private final CustomerService customerService;
   private final DocumentService documentService;
+  private final BlobService blobService;
+  private final UploadProperties uploadProperties;
+  private final CommandAwaiter commandAwaiter;
 
   @Autowired
   public DocumentsRestController(
       final CommandGateway commandGateway,
       final CustomerService customerService,
-      final DocumentService documentService) {
+      final DocumentService documentService,
+      final BlobService blobService,
+      final UploadProperties uploadProperties,
+      final CommandAwaiter commandAwaiter) {
     this.commandGateway = commandGateway;
     this.customerService = customerService;
     this.documentService = documentService;
+    this.blobService = blobService;
+    this.uploadProperties = uploadProperties;
+    this.commandAwaiter = commandAwaiter;
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.DOCUMENTS)
@@ -220,19 +237,19 @@ public class DocumentsRestController {
       produces = MediaType.APPLICATION_JSON_VALUE,
       consumes = MediaType.ALL_VALUE
   )
-  public ResponseEntity<byte[]> getDocumentPage(
+  public void getDocumentPage(
       @PathVariable("customeridentifier") final String customerIdentifier,
       @PathVariable("documentidentifier") final String documentIdentifier,
-      @PathVariable("pagenumber") final Integer pageNumber) {
+      @PathVariable("pagenumber") final Integer pageNumber,
+      final HttpServletRequest request,
+      final HttpServletResponse response) throws IOException {
     final DocumentPageEntity documentPageEntity = documentService.findPage(customerIdentifier, documentIdentifier, pageNumber)
         .orElseThrow(() -> ServiceException.notFound("Page ''{0}'' of document ''{1}'' for customer ''{2}'' not found.",
             pageNumber, documentIdentifier, customerIdentifier));
 
-    return ResponseEntity
-        .ok()
-        .contentType(MediaType.parseMediaType(documentPageEntity.getContentType()))
-        .contentLength(documentPageEntity.getImage().length)
-        .body(documentPageEntity.getImage());
+    BlobResponseWriter.write(blobService, documentPageEntity.getBlobKey(), documentPageEntity.getContentHash(),
+        documentPageEntity.getContentType(), documentPageEntity.getSize(), documentPageEntity.getCreatedOn(),
+        request, response);
   }
 
 
@@ -248,18 +265,34 @@ public class DocumentsRestController {
       @PathVariable("customeridentifier") final String customerIdentifier,
       @PathVariable("documentidentifier") final String documentIdentifier,
       @PathVariable("pagenumber") @Range(min=0) final Integer pageNumber,
-      @RequestBody final MultipartFile page) {
+      @RequestBody final MultipartFile page,
+      @RequestHeader(value = CommandAwaiter.PREFER, required = false) final String prefer,
+      @RequestParam(value = "await", required = false) final Boolean await) throws IOException {
     if(page == null) {
       throw ServiceException.badRequest("Document not found");
     }
 
     throwIfCustomerNotExists(customerIdentifier);
     throwIfDocumentCompleted(customerIdentifier, documentIdentifier);
-    throwIfInvalidContentType(page.getContentType());
 
-    commandGateway.process(new CreateDocumentPageCommand(customerIdentifier, documentIdentifier, pageNumber, page));
+    final SpooledUpload spooledPage = blobService.spool(page, uploadProperties.getImage().getMaxSize());
+    try {
+      throwIfInvalidContentType(spooledPage.getContentType());
+    } catch (final ServiceException ex) {
+      blobService.discard(spooledPage);
+      throw ex;
+    }
 
-    return ResponseEntity.accepted().build();
+    try {
+      return commandAwaiter.process(
+          new CreateDocumentPageCommand(customerIdentifier, documentIdentifier, pageNumber, spooledPage),
+          commandAwaiter.isRequested(prefer, await),
+          ResponseEntity::ok,
+          () -> null);
+    } catch (final RuntimeException ex) {
+      blobService.discard(spooledPage);
+      throw ex;
+    }
   }
 
   @Permittable(value = AcceptedTokenType.TENANT, groupId = PermittableGroupIds.DOCUMENTS)
@@ -0,0 +1,70 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.rest.controller;
+
+import org.apache.fineract.cn.anubis.annotation.AcceptedTokenType;
+import org.apache.fineract.cn.anubis.annotation.Permittable;
+import org.apache.fineract.cn.customer.internal.service.CustomerCache;
+import org.apache.fineract.cn.customer.internal.service.MetricRegistry;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestMethod;
+import org.springframework.web.bind.annotation.ResponseBody;
+import org.springframework.web.bind.annotation.RestController;
+
+@RestController
+@RequestMapping("/")
+public class MetricsRestController {
+
+  private final MetricRegistry metricRegistry;
+  private final CustomerCache customerCache;
+
+  @Autowired
+  public MetricsRestController(final MetricRegistry metricRegistry,
+                               final CustomerCache customerCache) {
+    super();
+    this.metricRegistry = metricRegistry;
+    this.customerCache = customerCache;
+  }
+
+  @Permittable(value = AcceptedTokenType.SYSTEM)
+  @RequestMapping(
+      value = "/metrics",
+      method = RequestMethod.GET,
+      produces = MediaType.ALL_VALUE,
+      consumes = MediaType.ALL_VALUE
+  )
+  public
+  @ResponseBody
+  ResponseEntity<String> fetchMetrics() {
+    final String body = new PrometheusTextWriter()
+        .timers(this.metricRegistry.timers())
+        .counters(this.metricRegistry.counters())
+        .gauges(this.metricRegistry.gauges())
+        .cache("customer_cache", this.customerCache.stats(), this.customerCache.estimatedSize())
+        .toString();
+    return ResponseEntity
+        .ok()
+        .header(HttpHeaders.CONTENT_TYPE, PrometheusTextWriter.CONTENT_TYPE)
+        .body(body);
+  }
+}
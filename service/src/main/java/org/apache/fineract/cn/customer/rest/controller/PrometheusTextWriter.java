@@ -0,0 +1,144 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+package org.apache.fineract.cn.customer.rest.controller;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import org.apache.fineract.cn.customer.internal.service.MetricRegistry;
+
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Renders the contents of a {@link MetricRegistry} in the Prometheus text exposition format, version 0.0.4.
+ */
+final class PrometheusTextWriter {
+
+  static final String CONTENT_TYPE = "text/plain; version=0.0.4; charset=utf-8";
+
+  private static final double NANOS_PER_SECOND = TimeUnit.SECONDS.toNanos(1L);
+
+  private final StringBuilder text;
+
+  PrometheusTextWriter() {
+    super();
+    this.text = new StringBuilder();
+  }
+
+  PrometheusTextWriter timers(final Collection<MetricRegistry.Timer> timers) {
+    final double[] bounds = MetricRegistry.bucketBounds();
+    PrometheusTextWriter.groupByName(timers, MetricRegistry.Timer::getName).forEach((name, group) -> {
+      final String metric = name + "_seconds";
+      this.type(metric, "histogram");
+      group.forEach(timer -> {
+        final long[] buckets = timer.getCumulativeBucketCounts();
+        for (int i = 0; i < bounds.length; i++) {
+          this.sample(metric + "_bucket", timer.getTags(), "le", Double.toString(bounds[i]), buckets[i]);
+        }
+        this.sample(metric + "_bucket", timer.getTags(), "le", "+Inf", timer.getCount());
+        this.sample(metric + "_sum", timer.getTags(), null, null, timer.getTotalNanos() / NANOS_PER_SECOND);
+        this.sample(metric + "_count", timer.getTags(), null, null, timer.getCount());
+      });
+    });
+    return this;
+  }
+
+  PrometheusTextWriter counters(final Collection<MetricRegistry.Counter> counters) {
+    PrometheusTextWriter.groupByName(counters, MetricRegistry.Counter::getName).forEach((name, group) -> {
+      final String metric = name + "_total";
+      this.type(metric, "counter");
+      group.forEach(counter -> this.sample(metric, counter.getTags(), null, null, counter.getCount()));
+    });
+    return this;
+  }
+
+  PrometheusTextWriter gauges(final Collection<MetricRegistry.Gauge> gauges) {
+    PrometheusTextWriter.groupByName(gauges, MetricRegistry.Gauge::getName).forEach((name, group) -> {
+      this.type(name, "gauge");
+      group.forEach(gauge -> this.sample(name, gauge.getTags(), null, null, gauge.getValue()));
+    });
+    return this;
+  }
+
+  PrometheusTextWriter cache(final String name, final CacheStats cacheStats, final long size) {
+    final Map<String, String> noTags = new LinkedHashMap<>();
+    this.type(name + "_size", "gauge");
+    this.sample(name + "_size", noTags, null, null, size);
+    this.type(name + "_requests_total", "counter");
+    this.sample(name + "_requests_total", noTags, "result", "hit", cacheStats.hitCount());
+    this.sample(name + "_requests_total", noTags, "result", "miss", cacheStats.missCount());
+    this.type(name + "_evictions_total", "counter");
+    this.sample(name + "_evictions_total", noTags, null, null, cacheStats.evictionCount());
+    this.type(name + "_load_seconds", "summary");
+    this.sample(name + "_load_seconds_sum", noTags, null, null, cacheStats.totalLoadTime() / NANOS_PER_SECOND);
+    this.sample(name + "_load_seconds_count", noTags, null, null, cacheStats.loadCount());
+    return this;
+  }
+
+  @Override
+  public String toString() {
+    return this.text.toString();
+  }
+
+  private void type(final String metric, final String type) {
+    this.text.append("# TYPE ").append(metric).append(' ').append(type).append('\n');
+  }
+
+  private void sample(final String metric, final Map<String, String> tags, final String extraTag,
+                      final String extraValue, final double value) {
+    this.text.append(metric);
+    if (!tags.isEmpty() || extraTag != null) {
+      this.text.append('{');
+      final String[] separator = {""};
+      tags.forEach((tag, tagValue) -> {
+        this.label(separator[0], tag, tagValue);
+        separator[0] = ",";
+      });
+      if (extraTag != null) {
+        this.label(separator[0], extraTag, extraValue);
+      }
+      this.text.append('}');
+    }
+    this.text.append(' ');
+    if (value == Math.rint(value) && !Double.isInfinite(value)) {
+      this.text.append((long) value);
+    } else {
+      this.text.append(value);
+    }
+    this.text.append('\n');
+  }
+
+  private void label(final String separator, final String tag, final String value) {
+    this.text.append(separator).append(tag).append("=\"")
+        .append(value.replace("\\", "\\\\").replace("\"", "\\\"").replace("\n", "\\n"))
+        .append('"');
+  }
+
+  private static <T> Map<String, List<T>> groupByName(final Collection<T> metrics, final Function<T, String> name) {
+    return metrics
+        .stream()
+        .sorted(Comparator.comparing(name))
+        .collect(Collectors.groupingBy(name, LinkedHashMap::new, Collectors.toList()));
+  }
+}
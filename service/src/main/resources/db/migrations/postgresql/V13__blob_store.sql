@@ -0,0 +1,33 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+ALTER TABLE maat_portraits ADD COLUMN blob_key VARCHAR(128) NULL;
+ALTER TABLE maat_portraits ADD COLUMN content_hash VARCHAR(64) NULL;
+ALTER TABLE maat_portraits ALTER COLUMN image DROP NOT NULL;
+CREATE INDEX maat_portraits_blob_key_idx ON maat_portraits (blob_key);
+
+ALTER TABLE maat_identification_card_scans ADD COLUMN blob_key VARCHAR(128) NULL;
+ALTER TABLE maat_identification_card_scans ADD COLUMN content_hash VARCHAR(64) NULL;
+ALTER TABLE maat_identification_card_scans ALTER COLUMN image DROP NOT NULL;
+CREATE INDEX maat_identification_card_scans_blob_key_idx ON maat_identification_card_scans (blob_key);
+
+ALTER TABLE maat_document_pages ADD COLUMN blob_key VARCHAR(128) NULL;
+ALTER TABLE maat_document_pages ADD COLUMN content_hash VARCHAR(64) NULL;
+ALTER TABLE maat_document_pages ALTER COLUMN image DROP NOT NULL;
+CREATE INDEX maat_document_pages_blob_key_idx ON maat_document_pages (blob_key);
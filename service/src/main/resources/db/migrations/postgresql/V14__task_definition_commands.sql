@@ -0,0 +1,31 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+CREATE TABLE maat_task_definition_commands ( task_definition_id BIGINT NOT NULL, a_command VARCHAR(32) NOT NULL,
+                                             CONSTRAINT maat_task_def_commands_pk PRIMARY KEY (task_definition_id, a_command),
+                                             CONSTRAINT maat_task_def_commands_def_fk FOREIGN KEY (task_definition_id) REFERENCES maat_task_definitions (id) ON DELETE CASCADE );
+
+CREATE INDEX maat_task_def_commands_command_idx ON maat_task_definition_commands (a_command, task_definition_id);
+
+INSERT INTO maat_task_definition_commands (task_definition_id, a_command)
+  SELECT DISTINCT td.id, TRIM(c.a_command)
+  FROM maat_task_definitions td, regexp_split_to_table(td.assigned_commands, ';') AS c(a_command)
+  WHERE TRIM(c.a_command) <> '';
+
+CREATE INDEX maat_task_instances_open_idx ON maat_task_instances (customer_id, task_definition_id) WHERE executed_by IS NULL;
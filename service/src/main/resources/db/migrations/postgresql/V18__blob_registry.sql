@@ -0,0 +1,30 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- one row per stored blob; storing and releasing a blob lock its row, so a blob is never deleted
+-- while another transaction is about to reference it
+CREATE TABLE maat_blobs ( blob_key VARCHAR(128) NOT NULL, created_on TIMESTAMP(3) NOT NULL,
+                          CONSTRAINT maat_blobs_pk PRIMARY KEY (blob_key) );
+
+INSERT INTO maat_blobs (blob_key, created_on)
+  SELECT blob_key, now() FROM maat_portraits WHERE blob_key IS NOT NULL
+  UNION
+  SELECT blob_key, now() FROM maat_identification_card_scans WHERE blob_key IS NOT NULL
+  UNION
+  SELECT blob_key, now() FROM maat_document_pages WHERE blob_key IS NOT NULL;
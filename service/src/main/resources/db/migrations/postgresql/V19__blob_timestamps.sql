@@ -0,0 +1,29 @@
+--
+-- Licensed to the Apache Software Foundation (ASF) under one
+-- or more contributor license agreements.  See the NOTICE file
+-- distributed with this work for additional information
+-- regarding copyright ownership.  The ASF licenses this file
+-- to you under the Apache License, Version 2.0 (the
+-- "License"); you may not use this file except in compliance
+-- with the License.  You may obtain a copy of the License at
+--
+--   http://www.apache.org/licenses/LICENSE-2.0
+--
+-- Unless required by applicable law or agreed to in writing,
+-- software distributed under the License is distributed on an
+-- "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+-- KIND, either express or implied.  See the License for the
+-- specific language governing permissions and limitations
+-- under the License.
+--
+
+-- portraits and document pages are replaced rather than updated, so their creation is their last modification
+ALTER TABLE maat_portraits ADD COLUMN created_on TIMESTAMP(3) NULL;
+UPDATE maat_portraits p SET created_on = COALESCE(c.last_modified_on, c.created_on, now())
+  FROM maat_customers c WHERE c.id = p.customer_id;
+ALTER TABLE maat_portraits ALTER COLUMN created_on SET NOT NULL;
+
+ALTER TABLE maat_document_pages ADD COLUMN created_on TIMESTAMP(3) NULL;
+UPDATE maat_document_pages p SET created_on = d.created_on
+  FROM maat_documents d WHERE d.id = p.document_id;
+ALTER TABLE maat_document_pages ALTER COLUMN created_on SET NOT NULL;